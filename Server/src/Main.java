@@ -3,7 +3,17 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.Server;
 public class Main {
     public static void main(String[] args) {
         Server server = Server.getInstance();
-        server.start();
+        Thread mainThread = Thread.currentThread();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try {
+                mainThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
 
+        server.start();
     }
 }
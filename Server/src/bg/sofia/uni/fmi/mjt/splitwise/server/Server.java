@@ -1,37 +1,45 @@
 package bg.sofia.uni.fmi.mjt.splitwise.server;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.splitwise.server.config.ServerConfig;
 import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtManager;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.execution.CommandDispatcher;
+import bg.sofia.uni.fmi.mjt.splitwise.server.execution.PartitionedDispatcher;
+import bg.sofia.uni.fmi.mjt.splitwise.server.execution.RingBufferDispatcher;
+import bg.sofia.uni.fmi.mjt.splitwise.server.execution.WorkerPoolDispatcher;
 import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendsManager;
 import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
 import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.network.ReactorPool;
+import bg.sofia.uni.fmi.mjt.splitwise.server.notifications.NotificationJournal;
+import bg.sofia.uni.fmi.mjt.splitwise.server.passwords.encryption.PasswordHasher;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.StateSnapshot;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class Server {
     private static final String SERVER_HOST = "localhost";
     public static final int SERVER_PORT = 3333;
-    private static final int BUFFER_SIZE = 1024;
     private static final int ZERO = 0;
     private static final String SERVER_CONNECTION_ERROR = "An error occurred while connecting with the server";
-    private static final String ERROR_MESSAGE =
-        "The server is shutdown. Try again later or contact administrator by providing the logs in logs_file.txt";
-    private static final String WELCOME_MESSAGE = """
-        Welcome!
-        If you already have an account use the following command:
-         - login <username> <password>
-        If you don't have an account yet use the following command:
-         - register <username> <password> <first name> <last name>""";
+    private static final String READY_MESSAGE = "Server is ready in %d ms (%s)";
+    private static final String RESTORED_FROM_SNAPSHOT = "restored from snapshot";
+    private static final String LOADED_FROM_FILES = "loaded from files";
+    private static final String SNAPSHOT_THREAD_NAME = "state-snapshot";
+    private static final Path SNAPSHOT_PATH = Path.of("state.snapshot");
     private final UserRepository userRepository = UserRepository.getInstance();
     private final GroupManager groupManager = GroupManager.getInstance();
     private final DebtManager debtManager = DebtManager.getInstance();
@@ -39,9 +47,13 @@ public class Server {
     private final CommandExecutor commandExecutor =
         CommandExecutor.configure(userRepository, groupManager, debtManager, friendsManager);
     private final LogsManager logsManager = LogsManager.getInstance();
-    private ByteBuffer buffer;
+    private final StateSnapshot stateSnapshot =
+        new StateSnapshot(SNAPSHOT_PATH, userRepository, friendsManager, groupManager, debtManager);
+    private ScheduledExecutorService snapshotScheduler;
+    private CommandDispatcher commandDispatcher;
+    private ReactorPool reactorPool;
     private Selector selector;
-    private boolean isServerWorking;
+    private volatile boolean isServerWorking;
     private static Server instance;
 
     private Server() {
@@ -55,8 +67,10 @@ public class Server {
     }
 
     public void start() {
+        long startTime = System.nanoTime();
+        boolean isRestored;
         try {
-            initialize();
+            isRestored = initialize();
         } catch (ServerErrorException e) {
             System.out.println(e.getMessage());
             logsManager.addLogToFile(e, null);
@@ -65,10 +79,15 @@ public class Server {
 
         try (ServerSocketChannel channel = ServerSocketChannel.open()) {
             configureChannel(channel);
+            reactorPool.start();
+            scheduleSnapshots();
             isServerWorking = true;
+            System.out.printf(READY_MESSAGE + "%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                isRestored ? RESTORED_FROM_SNAPSHOT : LOADED_FROM_FILES);
+            System.out.println(debtManager.getLoadStatistics());
             while (isServerWorking) {
                 try {
-                    communicateWithClient();
+                    acceptClients();
                 } catch (IOException e) {
                     System.out.println();
                     logsManager.addLogToFile(e, null);
@@ -78,14 +97,75 @@ public class Server {
         } catch (IOException e) {
             System.out.println(SERVER_CONNECTION_ERROR);
             logsManager.addLogToFile(e, null);
+        } finally {
+            if (reactorPool != null) {
+                reactorPool.stop();
+            }
+            if (commandDispatcher != null) {
+                commandDispatcher.shutdown();
+            }
+            PasswordHasher passwordHasher = PasswordHasher.getInstance();
+            System.out.println(passwordHasher.getQueueWaitStatistics());
+            passwordHasher.shutdown();
+            stopSnapshots();
+            shutdownDebtManager();
+            closeStorage();
+        }
+    }
+
+    private void shutdownDebtManager() {
+        try {
+            debtManager.shutdown();
+        } catch (ServerErrorException e) {
+            logsManager.addLogToFile(e, null);
+        }
+    }
+
+    private void closeStorage() {
+        try {
+            NotificationJournal.getInstance().flush();
+            StorageProvider.getInstance().close();
+        } catch (ServerErrorException e) {
+            logsManager.addLogToFile(e, null);
         }
     }
 
-    private void initialize() throws ServerErrorException {
-        userRepository.initialize();
-        friendsManager.initialize();
-        groupManager.initialize();
-        debtManager.initialize();
+    private boolean initialize() throws ServerErrorException {
+        boolean isRestored = stateSnapshot.restore();
+        if (!isRestored) {
+            userRepository.initialize();
+            friendsManager.initialize();
+            groupManager.initialize();
+            debtManager.initialize();
+        }
+
+        NotificationJournal.getInstance().restore();
+        return isRestored;
+    }
+
+    private void scheduleSnapshots() {
+        long interval = ServerConfig.getSnapshotInterval().toMillis();
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, SNAPSHOT_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(this::saveSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopSnapshots() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        saveSnapshot();
+    }
+
+    private void saveSnapshot() {
+        try {
+            commandExecutor.saveSnapshot(stateSnapshot);
+        } catch (ServerErrorException e) {
+            logsManager.addLogToFile(e, null);
+        }
     }
 
     private void configureChannel(ServerSocketChannel channel) throws IOException {
@@ -95,10 +175,21 @@ public class Server {
         selector = Selector.open();
         channel.register(selector, SelectionKey.OP_ACCEPT);
 
-        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        commandDispatcher = createCommandDispatcher();
+        reactorPool = new ReactorPool(ServerConfig.getReactorThreads(), commandDispatcher, logsManager);
     }
 
-    private void communicateWithClient() throws IOException {
+    private CommandDispatcher createCommandDispatcher() {
+        return switch (ServerConfig.getDispatcherType()) {
+            case PARTITIONED -> new PartitionedDispatcher(ServerConfig.getShardThreads(),
+                ServerConfig.getWorkerQueueCapacity(), commandExecutor, logsManager);
+            case RING -> new RingBufferDispatcher(ServerConfig.getRingCapacity(), commandExecutor, logsManager);
+            case POOL -> new WorkerPoolDispatcher(ServerConfig.getWorkerThreads(),
+                ServerConfig.getWorkerQueueCapacity(), commandExecutor, logsManager);
+        };
+    }
+
+    private void acceptClients() throws IOException {
         int readyChannels = selector.select();
         if (readyChannels == ZERO) {
             return;
@@ -107,72 +198,28 @@ public class Server {
         Iterator<SelectionKey> keyIterator = selector.selectedKeys().iterator();
         while (keyIterator.hasNext()) {
             SelectionKey key = keyIterator.next();
+            keyIterator.remove();
 
-            if (key.isReadable()) {
-                readKey(key);
-            } else if (key.isAcceptable()) {
+            if (key.isAcceptable()) {
                 accept(key);
             }
-
-            keyIterator.remove();
-        }
-    }
-
-    private void readKey(SelectionKey key) throws IOException {
-        SocketChannel socketChannel = (SocketChannel) key.channel();
-        String clientInput = getClientInput(socketChannel);
-
-        if (clientInput == null) {
-            return;
-        }
-
-        try {
-            String output = commandExecutor.execute(clientInput, key);
-            writeClientOutput(socketChannel, output);
-        } catch (ServerErrorException e) {
-            System.out.println(SERVER_CONNECTION_ERROR);
-            writeClientOutput(socketChannel, ERROR_MESSAGE);
-            logsManager.addLogToFile(e, (String) key.attachment());
         }
     }
 
-    private String getClientInput(SocketChannel socketChannel) throws IOException {
-        buffer.clear();
-
-        int r = socketChannel.read(buffer);
-        if (r < ZERO) {
-            socketChannel.close();
-            return null;
-        }
-        buffer.flip();
-
-        byte[] clientInputBytes = new byte[buffer.remaining()];
-        buffer.get(clientInputBytes);
-
-        return new String(clientInputBytes, StandardCharsets.UTF_8);
-    }
-
     public void stop() {
         this.isServerWorking = false;
-        if (selector.isOpen()) {
+        if (selector != null && selector.isOpen()) {
             selector.wakeup();
         }
     }
 
-    private void writeClientOutput(SocketChannel socketChannel, String output) throws IOException {
-        buffer.clear();
-        buffer.put(output.getBytes());
-        buffer.flip();
-
-        socketChannel.write(buffer);
-    }
-
     private void accept(SelectionKey key) throws IOException {
         ServerSocketChannel sockChannel = (ServerSocketChannel) key.channel();
         SocketChannel accept = sockChannel.accept();
-        accept.configureBlocking(false);
-        accept.register(selector, SelectionKey.OP_READ);
+        if (accept == null) {
+            return;
+        }
 
-        writeClientOutput(accept, WELCOME_MESSAGE);
+        reactorPool.assign(accept);
     }
 }
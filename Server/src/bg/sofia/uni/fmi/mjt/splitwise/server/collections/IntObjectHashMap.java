@@ -0,0 +1,189 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.collections;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+public class IntObjectHashMap<V> {
+    private static final int EMPTY = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_LOAD_PERCENT = 70;
+    private static final int PERCENT = 100;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    public IntObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        checkKey(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        int slot = slotOf(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        V previous = (V) values[slot];
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slotOf(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        keys[gap] = EMPTY;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    public V computeIfAbsent(int key, IntFunction<V> mappingFunction) {
+        if (mappingFunction == null) {
+            throw new IllegalArgumentException("Mapping function cannot be null");
+        }
+
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<V> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private int indexOf(int key) {
+        checkKey(key);
+
+        int slot = slotOf(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    private int slotOf(int key) {
+        int hash = key * GOLDEN_RATIO;
+        return (hash ^ (hash >>> Short.SIZE)) & mask;
+    }
+
+    private void checkKey(int key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Key cannot be negative");
+        }
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) ((long) capacity * MAX_LOAD_PERCENT / PERCENT);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long minimum = Math.max(DEFAULT_CAPACITY, (long) expectedSize * PERCENT / MAX_LOAD_PERCENT + 1);
+        return Integer.highestOneBit((int) Math.min(minimum - 1, 1 << 30)) << 1;
+    }
+}
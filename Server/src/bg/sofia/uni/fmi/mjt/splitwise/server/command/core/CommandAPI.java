@@ -2,6 +2,21 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.command.core;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 public interface CommandAPI {
     String execute() throws ServerErrorException;
+
+    default CompletableFuture<Void> prepare() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    default boolean isExclusive() {
+        return true;
+    }
+
+    default Set<String> getParticipants() {
+        return Set.of();
+    }
 }
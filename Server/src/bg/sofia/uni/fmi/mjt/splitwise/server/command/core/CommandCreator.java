@@ -1,22 +1,32 @@
 package bg.sofia.uni.fmi.mjt.splitwise.server.command.core;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.AddFriendCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.BalanceCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.CreateGroupCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.GetStatusCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.ListFriendsCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.errors.InvalidCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.LoginCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.errors.MissingPermissionCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.NotificationsCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.PayCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.RegisterCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.ResumeCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.SeeTransactionsCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.SplitCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.SplitGroupCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.SuggestFriendsCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.TransactionHistory;
+import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendSuggester;
+import bg.sofia.uni.fmi.mjt.splitwise.server.notifications.NotificationCenter;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
 
 import java.nio.channels.SelectionKey;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -29,6 +39,7 @@ import static bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils.ZERO_INDEX;
 public class CommandCreator {
     private static final String REGISTER = "register";
     private static final String LOGIN = "login";
+    private static final String RESUME = "resume";
     private static final String ADD_FRIEND = "add-friend";
     private static final String CREATE_GROUP = "create-group";
     private static final String SPLIT = "split";
@@ -36,6 +47,18 @@ public class CommandCreator {
     private static final String GET_STATUS = "get-status";
     private static final String PAID = "paid";
     private static final String SEE_TRANSACTIONS = "see-transactions";
+    private static final String BALANCE = "balance";
+    private static final String LIST_FRIENDS = "list-friends";
+    private static final String SUGGEST_FRIENDS = "suggest-friends";
+    private static final String NOTIFICATIONS = "notifications";
+    private static final String LIMIT_OPTION = "--limit";
+    private static final String AFTER_OPTION = "--after";
+    private static final String BEFORE_OPTION = "--before";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int DEFAULT_SUGGESTIONS = 5;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int INVALID_LIMIT = -1;
+    private static final long INVALID_CURSOR = -1;
     private static final String INVALID_ARGS_COUNT_MESSAGE_FORMAT =
         "Invalid count of arguments: \"%s\" expects %s arguments. Example: \"%s\"";
 
@@ -72,6 +95,7 @@ public class CommandCreator {
         return switch (tokens.get(ZERO_INDEX)) {
             case REGISTER -> register(args, key);
             case LOGIN -> login(args, key);
+            case RESUME -> resume(args, key);
             case ADD_FRIEND -> addFriend(args, (String) key.attachment());
             case CREATE_GROUP -> createGroup(args, (String) key.attachment());
             case SPLIT -> split(args, (String) key.attachment());
@@ -79,6 +103,10 @@ public class CommandCreator {
             case GET_STATUS -> getStatus(args, (String) key.attachment());
             case PAID -> paid(args, (String) key.attachment());
             case SEE_TRANSACTIONS -> seeTransactions(args, (String) key.attachment());
+            case BALANCE -> balance(args, (String) key.attachment());
+            case LIST_FRIENDS -> listFriends(args, (String) key.attachment());
+            case SUGGEST_FRIENDS -> suggestFriends(args, (String) key.attachment());
+            case NOTIFICATIONS -> notifications(args, (String) key.attachment());
             default -> new InvalidCommand("Unknown command");
         };
     }
@@ -109,6 +137,19 @@ public class CommandCreator {
         return new LoginCommand(args[ZERO_INDEX], args[ONE_INDEX], key);
     }
 
+    private static Command resume(String[] args, SelectionKey key) {
+        if (key.attachment() != null) {
+            return new InvalidCommand("You are already logged in!");
+        }
+
+        if (args.length != ONE_INDEX) {
+            return new InvalidCommand(
+                String.format(INVALID_ARGS_COUNT_MESSAGE_FORMAT, RESUME, ONE_INDEX, RESUME + " <session_token>"));
+        }
+
+        return new ResumeCommand(args[ZERO_INDEX], key);
+    }
+
     private static Command addFriend(String[] args, String username) {
         if (username == null) {
             return new MissingPermissionCommand("You must register or log in first!");
@@ -207,10 +248,120 @@ public class CommandCreator {
             return new MissingPermissionCommand("You must register or log in first!");
         }
 
-        if (args.length != ZERO_INDEX) {
-            return new InvalidCommand("see-transactions command shouldn't have any arguments");
+        Map<String, String> options = getOptions(args, Set.of(LIMIT_OPTION, BEFORE_OPTION));
+        int limit = options == null ? INVALID_LIMIT :
+            parseLimit(options.get(LIMIT_OPTION), TransactionHistory.DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        long before = options == null ? INVALID_CURSOR :
+            parseCursor(options.get(BEFORE_OPTION), TransactionHistory.LATEST);
+        if (limit == INVALID_LIMIT || before == INVALID_CURSOR) {
+            return new InvalidCommand(String.format("Invalid arguments. Example: \"%s [%s <1-%d>] [%s <cursor>]\"",
+                SEE_TRANSACTIONS, LIMIT_OPTION, MAX_PAGE_SIZE, BEFORE_OPTION));
+        }
+
+        return new SeeTransactionsCommand(username, before, limit);
+    }
+
+    private static Command balance(String[] args, String username) {
+        if (username == null) {
+            return new MissingPermissionCommand("You must register or log in first!");
+        }
+
+        if (args.length != ONE_INDEX) {
+            return new InvalidCommand(
+                String.format(INVALID_ARGS_COUNT_MESSAGE_FORMAT, BALANCE, ONE_INDEX, BALANCE + " <username>"));
+        }
+
+        return new BalanceCommand(username, args[ZERO_INDEX]);
+    }
+
+    private static Command listFriends(String[] args, String username) {
+        if (username == null) {
+            return new MissingPermissionCommand("You must register or log in first!");
+        }
+
+        Map<String, String> options = getOptions(args, Set.of(LIMIT_OPTION, AFTER_OPTION));
+        int limit = options == null ? INVALID_LIMIT :
+            parseLimit(options.get(LIMIT_OPTION), DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        if (limit == INVALID_LIMIT) {
+            return new InvalidCommand(String.format("Invalid arguments. Example: \"%s [%s <1-%d>] [%s <username>]\"",
+                LIST_FRIENDS, LIMIT_OPTION, MAX_PAGE_SIZE, AFTER_OPTION));
+        }
+
+        return new ListFriendsCommand(username, options.get(AFTER_OPTION), limit);
+    }
+
+    private static Command suggestFriends(String[] args, String username) {
+        if (username == null) {
+            return new MissingPermissionCommand("You must register or log in first!");
+        }
+
+        Map<String, String> options = getOptions(args, Set.of(LIMIT_OPTION));
+        int limit = options == null ? INVALID_LIMIT :
+            parseLimit(options.get(LIMIT_OPTION), DEFAULT_SUGGESTIONS, FriendSuggester.MAX_SUGGESTIONS);
+        if (limit == INVALID_LIMIT) {
+            return new InvalidCommand(String.format("Invalid arguments. Example: \"%s [%s <1-%d>]\"",
+                SUGGEST_FRIENDS, LIMIT_OPTION, FriendSuggester.MAX_SUGGESTIONS));
+        }
+
+        return new SuggestFriendsCommand(username, limit);
+    }
+
+    private static Command notifications(String[] args, String username) {
+        if (username == null) {
+            return new MissingPermissionCommand("You must register or log in first!");
         }
 
-        return new SeeTransactionsCommand(username);
+        Map<String, String> options = getOptions(args, Set.of(LIMIT_OPTION, AFTER_OPTION));
+        int limit = options == null ? INVALID_LIMIT :
+            parseLimit(options.get(LIMIT_OPTION), NotificationCenter.DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        long after = options == null ? INVALID_CURSOR :
+            parseCursor(options.get(AFTER_OPTION), NotificationCenter.FIRST_PAGE);
+        if (limit == INVALID_LIMIT || after == INVALID_CURSOR) {
+            return new InvalidCommand(String.format("Invalid arguments. Example: \"%s [%s <1-%d>] [%s <cursor>]\"",
+                NOTIFICATIONS, LIMIT_OPTION, MAX_PAGE_SIZE, AFTER_OPTION));
+        }
+
+        return new NotificationsCommand(username, after, limit);
+    }
+
+    private static Map<String, String> getOptions(String[] args, Set<String> allowedOptions) {
+        if (args.length % TWO_INDEX != ZERO_INDEX) {
+            return null;
+        }
+
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += TWO_INDEX) {
+            if (!allowedOptions.contains(args[i]) || options.put(args[i], args[i + ONE_INDEX]) != null) {
+                return null;
+            }
+        }
+
+        return options;
+    }
+
+    private static int parseLimit(String limit, int defaultLimit, int maxLimit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+
+        try {
+            int value = Integer.parseInt(limit);
+            return value > 0 && value <= maxLimit ? value : INVALID_LIMIT;
+        } catch (NumberFormatException e) {
+            return INVALID_LIMIT;
+        }
+    }
+
+    private static long parseCursor(String cursor, long defaultCursor) {
+        if (cursor == null) {
+            return defaultCursor;
+        }
+
+        try {
+            long value = Long.parseLong(cursor);
+            return value >= 0 ? value : INVALID_CURSOR;
+        } catch (NumberFormatException e) {
+            return INVALID_CURSOR;
+        }
     }
 }
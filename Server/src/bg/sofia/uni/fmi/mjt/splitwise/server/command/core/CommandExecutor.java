@@ -4,15 +4,23 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtManager;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendsManager;
 import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.notifications.NotificationJournal;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.StateSnapshot;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 
 import java.nio.channels.SelectionKey;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class CommandExecutor {
     private final UserRepository userRepository;
     private final GroupManager groupManager;
     private final DebtManager debtManager;
     private final FriendsManager friendsManager;
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
 
     public static CommandExecutor configure(UserRepository userRepository, GroupManager groupManager,
                                             DebtManager debtManager, FriendsManager friendsManager) {
@@ -28,7 +36,56 @@ public class CommandExecutor {
     }
 
     public String execute(String cmd, SelectionKey key) throws ServerErrorException {
-        return CommandCreator.create(cmd, key).configure(userRepository, groupManager, debtManager, friendsManager)
-            .execute();
+        return execute(create(cmd, key));
+    }
+
+    public Command create(String cmd, SelectionKey key) {
+        return CommandCreator.create(cmd, key).configure(userRepository, groupManager, debtManager, friendsManager);
+    }
+
+    public String execute(Command command) throws ServerErrorException {
+        if (command == null) {
+            throw new IllegalArgumentException("Command cannot be null");
+        }
+
+        Lock lock = command.isExclusive() ? stateLock.writeLock() : stateLock.readLock();
+        lock.lock();
+        try {
+            return command.execute();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Set<String> participantsOf(Command command) {
+        if (command == null) {
+            throw new IllegalArgumentException("Command cannot be null");
+        }
+
+        stateLock.readLock().lock();
+        try {
+            return command.getParticipants();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    public void flush() throws ServerErrorException {
+        debtManager.flush();
+        NotificationJournal.getInstance().flush();
+        StorageProvider.getInstance().flush();
+    }
+
+    public void saveSnapshot(StateSnapshot snapshot) throws ServerErrorException {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+
+        stateLock.writeLock().lock();
+        try {
+            snapshot.save();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
     }
 }
@@ -0,0 +1,45 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.AmountUtils;
+
+public class BalanceCommand extends Command {
+    private final String username;
+    private final String friendUsername;
+
+    public BalanceCommand(String username, String friendUsername) {
+        this.username = username;
+        this.friendUsername = friendUsername;
+    }
+
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
+    @Override
+    public String execute() {
+        if (username == null || friendUsername == null) {
+            throw new IllegalArgumentException("Username and friend username cannot be null");
+        }
+
+        if (friendUsername.equals(username)) {
+            return "You cannot check the balance with yourself";
+        }
+
+        if (!userRepository.containsUser(friendUsername)) {
+            return String.format("User %s doesn't exist", friendUsername);
+        }
+
+        long balance = debtManager.getBalance(username, friendUsername);
+
+        if (balance > 0) {
+            return String.format("%s owes you %.2f LV", friendUsername, AmountUtils.toDecimal(balance));
+        }
+        if (balance < 0) {
+            return String.format("You owe %s %.2f LV", friendUsername, AmountUtils.toDecimal(-balance));
+        }
+
+        return String.format("You and %s are even", friendUsername);
+    }
+}
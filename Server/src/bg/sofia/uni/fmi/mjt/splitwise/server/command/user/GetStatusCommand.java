@@ -5,6 +5,7 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 
+import java.util.List;
 import java.util.Set;
 
 public class GetStatusCommand extends Command {
@@ -14,6 +15,11 @@ public class GetStatusCommand extends Command {
         this.username = username;
     }
 
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
     @Override
     public String execute() {
         if (username == null) {
@@ -32,8 +38,8 @@ public class GetStatusCommand extends Command {
     private String getStatus() {
         StringBuilder builder = new StringBuilder();
 
-        Set<DebtRecord> moneyOwed = debtManager.getMoneyOwed(username);
-        Set<DebtRecord> owesMoney = debtManager.getOwesMoney(username);
+        List<DebtRecord> moneyOwed = debtManager.getMoneyOwed(username);
+        List<DebtRecord> owesMoney = debtManager.getOwesMoney(username);
 
         if ((moneyOwed != null && !moneyOwed.isEmpty()) || (owesMoney != null && !owesMoney.isEmpty())) {
             builder.append(" * Friends:\n");
@@ -54,8 +60,8 @@ public class GetStatusCommand extends Command {
         if (groups != null && !groups.isEmpty()) {
             for (String group : groups) {
 
-                Set<DebtRecord> groupMoneyOwed = debtManager.getGroupMoneyOwed(group, username);
-                Set<DebtRecord> groupOwesMoney = debtManager.getGroupOwesMoney(group, username);
+                List<DebtRecord> groupMoneyOwed = debtManager.getGroupMoneyOwed(group, username);
+                List<DebtRecord> groupOwesMoney = debtManager.getGroupOwesMoney(group, username);
 
                 if ((groupMoneyOwed != null && !groupMoneyOwed.isEmpty()) ||
                     (groupOwesMoney != null && !groupOwesMoney.isEmpty())) {
@@ -68,7 +74,7 @@ public class GetStatusCommand extends Command {
         }
     }
 
-    private String printDebts(Set<DebtRecord> debts, String action) {
+    private String printDebts(List<DebtRecord> debts, String action) {
         if (debts == null) {
             return "";
         }
@@ -0,0 +1,59 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+
+import java.util.List;
+
+public class ListFriendsCommand extends Command {
+    private static final String NEXT_PAGE_FORMAT = "More friends: list-friends --limit %d --after %s";
+    private final String username;
+    private final String after;
+    private final int limit;
+
+    public ListFriendsCommand(String username, String after, int limit) {
+        this.username = username;
+        this.after = after;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
+    @Override
+    public String execute() {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        List<String> friends = friendsManager.getFriends(username, after, limit + 1);
+        if (friends.isEmpty()) {
+            return after == null ? "Your friend list is empty" : "There are no more friends";
+        }
+
+        StringBuilder builder = new StringBuilder(" * Friends *\n");
+        for (String friend : friends.subList(0, Math.min(limit, friends.size()))) {
+            User user = UserRepository.toUser(friend);
+            builder.append(" - ").append(user.getFirstName()).append(' ').append(user.getFamilyName())
+                .append(" (").append(friend).append(')');
+
+            if (friendsManager.isMutualFriend(username, friend)) {
+                builder.append(" [mutual]");
+            }
+            builder.append('\n');
+        }
+
+        if (friends.size() > limit) {
+            builder.append(String.format(NEXT_PAGE_FORMAT, limit, friends.get(limit - 1))).append('\n');
+        }
+
+        return builder.toString();
+    }
+}
@@ -4,15 +4,19 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.IncorrectPasswordException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserNotFoundException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionRegistry;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 
 import java.nio.channels.SelectionKey;
+import java.util.concurrent.CompletableFuture;
 
 public class LoginCommand extends Command {
     private final String username;
     private final String password;
     private final SelectionKey key;
+    private String hashedPassword;
 
     public LoginCommand(String username, String password, SelectionKey key) {
         this.username = username;
@@ -20,6 +24,21 @@ public class LoginCommand extends Command {
         this.key = key;
     }
 
+    @Override
+    public CompletableFuture<Void> prepare() {
+        if (username == null || password == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return userRepository.hashLoginPassword(username, password)
+            .thenAccept(hash -> hashedPassword = hash);
+    }
+
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
     @Override
     public String execute() throws ServerErrorException {
         if (username == null || password == null) {
@@ -28,14 +47,19 @@ public class LoginCommand extends Command {
 
         String notifications;
         try {
-            userRepository.loginUser(username, password);
+            if (hashedPassword == null) {
+                userRepository.loginUser(username, password);
+            } else {
+                userRepository.loginUserWithHash(username, hashedPassword);
+            }
+            SessionRegistry.getInstance().register(username, key);
             User user = UserRepository.toUser(username);
             notifications = user.getNotifications();
         } catch (UserNotFoundException | IncorrectPasswordException e) {
             return e.getMessage();
         }
 
-        key.attach(username);
-        return String.format("User %s successfully logged in!\n", username) + notifications;
+        String token = SessionManager.getInstance().createSession(username);
+        return String.format("User %s successfully logged in!\nSession token: %s\n", username, token) + notifications;
     }
 }
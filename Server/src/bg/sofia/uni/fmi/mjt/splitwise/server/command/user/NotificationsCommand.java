@@ -0,0 +1,37 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+
+public class NotificationsCommand extends Command {
+    private final String username;
+    private final long after;
+    private final int limit;
+
+    public NotificationsCommand(String username, long after, int limit) {
+        this.username = username;
+        this.after = after;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
+    @Override
+    public String execute() throws ServerErrorException {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+
+        User user = UserRepository.toUser(username);
+        if (user == null) {
+            return "User with such username doesn't exist";
+        }
+
+        return user.getNotifications(after, limit);
+    }
+}
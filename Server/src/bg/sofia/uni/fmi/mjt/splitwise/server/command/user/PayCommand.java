@@ -2,15 +2,15 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
 import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.TransactionHistory;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.InvalidAmountException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.NoDebtsToBePaidException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.NonPositiveAmountException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.AmountUtils;
-import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
 
-import java.nio.file.Path;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public class PayCommand extends Command {
@@ -24,6 +24,16 @@ public class PayCommand extends Command {
         this.amount = amount;
     }
 
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
+    @Override
+    public Set<String> getParticipants() {
+        return friend == null ? Set.of() : Set.of(friend);
+    }
+
     @Override
     public String execute() throws ServerErrorException {
         String check = checkField();
@@ -31,7 +41,7 @@ public class PayCommand extends Command {
             return check;
         }
 
-        double debtMoney;
+        long debtMoney;
         try {
             debtMoney = AmountUtils.checkAmount(amount);
         } catch (InvalidAmountException e) {
@@ -39,11 +49,11 @@ public class PayCommand extends Command {
         }
 
         try {
-            Set<DebtRecord> partlyPaidDebts = new HashSet<>();
-            Set<DebtRecord> paidDebts = debtManager.pay(username, debtMoney, friend, partlyPaidDebts);
-            Path fileName = Path.of(friend + "_transaction_history.txt");
-            if (!paidDebts.isEmpty()) {
-                FileUtils.writeToFile(fileName, System.lineSeparator(), paidDebts.toArray());
+            List<DebtRecord> partlyPaidDebts = new ArrayList<>();
+            List<DebtRecord> paidDebts = debtManager.pay(username, debtMoney, friend, partlyPaidDebts);
+            long timestamp = System.currentTimeMillis();
+            for (DebtRecord debt : paidDebts) {
+                TransactionHistory.append(friend, debt, timestamp);
             }
 
             return showPaidDebts(paidDebts, partlyPaidDebts);
@@ -66,20 +76,20 @@ public class PayCommand extends Command {
         return "";
     }
 
-    private String showPaidDebts(Set<DebtRecord> paidDebts, Set<DebtRecord> partlyPaidDebts) {
+    private String showPaidDebts(List<DebtRecord> paidDebts, List<DebtRecord> partlyPaidDebts) {
         StringBuilder builder = new StringBuilder();
         if (paidDebts != null && !paidDebts.isEmpty()) {
             builder.append(String.format(" * %s successfully paid for:\n", friend));
 
             for (DebtRecord debt : paidDebts) {
-                builder.append(" - ").append(debt.reason()).append(" ").append(debt.amount()).append('\n');
+                builder.append(" - ").append(debt.reason()).append(" ").append(AmountUtils.toText(debt.amount())).append('\n');
             }
         }
 
         if (partlyPaidDebts != null && !partlyPaidDebts.isEmpty()) {
-            DebtRecord debt = partlyPaidDebts.stream().findFirst().get();
+            DebtRecord debt = partlyPaidDebts.get(0);
             builder.append(
-                String.format(" * %s partly paid for %s and still owes %s", friend, debt.reason(), debt.amount()));
+                String.format(" * %s partly paid for %s and still owes %s", friend, debt.reason(), AmountUtils.toText(debt.amount())));
         }
 
         return builder.toString();
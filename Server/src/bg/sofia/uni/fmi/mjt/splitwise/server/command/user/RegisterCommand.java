@@ -3,8 +3,11 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.passwords.Password;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionRegistry;
 
 import java.nio.channels.SelectionKey;
+import java.util.concurrent.CompletableFuture;
 
 public class RegisterCommand extends Command {
     private final String username;
@@ -12,6 +15,7 @@ public class RegisterCommand extends Command {
     private final String firstName;
     private final String familyName;
     private final SelectionKey key;
+    private Password credentials;
 
     public RegisterCommand(String username, String password, String firstName, String familyName, SelectionKey key) {
         this.username = username;
@@ -21,6 +25,16 @@ public class RegisterCommand extends Command {
         this.key = key;
     }
 
+    @Override
+    public CompletableFuture<Void> prepare() {
+        if (username == null || password == null || userRepository.containsUser(username)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return userRepository.hashNewPassword(password)
+            .thenAccept(hashed -> credentials = hashed);
+    }
+
     @Override
     public String execute() throws ServerErrorException {
         if (username == null || password == null || firstName == null || familyName == null) {
@@ -28,12 +42,16 @@ public class RegisterCommand extends Command {
         }
 
         try {
-            userRepository.registerUser(username, password, firstName, familyName);
+            if (credentials == null) {
+                userRepository.registerUser(username, password, firstName, familyName);
+            } else {
+                userRepository.registerUser(username, credentials, firstName, familyName);
+            }
         } catch (UserAlreadyExistsException e) {
             return e.getMessage();
         }
 
-        key.attach(username);
+        SessionRegistry.getInstance().register(username, key);
         return String.format("User %s successfully registered!", username);
     }
 }
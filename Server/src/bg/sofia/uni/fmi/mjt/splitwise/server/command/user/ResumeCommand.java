@@ -0,0 +1,54 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.InvalidSessionTokenException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionRegistry;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+
+import java.nio.channels.SelectionKey;
+
+public class ResumeCommand extends Command {
+    private final String token;
+    private final SelectionKey key;
+    private final SessionManager sessionManager;
+
+    public ResumeCommand(String token, SelectionKey key) {
+        this(token, key, SessionManager.getInstance());
+    }
+
+    public ResumeCommand(String token, SelectionKey key, SessionManager sessionManager) {
+        this.token = token;
+        this.key = key;
+        this.sessionManager = sessionManager;
+    }
+
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
+    @Override
+    public String execute() throws ServerErrorException {
+        if (token == null) {
+            throw new IllegalArgumentException("Token cannot be null");
+        }
+
+        String username;
+        try {
+            username = sessionManager.resume(token);
+        } catch (InvalidSessionTokenException e) {
+            return e.getMessage();
+        }
+
+        User user = UserRepository.toUser(username);
+        if (user == null) {
+            return "User with such username doesn't exist";
+        }
+
+        SessionRegistry.getInstance().register(username, key);
+        return String.format("User %s successfully resumed the session!\n", username) + user.getNotifications();
+    }
+}
@@ -1,25 +1,36 @@
 package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
-import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.Transaction;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.TransactionHistory;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.TransactionPage;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
-import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
-import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
-import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 
 public class SeeTransactionsCommand extends Command {
+    private static final DateTimeFormatter DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+    private static final String NEXT_PAGE_FORMAT = "More transactions: see-transactions --limit %d --before %d\n";
     private final String username;
+    private final long before;
+    private final int limit;
 
     public SeeTransactionsCommand(String username) {
+        this(username, TransactionHistory.LATEST, TransactionHistory.DEFAULT_PAGE_SIZE);
+    }
+
+    public SeeTransactionsCommand(String username, long before, int limit) {
         this.username = username;
+        this.before = before;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean isExclusive() {
+        return false;
     }
 
     @Override
@@ -28,44 +39,24 @@ public class SeeTransactionsCommand extends Command {
             throw new IllegalArgumentException("Username cannot be null");
         }
 
-        Path transactionsPath = Path.of(username + "_transaction_history.txt");
-        if (!Files.exists(transactionsPath)) {
-            return "There are no transactions";
+        TransactionPage page = TransactionHistory.getPage(username, before, limit);
+        if (page.transactions().isEmpty()) {
+            return before == TransactionHistory.LATEST ? "There are no transactions" : "There are no more transactions";
         }
 
-        Set<DebtRecord> paidDebts = loadTransactionHistory(transactionsPath);
-
         StringBuilder builder = new StringBuilder(" * Transactions *\n");
-        for (DebtRecord debt : paidDebts) {
-            builder.append(debt.getSuccessfullyPaidDebt()).append('\n');
-        }
-
-        return builder.toString();
-    }
-
-    private Set<DebtRecord> loadTransactionHistory(Path fileName) throws ServerErrorException {
-        Set<DebtRecord> debts = new HashSet<>();
-
-        try (var bufferedReader = Files.newBufferedReader(fileName)) {
-            String line;
-
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] debt = line.split(FileUtils.SINGLE_SPACE);
-
-                User debtor = UserRepository.toUser(debt[FileUtils.ZERO_INDEX]);
-                User creditor = UserRepository.toUser(debt[FileUtils.ONE_INDEX]);
-                double amount = Double.parseDouble(debt[FileUtils.TWO_INDEX]);
-
-                String reason = Arrays.stream(debt)
-                    .skip(FileUtils.THREE_INDEX)
-                    .collect(Collectors.joining(FileUtils.SINGLE_SPACE));
-
-                debts.add(new DebtRecord(debtor, creditor, amount, reason));
+        for (Transaction transaction : page.transactions()) {
+            builder.append(transaction.debt().getSuccessfullyPaidDebt());
+            if (transaction.timestamp() > 0) {
+                builder.append(" on ").append(DATE_FORMATTER.format(Instant.ofEpochMilli(transaction.timestamp())));
             }
+            builder.append('\n');
+        }
 
-            return debts;
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + fileName, e);
+        if (page.hasMore()) {
+            builder.append(String.format(NEXT_PAGE_FORMAT, limit, page.cursor()));
         }
+
+        return builder.toString();
     }
 }
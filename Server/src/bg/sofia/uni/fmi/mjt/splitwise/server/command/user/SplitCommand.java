@@ -7,6 +7,8 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.AmountUtils;
 
+import java.util.Set;
+
 public class SplitCommand extends Command {
     private final String username;
     private final String friendUsername;
@@ -20,12 +22,22 @@ public class SplitCommand extends Command {
         this.reason = reason;
     }
 
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
+    @Override
+    public Set<String> getParticipants() {
+        return friendUsername == null ? Set.of() : Set.of(friendUsername);
+    }
+
     @Override
     public String execute() throws ServerErrorException {
         if (username == null || friendUsername == null || amount == null || reason == null) {
             throw new IllegalArgumentException("Usernames, amount and reason cannot be null");
         }
-        double debtMoney;
+        long debtMoney;
         try {
             debtMoney = AmountUtils.checkAmount(amount);
         } catch (InvalidAmountException e) {
@@ -46,7 +58,7 @@ public class SplitCommand extends Command {
 
         try {
             debtManager.splitBill(username, friendUsername, debtMoney, reason);
-            return String.format("Split %s between you and %s", debtMoney, friendUsername);
+            return String.format("Split %s between you and %s", AmountUtils.toText(debtMoney), friendUsername);
         } catch (NonPositiveAmountException e) {
             return e.getMessage();
         }
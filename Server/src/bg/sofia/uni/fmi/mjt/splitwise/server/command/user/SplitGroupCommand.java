@@ -5,9 +5,13 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.InvalidAmountException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.NonPositiveAmountException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.AmountUtils;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 public class SplitGroupCommand extends Command {
     private final String username;
     private final String groupName;
@@ -21,13 +25,33 @@ public class SplitGroupCommand extends Command {
         this.reason = reason;
     }
 
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
+    @Override
+    public Set<String> getParticipants() {
+        if (groupName == null || !groupManager.existsGroup(groupName)) {
+            return Set.of();
+        }
+
+        try {
+            return GroupManager.toGroup(groupName).members().stream()
+                .map(User::getUsername)
+                .collect(Collectors.toSet());
+        } catch (ServerErrorException e) {
+            return Set.of();
+        }
+    }
+
     @Override
     public String execute() throws ServerErrorException {
         if (username == null || groupName == null || amount == null || reason == null) {
             throw new IllegalArgumentException("Username, group name, amount and reason cannot be null");
         }
 
-        double debtMoney;
+        long debtMoney;
         try {
             debtMoney = AmountUtils.checkAmount(amount);
         } catch (InvalidAmountException e) {
@@ -0,0 +1,50 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendSuggestion;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+
+import java.util.List;
+
+public class SuggestFriendsCommand extends Command {
+    private final String username;
+    private final int limit;
+
+    public SuggestFriendsCommand(String username, int limit) {
+        this.username = username;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean isExclusive() {
+        return false;
+    }
+
+    @Override
+    public String execute() {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        List<FriendSuggestion> suggestions = friendsManager.suggestFriends(username, limit);
+        if (suggestions.isEmpty()) {
+            return "There are no friend suggestions";
+        }
+
+        StringBuilder builder = new StringBuilder(" * Suggested friends *\n");
+        for (FriendSuggestion suggestion : suggestions) {
+            User user = UserRepository.toUser(suggestion.username());
+            builder.append(" - ").append(user.getFirstName()).append(' ').append(user.getFamilyName())
+                .append(" (").append(suggestion.username()).append("): ")
+                .append(suggestion.mutualFriends()).append(" mutual friends, ")
+                .append(suggestion.sharedGroups()).append(" shared groups\n");
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.config;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.persistence.DurabilityMode;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageType;
+
+import java.time.Duration;
+
+public class ServerConfig {
+    public enum DispatcherType {
+        POOL, PARTITIONED, RING
+    }
+
+    private static final String REACTOR_THREADS = "splitwise.reactor.threads";
+    private static final String WORKER_THREADS = "splitwise.worker.threads";
+    private static final String DISPATCHER = "splitwise.dispatcher";
+    private static final String SHARD_THREADS = "splitwise.shard.threads";
+    private static final String RING_CAPACITY = "splitwise.ring.capacity";
+    private static final String WORKER_QUEUE_CAPACITY = "splitwise.worker.queue.capacity";
+    private static final String HASH_THREADS = "splitwise.hash.threads";
+    private static final String HASH_QUEUE_CAPACITY = "splitwise.hash.queue.capacity";
+    private static final String SESSION_TTL_MINUTES = "splitwise.session.ttl.minutes";
+    private static final String JOURNAL_SEGMENT_BYTES = "splitwise.journal.segment.bytes";
+    private static final String JOURNAL_FSYNC = "splitwise.journal.fsync";
+    private static final String STARTUP_PARALLEL = "splitwise.startup.parallel";
+    private static final String STARTUP_LOADER_THREADS = "splitwise.startup.loader.threads";
+    private static final String STORAGE = "splitwise.storage";
+    private static final String PERSISTENCE_DURABILITY = "splitwise.persistence.durability";
+    private static final String PERSISTENCE_COMMIT_MILLIS = "splitwise.persistence.commit.millis";
+    private static final String PERSISTENCE_OPEN_FILES = "splitwise.persistence.open.files";
+    private static final String MAILBOX_CAPACITY = "splitwise.mailbox.capacity";
+    private static final String MAILBOX_FLUSH_MILLIS = "splitwise.mailbox.flush.millis";
+    private static final String MAILBOX_COALESCE_MILLIS = "splitwise.mailbox.coalesce.millis";
+    private static final String SNAPSHOT_INTERVAL_MINUTES = "splitwise.snapshot.interval.minutes";
+    private static final int DEFAULT_SNAPSHOT_INTERVAL_MINUTES = 10;
+    private static final int DEFAULT_MAILBOX_CAPACITY = 1000;
+    private static final int DEFAULT_MAILBOX_FLUSH_MILLIS = 200;
+    private static final int DEFAULT_MAILBOX_COALESCE_MILLIS = 60 * 1000;
+    private static final int DEFAULT_PERSISTENCE_COMMIT_MILLIS = 5;
+    private static final int DEFAULT_PERSISTENCE_OPEN_FILES = 256;
+    private static final int DEFAULT_JOURNAL_SEGMENT_BYTES = 8 * 1024 * 1024;
+    private static final int DEFAULT_WORKER_QUEUE_CAPACITY = 1024;
+    private static final int DEFAULT_RING_CAPACITY = 4096;
+    private static final int DEFAULT_SESSION_TTL_MINUTES = 12 * 60;
+    private static final int DEFAULT_HASH_QUEUE_CAPACITY = 256;
+
+    public static int getReactorThreads() {
+        return getPositiveInteger(REACTOR_THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int getWorkerThreads() {
+        return getPositiveInteger(WORKER_THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static DispatcherType getDispatcherType() {
+        return DispatcherType.valueOf(System.getProperty(DISPATCHER, DispatcherType.POOL.name()).toUpperCase());
+    }
+
+    public static int getShardThreads() {
+        return getPositiveInteger(SHARD_THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int getRingCapacity() {
+        int capacity = getPositiveInteger(RING_CAPACITY, DEFAULT_RING_CAPACITY);
+
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(String.format("%s must be a power of two", RING_CAPACITY));
+        }
+
+        return capacity;
+    }
+
+    public static int getWorkerQueueCapacity() {
+        return getPositiveInteger(WORKER_QUEUE_CAPACITY, DEFAULT_WORKER_QUEUE_CAPACITY);
+    }
+
+    public static int getHashThreads() {
+        return getPositiveInteger(HASH_THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int getHashQueueCapacity() {
+        return getPositiveInteger(HASH_QUEUE_CAPACITY, DEFAULT_HASH_QUEUE_CAPACITY);
+    }
+
+    public static Duration getSessionTimeToLive() {
+        return Duration.ofMinutes(getPositiveInteger(SESSION_TTL_MINUTES, DEFAULT_SESSION_TTL_MINUTES));
+    }
+
+    public static long getJournalSegmentSize() {
+        return getPositiveInteger(JOURNAL_SEGMENT_BYTES, DEFAULT_JOURNAL_SEGMENT_BYTES);
+    }
+
+    public static boolean isJournalSyncEnabled() {
+        return Boolean.parseBoolean(System.getProperty(JOURNAL_FSYNC, Boolean.TRUE.toString()));
+    }
+
+    public static boolean isParallelStartupEnabled() {
+        return Boolean.parseBoolean(System.getProperty(STARTUP_PARALLEL, Boolean.TRUE.toString()));
+    }
+
+    public static int getStartupLoaderThreads() {
+        return getPositiveInteger(STARTUP_LOADER_THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Duration getSnapshotInterval() {
+        return Duration.ofMinutes(getPositiveInteger(SNAPSHOT_INTERVAL_MINUTES, DEFAULT_SNAPSHOT_INTERVAL_MINUTES));
+    }
+
+    public static StorageType getStorageType() {
+        return StorageType.valueOf(System.getProperty(STORAGE, StorageType.TEXT.name()).toUpperCase());
+    }
+
+    public static DurabilityMode getDurabilityMode() {
+        return DurabilityMode.valueOf(
+            System.getProperty(PERSISTENCE_DURABILITY, DurabilityMode.GROUP.name()).toUpperCase());
+    }
+
+    public static Duration getPersistenceCommitInterval() {
+        return Duration.ofMillis(getPositiveInteger(PERSISTENCE_COMMIT_MILLIS, DEFAULT_PERSISTENCE_COMMIT_MILLIS));
+    }
+
+    public static int getMaxOpenFiles() {
+        return getPositiveInteger(PERSISTENCE_OPEN_FILES, DEFAULT_PERSISTENCE_OPEN_FILES);
+    }
+
+    public static int getMailboxCapacity() {
+        return getPositiveInteger(MAILBOX_CAPACITY, DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    public static Duration getMailboxFlushInterval() {
+        return Duration.ofMillis(getPositiveInteger(MAILBOX_FLUSH_MILLIS, DEFAULT_MAILBOX_FLUSH_MILLIS));
+    }
+
+    public static Duration getMailboxCoalescingWindow() {
+        return Duration.ofMillis(getPositiveInteger(MAILBOX_COALESCE_MILLIS, DEFAULT_MAILBOX_COALESCE_MILLIS));
+    }
+
+    private static int getPositiveInteger(String property, int defaultValue) {
+        int value = Integer.getInteger(property, defaultValue);
+
+        if (value <= 0) {
+            throw new IllegalArgumentException(String.format("%s must be a positive number", property));
+        }
+
+        return value;
+    }
+}
@@ -1,37 +1,62 @@
 package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
 
+import bg.sofia.uni.fmi.mjt.splitwise.server.config.ServerConfig;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.journal.LedgerEvent;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.journal.LedgerJournal;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.NoDebtsToBePaidException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.NonPositiveAmountException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.groups.Group;
 import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotWriter;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.AmountUtils;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.IntArrayUtils;
+
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-
-import static java.lang.Math.abs;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class DebtManager {
-    private final Map<String, Set<DebtRecord>> moneyOwed = new HashMap<>();
-    private final Map<String, Set<DebtRecord>> owesMoney = new HashMap<>();
-    private final Map<String, Map<String, Set<DebtRecord>>> groupMoneyOwed = new HashMap<>();
-    private final Map<String, Map<String, Set<DebtRecord>>> groupOwesMoney = new HashMap<>();
+    private static final int SPLIT_PARTS = 2;
+    private static final String JOURNAL_DIRECTORY = "";
+    private static final String PARALLEL_LOADER = "parallel";
+    private static final String SEQUENTIAL_LOADER = "sequential";
+    private static final String LOAD_STATISTICS =
+        "Legacy debt files: %d files, %d debts loaded in %d ms (%s loader)";
+    private static final int PAIR_LOCK_STRIPES = 1024;
+    private static final int GROUP_LOCK_STRIPES = 64;
+    private final Map<DebtPair, PairLedger> ledgers = new ConcurrentHashMap<>();
+    private final Map<String, Map<DebtPair, PairLedger>> groupLedgers = new ConcurrentHashMap<>();
+    private final Map<DebtPair, Long> outstanding = new ConcurrentHashMap<>();
+    private final Map<String, Set<DebtPair>> creditorPairs = new ConcurrentHashMap<>();
+    private final Map<String, Set<DebtPair>> debtorPairs = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<DebtPair>>> groupCreditorPairs = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<DebtPair>>> groupDebtorPairs = new ConcurrentHashMap<>();
+    private final StripedLocks pairLocks = new StripedLocks(PAIR_LOCK_STRIPES);
+    private final StripedLocks groupLocks = new StripedLocks(GROUP_LOCK_STRIPES);
+    private final LedgerJournal journal;
+    private final LegacyDebtLoader legacyDebtLoader =
+        new LegacyDebtLoader(ServerConfig.isParallelStartupEnabled(), ServerConfig.getStartupLoaderThreads());
+    private String loadStatistics;
     private static DebtManager instance;
 
     private DebtManager() {
-
+        try {
+            journal = new LedgerJournal(Path.of(JOURNAL_DIRECTORY), ServerConfig.getJournalSegmentSize(),
+                ServerConfig.isJournalSyncEnabled());
+        } catch (ServerErrorException e) {
+            throw new IllegalStateException("The ledger journal could not be opened", e);
+        }
     }
 
     public static DebtManager getInstance() {
@@ -43,285 +68,373 @@ public class DebtManager {
     }
 
     public void initialize() throws ServerErrorException {
-        Set<String> users = UserRepository.getUsernames();
-        Set<String> groups = GroupManager.getGroups();
-        loadDebtsFromFiles(users);
-        loadGroupsFromFiles(groups);
+        clear();
+        journal.replay(this::apply);
+        loadLegacyFiles();
     }
 
-    private void loadDebtsFromFiles(Set<String> users) throws ServerErrorException {
-        for (String user : users) {
-            Path fileName = Path.of(user + "_debts.txt");
-            if (!Files.exists(fileName)) {
-                continue;
-            }
-
-            try (var bufferedReader = Files.newBufferedReader(fileName)) {
-                String line;
-
-                while ((line = bufferedReader.readLine()) != null) {
-                    String[] money = line.split(FileUtils.SINGLE_SPACE);
+    public void restore(SnapshotReader reader) throws ServerErrorException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Snapshot reader cannot be null");
+        }
 
-                    User debtor = UserRepository.toUser(money[FileUtils.ZERO_INDEX]);
-                    User creditor = UserRepository.toUser(money[FileUtils.ONE_INDEX]);
-                    double amount = Double.parseDouble(money[FileUtils.TWO_INDEX]);
+        clear();
+        long checkpoint = reader.readLong();
+        readRecords(reader, null);
 
-                    String reason = Arrays.stream(money)
-                        .skip(FileUtils.THREE_INDEX)
-                        .collect(Collectors.joining(FileUtils.SINGLE_SPACE));
+        int groupsCount = reader.readInt();
+        for (int i = 0; i < groupsCount; i++) {
+            readRecords(reader, reader.readString());
+        }
 
-                    DebtRecord debt = new DebtRecord(debtor, creditor, amount, reason);
-                    addDebt(owesMoney, debt, debtor.getUsername());
-                    addDebt(moneyOwed, debt, creditor.getUsername());
-                }
-            } catch (IOException e) {
-                throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + fileName, e);
-            }
+        if (!journal.replayAfter(checkpoint, this::apply)) {
+            clear();
+            journal.replay(this::apply);
         }
+        loadLegacyFiles();
     }
 
-    private void loadGroupsFromFiles(Set<String> groups) throws ServerErrorException {
-        for (String group : groups) {
-            Path fileName = Path.of(group + "_group_debts.txt");
-            if (Files.exists(fileName)) {
-                try (var bufferedReader = Files.newBufferedReader(fileName)) {
-                    String line;
-
-                    while ((line = bufferedReader.readLine()) != null) {
-                        String[] money = line.split(FileUtils.SINGLE_SPACE);
+    public void writeSnapshot(SnapshotWriter writer) throws ServerErrorException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Snapshot writer cannot be null");
+        }
 
-                        String groupName = money[FileUtils.ZERO_INDEX];
-                        User debtor = UserRepository.toUser(money[FileUtils.ONE_INDEX]);
-                        User creditor = UserRepository.toUser(money[FileUtils.TWO_INDEX]);
-                        double amount = Double.parseDouble(money[FileUtils.THREE_INDEX]);
+        writer.writeLong(journal.checkpoint());
+        writeRecords(writer, ledgers);
 
-                        String reason = Arrays.stream(money)
-                            .skip(FileUtils.FOUR_INDEX)
-                            .collect(Collectors.joining(FileUtils.SINGLE_SPACE));
+        writer.writeInt(groupLedgers.size());
+        for (Map.Entry<String, Map<DebtPair, PairLedger>> entry : groupLedgers.entrySet()) {
+            writer.writeString(entry.getKey());
+            writeRecords(writer, entry.getValue());
+        }
+    }
 
-                        DebtRecord debt = new DebtRecord(debtor, creditor, amount, reason);
+    private void readRecords(SnapshotReader reader, String group) throws ServerErrorException {
+        int count = reader.readInt();
+        for (int i = 0; i < count; i++) {
+            User debtor = UserRepository.toUser(reader.readString());
+            User creditor = UserRepository.toUser(reader.readString());
+            long amount = reader.readLong();
+            String reason = reader.readString();
 
-                        addGroupDebt(groupMoneyOwed, groupName, debt, creditor.getUsername());
-                        addGroupDebt(groupOwesMoney, groupName, debt, debtor.getUsername());
-                    }
-                } catch (IOException e) {
-                    throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + fileName, e);
-                }
-            }
+            addRecord(group, new DebtRecord(debtor, creditor, amount, reason));
         }
     }
 
-    private void addGroupDebt(Map<String, Map<String, Set<DebtRecord>>> debts, String groupName, DebtRecord debt,
-                              String user) {
-        if (!debts.containsKey(groupName)) {
-            debts.put(groupName, new HashMap<>());
+    private void writeRecords(SnapshotWriter writer, Map<DebtPair, PairLedger> pairLedgers)
+        throws ServerErrorException {
+        List<DebtRecord> records = pairLedgers.values().stream()
+            .flatMap(ledger -> ledger.getRecords().stream())
+            .toList();
+
+        writer.writeInt(records.size());
+        for (DebtRecord debt : records) {
+            writer.writeString(debt.debtor().getUsername());
+            writer.writeString(debt.creditor().getUsername());
+            writer.writeLong(debt.amount());
+            writer.writeString(debt.reason());
         }
-
-        addDebt(debts.get(groupName), debt, user);
     }
 
-    public void splitBill(String creditor, String debtor, double amount, String reason)
-        throws NonPositiveAmountException, ServerErrorException {
-        if (amount <= 0) {
-            throw new NonPositiveAmountException("The amount cannot be 0 or less");
+    private void loadLegacyFiles() throws ServerErrorException {
+        long startTime = System.nanoTime();
+        LegacyDebts legacyDebts = legacyDebtLoader.load(UserRepository.getUsernames(), GroupManager.getGroups());
+
+        for (List<DebtRecord> debts : legacyDebts.getFriendDebts().values()) {
+            for (DebtRecord debt : debts) {
+                addRecord(null, debt);
+                journal.append(LedgerEvent.created(null, debt));
+            }
+        }
+        for (Map.Entry<String, List<DebtRecord>> entry : legacyDebts.getGroupDebts().entrySet()) {
+            for (DebtRecord debt : entry.getValue()) {
+                addRecord(entry.getKey(), debt);
+                journal.append(LedgerEvent.created(entry.getKey(), debt));
+            }
         }
 
-        double splitAmount = amount / 2;
-        User debtorUser = UserRepository.toUser(debtor);
-        User creditorUser = UserRepository.toUser(creditor);
+        journal.flush();
+        for (Path file : legacyDebts.getFiles()) {
+            FileUtils.deleteFile(file);
+        }
+        journal.compactClosedSegments();
 
-        splitAmount = recalculateFriendsDebts(debtor, creditor, splitAmount);
+        loadStatistics = String.format(LOAD_STATISTICS, legacyDebts.getFiles().size(), legacyDebts.getDebtsCount(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+            legacyDebtLoader.isParallel() ? PARALLEL_LOADER : SEQUENTIAL_LOADER);
+    }
 
-        if (splitAmount > 0) {
-            splitAmount = recalculateGroupDebts(debtor, creditor, splitAmount, debtorUser);
+    public String getLoadStatistics() {
+        return loadStatistics;
+    }
 
-            addNewDebt(splitAmount, debtorUser, creditorUser, reason);
-        }
+    public void flush() throws ServerErrorException {
+        journal.flush();
     }
 
-    private double recalculateFriendsDebts(String debtor, String creditor, double amount)
-        throws ServerErrorException, NonPositiveAmountException {
-        if (owesMoney.containsKey(creditor) && moneyOwed.containsKey(debtor)) {
-            Set<DebtRecord> creditorOwesMoney = owesMoney.get(creditor);
-            Set<DebtRecord> debtorMoneyOwed = moneyOwed.get(debtor);
+    public void shutdown() throws ServerErrorException {
+        journal.close();
+    }
 
-            double recalculated =
-                recalculateDebts(creditorOwesMoney, debtorMoneyOwed, amount, UserRepository.toUser(debtor));
+    private void apply(LedgerEvent event) {
+        User debtor = UserRepository.toUser(event.debtor());
+        User creditor = UserRepository.toUser(event.creditor());
+        if (debtor == null || creditor == null) {
+            return;
+        }
 
-            if (recalculated != amount) {
-                amount = recalculated;
-                Path creditorFile = Path.of(creditor + "_debts.txt");
-                rewriteDebtFiles(creditorFile, creditorOwesMoney);
-            }
+        DebtRecord debt = new DebtRecord(debtor, creditor, event.amount(), event.reason());
+        switch (event.type()) {
+            case CREATED -> addRecord(event.group(), debt);
+            case PAID, PARTLY_PAID -> replayPayment(event.group(), event.pair(), debt, event.type());
         }
-        return amount;
     }
 
-    private void rewriteDebtFiles(Path fileName, Set<DebtRecord> debts) throws ServerErrorException {
-        FileUtils.createFileIfNeeded(fileName);
-        try (var bufferedWriter = Files.newBufferedWriter(fileName)) {
+    private void replayPayment(String group, DebtPair pair, DebtRecord debt, LedgerEvent.Type type) {
+        Map<DebtPair, PairLedger> pairLedgers = group == null ? ledgers : groupLedgers.get(group);
+        PairLedger ledger = pairLedgers == null ? null : pairLedgers.get(pair);
+        if (ledger == null || ledger.isEmpty()) {
+            return;
+        }
 
-            for (DebtRecord debt : debts) {
-                bufferedWriter.write(debt.toString() + System.lineSeparator());
-            }
-            bufferedWriter.flush();
+        DebtRecord oldest = ledger.peekOldest();
+        if (type == LedgerEvent.Type.PAID) {
+            ledger.removeOldest();
+            reduceOutstanding(pair, oldest.amount());
+        } else {
+            ledger.replaceOldest(debt);
+            reduceOutstanding(pair, oldest.amount() - debt.amount());
+        }
 
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + fileName, e);
+        if (ledger.isEmpty()) {
+            removeLedger(group, pairLedgers, pair);
         }
     }
 
-    private void rewriteGroupDebtFiles(Path groupFile, Map<String, Set<DebtRecord>> debts, String groupName)
-        throws ServerErrorException {
-        FileUtils.createFileIfNeeded(groupFile);
+    private void addRecord(String group, DebtRecord debt) {
+        DebtPair pair = DebtPair.of(debt);
 
-        try (var bufferedWriter = Files.newBufferedWriter(groupFile)) {
+        addToLedger(group == null ? ledgers : getGroupLedgers(group), pair, debt);
+        indexPair(group == null ? creditorPairs : getGroupPairs(groupCreditorPairs, group), pair.creditor(), pair);
+        indexPair(group == null ? debtorPairs : getGroupPairs(groupDebtorPairs, group), pair.debtor(), pair);
+    }
 
-            for (Set<DebtRecord> records : debts.values()) {
-                for (DebtRecord debt : records) {
-                    bufferedWriter.write(groupName + FileUtils.SINGLE_SPACE + debt + System.lineSeparator());
-                    bufferedWriter.flush();
-                }
-            }
+    private void removeLedger(String group, Map<DebtPair, PairLedger> pairLedgers, DebtPair pair) {
+        pairLedgers.remove(pair);
+        unindexPair(group == null ? creditorPairs : groupCreditorPairs.get(group), pair.creditor(), pair);
+        unindexPair(group == null ? debtorPairs : groupDebtorPairs.get(group), pair.debtor(), pair);
+    }
 
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + groupFile, e);
+    private void indexPair(Map<String, Set<DebtPair>> userPairs, String username, DebtPair pair) {
+        userPairs.computeIfAbsent(username, user -> ConcurrentHashMap.newKeySet()).add(pair);
+    }
+
+    private void unindexPair(Map<String, Set<DebtPair>> userPairs, String username, DebtPair pair) {
+        Set<DebtPair> pairs = userPairs == null ? null : userPairs.get(username);
+        if (pairs != null) {
+            pairs.remove(pair);
         }
     }
 
-    private void addNewDebt(double splitAmount, User debtor, User creditor, String reason) throws ServerErrorException {
-        if (splitAmount > 0) {
-            DebtRecord debt = new DebtRecord(debtor, creditor, splitAmount, reason);
-            Path debtorFile = Path.of(debtor.getUsername() + "_debts.txt");
+    private Map<String, Set<DebtPair>> getGroupPairs(Map<String, Map<String, Set<DebtPair>>> groupPairs,
+                                                     String groupName) {
+        return groupPairs.computeIfAbsent(groupName, group -> new ConcurrentHashMap<>());
+    }
 
-            addDebt(moneyOwed, debt, creditor.getUsername());
-            addDebt(owesMoney, debt, debtor.getUsername());
-            FileUtils.writeToFile(debtorFile, FileUtils.SINGLE_SPACE, debt);
-            debtor.addNewDebt(debt);
-        }
+    public void clear() {
+        ledgers.clear();
+        groupLedgers.clear();
+        outstanding.clear();
+        creditorPairs.clear();
+        debtorPairs.clear();
+        groupCreditorPairs.clear();
+        groupDebtorPairs.clear();
+    }
+
+    private Map<DebtPair, PairLedger> getGroupLedgers(String groupName) {
+        return groupLedgers.computeIfAbsent(groupName, group -> new ConcurrentHashMap<>());
     }
 
-    private double recalculateDebts(Set<DebtRecord> creditorOwesMoney, Set<DebtRecord> debtorMoneyOwed,
-                                    double splitAmount, User debtorUser) throws NonPositiveAmountException {
+    private void addToLedger(Map<DebtPair, PairLedger> pairLedgers, DebtPair pair, DebtRecord debt) {
+        pairLedgers.computeIfAbsent(pair, debtPair -> new PairLedger()).add(debt);
+        outstanding.merge(pair, debt.amount(), Long::sum);
+    }
 
-        Iterator<DebtRecord> debtIterator = creditorOwesMoney.iterator();
-        while (debtIterator.hasNext()) {
-            DebtRecord debt = debtIterator.next();
+    private long settle(String group, Map<DebtPair, PairLedger> pairLedgers, DebtPair pair, long amount,
+                        List<DebtRecord> paidDebts, List<DebtRecord> partlyPaidDebts)
+        throws NonPositiveAmountException, ServerErrorException {
+        PairLedger ledger = pairLedgers.get(pair);
+        if (ledger == null) {
+            return amount;
+        }
 
-            if (debt.creditor().equals(debtorUser)) {
-                double difference = debt.payAmount(splitAmount);
+        long totalBefore = ledger.getTotal();
+        try {
+            while (amount > 0 && !ledger.isEmpty()) {
+                DebtRecord debt = ledger.peekOldest();
+                long difference = debt.payAmount(amount);
 
                 if (difference > 0) {
-                    payDebtPartly(creditorOwesMoney, debtorMoneyOwed, debt, difference, debtIterator);
-                    return 0;
+                    DebtRecord partlyPaidDebt =
+                        new DebtRecord(debt.debtor(), debt.creditor(), difference, debt.reason());
+                    journal.append(LedgerEvent.partlyPaid(group, partlyPaidDebt));
+                    ledger.replaceOldest(partlyPaidDebt);
+                    partlyPaidDebts.add(partlyPaidDebt);
+                    amount = 0;
                 } else {
-                    splitAmount = abs(difference);
-                    debtIterator.remove();
-                    debtorMoneyOwed.remove(debt);
-                    if (splitAmount == 0) {
-                        return 0;
-                    }
+                    journal.append(LedgerEvent.paid(group, debt));
+                    ledger.removeOldest();
+                    paidDebts.add(debt);
+                    amount = -difference;
                 }
             }
+        } finally {
+            if (ledger.isEmpty()) {
+                removeLedger(group, pairLedgers, pair);
+            }
+            reduceOutstanding(pair, totalBefore - ledger.getTotal());
         }
-        return splitAmount;
+
+        return amount;
     }
 
-    private DebtRecord payDebtPartly(Set<DebtRecord> creditorOwesMoney, Set<DebtRecord> debtorMoneyOwed,
-                                     DebtRecord debt, double amount, Iterator<DebtRecord> debtIterator) {
-        DebtRecord partlyPaidDebt =
-            new DebtRecord(debt.debtor(), debt.creditor(), amount, debt.reason());
+    private void reduceOutstanding(DebtPair pair, long paid) {
+        outstanding.computeIfPresent(pair, (debtPair, total) -> total - paid > 0 ? total - paid : null);
+    }
 
-        debtIterator.remove();
-        creditorOwesMoney.add(partlyPaidDebt);
+    public long getBalance(String username, String friend) {
+        if (username == null || friend == null) {
+            throw new IllegalArgumentException("Username and friend cannot be null");
+        }
 
-        debtorMoneyOwed.remove(debt);
-        debtorMoneyOwed.add(partlyPaidDebt);
+        DebtPair friendOwes = new DebtPair(friend, username);
 
-        return partlyPaidDebt;
+        return outstanding.getOrDefault(friendOwes, 0L) - outstanding.getOrDefault(friendOwes.reversed(), 0L);
     }
 
-    private double recalculateGroupDebts(String debtor, String creditor, double splitAmount, User debtorUser)
-        throws ServerErrorException, NonPositiveAmountException {
-        Set<String> debtorGroups = UserRepository.toUser(debtor).getGroups();
-        Set<String> creditorGroups = UserRepository.toUser(creditor).getGroups();
+    public void splitBill(String creditor, String debtor, long amount, String reason)
+        throws NonPositiveAmountException, ServerErrorException {
+        if (amount <= 0) {
+            throw new NonPositiveAmountException("The amount cannot be 0 or less");
+        }
 
-        for (String group : debtorGroups) {
-            if (creditorGroups.contains(group)) {
-                if (splitAmount == 0) {
-                    return 0;
-                }
+        long splitAmount = AmountUtils.share(amount, SPLIT_PARTS, debtor.compareTo(creditor) < 0 ? 0 : 1);
+        User debtorUser = UserRepository.toUser(debtor);
+        User creditorUser = UserRepository.toUser(creditor);
 
-                if (!(groupMoneyOwed.containsKey(group) && groupMoneyOwed.get(group).containsKey(debtor)) ||
-                    !(groupOwesMoney.containsKey(group) && groupOwesMoney.get(group).containsKey(creditor))) {
-                    continue;
-                }
+        List<ReentrantLock> locks = pairLocks.lockAll(List.of(new DebtPair(debtor, creditor).sorted()));
+        try {
+            splitAmount = recalculateFriendsDebts(debtor, creditor, splitAmount);
 
-                Set<DebtRecord> debtorMoneyOwed = groupMoneyOwed.get(group).get(debtor);
-                Set<DebtRecord> creditorOwesMoney = groupOwesMoney.get(group).get(creditor);
+            if (splitAmount > 0) {
+                splitAmount = recalculateGroupDebts(debtor, creditor, splitAmount);
+
+                addNewDebt(splitAmount, debtorUser, creditorUser, reason);
+            }
+        } finally {
+            pairLocks.unlockAll(locks);
+        }
+    }
 
-                double recalculated = recalculateDebts(creditorOwesMoney, debtorMoneyOwed, splitAmount, debtorUser);
+    private long recalculateFriendsDebts(String debtor, String creditor, long amount)
+        throws NonPositiveAmountException, ServerErrorException {
+        DebtPair pair = new DebtPair(creditor, debtor);
 
-                if (recalculated != splitAmount) {
-                    splitAmount = recalculated;
-                    Path groupFile = Path.of(group + "_group_debts.txt");
-                    Map<String, Set<DebtRecord>> groupDebts = groupMoneyOwed.get(group);
-                    rewriteGroupDebtFiles(groupFile, groupDebts, group);
-                }
+        if (ledgers.containsKey(pair)) {
+            amount = settle(null, ledgers, pair, amount, new ArrayList<>(), new ArrayList<>());
+        }
+        return amount;
+    }
+
+    private void addNewDebt(long splitAmount, User debtor, User creditor, String reason) throws ServerErrorException {
+        if (splitAmount > 0) {
+            DebtRecord debt = new DebtRecord(debtor, creditor, splitAmount, reason);
+
+            journal.append(LedgerEvent.created(null, debt));
+            addRecord(null, debt);
+            debtor.addNewDebt(debt);
+        }
+    }
+
+    private long recalculateGroupDebts(String debtor, String creditor, long splitAmount)
+        throws NonPositiveAmountException, ServerErrorException {
+        DebtPair pair = new DebtPair(creditor, debtor);
+
+        for (String group : getSharedGroups(debtor, creditor)) {
+            if (splitAmount == 0) {
+                return 0;
+            }
+
+            Map<DebtPair, PairLedger> pairLedgers = groupLedgers.get(group);
+            if (pairLedgers == null || !pairLedgers.containsKey(pair)) {
+                continue;
             }
+
+            splitAmount = settle(group, pairLedgers, pair, splitAmount, new ArrayList<>(), new ArrayList<>());
         }
         return splitAmount;
     }
 
-    private void addDebt(Map<String, Set<DebtRecord>> debtMoney, DebtRecord debt, String username) {
-        if (!debtMoney.containsKey(username)) {
-            debtMoney.put(username, new HashSet<>());
+    private List<String> getSharedGroups(String username, String friend) {
+        int[] sharedGroupIds = IntArrayUtils.intersect(UserRepository.toUser(username).getGroupIds(),
+            UserRepository.toUser(friend).getGroupIds());
+
+        List<String> sharedGroups = new ArrayList<>(sharedGroupIds.length);
+        for (int groupId : sharedGroupIds) {
+            sharedGroups.add(GroupManager.toGroupName(groupId));
         }
-        debtMoney.get(username).add(debt);
+        return sharedGroups;
     }
 
-    public void splitGroupBill(Group group, String creditor, double amount, String reason)
+    public void splitGroupBill(Group group, String creditor, long amount, String reason)
         throws NonPositiveAmountException, ServerErrorException {
         if (amount <= 0) {
             throw new NonPositiveAmountException("The amount cannot be 0 or less");
         }
 
-        double splitAmount = amount / group.members().size();
-        addGroupDebt(group, creditor, splitAmount, reason);
+        List<ReentrantLock> locks = groupLocks.lockAll(List.of(group.name()));
+        try {
+            List<ReentrantLock> memberLocks = pairLocks.lockAll(group.members().stream()
+                .map(User::getUsername)
+                .filter(member -> !member.equals(creditor))
+                .map(member -> new DebtPair(member, creditor).sorted())
+                .toList());
+            try {
+                addGroupDebt(group, creditor, amount, reason);
+            } finally {
+                pairLocks.unlockAll(memberLocks);
+            }
+        } finally {
+            groupLocks.unlockAll(locks);
+        }
     }
 
-    private void addGroupDebt(Group group, String creditor, double amount, String reason)
+    private void addGroupDebt(Group group, String creditor, long amount, String reason)
         throws ServerErrorException, NonPositiveAmountException {
-        Set<DebtRecord> debts = new HashSet<>();
+        List<String> members = group.members().stream()
+            .map(User::getUsername)
+            .sorted()
+            .toList();
 
-        for (User user : group.members()) {
-            double splitAmount = amount;
-            String debtor = user.getUsername();
+        for (int i = 0; i < members.size(); i++) {
+            String debtor = members.get(i);
             if (debtor.equals(creditor)) {
                 continue;
             }
 
+            long splitAmount = AmountUtils.share(amount, members.size(), i);
+
             splitAmount = recalculateFriendsDebts(debtor, creditor, splitAmount);
 
             if (splitAmount > 0) {
-                splitAmount = recalculateGroupDebts(debtor, creditor, splitAmount, user);
+                splitAmount = recalculateGroupDebts(debtor, creditor, splitAmount);
 
-                DebtRecord debt = addNewGroupDebt(splitAmount, debtor, creditor, reason, group.name());
-
-                if (debt != null) {
-                    debts.add(debt);
-                }
+                addNewGroupDebt(splitAmount, debtor, creditor, reason, group.name());
             }
         }
-
-        initializeIfNeeded(group.name(), creditor, groupMoneyOwed);
-        groupMoneyOwed.get(group.name()).get(creditor).addAll(debts);
-        Path groupFile = Path.of(group.name() + "_group_debts.txt");
-        writeGroupDebtsToFile(debts, groupFile, group.name());
     }
 
-    private DebtRecord addNewGroupDebt(double splitAmount, String debtor, String creditor, String reason,
-                                       String groupName)
+    private void addNewGroupDebt(long splitAmount, String debtor, String creditor, String reason, String groupName)
         throws ServerErrorException {
         if (splitAmount > 0) {
             User debtorUser = UserRepository.toUser(debtor);
@@ -329,83 +442,62 @@ public class DebtManager {
 
             DebtRecord debt = new DebtRecord(debtorUser, creditorUser, splitAmount, reason);
 
-            initializeIfNeeded(groupName, debtor, groupOwesMoney);
-            groupOwesMoney.get(groupName).get(debtor).add(debt);
-
+            journal.append(LedgerEvent.created(groupName, debt));
+            addRecord(groupName, debt);
             debtorUser.addNewGroupDebt(debt, groupName);
-            return debt;
         }
-        return null;
     }
 
-    private void writeGroupDebtsToFile(Set<DebtRecord> debts, Path groupFile, String groupName)
-        throws ServerErrorException {
-        FileUtils.createFileIfNeeded(groupFile);
-
-        try (var bufferedWriter = Files.newBufferedWriter(groupFile, StandardOpenOption.APPEND)) {
-
-            for (DebtRecord debt : debts) {
-                bufferedWriter.write(groupName + FileUtils.SINGLE_SPACE + debt + System.lineSeparator());
-            }
-            bufferedWriter.flush();
-
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + groupFile, e);
-        }
-    }
-
-    private void initializeIfNeeded(String groupName, String username,
-                                    Map<String, Map<String, Set<DebtRecord>>> debtMoney) {
-        if (!debtMoney.containsKey(groupName)) {
-            debtMoney.put(groupName, new HashMap<>());
-        }
-
-        if (!debtMoney.get(groupName).containsKey(username)) {
-            debtMoney.get(groupName).put(username, new HashSet<>());
-        }
-    }
-
-    public Set<DebtRecord> getMoneyOwed(String username) {
+    public List<DebtRecord> getMoneyOwed(String username) {
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
         }
 
-        return moneyOwed.get(username);
+        return collectDebts(ledgers, creditorPairs.get(username));
     }
 
-    public Set<DebtRecord> getOwesMoney(String username) {
+    public List<DebtRecord> getOwesMoney(String username) {
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
         }
 
-        return owesMoney.get(username);
+        return collectDebts(ledgers, debtorPairs.get(username));
     }
 
-    public Set<DebtRecord> getGroupMoneyOwed(String groupName, String username) {
+    public List<DebtRecord> getGroupMoneyOwed(String groupName, String username) {
         if (groupName == null || username == null) {
             throw new IllegalArgumentException("Group name and username cannot be null");
         }
 
-        if (groupMoneyOwed.containsKey(groupName) && groupMoneyOwed.get(groupName).containsKey(username)) {
-            return groupMoneyOwed.get(groupName).get(username);
-        }
-
-        return null;
+        Map<String, Set<DebtPair>> userPairs = groupCreditorPairs.get(groupName);
+        return collectDebts(groupLedgers.get(groupName), userPairs == null ? null : userPairs.get(username));
     }
 
-    public Set<DebtRecord> getGroupOwesMoney(String groupName, String username) {
+    public List<DebtRecord> getGroupOwesMoney(String groupName, String username) {
         if (groupName == null || username == null) {
             throw new IllegalArgumentException("Group name and username cannot be null");
         }
 
-        if (groupOwesMoney.containsKey(groupName) && groupOwesMoney.get(groupName).containsKey(username)) {
-            return groupOwesMoney.get(groupName).get(username);
+        Map<String, Set<DebtPair>> userPairs = groupDebtorPairs.get(groupName);
+        return collectDebts(groupLedgers.get(groupName), userPairs == null ? null : userPairs.get(username));
+    }
+
+    private List<DebtRecord> collectDebts(Map<DebtPair, PairLedger> pairLedgers, Set<DebtPair> pairs) {
+        if (pairLedgers == null || pairs == null) {
+            return null;
         }
 
-        return null;
+        List<DebtRecord> debts = new ArrayList<>();
+        for (DebtPair pair : pairs) {
+            PairLedger ledger = pairLedgers.get(pair);
+            if (ledger != null) {
+                debts.addAll(ledger.getRecords());
+            }
+        }
+        return debts;
     }
 
-    public Set<DebtRecord> pay(String username, double amount, String friend, Set<DebtRecord> partlyPaidDebts)
+    public List<DebtRecord> pay(String username, long amount, String friend, List<DebtRecord> partlyPaidDebts)
         throws NonPositiveAmountException, NoDebtsToBePaidException, ServerErrorException {
         if (username == null || friend == null || partlyPaidDebts == null) {
             throw new IllegalArgumentException("Username, friend and debts cannot be null");
@@ -415,32 +507,29 @@ public class DebtManager {
             throw new NonPositiveAmountException("The amount cannot be 0 or less");
         }
 
-        Set<DebtRecord> paidDebts = new HashSet<>();
+        List<DebtRecord> paidDebts = new ArrayList<>();
 
-        Set<DebtRecord> debts = moneyOwed.get(username);
-        Set<DebtRecord> friendDebts = owesMoney.get(friend);
+        DebtPair pair = new DebtPair(friend, username);
 
-        if (friendDebts != null && !friendDebts.isEmpty() && debts != null && !debts.isEmpty()) {
-            amount = payDebts(debts, friendDebts, paidDebts, friend, amount, partlyPaidDebts);
-
-            if (!paidDebts.isEmpty() || !partlyPaidDebts.isEmpty()) {
-                Path debtorFile = Path.of(friend + "_debts.txt");
-                rewriteDebtFiles(debtorFile, friendDebts);
+        List<ReentrantLock> locks = pairLocks.lockAll(List.of(pair.sorted()));
+        try {
+            if (ledgers.containsKey(pair)) {
+                amount = payDebts(null, ledgers, pair, paidDebts, amount, partlyPaidDebts);
             }
-        }
 
-        paidDebts.addAll(getPaidDebts(username, friend, amount, partlyPaidDebts, paidDebts));
+            paidDebts.addAll(getPaidDebts(username, friend, amount, partlyPaidDebts, paidDebts));
+        } finally {
+            pairLocks.unlockAll(locks);
+        }
 
         return paidDebts;
     }
 
-    private Set<DebtRecord> getPaidDebts(String username, String friend, double amount, Set<DebtRecord> partlyPaidDebts,
-                                         Set<DebtRecord> paidDebts)
+    private List<DebtRecord> getPaidDebts(String username, String friend, long amount, List<DebtRecord> partlyPaidDebts,
+                                          List<DebtRecord> paidDebts)
         throws ServerErrorException, NoDebtsToBePaidException, NonPositiveAmountException {
-        Set<String> userGroups = UserRepository.toUser(username).getGroups();
-        Set<String> friendGroups = UserRepository.toUser(friend).getGroups();
-
-        Set<DebtRecord> groupDebts = payGroupDebts(userGroups, friendGroups, username, friend, amount, partlyPaidDebts);
+        List<DebtRecord> groupDebts = payGroupDebts(getSharedGroups(username, friend), username, friend, amount,
+            partlyPaidDebts);
 
         if (groupDebts.isEmpty() && paidDebts.isEmpty() && partlyPaidDebts.isEmpty()) {
             throw new NoDebtsToBePaidException(friend + " doesn't owe you anything");
@@ -449,69 +538,48 @@ public class DebtManager {
         return groupDebts;
     }
 
-    private Set<DebtRecord> payGroupDebts(Set<String> userGroups, Set<String> friendGroups, String username,
-                                          String friend, double amount, Set<DebtRecord> partlyPaidDebts)
+    private List<DebtRecord> payGroupDebts(List<String> sharedGroups, String username, String friend, long amount,
+                                           List<DebtRecord> partlyPaidDebts)
         throws ServerErrorException, NonPositiveAmountException {
-        Set<DebtRecord> paidDebts = new HashSet<>();
-        for (String group : userGroups) {
+        List<DebtRecord> paidDebts = new ArrayList<>();
+        DebtPair pair = new DebtPair(friend, username);
 
-            if (friendGroups.contains(group)) {
-                if (amount == 0) {
-                    break;
-                }
-
-                if (!(groupMoneyOwed.containsKey(group) && groupMoneyOwed.get(group).containsKey(username)) ||
-                    !(groupOwesMoney.containsKey(group) && groupOwesMoney.get(group).containsKey(friend))) {
-                    continue;
-                }
-
-                Set<DebtRecord> debts = groupMoneyOwed.get(group).get(username);
-                Set<DebtRecord> friendDebts = groupOwesMoney.get(group).get(friend);
-                Set<DebtRecord> groupPaidDebts = new HashSet<>();
+        for (String group : sharedGroups) {
+            if (amount == 0) {
+                break;
+            }
 
-                amount = payDebts(debts, friendDebts, groupPaidDebts, friend, amount, partlyPaidDebts);
+            Map<DebtPair, PairLedger> pairLedgers = groupLedgers.get(group);
+            if (pairLedgers == null || !pairLedgers.containsKey(pair)) {
+                continue;
+            }
 
-                if (!groupPaidDebts.isEmpty() || !partlyPaidDebts.isEmpty()) {
-                    Path groupFile = Path.of(group + "_group_debts.txt");
-                    rewriteGroupDebtFiles(groupFile, groupMoneyOwed.get(group), group);
+            List<DebtRecord> groupPaidDebts = new ArrayList<>();
 
-                    paidDebts.addAll(groupPaidDebts);
-                }
-            }
+            amount = payDebts(group, pairLedgers, pair, groupPaidDebts, amount, partlyPaidDebts);
+            paidDebts.addAll(groupPaidDebts);
         }
         return paidDebts;
     }
 
-    private double payDebts(Set<DebtRecord> debts, Set<DebtRecord> friendDebts, Set<DebtRecord> paidDebts,
-                            String friend, double amount, Set<DebtRecord> partlyPaidDebts)
+    private long payDebts(String group, Map<DebtPair, PairLedger> pairLedgers, DebtPair pair,
+                          List<DebtRecord> paidDebts, long amount, List<DebtRecord> partlyPaidDebts)
         throws ServerErrorException, NonPositiveAmountException {
-        Iterator<DebtRecord> debtIterator = debts.iterator();
-        while (debtIterator.hasNext()) {
-            DebtRecord debt = debtIterator.next();
+        List<DebtRecord> newlyPaidDebts = new ArrayList<>();
+        List<DebtRecord> newlyPartlyPaidDebts = new ArrayList<>();
 
-            if (debt.debtor().getUsername().equals(friend)) {
-                double difference = debt.payAmount(amount);
+        amount = settle(group, pairLedgers, pair, amount, newlyPaidDebts, newlyPartlyPaidDebts);
 
-                if (difference > 0) {
-                    DebtRecord partlyPaidDebt = payDebtPartly(debts, friendDebts, debt, difference, debtIterator);
+        for (DebtRecord debt : newlyPaidDebts) {
+            debt.debtor().addPaidDebt(debt);
+        }
+        for (DebtRecord debt : newlyPartlyPaidDebts) {
+            debt.debtor().addPartlyPaidDebt(debt);
+        }
 
-                    partlyPaidDebts.add(partlyPaidDebt);
-                    debt.debtor().addPartlyPaidDebt(partlyPaidDebt);
+        paidDebts.addAll(newlyPaidDebts);
+        partlyPaidDebts.addAll(newlyPartlyPaidDebts);
 
-                    return 0;
-                } else {
-                    amount = abs(difference);
-                    debt.debtor().addPaidDebt(debt);
-                    paidDebts.add(debt);
-                    debtIterator.remove();
-                    friendDebts.remove(debt);
-
-                    if (amount == 0) {
-                        return 0;
-                    }
-                }
-            }
-        }
         return amount;
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+public record DebtPair(String debtor, String creditor) {
+    public DebtPair {
+        if (debtor == null || creditor == null) {
+            throw new IllegalArgumentException("Debtor and creditor cannot be null");
+        }
+    }
+
+    public static DebtPair of(DebtRecord debt) {
+        if (debt == null) {
+            throw new IllegalArgumentException("Debt cannot be null");
+        }
+
+        return new DebtPair(debt.debtor().getUsername(), debt.creditor().getUsername());
+    }
+
+    public DebtPair reversed() {
+        return new DebtPair(creditor, debtor);
+    }
+
+    public DebtPair sorted() {
+        return debtor.compareTo(creditor) <= 0 ? this : reversed();
+    }
+}
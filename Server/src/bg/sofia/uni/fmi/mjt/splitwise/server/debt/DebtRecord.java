@@ -2,17 +2,13 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.NonPositiveAmountException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.AmountUtils;
 
-public record DebtRecord(User debtor, User creditor, double amount, String reason) {
-    private static final double ROUNDING_VALUE = 100.0;
+public record DebtRecord(User debtor, User creditor, long amount, String reason) {
 
     @Override
     public String toString() {
-        return debtor.getUsername() + " " + creditor.getUsername() + " " + getRoundedValue(amount) + " " + reason;
-    }
-
-    private double getRoundedValue(double value) {
-        return Math.round(value * ROUNDING_VALUE) / ROUNDING_VALUE;
+        return debtor.getUsername() + " " + creditor.getUsername() + " " + AmountUtils.toText(amount) + " " + reason;
     }
 
     public String visualizeDebt(String action) {
@@ -23,24 +19,38 @@ public record DebtRecord(User debtor, User creditor, double amount, String reaso
         }
 
         return user.getFirstName() + " " + user.getFamilyName() + " (" + user.getUsername() + "): " +
-            action + " " + String.format("%.2f", amount) + " LV [" + reason + "]";
+            action + " " + String.format("%.2f", AmountUtils.toDecimal(amount)) + " LV [" + reason + "]";
     }
 
-    public double payAmount(double payment) throws NonPositiveAmountException {
+    public long payAmount(long payment) throws NonPositiveAmountException {
         if (payment <= 0) {
             throw new NonPositiveAmountException("The amount cannot be 0 or less");
         }
 
-        return getRoundedValue(amount - payment);
+        return amount - payment;
     }
 
     public String getSuccessfullyPaidDebt() {
         return String.format(" - %s [%s] approved your %.2f LV payment for %s", creditor.getFirstName(),
-            creditor.getUsername(), amount, reason);
+            creditor.getUsername(), AmountUtils.toDecimal(amount), reason);
     }
 
     public String getPartlyPaidDebt() {
         return String.format(" - You still owe %s [%s] %.2f LV for %s", creditor.getFirstName(), creditor.getUsername(),
-            amount, reason);
+            AmountUtils.toDecimal(amount), reason);
+    }
+
+    public String getSuccessfullyPaidDebts(int count) {
+        return String.format(" - %s [%s] approved %d of your payments totaling %.2f LV", creditor.getFirstName(),
+            creditor.getUsername(), count, AmountUtils.toDecimal(amount));
+    }
+
+    public String getPartlyPaidDebt(int count) {
+        return getPartlyPaidDebt() + String.format(" (after %d partial payments)", count);
+    }
+
+    public String visualizeNewDebts(int count) {
+        return creditor.getFirstName() + " " + creditor.getFamilyName() + " (" + creditor.getUsername() + "): " +
+            String.format("%d new debts totaling %.2f LV", count, AmountUtils.toDecimal(amount));
     }
 }
@@ -0,0 +1,176 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.AmountUtils;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.VarIntUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class DebtRecordCodec {
+    private static final byte VERSION = 1;
+    private static final byte FIRST_TEXT_BYTE = ' ';
+    private static final int DEBT_FIELDS = 4;
+    private static final int GROUP_DEBT_FIELDS = 5;
+    private static final long LEGACY_TIMESTAMP = 0;
+
+    private DebtRecordCodec() {
+
+    }
+
+    public static byte[] encode(DebtRecord debt, long timestamp) {
+        return encode(null, debt, timestamp);
+    }
+
+    public static byte[] encode(String group, DebtRecord debt, long timestamp) {
+        if (debt == null) {
+            throw new IllegalArgumentException("Debt cannot be null");
+        }
+
+        byte[] groupBytes = group == null ? null : group.getBytes(StandardCharsets.UTF_8);
+        byte[] debtorBytes = debt.debtor().getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] creditorBytes = debt.creditor().getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] reasonBytes = debt.reason().getBytes(StandardCharsets.UTF_8);
+
+        int size = Byte.BYTES + VarIntUtils.sizeOfVarLong(timestamp) + sizeOf(debtorBytes) + sizeOf(creditorBytes) +
+            VarIntUtils.sizeOfVarLong(debt.amount()) + sizeOf(reasonBytes);
+        if (groupBytes != null) {
+            size += sizeOf(groupBytes);
+        }
+
+        byte[] record = new byte[size];
+        ByteBuffer buffer = ByteBuffer.wrap(record).put(VERSION);
+        VarIntUtils.putVarLong(buffer, timestamp);
+        if (groupBytes != null) {
+            putBytes(buffer, groupBytes);
+        }
+        putBytes(buffer, debtorBytes);
+        putBytes(buffer, creditorBytes);
+        VarIntUtils.putVarLong(buffer, debt.amount());
+        putBytes(buffer, reasonBytes);
+
+        return record;
+    }
+
+    public static DebtRecord decode(ByteBuffer record) {
+        if (isLegacy(record)) {
+            return decodeLegacy(record, DEBT_FIELDS);
+        }
+
+        skipHeader(record);
+        return decodeDebt(record);
+    }
+
+    public static DebtRecord decodeGroupDebt(ByteBuffer record) {
+        if (isLegacy(record)) {
+            return decodeLegacy(record, GROUP_DEBT_FIELDS);
+        }
+
+        skipHeader(record);
+        int groupLength = VarIntUtils.getVarInt(record);
+        record.position(record.position() + groupLength);
+        return decodeDebt(record);
+    }
+
+    public static String decodeGroup(ByteBuffer record) {
+        int start = record.position();
+
+        try {
+            if (isLegacy(record)) {
+                String line = readText(record, record.remaining());
+                return line.substring(0, line.indexOf(FileUtils.SINGLE_SPACE));
+            }
+
+            skipHeader(record);
+            return readString(record);
+        } finally {
+            record.position(start);
+        }
+    }
+
+    public static long decodeTimestamp(ByteBuffer record) {
+        if (isLegacy(record)) {
+            return LEGACY_TIMESTAMP;
+        }
+
+        int start = record.position();
+        record.get();
+        long timestamp = VarIntUtils.getVarLong(record);
+        record.position(start);
+
+        return timestamp;
+    }
+
+    private static boolean isLegacy(ByteBuffer record) {
+        if (record == null) {
+            throw new IllegalArgumentException("Record cannot be null");
+        }
+
+        byte version = record.get(record.position());
+        if (version != VERSION && version < FIRST_TEXT_BYTE) {
+            throw new IllegalArgumentException("Unsupported debt record version: " + version);
+        }
+
+        return version != VERSION;
+    }
+
+    private static void skipHeader(ByteBuffer record) {
+        record.get();
+        VarIntUtils.getVarLong(record);
+    }
+
+    private static DebtRecord decodeDebt(ByteBuffer record) {
+        User debtor = UserRepository.toUser(readString(record));
+        User creditor = UserRepository.toUser(readString(record));
+        long amount = VarIntUtils.getVarLong(record);
+        String reason = readString(record);
+
+        return new DebtRecord(debtor, creditor, amount, reason);
+    }
+
+    private static DebtRecord decodeLegacy(ByteBuffer record, int fields) {
+        String[] debt = readText(record, record.remaining()).split(FileUtils.SINGLE_SPACE, fields);
+        int first = fields - DEBT_FIELDS;
+
+        User debtor = UserRepository.toUser(debt[first]);
+        User creditor = UserRepository.toUser(debt[first + FileUtils.ONE_INDEX]);
+        long amount = AmountUtils.parseCents(debt[first + FileUtils.TWO_INDEX]);
+        String reason = debt[first + FileUtils.THREE_INDEX].stripTrailing();
+
+        return new DebtRecord(debtor, creditor, amount, reason);
+    }
+
+    private static String readString(ByteBuffer record) {
+        return readText(record, VarIntUtils.getVarInt(record));
+    }
+
+    private static String readText(ByteBuffer record, int length) {
+        if (length > record.remaining()) {
+            throw new IllegalArgumentException("Truncated debt record");
+        }
+
+        String text;
+        if (record.hasArray()) {
+            text = new String(record.array(), record.arrayOffset() + record.position(), length,
+                StandardCharsets.UTF_8);
+            record.position(record.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            record.get(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return text;
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return VarIntUtils.sizeOfVarLong(bytes.length) + bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        VarIntUtils.putVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+}
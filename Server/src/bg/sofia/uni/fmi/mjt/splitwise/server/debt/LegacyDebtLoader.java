@@ -0,0 +1,141 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.AmountUtils;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+class LegacyDebtLoader {
+    private static final String DEBTS_SUFFIX = "_debts.txt";
+    private static final String GROUP_DEBTS_SUFFIX = "_group_debts.txt";
+    private static final int FILES_PER_TASK = 32;
+    private final boolean isParallel;
+    private final int parallelism;
+
+    private record Source(Path file, boolean isGroupFile) {
+    }
+
+    LegacyDebtLoader(boolean isParallel, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+
+        this.isParallel = isParallel;
+        this.parallelism = parallelism;
+    }
+
+    boolean isParallel() {
+        return isParallel;
+    }
+
+    LegacyDebts load(Collection<String> users, Collection<String> groups) throws ServerErrorException {
+        if (users == null || groups == null) {
+            throw new IllegalArgumentException("Users and groups cannot be null");
+        }
+
+        List<Source> sources = new ArrayList<>(users.size() + groups.size());
+        users.forEach(user -> sources.add(new Source(Path.of(user + DEBTS_SUFFIX), false)));
+        groups.forEach(group -> sources.add(new Source(Path.of(group + GROUP_DEBTS_SUFFIX), true)));
+
+        try {
+            if (!isParallel) {
+                return parse(sources, 0, sources.size());
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                return pool.invoke(new ParseTask(sources, 0, sources.size()));
+            } finally {
+                pool.shutdown();
+            }
+        } catch (UncheckedIOException e) {
+            throw new ServerErrorException(e.getMessage(), e.getCause());
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ParseTask extends RecursiveTask<LegacyDebts> {
+        private final List<Source> sources;
+        private final int from;
+        private final int to;
+
+        ParseTask(List<Source> sources, int from, int to) {
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LegacyDebts compute() {
+            if (to - from <= FILES_PER_TASK) {
+                return parse(sources, from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+            ParseTask left = new ParseTask(sources, from, middle);
+            left.fork();
+            LegacyDebts right = new ParseTask(sources, middle, to).compute();
+
+            return left.join().merge(right);
+        }
+    }
+
+    private static LegacyDebts parse(List<Source> sources, int from, int to) {
+        LegacyDebts debts = new LegacyDebts();
+
+        for (int i = from; i < to; i++) {
+            Source source = sources.get(i);
+            if (!Files.exists(source.file())) {
+                continue;
+            }
+
+            try {
+                parseFile(source, debts);
+            } catch (IOException e) {
+                throw new UncheckedIOException(FileUtils.READING_FROM_FILE_ERROR + source.file(), e);
+            }
+            debts.addFile(source.file());
+        }
+
+        return debts;
+    }
+
+    private static void parseFile(Source source, LegacyDebts debts) throws IOException {
+        try (var bufferedReader = Files.newBufferedReader(source.file())) {
+            String line;
+
+            while ((line = bufferedReader.readLine()) != null) {
+                String[] money = line.split(FileUtils.SINGLE_SPACE);
+                int offset = source.isGroupFile() ? FileUtils.ONE_INDEX : FileUtils.ZERO_INDEX;
+
+                User debtor = UserRepository.toUser(money[offset + FileUtils.ZERO_INDEX]);
+                User creditor = UserRepository.toUser(money[offset + FileUtils.ONE_INDEX]);
+                long amount = AmountUtils.parseCents(money[offset + FileUtils.TWO_INDEX]);
+
+                String reason = Arrays.stream(money)
+                    .skip(offset + FileUtils.THREE_INDEX)
+                    .collect(Collectors.joining(FileUtils.SINGLE_SPACE));
+
+                DebtRecord debt = new DebtRecord(debtor, creditor, amount, reason);
+                if (source.isGroupFile()) {
+                    debts.addGroupDebt(money[FileUtils.ZERO_INDEX], debt);
+                } else {
+                    debts.addFriendDebt(debt);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class LegacyDebts {
+    private final List<Path> files = new ArrayList<>();
+    private final Map<String, List<DebtRecord>> friendDebts = new LinkedHashMap<>();
+    private final Map<String, List<DebtRecord>> groupDebts = new LinkedHashMap<>();
+    private int debtsCount;
+
+    void addFile(Path file) {
+        files.add(file);
+    }
+
+    void addFriendDebt(DebtRecord debt) {
+        friendDebts.computeIfAbsent(debt.debtor().getUsername(), debtor -> new ArrayList<>()).add(debt);
+        debtsCount++;
+    }
+
+    void addGroupDebt(String group, DebtRecord debt) {
+        groupDebts.computeIfAbsent(group, name -> new ArrayList<>()).add(debt);
+        debtsCount++;
+    }
+
+    LegacyDebts merge(LegacyDebts other) {
+        files.addAll(other.files);
+        other.friendDebts.forEach((debtor, debts) ->
+            friendDebts.computeIfAbsent(debtor, key -> new ArrayList<>()).addAll(debts));
+        other.groupDebts.forEach((group, debts) ->
+            groupDebts.computeIfAbsent(group, key -> new ArrayList<>()).addAll(debts));
+        debtsCount += other.debtsCount;
+        return this;
+    }
+
+    List<Path> getFiles() {
+        return files;
+    }
+
+    Map<String, List<DebtRecord>> getFriendDebts() {
+        return friendDebts;
+    }
+
+    Map<String, List<DebtRecord>> getGroupDebts() {
+        return groupDebts;
+    }
+
+    int getDebtsCount() {
+        return debtsCount;
+    }
+}
@@ -0,0 +1,54 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+public class PairLedger {
+    private final Deque<DebtRecord> records = new ArrayDeque<>();
+    private long total;
+
+    public synchronized void add(DebtRecord debt) {
+        if (debt == null) {
+            throw new IllegalArgumentException("Debt cannot be null");
+        }
+
+        records.addLast(debt);
+        total += debt.amount();
+    }
+
+    public synchronized DebtRecord peekOldest() {
+        return records.peekFirst();
+    }
+
+    public synchronized DebtRecord removeOldest() {
+        DebtRecord debt = records.pollFirst();
+        if (debt != null) {
+            total -= debt.amount();
+        }
+
+        return debt;
+    }
+
+    public synchronized void replaceOldest(DebtRecord debt) {
+        if (debt == null) {
+            throw new IllegalArgumentException("Debt cannot be null");
+        }
+
+        removeOldest();
+        records.addFirst(debt);
+        total += debt.amount();
+    }
+
+    public synchronized long getTotal() {
+        return records.isEmpty() ? 0 : total;
+    }
+
+    public synchronized boolean isEmpty() {
+        return records.isEmpty();
+    }
+
+    public synchronized List<DebtRecord> getRecords() {
+        return List.copyOf(records);
+    }
+}
@@ -0,0 +1,60 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+class StripedLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    StripedLocks(int stripesCount) {
+        if (stripesCount <= 0 || Integer.bitCount(stripesCount) != 1) {
+            throw new IllegalArgumentException("Stripes count must be a positive power of two");
+        }
+
+        stripes = new ReentrantLock[stripesCount];
+        for (int i = 0; i < stripesCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        mask = stripesCount - 1;
+    }
+
+    int stripeOf(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> Short.SIZE)) & mask;
+    }
+
+    List<ReentrantLock> lockAll(Collection<?> keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys cannot be null");
+        }
+
+        List<ReentrantLock> locked = new ArrayList<>();
+        keys.stream()
+            .mapToInt(this::stripeOf)
+            .distinct()
+            .sorted()
+            .forEach(stripe -> {
+                stripes[stripe].lock();
+                locked.add(stripes[stripe]);
+            });
+
+        return locked;
+    }
+
+    void unlockAll(List<ReentrantLock> locked) {
+        if (locked == null) {
+            throw new IllegalArgumentException("Locks cannot be null");
+        }
+
+        for (int i = locked.size() - 1; i >= 0; i--) {
+            locked.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+public record Transaction(DebtRecord debt, long timestamp) {
+}
@@ -0,0 +1,49 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Storage;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TransactionHistory {
+    public static final long LATEST = Long.MAX_VALUE;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private TransactionHistory() {
+
+    }
+
+    public static void append(String owner, DebtRecord debt, long timestamp) throws ServerErrorException {
+        if (owner == null || debt == null) {
+            throw new IllegalArgumentException("Owner and debt cannot be null");
+        }
+
+        StorageProvider.getInstance().appendBinary(Table.TRANSACTIONS, owner, DebtRecordCodec.encode(debt, timestamp));
+    }
+
+    public static TransactionPage getPage(String owner, long before, int limit) throws ServerErrorException {
+        if (owner == null) {
+            throw new IllegalArgumentException("Owner cannot be null");
+        }
+        if (before < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Cursor cannot be negative and limit must be positive");
+        }
+
+        Storage storage = StorageProvider.getInstance();
+        long end = Math.min(before, storage.count(Table.TRANSACTIONS, owner));
+        long first = Math.max(0, end - limit);
+
+        List<Transaction> transactions = new ArrayList<>();
+        storage.loadRange(Table.TRANSACTIONS, owner, first, (int) (end - first), record -> {
+            long timestamp = DebtRecordCodec.decodeTimestamp(record);
+            transactions.add(new Transaction(DebtRecordCodec.decode(record), timestamp));
+        });
+        Collections.reverse(transactions);
+
+        return new TransactionPage(transactions, first, first > 0);
+    }
+}
@@ -0,0 +1,6 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import java.util.List;
+
+public record TransactionPage(List<Transaction> transactions, long cursor, boolean hasMore) {
+}
@@ -0,0 +1,107 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt.journal;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtPair;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+
+import static bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils.FOUR_INDEX;
+import static bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils.ONE_INDEX;
+import static bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils.THREE_INDEX;
+import static bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils.TWO_INDEX;
+import static bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils.ZERO_INDEX;
+
+public record LedgerEvent(Type type, String group, String debtor, String creditor, long amount, String reason) {
+    private static final String SEPARATOR = " ";
+    private static final String FRIENDS_SCOPE = "F";
+    private static final String GROUP_SCOPE = "G";
+    private static final int FRIEND_EVENT_FIELDS = 6;
+    private static final int GROUP_EVENT_FIELDS = 7;
+    private static final int FIVE_INDEX = 5;
+    private static final int SIX_INDEX = 6;
+
+    public enum Type {
+        CREATED, PAID, PARTLY_PAID
+    }
+
+    public LedgerEvent {
+        if (type == null || debtor == null || creditor == null || reason == null) {
+            throw new IllegalArgumentException("Type, debtor, creditor and reason cannot be null");
+        }
+    }
+
+    public static LedgerEvent created(String group, DebtRecord debt) {
+        return of(Type.CREATED, group, debt);
+    }
+
+    public static LedgerEvent paid(String group, DebtRecord debt) {
+        return of(Type.PAID, group, debt);
+    }
+
+    public static LedgerEvent partlyPaid(String group, DebtRecord remainingDebt) {
+        return of(Type.PARTLY_PAID, group, remainingDebt);
+    }
+
+    private static LedgerEvent of(Type type, String group, DebtRecord debt) {
+        if (debt == null) {
+            throw new IllegalArgumentException("Debt cannot be null");
+        }
+
+        return new LedgerEvent(type, group, debt.debtor().getUsername(), debt.creditor().getUsername(),
+            debt.amount(), debt.reason());
+    }
+
+    public static LedgerEvent parse(String line) {
+        if (line == null) {
+            throw new IllegalArgumentException("Line cannot be null");
+        }
+
+        String[] header = line.split(SEPARATOR, GROUP_EVENT_FIELDS);
+        if (header.length < FRIEND_EVENT_FIELDS) {
+            throw new IllegalArgumentException("Malformed ledger event: " + line);
+        }
+
+        Type type = Type.valueOf(header[ZERO_INDEX]);
+        return switch (header[ONE_INDEX]) {
+            case FRIENDS_SCOPE -> {
+                String[] fields = line.split(SEPARATOR, FRIEND_EVENT_FIELDS);
+                yield new LedgerEvent(type, null, fields[TWO_INDEX], fields[THREE_INDEX],
+                    Long.parseLong(fields[FOUR_INDEX]), fields[FIVE_INDEX]);
+            }
+            case GROUP_SCOPE -> {
+                if (header.length != GROUP_EVENT_FIELDS) {
+                    throw new IllegalArgumentException("Malformed ledger event: " + line);
+                }
+                yield new LedgerEvent(type, header[TWO_INDEX], header[THREE_INDEX], header[FOUR_INDEX],
+                    Long.parseLong(header[FIVE_INDEX]), header[SIX_INDEX]);
+            }
+            default -> throw new IllegalArgumentException("Unknown ledger event scope: " + line);
+        };
+    }
+
+    public boolean isGroupEvent() {
+        return group != null;
+    }
+
+    public DebtPair pair() {
+        return new DebtPair(debtor, creditor);
+    }
+
+    public LedgerEvent asCreated(long remainingAmount) {
+        return new LedgerEvent(Type.CREATED, group, debtor, creditor, remainingAmount, reason);
+    }
+
+    public String toLine() {
+        StringBuilder builder = new StringBuilder().append(type).append(SEPARATOR);
+
+        if (isGroupEvent()) {
+            builder.append(GROUP_SCOPE).append(SEPARATOR).append(group);
+        } else {
+            builder.append(FRIENDS_SCOPE);
+        }
+
+        return builder.append(SEPARATOR).append(debtor)
+            .append(SEPARATOR).append(creditor)
+            .append(SEPARATOR).append(amount)
+            .append(SEPARATOR).append(reason)
+            .toString();
+    }
+}
@@ -0,0 +1,498 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt.journal;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtPair;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class LedgerJournal {
+    private static final String SEGMENT_PREFIX = "debts_journal_";
+    private static final String SNAPSHOT_PREFIX = "debts_snapshot_";
+    private static final String EXTENSION = ".log";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final String NEW_LINE = "\n";
+    private static final String WRITER_THREAD_NAME = "ledger-journal-writer";
+    private static final String COMPACTOR_THREAD_NAME = "ledger-journal-compactor";
+    private static final int MAX_BATCH_SIZE = 4096;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    private static final long NO_FILE = 0;
+    private static final long NO_FAILURE = 0;
+    private static final String JOURNAL_ERROR = "A problem occurred while writing to the ledger journal";
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean isSyncEnabled;
+    private final BlockingQueue<String> pending = new LinkedBlockingQueue<>();
+    private final Object progressLock = new Object();
+    private final Object filesLock = new Object();
+    private final ExecutorService compactor;
+    private final Thread writer;
+    private long appendedEvents;
+    private long writtenEvents;
+    private long failedEventsFrom = NO_FAILURE;
+    private long failedEventsTo = NO_FAILURE;
+    private long segmentNumber;
+    private long segmentBytes;
+    private long openSegmentNumber;
+    private FileChannel segment;
+    private volatile boolean isClosed;
+
+    private record Scope(String group, DebtPair pair) {
+    }
+
+    public LedgerJournal(Path directory, long segmentSize, boolean isSyncEnabled) throws ServerErrorException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.isSyncEnabled = isSyncEnabled;
+        this.segmentNumber = Math.max(latestNumber(SEGMENT_PREFIX), latestNumber(SNAPSHOT_PREFIX)) + 1;
+
+        compactor = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, COMPACTOR_THREAD_NAME));
+        writer = daemon(this::writeLoop, WRITER_THREAD_NAME);
+        writer.start();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public void append(LedgerEvent event) throws ServerErrorException {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null");
+        }
+        if (isClosed) {
+            throw new IllegalStateException("The ledger journal is closed");
+        }
+
+        long sequence;
+        synchronized (progressLock) {
+            sequence = ++appendedEvents;
+            pending.add(event.toLine());
+        }
+
+        if (isSyncEnabled) {
+            awaitWritten(sequence);
+
+            synchronized (progressLock) {
+                if (failedEventsFrom != NO_FAILURE && failedEventsFrom <= sequence && sequence <= failedEventsTo) {
+                    throw new ServerErrorException(JOURNAL_ERROR);
+                }
+            }
+        }
+    }
+
+    public void flush() throws ServerErrorException {
+        long target;
+        synchronized (progressLock) {
+            target = appendedEvents;
+        }
+
+        awaitWritten(target);
+
+        synchronized (progressLock) {
+            if (failedEventsFrom != NO_FAILURE && failedEventsFrom <= target) {
+                failedEventsFrom = NO_FAILURE;
+                failedEventsTo = NO_FAILURE;
+                throw new ServerErrorException(JOURNAL_ERROR);
+            }
+        }
+    }
+
+    private void awaitWritten(long sequence) throws ServerErrorException {
+        synchronized (progressLock) {
+            while (writtenEvents < sequence) {
+                try {
+                    progressLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServerErrorException("Interrupted while flushing the ledger journal", e);
+                }
+            }
+        }
+    }
+
+    public void replay(Consumer<LedgerEvent> consumer) throws ServerErrorException {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+
+        flush();
+        synchronized (filesLock) {
+            long snapshotNumber = latestNumber(SNAPSHOT_PREFIX);
+            if (snapshotNumber != NO_FILE) {
+                readEvents(file(SNAPSHOT_PREFIX, snapshotNumber), consumer);
+            }
+
+            for (long number : numbers(SEGMENT_PREFIX)) {
+                if (number > snapshotNumber) {
+                    readEvents(file(SEGMENT_PREFIX, number), consumer);
+                }
+            }
+        }
+    }
+
+    public boolean replayAfter(long checkpoint, Consumer<LedgerEvent> consumer) throws ServerErrorException {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+
+        flush();
+        synchronized (filesLock) {
+            if (latestNumber(SNAPSHOT_PREFIX) > checkpoint) {
+                return false;
+            }
+
+            for (long number : numbers(SEGMENT_PREFIX)) {
+                if (number > checkpoint) {
+                    readEvents(file(SEGMENT_PREFIX, number), consumer);
+                }
+            }
+            return true;
+        }
+    }
+
+    public long checkpoint() throws ServerErrorException {
+        flush();
+
+        synchronized (progressLock) {
+            return segmentNumber++;
+        }
+    }
+
+    public void compactClosedSegments() {
+        long lastClosedSegment;
+        synchronized (progressLock) {
+            lastClosedSegment = segmentNumber - 1;
+        }
+
+        if (lastClosedSegment > NO_FILE) {
+            compactor.execute(() -> compactSafely(lastClosedSegment));
+        }
+    }
+
+    public void close() throws ServerErrorException {
+        if (isClosed) {
+            return;
+        }
+
+        flush();
+        isClosed = true;
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        closeSegment();
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        while (!isClosed || !pending.isEmpty()) {
+            boolean isFailed = false;
+            try {
+                String first = pending.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                LogsManager.getInstance().addLogToFile(e, null);
+                closeSegment();
+                isFailed = true;
+            } finally {
+                markWritten(batch.size(), isFailed);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<String> batch) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (String line : batch) {
+            builder.append(line).append(NEW_LINE);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+        FileChannel channel = openSegment();
+        long start = segmentBytes;
+        try {
+            while (buffer.hasRemaining()) {
+                segmentBytes += channel.write(buffer);
+            }
+
+            if (isSyncEnabled) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            discardPartialBatch(channel, start);
+            throw e;
+        }
+
+        if (segmentBytes >= segmentSize) {
+            rotate();
+        }
+    }
+
+    private void discardPartialBatch(FileChannel channel, long start) {
+        try {
+            channel.truncate(start);
+        } catch (IOException e) {
+            LogsManager.getInstance().addLogToFile(e, null);
+        }
+    }
+
+    private void markWritten(int count, boolean isFailed) {
+        if (count == 0) {
+            return;
+        }
+
+        synchronized (progressLock) {
+            if (isFailed) {
+                if (failedEventsFrom == NO_FAILURE) {
+                    failedEventsFrom = writtenEvents + 1;
+                }
+                failedEventsTo = writtenEvents + count;
+            }
+            writtenEvents += count;
+            progressLock.notifyAll();
+        }
+    }
+
+    private FileChannel openSegment() throws IOException {
+        long currentSegment;
+        synchronized (progressLock) {
+            currentSegment = segmentNumber;
+        }
+
+        if (segment != null && openSegmentNumber != currentSegment) {
+            closeSegment();
+        }
+
+        if (segment == null) {
+            segment = FileChannel.open(file(SEGMENT_PREFIX, currentSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentBytes = segment.size();
+            openSegmentNumber = currentSegment;
+        }
+
+        return segment;
+    }
+
+    private void rotate() {
+        long closedSegment = openSegmentNumber;
+        closeSegment();
+
+        synchronized (progressLock) {
+            segmentNumber = Math.max(segmentNumber, closedSegment + 1);
+        }
+
+        compactor.execute(() -> compactSafely(closedSegment));
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+
+        try {
+            segment.close();
+        } catch (IOException e) {
+            LogsManager.getInstance().addLogToFile(e, null);
+        }
+        segment = null;
+        segmentBytes = 0;
+    }
+
+    private void compactSafely(long lastSegment) {
+        try {
+            compact(lastSegment);
+        } catch (ServerErrorException e) {
+            LogsManager.getInstance().addLogToFile(e, null);
+        }
+    }
+
+    void compact(long lastSegment) throws ServerErrorException {
+        synchronized (filesLock) {
+            long snapshotNumber = latestNumber(SNAPSHOT_PREFIX);
+            if (lastSegment <= snapshotNumber) {
+                return;
+            }
+
+            Map<Scope, Deque<LedgerEvent>> outstanding = new LinkedHashMap<>();
+            if (snapshotNumber != NO_FILE) {
+                readEvents(file(SNAPSHOT_PREFIX, snapshotNumber), event -> apply(outstanding, event));
+            }
+
+            List<Long> compactedSegments = new ArrayList<>();
+            for (long number : numbers(SEGMENT_PREFIX)) {
+                if (number > snapshotNumber && number <= lastSegment) {
+                    readEvents(file(SEGMENT_PREFIX, number), event -> apply(outstanding, event));
+                    compactedSegments.add(number);
+                }
+            }
+
+            writeSnapshot(outstanding, lastSegment);
+            forceDirectory();
+
+            if (snapshotNumber != NO_FILE) {
+                deleteFile(file(SNAPSHOT_PREFIX, snapshotNumber));
+            }
+            for (long number : compactedSegments) {
+                deleteFile(file(SEGMENT_PREFIX, number));
+            }
+        }
+    }
+
+    private void apply(Map<Scope, Deque<LedgerEvent>> outstanding, LedgerEvent event) {
+        Scope scope = new Scope(event.group(), event.pair());
+
+        switch (event.type()) {
+            case CREATED -> outstanding.computeIfAbsent(scope, key -> new ArrayDeque<>()).addLast(event);
+            case PAID -> {
+                Deque<LedgerEvent> events = outstanding.get(scope);
+                if (events != null) {
+                    events.pollFirst();
+                }
+            }
+            case PARTLY_PAID -> {
+                Deque<LedgerEvent> events = outstanding.get(scope);
+                if (events != null && !events.isEmpty()) {
+                    events.pollFirst();
+                    events.addFirst(event.asCreated(event.amount()));
+                }
+            }
+        }
+    }
+
+    private void writeSnapshot(Map<Scope, Deque<LedgerEvent>> outstanding, long number) throws ServerErrorException {
+        Path temporary = directory.resolve(SNAPSHOT_PREFIX + number + TEMPORARY_EXTENSION);
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             BufferedWriter bufferedWriter = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            for (Deque<LedgerEvent> events : outstanding.values()) {
+                for (LedgerEvent event : events) {
+                    bufferedWriter.write(event.toLine());
+                    bufferedWriter.write(NEW_LINE);
+                }
+            }
+            bufferedWriter.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + temporary, e);
+        }
+
+        try {
+            Files.move(temporary, file(SNAPSHOT_PREFIX, number), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file(SNAPSHOT_PREFIX, number), e);
+        }
+    }
+
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LogsManager.getInstance().addLogToFile(e, null);
+        }
+    }
+
+    private void readEvents(Path file, Consumer<LedgerEvent> consumer) throws ServerErrorException {
+        try (var bufferedReader = Files.newBufferedReader(file)) {
+            String line = bufferedReader.readLine();
+
+            while (line != null) {
+                String next = bufferedReader.readLine();
+                try {
+                    consumer.accept(LedgerEvent.parse(line));
+                } catch (IllegalArgumentException e) {
+                    if (next != null) {
+                        throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + file, e);
+                    }
+                }
+                line = next;
+            }
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + file, e);
+        }
+    }
+
+    private void deleteFile(Path file) throws ServerErrorException {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.DELETING_FILE_ERROR + file, e);
+        }
+    }
+
+    private Path file(String prefix, long number) {
+        return directory.resolve(prefix + number + EXTENSION);
+    }
+
+    private long latestNumber(String prefix) throws ServerErrorException {
+        List<Long> numbers = numbers(prefix);
+        return numbers.isEmpty() ? NO_FILE : numbers.get(numbers.size() - 1);
+    }
+
+    private List<Long> numbers(String prefix) throws ServerErrorException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(prefix) && name.endsWith(EXTENSION))
+                .map(name -> name.substring(prefix.length(), name.length() - EXTENSION.length()))
+                .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                .map(Long::parseLong)
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + directory, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.exceptions;
+
+public class InvalidSessionTokenException extends Exception {
+    public InvalidSessionTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidSessionTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
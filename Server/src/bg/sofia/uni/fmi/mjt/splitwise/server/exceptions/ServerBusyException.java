@@ -0,0 +1,11 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.exceptions;
+
+public class ServerBusyException extends Exception {
+    public ServerBusyException(String message) {
+        super(message);
+    }
+
+    public ServerBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,112 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerBusyException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public abstract class AbstractCommandDispatcher implements CommandDispatcher {
+    private static final String SERVER_CONNECTION_ERROR = "An error occurred while connecting with the server";
+    protected static final String ERROR_MESSAGE =
+        "The server is shutdown. Try again later or contact administrator by providing the logs in logs_file.txt";
+    protected static final String SERVER_BUSY_MESSAGE = "The server is busy right now. Try again in a moment";
+    protected final CommandExecutor commandExecutor;
+    protected final LogsManager logsManager;
+
+    protected AbstractCommandDispatcher(CommandExecutor commandExecutor, LogsManager logsManager) {
+        if (commandExecutor == null || logsManager == null) {
+            throw new IllegalArgumentException("Command executor and logs manager cannot be null");
+        }
+
+        this.commandExecutor = commandExecutor;
+        this.logsManager = logsManager;
+    }
+
+    protected CompletableFuture<List<String>> executeAll(List<String> clientInputs, SelectionKey key,
+                                                         Executor continuations) {
+        List<String> outputs = new ArrayList<>(clientInputs.size());
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+
+        for (String clientInput : clientInputs) {
+            chain = chain.thenCompose(ignored -> executeAsync(clientInput, key, continuations))
+                .thenAccept(outputs::add);
+        }
+
+        return chain.thenApply(ignored -> outputs);
+    }
+
+    protected List<String> rejectAll(List<String> clientInputs) {
+        return Collections.nCopies(clientInputs.size(), SERVER_BUSY_MESSAGE);
+    }
+
+    private CompletableFuture<String> executeAsync(String clientInput, SelectionKey key, Executor continuations) {
+        Command command;
+        CompletableFuture<Void> prepared;
+
+        try {
+            command = commandExecutor.create(clientInput, key);
+            prepared = command.prepare();
+        } catch (RuntimeException e) {
+            logsManager.addLogToFile(e, (String) key.attachment());
+            return CompletableFuture.completedFuture(ERROR_MESSAGE);
+        }
+
+        if (prepared.isDone() && !prepared.isCompletedExceptionally()) {
+            return run(command, key);
+        }
+
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        prepared.whenComplete((ignored, error) -> resume(continuations, () -> {
+            CompletableFuture<String> output = error == null ? run(command, key)
+                : CompletableFuture.completedFuture(fail(error, key));
+            output.thenAccept(reply::complete);
+        }, reply));
+        return reply;
+    }
+
+    protected void resume(Executor continuations, Runnable continuation, CompletableFuture<String> reply) {
+        try {
+            continuations.execute(continuation);
+        } catch (RejectedExecutionException e) {
+            reply.complete(SERVER_BUSY_MESSAGE);
+        }
+    }
+
+    protected CompletableFuture<String> run(Command command, SelectionKey key) {
+        return CompletableFuture.completedFuture(execute(command, key));
+    }
+
+    protected String execute(Command command, SelectionKey key) {
+        try {
+            return commandExecutor.execute(command);
+        } catch (ServerErrorException e) {
+            System.out.println(SERVER_CONNECTION_ERROR);
+            logsManager.addLogToFile(e, (String) key.attachment());
+            return ERROR_MESSAGE;
+        } catch (RuntimeException e) {
+            logsManager.addLogToFile(e, (String) key.attachment());
+            return ERROR_MESSAGE;
+        }
+    }
+
+    private String fail(Throwable error, SelectionKey key) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        if (cause instanceof ServerBusyException) {
+            return cause.getMessage();
+        }
+
+        logsManager.addLogToFile(cause, (String) key.attachment());
+        return ERROR_MESSAGE;
+    }
+}
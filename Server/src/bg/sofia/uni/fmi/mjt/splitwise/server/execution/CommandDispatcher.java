@@ -0,0 +1,11 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import java.nio.channels.SelectionKey;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface CommandDispatcher {
+    void dispatch(List<String> clientInputs, SelectionKey key, Consumer<List<String>> onComplete);
+
+    void shutdown();
+}
@@ -0,0 +1,123 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import java.nio.channels.SelectionKey;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+class CommandRingBuffer {
+    private static final int UNPUBLISHED = -1;
+    private static final long INITIAL_SEQUENCE = -1;
+    private final CommandEvent[] slots;
+    private final AtomicIntegerArray publishedRounds;
+    private final int mask;
+    private final int roundShift;
+    private final AtomicLong claimedSequence = new AtomicLong(INITIAL_SEQUENCE);
+    private volatile long consumedSequence = INITIAL_SEQUENCE;
+
+    static class CommandEvent {
+        private List<String> clientInputs;
+        private SelectionKey key;
+        private Consumer<List<String>> onComplete;
+        private Runnable task;
+
+        List<String> getClientInputs() {
+            return clientInputs;
+        }
+
+        SelectionKey getKey() {
+            return key;
+        }
+
+        Consumer<List<String>> getOnComplete() {
+            return onComplete;
+        }
+
+        Runnable getTask() {
+            return task;
+        }
+
+        private void set(List<String> clientInputs, SelectionKey key, Consumer<List<String>> onComplete,
+                         Runnable task) {
+            this.clientInputs = clientInputs;
+            this.key = key;
+            this.onComplete = onComplete;
+            this.task = task;
+        }
+
+        private void clear() {
+            set(null, null, null, null);
+        }
+    }
+
+    CommandRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a positive power of two");
+        }
+
+        slots = new CommandEvent[capacity];
+        publishedRounds = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new CommandEvent();
+            publishedRounds.set(i, UNPUBLISHED);
+        }
+
+        mask = capacity - 1;
+        roundShift = Integer.numberOfTrailingZeros(capacity);
+    }
+
+    boolean tryPublish(List<String> clientInputs, SelectionKey key, Consumer<List<String>> onComplete) {
+        return tryPublish(clientInputs, key, onComplete, null);
+    }
+
+    boolean tryPublish(Runnable task) {
+        return tryPublish(null, null, null, task);
+    }
+
+    private boolean tryPublish(List<String> clientInputs, SelectionKey key, Consumer<List<String>> onComplete,
+                               Runnable task) {
+        long current;
+        long sequence;
+        do {
+            current = claimedSequence.get();
+            sequence = current + 1;
+
+            if (sequence - slots.length > consumedSequence) {
+                return false;
+            }
+        } while (!claimedSequence.compareAndSet(current, sequence));
+
+        int index = (int) (sequence & mask);
+        slots[index].set(clientInputs, key, onComplete, task);
+        publishedRounds.set(index, (int) (sequence >>> roundShift));
+
+        return true;
+    }
+
+    boolean hasPublished() {
+        return isPublished(consumedSequence + 1);
+    }
+
+    private boolean isPublished(long sequence) {
+        return publishedRounds.get((int) (sequence & mask)) == (int) (sequence >>> roundShift);
+    }
+
+    int drain(Consumer<CommandEvent> handler, int maxBatchSize) {
+        long first = consumedSequence + 1;
+        long last = first - 1;
+
+        while (last - first + 1 < maxBatchSize && isPublished(last + 1)) {
+            last++;
+        }
+
+        for (long sequence = first; sequence <= last; sequence++) {
+            CommandEvent event = slots[(int) (sequence & mask)];
+            handler.accept(event);
+            event.clear();
+        }
+
+        consumedSequence = last;
+        return (int) (last - first + 1);
+    }
+}
@@ -0,0 +1,162 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+
+import java.nio.channels.SelectionKey;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+public class PartitionedDispatcher extends AbstractCommandDispatcher {
+    private static final String THREAD_NAME_FORMAT = "command-shard-%d";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final int HASH_SPREAD_SHIFT = 16;
+    private static final int NO_SHARD = -1;
+    private final ExecutorService[] shards;
+    private final ThreadLocal<Integer> currentShard = ThreadLocal.withInitial(() -> NO_SHARD);
+
+    public PartitionedDispatcher(int shardsCount, int queueCapacity, CommandExecutor commandExecutor,
+                                 LogsManager logsManager) {
+        super(commandExecutor, logsManager);
+
+        if (shardsCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Shards count and queue capacity must be positive");
+        }
+
+        shards = new ExecutorService[shardsCount];
+        for (int i = 0; i < shardsCount; i++) {
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), shardThread(i));
+        }
+    }
+
+    private ThreadFactory shardThread(int shard) {
+        return runnable -> new Thread(() -> {
+            currentShard.set(shard);
+            runnable.run();
+        }, String.format(THREAD_NAME_FORMAT, shard));
+    }
+
+    int shardOf(String username) {
+        int hash = username.hashCode();
+        return Math.floorMod(hash ^ (hash >>> HASH_SPREAD_SHIFT), shards.length);
+    }
+
+    private int shardOf(SelectionKey key) {
+        Object username = key.attachment();
+        return username == null ? Math.floorMod(System.identityHashCode(key), shards.length)
+            : shardOf((String) username);
+    }
+
+    @Override
+    public void dispatch(List<String> clientInputs, SelectionKey key, Consumer<List<String>> onComplete) {
+        if (clientInputs == null || key == null || onComplete == null) {
+            throw new IllegalArgumentException("Client inputs, key and completion callback cannot be null");
+        }
+
+        int shard = shardOf(key);
+        try {
+            shards[shard].execute(() -> executeAll(clientInputs, key, shards[shard]).thenAccept(onComplete));
+        } catch (RejectedExecutionException e) {
+            onComplete.accept(rejectAll(clientInputs));
+        }
+    }
+
+    @Override
+    protected CompletableFuture<String> run(Command command, SelectionKey key) {
+        int home = shardOf(key);
+        int[] route = IntStream.concat(IntStream.of(home),
+                commandExecutor.participantsOf(command).stream().mapToInt(this::shardOf))
+            .distinct()
+            .sorted()
+            .toArray();
+
+        if (route.length == 1 && route[0] == currentShard.get()) {
+            return CompletableFuture.completedFuture(execute(command, key));
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        if (route[0] == currentShard.get()) {
+            handoff(route, 0, command, key, result);
+        } else {
+            submit(route[0], () -> handoff(route, 0, command, key, result), result);
+        }
+
+        if (result.isDone()) {
+            return result;
+        }
+
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        result.thenAccept(output -> resume(shards[home], () -> reply.complete(output), reply));
+        return reply;
+    }
+
+    private void handoff(int[] route, int index, Command command, SelectionKey key,
+                         CompletableFuture<String> result) {
+        if (index == route.length - 1) {
+            result.complete(execute(command, key));
+            return;
+        }
+
+        CountDownLatch released = new CountDownLatch(1);
+        Runnable next = () -> {
+            try {
+                handoff(route, index + 1, command, key, result);
+            } finally {
+                released.countDown();
+            }
+        };
+
+        if (submit(route[index + 1], next, result)) {
+            awaitRelease(released);
+        }
+    }
+
+    private boolean submit(int shard, Runnable task, CompletableFuture<String> result) {
+        try {
+            shards[shard].execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            result.complete(SERVER_BUSY_MESSAGE);
+            return false;
+        }
+    }
+
+    private void awaitRelease(CountDownLatch released) {
+        try {
+            released.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+
+        try {
+            for (ExecutorService shard : shards) {
+                if (!shard.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    shard.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            for (ExecutorService shard : shards) {
+                shard.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+public class RingBufferDispatcher extends AbstractCommandDispatcher {
+    private static final String THREAD_NAME = "command-logic";
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private final CommandRingBuffer ringBuffer;
+    private final List<Completion> completions = new ArrayList<>();
+    private final Executor continuations = this::continueOnLogicThread;
+    private final Consumer<CommandRingBuffer.CommandEvent> eventHandler = this::handle;
+    private final Thread logicThread;
+    private volatile boolean isWaiting;
+    private volatile boolean isWorking = true;
+
+    private record Completion(Consumer<List<String>> onComplete, List<String> outputs) {
+    }
+
+    public RingBufferDispatcher(int capacity, CommandExecutor commandExecutor, LogsManager logsManager) {
+        super(commandExecutor, logsManager);
+
+        ringBuffer = new CommandRingBuffer(capacity);
+        logicThread = new Thread(this::drainLoop, THREAD_NAME);
+        logicThread.start();
+    }
+
+    @Override
+    public void dispatch(List<String> clientInputs, SelectionKey key, Consumer<List<String>> onComplete) {
+        if (clientInputs == null || key == null || onComplete == null) {
+            throw new IllegalArgumentException("Client inputs, key and completion callback cannot be null");
+        }
+
+        if (!isWorking || !ringBuffer.tryPublish(clientInputs, key, onComplete)) {
+            onComplete.accept(rejectAll(clientInputs));
+            return;
+        }
+
+        wakeUpLogicThread();
+    }
+
+    private void continueOnLogicThread(Runnable continuation) {
+        if (Thread.currentThread() == logicThread) {
+            continuation.run();
+            return;
+        }
+
+        while (!ringBuffer.tryPublish(continuation)) {
+            if (!logicThread.isAlive()) {
+                continuation.run();
+                return;
+            }
+            Thread.onSpinWait();
+        }
+
+        wakeUpLogicThread();
+    }
+
+    private void wakeUpLogicThread() {
+        if (isWaiting) {
+            LockSupport.unpark(logicThread);
+        }
+    }
+
+    private void drainLoop() {
+        while (isWorking || ringBuffer.hasPublished()) {
+            if (ringBuffer.drain(eventHandler, MAX_BATCH_SIZE) > 0) {
+                completeBatch();
+                continue;
+            }
+
+            isWaiting = true;
+            if (isWorking && !ringBuffer.hasPublished()) {
+                LockSupport.park(this);
+            }
+            isWaiting = false;
+        }
+    }
+
+    private void handle(CommandRingBuffer.CommandEvent event) {
+        try {
+            if (event.getTask() != null) {
+                event.getTask().run();
+                return;
+            }
+
+            Consumer<List<String>> onComplete = event.getOnComplete();
+            executeAll(event.getClientInputs(), event.getKey(), continuations)
+                .thenAccept(outputs -> completions.add(new Completion(onComplete, outputs)));
+        } catch (RuntimeException e) {
+            logsManager.addLogToFile(e, null);
+        }
+    }
+
+    private void completeBatch() {
+        if (completions.isEmpty()) {
+            return;
+        }
+
+        boolean isFlushed = true;
+        try {
+            commandExecutor.flush();
+        } catch (ServerErrorException e) {
+            logsManager.addLogToFile(e, null);
+            isFlushed = false;
+        }
+
+        for (Completion completion : completions) {
+            List<String> outputs = completion.outputs();
+            completion.onComplete().accept(isFlushed ? outputs : Collections.nCopies(outputs.size(), ERROR_MESSAGE));
+        }
+        completions.clear();
+    }
+
+    @Override
+    public void shutdown() {
+        isWorking = false;
+        LockSupport.unpark(logicThread);
+
+        try {
+            logicThread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
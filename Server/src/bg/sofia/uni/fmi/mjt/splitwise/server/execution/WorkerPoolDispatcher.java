@@ -0,0 +1,75 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+
+import java.nio.channels.SelectionKey;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class WorkerPoolDispatcher extends AbstractCommandDispatcher {
+    private static final String THREAD_NAME_FORMAT = "command-worker-%d";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private final ExecutorService workers;
+    private final Executor continuations = this::continueOnWorker;
+
+    public WorkerPoolDispatcher(int threads, int queueCapacity, CommandExecutor commandExecutor,
+                                LogsManager logsManager) {
+        super(commandExecutor, logsManager);
+
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Worker threads and queue capacity must be positive");
+        }
+
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), namedThreads());
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> new Thread(runnable, String.format(THREAD_NAME_FORMAT, counter.getAndIncrement()));
+    }
+
+    @Override
+    public void dispatch(List<String> clientInputs, SelectionKey key, Consumer<List<String>> onComplete) {
+        if (clientInputs == null || key == null || onComplete == null) {
+            throw new IllegalArgumentException("Client inputs, key and completion callback cannot be null");
+        }
+
+        try {
+            workers.execute(() -> executeAll(clientInputs, key, continuations).thenAccept(onComplete));
+        } catch (RejectedExecutionException e) {
+            onComplete.accept(rejectAll(clientInputs));
+        }
+    }
+
+    private void continueOnWorker(Runnable continuation) {
+        try {
+            workers.execute(continuation);
+        } catch (RejectedExecutionException e) {
+            continuation.run();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        workers.shutdown();
+
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
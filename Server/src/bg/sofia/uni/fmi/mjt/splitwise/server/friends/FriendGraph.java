@@ -0,0 +1,121 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.friends;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.collections.IntObjectHashMap;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.IntArrayUtils;
+
+import java.util.Arrays;
+
+public class FriendGraph {
+    private static final int MAX_DELTA_SIZE = 32;
+    private final IntObjectHashMap<Adjacency> outgoing = new IntObjectHashMap<>();
+    private final IntObjectHashMap<Adjacency> incoming = new IntObjectHashMap<>();
+    private long edges;
+
+    private static class Adjacency {
+        private int[] merged = IntArrayUtils.EMPTY;
+        private int[] delta = IntArrayUtils.EMPTY;
+
+        private boolean contains(int id) {
+            return IntArrayUtils.contains(merged, id) || IntArrayUtils.contains(delta, id);
+        }
+
+        private void add(int id) {
+            delta = IntArrayUtils.insert(delta, id);
+            if (delta.length >= MAX_DELTA_SIZE) {
+                merge();
+            }
+        }
+
+        private int[] merge() {
+            if (delta.length > 0) {
+                merged = IntArrayUtils.union(merged, delta);
+                delta = IntArrayUtils.EMPTY;
+            }
+            return merged;
+        }
+
+        private int size() {
+            return merged.length + delta.length;
+        }
+    }
+
+    public boolean add(int userId, int friendId) {
+        if (contains(userId, friendId)) {
+            return false;
+        }
+
+        outgoing.computeIfAbsent(userId, id -> new Adjacency()).add(friendId);
+        incoming.computeIfAbsent(friendId, id -> new Adjacency()).add(userId);
+        edges++;
+        return true;
+    }
+
+    public boolean contains(int userId, int friendId) {
+        Adjacency adjacency = outgoing.get(userId);
+        return adjacency != null && adjacency.contains(friendId);
+    }
+
+    public boolean isMutual(int userId, int friendId) {
+        return contains(userId, friendId) && contains(friendId, userId);
+    }
+
+    public int[] friendsOf(int userId) {
+        Adjacency adjacency = outgoing.get(userId);
+        return adjacency == null ? IntArrayUtils.EMPTY : adjacency.merge();
+    }
+
+    public int[] addedBy(int userId) {
+        Adjacency adjacency = incoming.get(userId);
+        return adjacency == null ? IntArrayUtils.EMPTY : adjacency.merge();
+    }
+
+    public int[] friendsAfter(int userId, int afterId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+
+        int[] friends = friendsOf(userId);
+        int index = Arrays.binarySearch(friends, afterId);
+        int from = index >= 0 ? index + 1 : -index - 1;
+
+        return Arrays.copyOfRange(friends, from, (int) Math.min(friends.length, (long) from + limit));
+    }
+
+    public int countFriends(int userId) {
+        Adjacency adjacency = outgoing.get(userId);
+        return adjacency == null ? 0 : adjacency.size();
+    }
+
+    public void forEachUser(IntObjectHashMap.EntryConsumer<int[]> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+
+        outgoing.forEach((userId, adjacency) -> consumer.accept(userId, adjacency.merge()));
+    }
+
+    public void clear() {
+        outgoing.clear();
+        incoming.clear();
+        edges = 0;
+    }
+
+    public void compact() {
+        outgoing.forEach((userId, adjacency) -> adjacency.merge());
+        incoming.forEach((userId, adjacency) -> adjacency.merge());
+    }
+
+    public long edges() {
+        return edges;
+    }
+
+    public long adjacencyBytes() {
+        long[] ids = new long[1];
+        IntObjectHashMap.EntryConsumer<Adjacency> counter =
+            (userId, adjacency) -> ids[0] += adjacency.merged.length + adjacency.delta.length;
+        outgoing.forEach(counter);
+        incoming.forEach(counter);
+
+        return ids[0] * Integer.BYTES;
+    }
+}
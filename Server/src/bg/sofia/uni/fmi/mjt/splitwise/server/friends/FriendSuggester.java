@@ -0,0 +1,152 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.friends;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.collections.IntObjectHashMap;
+import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.IntArrayUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class FriendSuggester {
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_DEGREE = 256;
+    private static final int MAX_VISITS = 16_384;
+    private static final int INITIAL_CAPACITY = 64;
+    private final FriendGraph graph;
+    private final IntObjectHashMap<List<FriendSuggestion>> cache = new IntObjectHashMap<>();
+    private int[] mutualFriends = new int[INITIAL_CAPACITY];
+    private int[] sharedGroups = new int[INITIAL_CAPACITY];
+    private int[] touched = new int[INITIAL_CAPACITY];
+    private int touchedSize;
+    private int visits;
+
+    public FriendSuggester(FriendGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+
+        this.graph = graph;
+    }
+
+    public List<FriendSuggestion> suggest(int userId) {
+        List<FriendSuggestion> suggestions = cache.get(userId);
+        if (suggestions == null) {
+            suggestions = compute(userId);
+            cache.put(userId, suggestions);
+        }
+
+        return suggestions;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public void invalidate(int userId) {
+        cache.remove(userId);
+    }
+
+    private List<FriendSuggestion> compute(int userId) {
+        visits = 0;
+        try {
+            int[] friends = graph.friendsOf(userId);
+            for (int i = 0; i < Math.min(friends.length, MAX_DEGREE) && visits < MAX_VISITS; i++) {
+                count(graph.friendsOf(friends[i]), true);
+            }
+
+            User user = UserRepository.toUser(userId);
+            int[] groupIds = user == null ? IntArrayUtils.EMPTY : user.getGroupIds();
+            for (int i = 0; i < Math.min(groupIds.length, MAX_DEGREE) && visits < MAX_VISITS; i++) {
+                count(GroupManager.toMemberIds(groupIds[i]), false);
+            }
+
+            return selectTop(userId);
+        } finally {
+            for (int i = 0; i < touchedSize; i++) {
+                mutualFriends[touched[i]] = 0;
+                sharedGroups[touched[i]] = 0;
+            }
+            touchedSize = 0;
+        }
+    }
+
+    private void count(int[] candidates, boolean isFriend) {
+        for (int i = 0; i < Math.min(candidates.length, MAX_DEGREE) && visits < MAX_VISITS; i++, visits++) {
+            int candidate = candidates[i];
+            if (candidate < 0) {
+                continue;
+            }
+
+            ensureCapacity(candidate);
+            if (mutualFriends[candidate] == 0 && sharedGroups[candidate] == 0) {
+                if (touchedSize == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedSize * 2);
+                }
+                touched[touchedSize++] = candidate;
+            }
+            if (isFriend) {
+                mutualFriends[candidate]++;
+            } else {
+                sharedGroups[candidate]++;
+            }
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < mutualFriends.length) {
+            return;
+        }
+
+        int capacity = Math.max(id + 1, mutualFriends.length * 2);
+        mutualFriends = Arrays.copyOf(mutualFriends, capacity);
+        sharedGroups = Arrays.copyOf(sharedGroups, capacity);
+    }
+
+    private List<FriendSuggestion> selectTop(int userId) {
+        int[] best = new int[MAX_SUGGESTIONS];
+        int bestSize = 0;
+
+        for (int i = 0; i < touchedSize; i++) {
+            int candidate = touched[i];
+            if (candidate == userId || graph.contains(userId, candidate) ||
+                UserRepository.toUser(candidate) == null) {
+                continue;
+            }
+
+            int position = bestSize;
+            while (position > 0 && isBetter(candidate, best[position - 1])) {
+                position--;
+            }
+            if (position == MAX_SUGGESTIONS) {
+                continue;
+            }
+
+            int moved = Math.min(bestSize, MAX_SUGGESTIONS - 1) - position;
+            System.arraycopy(best, position, best, position + 1, moved);
+            best[position] = candidate;
+            bestSize = Math.min(bestSize + 1, MAX_SUGGESTIONS);
+        }
+
+        List<FriendSuggestion> suggestions = new ArrayList<>(bestSize);
+        for (int i = 0; i < bestSize; i++) {
+            suggestions.add(new FriendSuggestion(UserRepository.toUsername(best[i]), mutualFriends[best[i]],
+                sharedGroups[best[i]]));
+        }
+        return List.copyOf(suggestions);
+    }
+
+    private boolean isBetter(int candidate, int other) {
+        int candidateScore = mutualFriends[candidate] + sharedGroups[candidate];
+        int otherScore = mutualFriends[other] + sharedGroups[other];
+        if (candidateScore != otherScore) {
+            return candidateScore > otherScore;
+        }
+        if (mutualFriends[candidate] != mutualFriends[other]) {
+            return mutualFriends[candidate] > mutualFriends[other];
+        }
+        return candidate < other;
+    }
+}
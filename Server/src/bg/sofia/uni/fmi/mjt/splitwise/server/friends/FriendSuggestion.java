@@ -0,0 +1,4 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.friends;
+
+public record FriendSuggestion(String username, int mutualFriends, int sharedGroups) {
+}
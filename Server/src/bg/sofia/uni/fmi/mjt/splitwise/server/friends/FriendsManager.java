@@ -2,21 +2,24 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.friends;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.FriendAlreadyAddedException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.ids.IdRegistry;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotWriter;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Storage;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Table;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 public class FriendsManager {
-    private static final Path USERS_FRIENDS_PATH = Path.of("usersFriends.txt");
-    private final Map<String, Set<User>> friends = new HashMap<>();
+    private final FriendGraph graph = new FriendGraph();
+    private final FriendSuggester suggester = new FriendSuggester(graph);
+    private final Storage storage = StorageProvider.getInstance();
     private static FriendsManager instance;
 
     private FriendsManager() {
@@ -34,53 +37,169 @@ public class FriendsManager {
         loadFriendsFromFile();
     }
 
-    public void loadFriendsFromFile() throws ServerErrorException {
-        if (!Files.exists(USERS_FRIENDS_PATH)) {
-            return;
+    public synchronized void clear() {
+        graph.clear();
+        suggester.clear();
+    }
+
+    public void restore(SnapshotReader reader) throws ServerErrorException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Snapshot reader cannot be null");
         }
 
-        try (var bufferedReader = Files.newBufferedReader(USERS_FRIENDS_PATH)) {
-            String line;
+        long position = reader.readLong();
+        int count = reader.readInt();
+        for (int i = 0; i < count; i++) {
+            String username = reader.readString();
+            int friendsCount = reader.readInt();
 
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] friendship = line.split(FileUtils.SINGLE_SPACE);
+            for (int j = 0; j < friendsCount; j++) {
+                link(username, reader.readString());
+            }
+        }
 
-                String username = friendship[FileUtils.ZERO_INDEX];
-                User friend = UserRepository.toUser(friendship[FileUtils.ONE_INDEX]);
+        loadFriendsFromFile(position);
+    }
 
-                if (!friends.containsKey(username)) {
-                    friends.put(username, new HashSet<>());
-                }
-                friends.get(username).add(friend);
+    public synchronized void writeSnapshot(SnapshotWriter writer) throws ServerErrorException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Snapshot writer cannot be null");
+        }
+
+        writer.writeLong(storage.position(Table.FRIENDSHIPS, Storage.GLOBAL));
+        graph.compact();
+        List<Integer> userIds = new ArrayList<>();
+        graph.forEachUser((userId, userFriends) -> userIds.add(userId));
+
+        writer.writeInt(userIds.size());
+        for (int userId : userIds) {
+            int[] userFriends = graph.friendsOf(userId);
+            writer.writeString(UserRepository.toUsername(userId));
+            writer.writeInt(userFriends.length);
+            for (int friendId : userFriends) {
+                writer.writeString(UserRepository.toUsername(friendId));
             }
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + USERS_FRIENDS_PATH, e);
         }
     }
 
-    public void addFriend(String username, User friend) throws FriendAlreadyAddedException, ServerErrorException {
+    public void loadFriendsFromFile() throws ServerErrorException {
+        loadFriendsFromFile(FileUtils.ZERO_INDEX);
+    }
+
+    private void loadFriendsFromFile(long position) throws ServerErrorException {
+        storage.load(Table.FRIENDSHIPS, Storage.GLOBAL, position, line -> {
+            String[] friendship = line.split(FileUtils.SINGLE_SPACE);
+
+            link(friendship[FileUtils.ZERO_INDEX], friendship[FileUtils.ONE_INDEX]);
+        });
+    }
+
+    private boolean link(String username, String friend) {
+        return graph.add(UserRepository.internUsername(username), UserRepository.internUsername(friend));
+    }
+
+    public synchronized void addFriend(String username, User friend)
+        throws FriendAlreadyAddedException, ServerErrorException {
         if (username == null || friend == null ) {
             throw new IllegalArgumentException("Friend and username cannot be null");
         }
 
-        if (friends.containsKey(username) && friends.get(username).contains(friend)) {
+        if (!link(username, friend.getUsername())) {
             throw new FriendAlreadyAddedException(
                 String.format("User %s is already in your friend list", friend.getUsername()));
         }
 
-        if (!friends.containsKey(username)) {
-            friends.put(username, new HashSet<>());
+        int userId = UserRepository.toId(username);
+        suggester.invalidate(userId);
+        for (int followerId : graph.addedBy(userId)) {
+            suggester.invalidate(followerId);
+        }
+
+        storage.append(Table.FRIENDSHIPS, Storage.GLOBAL,
+            String.join(FileUtils.SINGLE_SPACE, username, friend.getUsername()));
+    }
+
+    public synchronized boolean hasFriend(String username, User friend) {
+        if (username == null || friend == null) {
+            throw new IllegalArgumentException("Username and friend cannot be null");
         }
-        friends.get(username).add(friend);
 
-        FileUtils.writeToFile(USERS_FRIENDS_PATH, FileUtils.SINGLE_SPACE, username, friend.getUsername());
+        int userId = UserRepository.toId(username);
+        int friendId = UserRepository.toId(friend.getUsername());
+
+        return userId != IdRegistry.NO_ID && friendId != IdRegistry.NO_ID && graph.contains(userId, friendId);
     }
 
-    public boolean hasFriend(String username, User friend) {
+    public synchronized boolean isMutualFriend(String username, String friend) {
         if (username == null || friend == null) {
             throw new IllegalArgumentException("Username and friend cannot be null");
         }
 
-        return friends.containsKey(username) && friends.get(username).contains(friend);
+        int userId = UserRepository.toId(username);
+        int friendId = UserRepository.toId(friend);
+
+        return userId != IdRegistry.NO_ID && friendId != IdRegistry.NO_ID && graph.isMutual(userId, friendId);
+    }
+
+    public synchronized int countFriends(String username) {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+
+        int userId = UserRepository.toId(username);
+        return userId == IdRegistry.NO_ID ? 0 : graph.countFriends(userId);
+    }
+
+    public synchronized List<FriendSuggestion> suggestFriends(String username, int limit) {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+
+        int userId = UserRepository.toId(username);
+        if (userId == IdRegistry.NO_ID) {
+            return List.of();
+        }
+
+        List<FriendSuggestion> suggestions = suggester.suggest(userId);
+        return suggestions.subList(0, Math.min(limit, suggestions.size()));
+    }
+
+    public synchronized void invalidateSuggestions(Collection<String> usernames) {
+        if (usernames == null) {
+            throw new IllegalArgumentException("Usernames cannot be null");
+        }
+
+        for (String username : usernames) {
+            int userId = UserRepository.toId(username);
+            if (userId != IdRegistry.NO_ID) {
+                suggester.invalidate(userId);
+            }
+        }
+    }
+
+    public synchronized List<String> getFriends(String username, String after, int limit) {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+
+        int userId = UserRepository.toId(username);
+        if (userId == IdRegistry.NO_ID) {
+            return List.of();
+        }
+
+        int afterId = IdRegistry.NO_ID;
+        if (after != null) {
+            afterId = UserRepository.toId(after);
+            if (afterId == IdRegistry.NO_ID) {
+                return List.of();
+            }
+        }
+
+        int[] page = graph.friendsAfter(userId, afterId, limit);
+        List<String> friends = new ArrayList<>(page.length);
+        for (int friendId : page) {
+            friends.add(UserRepository.toUsername(friendId));
+        }
+        return friends;
     }
 }
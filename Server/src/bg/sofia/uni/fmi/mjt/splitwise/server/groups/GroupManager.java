@@ -1,31 +1,38 @@
 package bg.sofia.uni.fmi.mjt.splitwise.server.groups;
 
+import bg.sofia.uni.fmi.mjt.splitwise.server.collections.IntObjectHashMap;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.GroupAlreadyExistsException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.ids.IdRegistry;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotWriter;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Storage;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Table;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.IntArrayUtils;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class GroupManager {
-    private static final Path GROUPS_PATH = Path.of("groups.txt");
     private static final String COMMA_AND_SPACE = ", ";
     private static final String EMPTY_STRING = "";
     private static final String SQUARE_BRACKETS_REMOVER_REGEX = "\\[|\\]";
     private static GroupManager instance;
-    private static Map<String, Group> groups;
+    private static final IdRegistry groupIds = new IdRegistry();
+    private static IntObjectHashMap<Group> groups;
+    private static IntObjectHashMap<int[]> groupMemberIds;
+    private final Storage storage = StorageProvider.getInstance();
 
     private GroupManager() {
-        groups = new HashMap<>();
+        groups = new IntObjectHashMap<>();
+        groupMemberIds = new IntObjectHashMap<>();
     }
 
     public static GroupManager getInstance() {
@@ -36,37 +43,77 @@ public class GroupManager {
     }
 
     public void initialize() throws ServerErrorException {
-        loadGroupsFromFile();
+        loadGroupsFromFile(FileUtils.ZERO_INDEX);
     }
 
-    private void loadGroupsFromFile() throws ServerErrorException {
-        if (!Files.exists(GROUPS_PATH)) {
-            return;
+    public void clear() {
+        groups.clear();
+        groupMemberIds.clear();
+    }
+
+    public void restore(SnapshotReader reader) throws ServerErrorException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Snapshot reader cannot be null");
         }
 
-        try (var bufferedReader = Files.newBufferedReader(GROUPS_PATH)) {
-            String line;
+        long position = reader.readLong();
+        int count = reader.readInt();
+        for (int i = 0; i < count; i++) {
+            String groupName = reader.readString();
+            int membersCount = reader.readInt();
+
+            Set<User> members = new HashSet<>();
+            for (int j = 0; j < membersCount; j++) {
+                User member = UserRepository.toUser(reader.readString());
+                member.addToGroup(groupName);
+                members.add(member);
+            }
 
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] group = line.split(FileUtils.COLON);
+            putGroup(internGroupName(groupName), new Group(groupName, members));
+        }
 
-                String groupName = group[FileUtils.ZERO_INDEX];
-                String usernames = group[FileUtils.ONE_INDEX].replaceAll(SQUARE_BRACKETS_REMOVER_REGEX, EMPTY_STRING);
-                Set<String> users = new HashSet<>(Arrays.asList(usernames.split(COMMA_AND_SPACE)));
+        loadGroupsFromFile(position);
+    }
 
-                Set<User> members = users.stream()
-                    .map(UserRepository::toUser)
-                    .collect(Collectors.toSet());
+    public void writeSnapshot(SnapshotWriter writer) throws ServerErrorException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Snapshot writer cannot be null");
+        }
 
-                members.forEach(user -> user.addToGroup(groupName));
+        writer.writeLong(storage.position(Table.GROUPS, Storage.GLOBAL));
+        writer.writeInt(groups.size());
+        for (int groupId = 0; groupId < groupIds.size(); groupId++) {
+            Group group = groups.get(groupId);
+            if (group == null) {
+                continue;
+            }
 
-                groups.put(groupName, new Group(groupName, members));
+            writer.writeString(group.name());
+            writer.writeInt(group.members().size());
+            for (User member : group.members()) {
+                writer.writeString(member.getUsername());
             }
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + GROUPS_PATH, e);
         }
     }
 
+    private void loadGroupsFromFile(long position) throws ServerErrorException {
+        storage.load(Table.GROUPS, Storage.GLOBAL, position, line -> {
+            String[] group = line.split(FileUtils.COLON);
+
+            String groupName = group[FileUtils.ZERO_INDEX];
+            String usernames = group[FileUtils.ONE_INDEX].replaceAll(SQUARE_BRACKETS_REMOVER_REGEX, EMPTY_STRING);
+            Set<String> users = new HashSet<>(Arrays.asList(usernames.split(COMMA_AND_SPACE)));
+
+            Set<User> members = users.stream()
+                .map(UserRepository::toUser)
+                .collect(Collectors.toSet());
+
+            members.forEach(user -> user.addToGroup(groupName));
+
+            putGroup(internGroupName(groupName), new Group(groupName, members));
+        });
+    }
+
     public void addGroup(String groupName, Set<String> members) throws GroupAlreadyExistsException,
         ServerErrorException {
         if (groupName == null || members == null) {
@@ -78,14 +125,26 @@ public class GroupManager {
             .map(UserRepository::toUser)
             .collect(Collectors.toSet());
 
-        if (groups.containsKey(groupName)) {
+        int groupId = internGroupName(groupName);
+        if (groups.containsKey(groupId)) {
             throw new GroupAlreadyExistsException(String.format("The group %s already exists", groupName));
         }
 
-        groups.put(groupName, new Group(groupName, users));
+        putGroup(groupId, new Group(groupName, users));
         users.forEach(user -> user.addToGroup(groupName));
+        FriendsManager.getInstance().invalidateSuggestions(members);
 
-        FileUtils.writeToFile(GROUPS_PATH, FileUtils.COLON, groupName, members);
+        storage.append(Table.GROUPS, Storage.GLOBAL, String.join(FileUtils.COLON, groupName, members.toString()));
+    }
+
+    private static void putGroup(int groupId, Group group) {
+        int[] memberIds = IntArrayUtils.EMPTY;
+        for (User member : group.members()) {
+            memberIds = IntArrayUtils.insert(memberIds, member.getId());
+        }
+
+        groups.put(groupId, group);
+        groupMemberIds.put(groupId, memberIds);
     }
 
     public boolean existsGroup(String groupName) {
@@ -93,7 +152,8 @@ public class GroupManager {
             throw new IllegalArgumentException("Group name cannot be null");
         }
 
-        return groups.containsKey(groupName);
+        int groupId = groupIds.idOf(groupName);
+        return groupId != IdRegistry.NO_ID && groups.containsKey(groupId);
     }
 
     public static Group toGroup(String groupName) throws ServerErrorException {
@@ -101,14 +161,35 @@ public class GroupManager {
             throw new IllegalArgumentException("Group name cannot be null");
         }
 
-        if (!groups.containsKey(groupName)) {
+        int groupId = groupIds.idOf(groupName);
+        Group group = groupId == IdRegistry.NO_ID ? null : groups.get(groupId);
+        if (group == null) {
             throw new ServerErrorException("Invalid map of groups");
         }
 
-        return groups.get(groupName);
+        return group;
     }
 
     public static Set<String> getGroups() {
-        return groups.keySet();
+        Set<String> names = new HashSet<>();
+        groups.forEach((groupId, group) -> names.add(group.name()));
+        return names;
+    }
+
+    public static int[] toMemberIds(int groupId) {
+        int[] memberIds = groupMemberIds.get(groupId);
+        return memberIds == null ? IntArrayUtils.EMPTY : memberIds;
+    }
+
+    public static int internGroupName(String groupName) {
+        return groupIds.intern(groupName);
+    }
+
+    public static int toGroupId(String groupName) {
+        return groupIds.idOf(groupName);
+    }
+
+    public static String toGroupName(int groupId) {
+        return groupIds.nameOf(groupId);
     }
 }
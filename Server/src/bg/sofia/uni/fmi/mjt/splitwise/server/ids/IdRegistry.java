@@ -0,0 +1,103 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.ids;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class IdRegistry {
+    public static final int NO_ID = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+    private volatile Index index = new Index(INITIAL_CAPACITY);
+    private volatile String[] names = new String[INITIAL_CAPACITY];
+    private volatile int size;
+
+    private static final class Index {
+        private final AtomicReferenceArray<String> keys;
+        private final int[] ids;
+        private final int mask;
+
+        private Index(int capacity) {
+            keys = new AtomicReferenceArray<>(capacity);
+            ids = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        private int slotOf(String name) {
+            int hash = name.hashCode() * GOLDEN_RATIO;
+            return (hash ^ (hash >>> Short.SIZE)) & mask;
+        }
+
+        private int find(String name) {
+            int slot = slotOf(name);
+            String key;
+            while ((key = keys.get(slot)) != null) {
+                if (key.equals(name)) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NO_ID;
+        }
+
+        private void insert(String name, int id) {
+            int slot = slotOf(name);
+            while (keys.get(slot) != null) {
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            keys.set(slot, name);
+        }
+    }
+
+    public int idOf(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null");
+        }
+
+        return index.find(name);
+    }
+
+    public String nameOf(int id) {
+        String[] current = names;
+        if (id < 0 || id >= current.length) {
+            return null;
+        }
+
+        return current[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public synchronized int intern(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null");
+        }
+
+        int id = index.find(name);
+        if (id != NO_ID) {
+            return id;
+        }
+
+        id = size;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id * 2);
+        }
+        names[id] = name;
+
+        if ((id + 1) * 2 > index.ids.length) {
+            Index resized = new Index(index.ids.length * 2);
+            for (int i = 0; i < id; i++) {
+                resized.insert(names[i], i);
+            }
+            resized.insert(name, id);
+            index = resized;
+        } else {
+            index.insert(name, id);
+        }
+
+        size = id + 1;
+        return id;
+    }
+}
@@ -25,7 +25,7 @@ public class LogsManager {
         return instance;
     }
 
-    public void addLogToFile(Throwable error, String username) {
+    public synchronized void addLogToFile(Throwable error, String username) {
         if (error == null) {
             throw new IllegalArgumentException("Error cannot be null");
         }
@@ -0,0 +1,173 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ClientConnection {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_COMMAND_SIZE = 64 * 1024;
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int END_OF_STREAM = -1;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private final Deque<ByteBuffer> writeQueue = new ArrayDeque<>();
+    private final Map<ByteBuffer, Runnable> deliveryCallbacks = new IdentityHashMap<>();
+    private final Deque<String> pendingCommands = new ArrayDeque<>();
+    private boolean isExecuting;
+
+    public List<String> read(SocketChannel socketChannel) throws IOException {
+        if (socketChannel == null) {
+            throw new IllegalArgumentException("Socket channel cannot be null");
+        }
+
+        List<String> commands = new ArrayList<>();
+
+        int bytesRead;
+        while ((bytesRead = socketChannel.read(readBuffer)) > 0) {
+            if (!readBuffer.hasRemaining()) {
+                extractCommands(commands);
+            }
+            if (!readBuffer.hasRemaining()) {
+                growReadBuffer();
+            }
+        }
+
+        if (bytesRead == END_OF_STREAM) {
+            return null;
+        }
+
+        extractCommands(commands);
+        return commands;
+    }
+
+    private void extractCommands(List<String> commands) {
+        readBuffer.flip();
+
+        int frameStart = readBuffer.position();
+        for (int i = frameStart; i < readBuffer.limit(); i++) {
+            if (readBuffer.get(i) == NEW_LINE) {
+                commands.add(decode(frameStart, i));
+                frameStart = i + 1;
+            }
+        }
+
+        readBuffer.position(frameStart);
+        readBuffer.compact();
+    }
+
+    private String decode(int from, int to) {
+        int end = to;
+        if (end > from && readBuffer.get(end - 1) == CARRIAGE_RETURN) {
+            end--;
+        }
+
+        byte[] bytes = new byte[end - from];
+        readBuffer.get(from, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void growReadBuffer() throws IOException {
+        if (readBuffer.capacity() >= MAX_COMMAND_SIZE) {
+            throw new IOException("Client command exceeds the maximum size of " + MAX_COMMAND_SIZE + " bytes");
+        }
+
+        ByteBuffer grown = ByteBuffer.allocate(Math.min(readBuffer.capacity() * 2, MAX_COMMAND_SIZE));
+        readBuffer.flip();
+        grown.put(readBuffer);
+        readBuffer = grown;
+    }
+
+    public void addCommands(List<String> commands) {
+        if (commands == null) {
+            throw new IllegalArgumentException("Commands cannot be null");
+        }
+
+        pendingCommands.addAll(commands);
+    }
+
+    public List<String> nextCommands(int maxCount) {
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("Max count of commands must be positive");
+        }
+
+        if (isExecuting || pendingCommands.isEmpty()) {
+            return null;
+        }
+
+        List<String> commands = new ArrayList<>(Math.min(maxCount, pendingCommands.size()));
+        while (commands.size() < maxCount && !pendingCommands.isEmpty()) {
+            commands.add(pendingCommands.poll());
+        }
+
+        isExecuting = true;
+        return commands;
+    }
+
+    public void completeCommands(List<String> outputs) {
+        if (outputs == null) {
+            throw new IllegalArgumentException("Outputs cannot be null");
+        }
+
+        outputs.forEach(this::enqueue);
+        isExecuting = false;
+    }
+
+    public int pendingCommandsCount() {
+        return pendingCommands.size();
+    }
+
+    public void enqueue(String output) {
+        if (output == null) {
+            throw new IllegalArgumentException("Output cannot be null");
+        }
+
+        writeQueue.add(FrameEncoder.encode(output));
+    }
+
+    public void enqueueEvent(String event, Runnable onDelivered) {
+        if (event == null || onDelivered == null) {
+            throw new IllegalArgumentException("Event and delivery callback cannot be null");
+        }
+
+        ByteBuffer frame = FrameEncoder.encodeEvent(event);
+        writeQueue.add(frame);
+        deliveryCallbacks.put(frame, onDelivered);
+    }
+
+    public boolean flush(SocketChannel socketChannel) throws IOException {
+        if (socketChannel == null) {
+            throw new IllegalArgumentException("Socket channel cannot be null");
+        }
+
+        while (!writeQueue.isEmpty()) {
+            ByteBuffer[] frames = writeQueue.toArray(new ByteBuffer[0]);
+            long written = socketChannel.write(frames, 0, frames.length);
+
+            while (!writeQueue.isEmpty() && !writeQueue.peek().hasRemaining()) {
+                Runnable onDelivered = deliveryCallbacks.remove(writeQueue.poll());
+                if (onDelivered != null) {
+                    onDelivered.run();
+                }
+            }
+
+            if (written == 0 && !writeQueue.isEmpty()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean hasPendingOutput() {
+        return !writeQueue.isEmpty();
+    }
+}
@@ -0,0 +1,7 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.network;
+
+import java.nio.channels.SelectionKey;
+
+public interface EventSink {
+    void push(SelectionKey key, String event, Runnable onDelivered);
+}
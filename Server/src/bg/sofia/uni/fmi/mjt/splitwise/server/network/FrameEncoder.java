@@ -0,0 +1,32 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.network;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class FrameEncoder {
+    public static final int HEADER_SIZE = Integer.BYTES;
+    public static final int EVENT_FLAG = Integer.MIN_VALUE;
+    private static final int REPLY_FLAG = 0;
+
+    public static ByteBuffer encode(String message) {
+        return encode(message, REPLY_FLAG);
+    }
+
+    public static ByteBuffer encodeEvent(String event) {
+        return encode(event, EVENT_FLAG);
+    }
+
+    private static ByteBuffer encode(String message, int flag) {
+        if (message == null) {
+            throw new IllegalArgumentException("Message cannot be null");
+        }
+
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        frame.putInt(payload.length | flag);
+        frame.put(payload);
+        frame.flip();
+
+        return frame;
+    }
+}
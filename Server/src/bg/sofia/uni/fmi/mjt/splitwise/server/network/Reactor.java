@@ -0,0 +1,266 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.network;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.execution.CommandDispatcher;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionRegistry;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class Reactor implements Runnable, EventSink {
+    private static final int MAX_PENDING_COMMANDS = 256;
+    private static final int MAX_PIPELINED_COMMANDS = 64;
+    private static final int NO_INTEREST = 0;
+    private static final String WELCOME_MESSAGE = """
+        Welcome!
+        If you already have an account use the following command:
+         - login <username> <password>
+        If you have a session token from a previous login use the following command:
+         - resume <session_token>
+        If you don't have an account yet use the following command:
+         - register <username> <password> <first name> <last name>""";
+    private final CommandDispatcher commandDispatcher;
+    private final LogsManager logsManager;
+    private final SessionRegistry sessionRegistry;
+    private final Selector selector;
+    private final Queue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+    private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+    private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+    private final Map<SelectionKey, ClientConnection> connections = new HashMap<>();
+    private volatile boolean isWorking = true;
+
+    private record Completion(SelectionKey key, List<String> outputs) {
+    }
+
+    private record Event(SelectionKey key, String message, Runnable onDelivered) {
+    }
+
+    public Reactor(CommandDispatcher commandDispatcher, LogsManager logsManager) throws IOException {
+        this(commandDispatcher, logsManager, SessionRegistry.getInstance());
+    }
+
+    public Reactor(CommandDispatcher commandDispatcher, LogsManager logsManager, SessionRegistry sessionRegistry)
+        throws IOException {
+        if (commandDispatcher == null || logsManager == null || sessionRegistry == null) {
+            throw new IllegalArgumentException("Command dispatcher, logs manager and session registry cannot be null");
+        }
+
+        this.commandDispatcher = commandDispatcher;
+        this.logsManager = logsManager;
+        this.sessionRegistry = sessionRegistry;
+        this.selector = Selector.open();
+        sessionRegistry.addSink(selector, this);
+    }
+
+    public void register(SocketChannel socketChannel) {
+        if (socketChannel == null) {
+            throw new IllegalArgumentException("Socket channel cannot be null");
+        }
+
+        pendingChannels.add(socketChannel);
+        selector.wakeup();
+    }
+
+    @Override
+    public void push(SelectionKey key, String event, Runnable onDelivered) {
+        if (key == null || event == null || onDelivered == null) {
+            throw new IllegalArgumentException("Key, event and delivery callback cannot be null");
+        }
+
+        events.add(new Event(key, event, onDelivered));
+        selector.wakeup();
+    }
+
+    public void stop() {
+        isWorking = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (isWorking) {
+                selector.select();
+                registerPendingChannels();
+                processCompletions();
+                processEvents();
+                processSelectedKeys();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logsManager.addLogToFile(e, null);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void registerPendingChannels() {
+        SocketChannel socketChannel;
+        while ((socketChannel = pendingChannels.poll()) != null) {
+            try {
+                socketChannel.configureBlocking(false);
+                SelectionKey key = socketChannel.register(selector, SelectionKey.OP_READ);
+
+                ClientConnection connection = new ClientConnection();
+                connections.put(key, connection);
+                connection.enqueue(WELCOME_MESSAGE);
+
+                writeKey(key);
+            } catch (IOException e) {
+                logsManager.addLogToFile(e, null);
+                closeChannel(socketChannel);
+            }
+        }
+    }
+
+    private void processCompletions() {
+        Completion completion;
+        while ((completion = completions.poll()) != null) {
+            SelectionKey key = completion.key();
+            ClientConnection connection = connections.get(key);
+
+            if (connection == null || !key.isValid()) {
+                continue;
+            }
+
+            connection.completeCommands(completion.outputs());
+            dispatchNext(key, connection);
+
+            try {
+                writeKey(key);
+            } catch (IOException e) {
+                logsManager.addLogToFile(e, (String) key.attachment());
+                closeConnection(key);
+            }
+        }
+    }
+
+    private void processEvents() {
+        Event event;
+        while ((event = events.poll()) != null) {
+            SelectionKey key = event.key();
+            ClientConnection connection = connections.get(key);
+
+            if (connection == null || !key.isValid()) {
+                continue;
+            }
+
+            connection.enqueueEvent(event.message(), event.onDelivered());
+
+            try {
+                writeKey(key);
+            } catch (IOException e) {
+                logsManager.addLogToFile(e, (String) key.attachment());
+                closeConnection(key);
+            }
+        }
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> keyIterator = selector.selectedKeys().iterator();
+        while (keyIterator.hasNext()) {
+            SelectionKey key = keyIterator.next();
+            keyIterator.remove();
+
+            try {
+                if (key.isValid() && key.isWritable()) {
+                    writeKey(key);
+                }
+                if (key.isValid() && key.isReadable()) {
+                    readKey(key);
+                }
+            } catch (IOException e) {
+                logsManager.addLogToFile(e, (String) key.attachment());
+                closeConnection(key);
+            }
+        }
+    }
+
+    private void readKey(SelectionKey key) throws IOException {
+        SocketChannel socketChannel = (SocketChannel) key.channel();
+        ClientConnection connection = connections.get(key);
+        List<String> clientInputs = connection.read(socketChannel);
+
+        if (clientInputs == null) {
+            closeConnection(key);
+            return;
+        }
+
+        connection.addCommands(clientInputs);
+        dispatchNext(key, connection);
+
+        writeKey(key);
+    }
+
+    private void dispatchNext(SelectionKey key, ClientConnection connection) {
+        List<String> clientInputs = connection.nextCommands(MAX_PIPELINED_COMMANDS);
+
+        if (clientInputs != null) {
+            commandDispatcher.dispatch(clientInputs, key, outputs -> complete(key, outputs));
+        }
+    }
+
+    private void complete(SelectionKey key, List<String> outputs) {
+        completions.add(new Completion(key, outputs));
+        selector.wakeup();
+    }
+
+    private void writeKey(SelectionKey key) throws IOException {
+        SocketChannel socketChannel = (SocketChannel) key.channel();
+        ClientConnection connection = connections.get(key);
+        connection.flush(socketChannel);
+
+        updateInterest(key, connection);
+    }
+
+    private void updateInterest(SelectionKey key, ClientConnection connection) {
+        if (connection.hasPendingOutput()) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else if (connection.pendingCommandsCount() < MAX_PENDING_COMMANDS) {
+            key.interestOps(SelectionKey.OP_READ);
+        } else {
+            key.interestOps(NO_INTEREST);
+        }
+    }
+
+    private void closeConnection(SelectionKey key) {
+        sessionRegistry.unregister(key);
+        connections.remove(key);
+        key.cancel();
+        closeChannel((SocketChannel) key.channel());
+    }
+
+    private void closeChannel(SocketChannel socketChannel) {
+        try {
+            socketChannel.close();
+        } catch (IOException e) {
+            logsManager.addLogToFile(e, null);
+        }
+    }
+
+    private void closeAll() {
+        sessionRegistry.removeSink(selector);
+        for (SelectionKey key : List.copyOf(connections.keySet())) {
+            closeConnection(key);
+        }
+
+        SocketChannel socketChannel;
+        while ((socketChannel = pendingChannels.poll()) != null) {
+            closeChannel(socketChannel);
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logsManager.addLogToFile(e, null);
+        }
+    }
+}
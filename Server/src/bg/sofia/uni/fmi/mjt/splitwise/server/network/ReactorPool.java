@@ -0,0 +1,58 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.network;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.execution.CommandDispatcher;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReactorPool {
+    private static final String THREAD_NAME_FORMAT = "reactor-%d";
+    private final List<Reactor> reactors = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private int nextReactor;
+
+    public ReactorPool(int size, CommandDispatcher commandDispatcher, LogsManager logsManager) throws IOException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Reactor pool size must be positive");
+        }
+
+        for (int i = 0; i < size; i++) {
+            Reactor reactor = new Reactor(commandDispatcher, logsManager);
+            reactors.add(reactor);
+            threads.add(new Thread(reactor, String.format(THREAD_NAME_FORMAT, i)));
+        }
+    }
+
+    public void start() {
+        threads.forEach(Thread::start);
+    }
+
+    public void assign(SocketChannel socketChannel) {
+        if (socketChannel == null) {
+            throw new IllegalArgumentException("Socket channel cannot be null");
+        }
+
+        reactors.get(nextReactor).register(socketChannel);
+        nextReactor = (nextReactor + 1) % reactors.size();
+    }
+
+    public int size() {
+        return reactors.size();
+    }
+
+    public void stop() {
+        reactors.forEach(Reactor::stop);
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
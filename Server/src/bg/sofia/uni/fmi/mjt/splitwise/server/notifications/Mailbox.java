@@ -0,0 +1,188 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class Mailbox {
+    public static final int NOT_REMOVED = -1;
+    private final Deque<Slot> notifications = new ArrayDeque<>();
+    private final Map<DigestKey, Slot> openDigests = new HashMap<>();
+    private final int capacity;
+    private final long coalescingWindowMillis;
+    private long lastSequence;
+    private long evicted;
+    private long coalesced;
+
+    private static class Slot {
+        private final DigestKey key;
+        private final long sequence;
+        private Notification notification;
+        private int delivered;
+
+        private Slot(DigestKey key, long sequence, Notification notification) {
+            this.key = key;
+            this.sequence = sequence;
+            this.notification = notification;
+        }
+    }
+
+    private record DigestKey(NotificationType type, String group, int debtorId, int creditorId, String reason) {
+        private static DigestKey of(Notification notification) {
+            String reason = notification.type() == NotificationType.PARTLY_PAID_DEBT ?
+                notification.debt().reason() : null;
+
+            return new DigestKey(notification.type(), notification.group(), notification.debt().debtor().getId(),
+                notification.debt().creditor().getId(), reason);
+        }
+    }
+
+    public Mailbox(int capacity) {
+        this(capacity, Duration.ZERO);
+    }
+
+    public Mailbox(int capacity, Duration coalescingWindow) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        if (coalescingWindow == null || coalescingWindow.isNegative()) {
+            throw new IllegalArgumentException("Coalescing window cannot be null or negative");
+        }
+
+        this.capacity = capacity;
+        this.coalescingWindowMillis = coalescingWindow.toMillis();
+    }
+
+    public long add(Notification notification) {
+        if (notification == null) {
+            throw new IllegalArgumentException("Notification cannot be null");
+        }
+
+        DigestKey key = coalescingWindowMillis == 0 ? null : DigestKey.of(notification);
+        Slot open = key == null ? null : openDigests.get(key);
+        if (open != null && notification.timestamp() - open.notification.timestamp() < coalescingWindowMillis) {
+            open.notification = open.notification.merge(notification);
+            coalesced += notification.count();
+            return open.sequence;
+        }
+
+        if (notifications.size() == capacity) {
+            Slot oldest = notifications.pollFirst();
+            close(oldest);
+            evicted += oldest.notification.count();
+        }
+
+        Slot slot = new Slot(key, ++lastSequence, notification);
+        notifications.addLast(slot);
+        if (key != null) {
+            openDigests.put(key, slot);
+        }
+        return slot.sequence;
+    }
+
+    public NotificationPage poll(long afterSequence, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        List<Notification> page = new ArrayList<>(Math.min(limit, notifications.size()));
+        Iterator<Slot> iterator = notifications.iterator();
+        int offset = 0;
+        long cursor = afterSequence;
+
+        while (iterator.hasNext() && page.size() < limit) {
+            Slot slot = iterator.next();
+            if (slot.sequence <= afterSequence) {
+                offset++;
+                continue;
+            }
+
+            iterator.remove();
+            close(slot);
+            page.add(slot.notification);
+            cursor = slot.sequence;
+        }
+
+        return new NotificationPage(page, offset, cursor, iterator.hasNext());
+    }
+
+    public void remove(int offset, int count) {
+        if (offset < 0 || count < 0) {
+            throw new IllegalArgumentException("Offset and count cannot be negative");
+        }
+
+        Iterator<Slot> iterator = notifications.iterator();
+        for (int i = 0; i < offset && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+
+        for (int i = 0; i < count && iterator.hasNext(); i++) {
+            close(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    public int acknowledge(long sequence, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+
+        Iterator<Slot> iterator = notifications.iterator();
+        for (int offset = 0; iterator.hasNext(); offset++) {
+            Slot slot = iterator.next();
+            if (slot.sequence != sequence) {
+                continue;
+            }
+
+            slot.delivered += count;
+            if (slot.delivered < slot.notification.count()) {
+                return NOT_REMOVED;
+            }
+
+            iterator.remove();
+            close(slot);
+            return offset;
+        }
+
+        return NOT_REMOVED;
+    }
+
+    private void close(Slot slot) {
+        if (slot.key != null) {
+            openDigests.remove(slot.key, slot);
+        }
+    }
+
+    public List<Notification> drain() {
+        List<Notification> drained = new ArrayList<>(notifications.size());
+        for (Slot slot : notifications) {
+            drained.add(slot.notification);
+        }
+
+        notifications.clear();
+        openDigests.clear();
+        return drained;
+    }
+
+    public boolean isEmpty() {
+        return notifications.isEmpty();
+    }
+
+    public int size() {
+        return notifications.size();
+    }
+
+    public long getEvicted() {
+        return evicted;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+}
@@ -0,0 +1,43 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+
+public record Notification(NotificationType type, String group, DebtRecord debt, long timestamp, int count) {
+    private static final int SINGLE = 1;
+
+    public Notification {
+        if (type == null || debt == null) {
+            throw new IllegalArgumentException("Type and debt cannot be null");
+        }
+
+        if ((type == NotificationType.NEW_GROUP_DEBT) != (group != null)) {
+            throw new IllegalArgumentException("Only new group debts have a group");
+        }
+
+        if (count < SINGLE) {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+    }
+
+    public Notification(NotificationType type, String group, DebtRecord debt, long timestamp) {
+        this(type, group, debt, timestamp, SINGLE);
+    }
+
+    public boolean isDigest() {
+        return count > SINGLE;
+    }
+
+    public Notification merge(Notification next) {
+        if (next == null) {
+            throw new IllegalArgumentException("Next notification cannot be null");
+        }
+
+        if (type == NotificationType.PARTLY_PAID_DEBT) {
+            return new Notification(type, group, next.debt(), timestamp, count + next.count());
+        }
+
+        DebtRecord total = new DebtRecord(debt.debtor(), debt.creditor(), debt.amount() + next.debt().amount(),
+            next.debt().reason());
+        return new Notification(type, group, total, timestamp, count + next.count());
+    }
+}
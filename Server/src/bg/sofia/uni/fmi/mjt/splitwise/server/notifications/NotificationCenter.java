@@ -2,39 +2,28 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
-import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
-import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
-import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class NotificationCenter {
-    private final Set<DebtRecord> paidDebts = new HashSet<>();
-    private final Set<DebtRecord> partlyPaidDebts = new HashSet<>();
-    private final Set<DebtRecord> newDebts = new HashSet<>();
-    private final Map<String, Set<DebtRecord>> newGroupDebts = new HashMap<>();
-    private final Path paidDebtsFile;
-    private final Path partlyPaidDebtsFile;
-    private final Path newDebtsFile;
-    private final Path newGroupDebtsFile;
+    public static final long FIRST_PAGE = 0;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    private static final String NEXT_PAGE_FORMAT = "More notifications: notifications --limit %d --after %d\n";
+    private final SessionRegistry sessionRegistry = SessionRegistry.getInstance();
+    private final NotificationJournal journal = NotificationJournal.getInstance();
+    private final Mailbox mailbox = journal.createMailbox();
+    private final String username;
 
     public NotificationCenter(String username) {
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
         }
 
-        paidDebtsFile = Path.of(username + "_paid_debts.txt");
-        partlyPaidDebtsFile = Path.of(username + "_partly_paid_debts.txt");
-        newDebtsFile = Path.of(username + "_new_debts.txt");
-        newGroupDebtsFile = Path.of(username + "_new_group_debts.txt");
+        this.username = username;
     }
 
     public void addPaidDebt(DebtRecord debt) throws ServerErrorException {
@@ -42,8 +31,7 @@ public class NotificationCenter {
             throw new IllegalArgumentException("Debt cannot be null");
         }
 
-        paidDebts.add(debt);
-        FileUtils.writeToFile(paidDebtsFile, FileUtils.SINGLE_SPACE, debt);
+        add(new Notification(NotificationType.PAID_DEBT, null, debt, System.currentTimeMillis()));
     }
 
     public void addPartlyPaidDebt(DebtRecord debt) throws ServerErrorException {
@@ -51,8 +39,7 @@ public class NotificationCenter {
             throw new IllegalArgumentException("Debt cannot be null");
         }
 
-        partlyPaidDebts.add(debt);
-        FileUtils.writeToFile(partlyPaidDebtsFile, FileUtils.SINGLE_SPACE, debt);
+        add(new Notification(NotificationType.PARTLY_PAID_DEBT, null, debt, System.currentTimeMillis()));
     }
 
     public void addNewDebt(DebtRecord debt) throws ServerErrorException {
@@ -60,8 +47,7 @@ public class NotificationCenter {
             throw new IllegalArgumentException("Debt cannot be null");
         }
 
-        newDebts.add(debt);
-        FileUtils.writeToFile(newDebtsFile, FileUtils.SINGLE_SPACE, debt);
+        add(new Notification(NotificationType.NEW_DEBT, null, debt, System.currentTimeMillis()));
     }
 
     public void addNewGroupDebt(DebtRecord debt, String groupName) throws ServerErrorException {
@@ -69,142 +55,144 @@ public class NotificationCenter {
             throw new IllegalArgumentException("Debt and group name cannot be null");
         }
 
-        if (!newGroupDebts.containsKey(groupName)) {
-            newGroupDebts.put(groupName, new HashSet<>());
+        add(new Notification(NotificationType.NEW_GROUP_DEBT, groupName, debt, System.currentTimeMillis()));
+    }
+
+    private synchronized void add(Notification notification) {
+        long sequence = mailbox.add(notification);
+        journal.append(username, notification);
+
+        if (sessionRegistry.isOnline(username)) {
+            int count = notification.count();
+            sessionRegistry.push(username, render(List.of(notification)), () -> acknowledge(sequence, count));
+        }
+    }
+
+    private synchronized void acknowledge(long sequence, int count) {
+        int offset = mailbox.acknowledge(sequence, count);
+        if (offset == Mailbox.NOT_REMOVED) {
+            return;
+        }
+
+        if (mailbox.isEmpty()) {
+            journal.clear(username);
+        } else {
+            journal.acknowledge(username, offset, 1);
+        }
+    }
+
+    public synchronized void restore(List<Notification> notifications) {
+        if (notifications == null) {
+            throw new IllegalArgumentException("Notifications cannot be null");
         }
 
-        newGroupDebts.get(groupName).add(debt);
-        FileUtils.writeToFile(newGroupDebtsFile, FileUtils.SINGLE_SPACE, groupName, debt);
+        notifications.forEach(mailbox::add);
     }
 
     public String getNotifications() throws ServerErrorException {
-        loadDebts();
+        return getNotifications(FIRST_PAGE, DEFAULT_PAGE_SIZE);
+    }
+
+    public synchronized String getNotifications(long after, int limit) throws ServerErrorException {
+        if (after < FIRST_PAGE || limit <= 0) {
+            throw new IllegalArgumentException("Cursor cannot be negative and limit must be positive");
+        }
 
-        if (paidDebts.isEmpty() && partlyPaidDebts.isEmpty() && newDebts.isEmpty() && newGroupDebts.isEmpty()) {
+        if (mailbox.isEmpty()) {
             return "No notifications to be shown";
         }
 
-        StringBuilder builder = new StringBuilder("*** Notifications ***\n");
+        NotificationPage page = mailbox.poll(after, limit);
+        if (page.notifications().isEmpty()) {
+            return "There are no more notifications";
+        }
 
-        loadPaidDebts(builder);
-        loadPartlyPaidDebts(builder);
-        loadNewDebts(builder);
-        loadNewGroupDebts(builder);
+        if (mailbox.isEmpty()) {
+            journal.clear(username);
+        } else {
+            journal.acknowledge(username, page.offset(), page.notifications().size());
+        }
 
-        return builder.toString();
+        String notifications = render(page.notifications());
+        if (page.hasMore()) {
+            notifications += String.format(NEXT_PAGE_FORMAT, limit, page.cursor());
+        }
+
+        return notifications;
     }
 
-    private void loadDebts() throws ServerErrorException {
-        loadDebtsFromFile(paidDebtsFile, paidDebts);
-        loadDebtsFromFile(partlyPaidDebtsFile, partlyPaidDebts);
-        loadDebtsFromFile(newDebtsFile, newDebts);
-        loadGroupDebtsFromFile();
+    private String render(List<Notification> notifications) {
+        List<Notification> paidDebts = new ArrayList<>();
+        List<Notification> partlyPaidDebts = new ArrayList<>();
+        List<Notification> newDebts = new ArrayList<>();
+        Map<String, List<Notification>> newGroupDebts = new LinkedHashMap<>();
+
+        for (Notification notification : notifications) {
+            switch (notification.type()) {
+                case PAID_DEBT -> paidDebts.add(notification);
+                case PARTLY_PAID_DEBT -> partlyPaidDebts.add(notification);
+                case NEW_DEBT -> newDebts.add(notification);
+                case NEW_GROUP_DEBT -> newGroupDebts.computeIfAbsent(notification.group(), group -> new ArrayList<>())
+                    .add(notification);
+            }
+        }
+
+        StringBuilder builder = new StringBuilder("*** Notifications ***\n");
+
+        loadPaidDebts(builder, paidDebts);
+        loadPartlyPaidDebts(builder, partlyPaidDebts);
+        loadNewDebts(builder, newDebts);
+        loadNewGroupDebts(builder, newGroupDebts);
+
+        return builder.toString();
     }
 
-    private void loadPaidDebts(StringBuilder builder) throws ServerErrorException {
+    private void loadPaidDebts(StringBuilder builder, List<Notification> paidDebts) {
         if (!paidDebts.isEmpty()) {
             builder.append(" * Successfully paid debts:\n");
-            for (DebtRecord debt : paidDebts) {
-                builder.append(debt.getSuccessfullyPaidDebt()).append('\n');
+            for (Notification notification : paidDebts) {
+                DebtRecord debt = notification.debt();
+                builder.append(notification.isDigest() ? debt.getSuccessfullyPaidDebts(notification.count()) :
+                    debt.getSuccessfullyPaidDebt()).append('\n');
             }
-            clearFiles(paidDebtsFile, paidDebts);
         }
     }
 
-    private void loadPartlyPaidDebts(StringBuilder builder) throws ServerErrorException {
+    private void loadPartlyPaidDebts(StringBuilder builder, List<Notification> partlyPaidDebts) {
         if (!partlyPaidDebts.isEmpty()) {
             builder.append(" * Partly paid debts:\n");
-            for (DebtRecord debt : partlyPaidDebts) {
-                builder.append(debt.getPartlyPaidDebt()).append('\n');
+            for (Notification notification : partlyPaidDebts) {
+                DebtRecord debt = notification.debt();
+                builder.append(notification.isDigest() ? debt.getPartlyPaidDebt(notification.count()) :
+                    debt.getPartlyPaidDebt()).append('\n');
             }
-            clearFiles(partlyPaidDebtsFile, partlyPaidDebts);
         }
     }
 
-    private void loadNewDebts(StringBuilder builder) throws ServerErrorException {
+    private void loadNewDebts(StringBuilder builder, List<Notification> newDebts) {
         if (!newDebts.isEmpty()) {
             builder.append(" * New friend debts:\n");
-            for (DebtRecord debt : newDebts) {
-                builder.append(" - ").append(debt.visualizeDebt("You owe")).append('\n');
+            for (Notification notification : newDebts) {
+                appendNewDebt(builder, notification);
             }
-            clearFiles(newDebtsFile, newDebts);
         }
     }
 
-    private void loadNewGroupDebts(StringBuilder builder) throws ServerErrorException {
+    private void loadNewGroupDebts(StringBuilder builder, Map<String, List<Notification>> newGroupDebts) {
         if (!newGroupDebts.isEmpty()) {
             builder.append(" * New group debts:\n");
-            for (Map.Entry<String, Set<DebtRecord>> entry : newGroupDebts.entrySet()) {
+            for (Map.Entry<String, List<Notification>> entry : newGroupDebts.entrySet()) {
                 builder.append(" ** Group: ").append(entry.getKey()).append('\n');
-                for (DebtRecord debt : entry.getValue()) {
-                    builder.append(" - ").append(debt.visualizeDebt("You owe")).append('\n');
+                for (Notification notification : entry.getValue()) {
+                    appendNewDebt(builder, notification);
                 }
             }
-            clearGroupFiles();
-        }
-    }
-
-    private void clearFiles(Path fileName, Set<DebtRecord> debts) throws ServerErrorException {
-        debts.clear();
-        FileUtils.deleteFile(fileName);
-    }
-
-    private void clearGroupFiles() throws ServerErrorException {
-        newGroupDebts.clear();
-        FileUtils.deleteFile(newGroupDebtsFile);
-    }
-
-    private void loadDebtsFromFile(Path fileName, Set<DebtRecord> debts) throws ServerErrorException {
-        if (!Files.exists(fileName)) {
-            return;
-        }
-
-        try (var bufferedReader = Files.newBufferedReader(fileName)) {
-            String line;
-
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] user = line.split(FileUtils.SINGLE_SPACE);
-
-                User debtor = UserRepository.toUser(user[FileUtils.ZERO_INDEX]);
-                User creditor = UserRepository.toUser(user[FileUtils.ONE_INDEX]);
-                double amount = Double.parseDouble(user[FileUtils.TWO_INDEX]);
-                String reason = Arrays.stream(user)
-                    .skip(FileUtils.THREE_INDEX)
-                    .collect(Collectors.joining(FileUtils.SINGLE_SPACE));
-
-                debts.add(new DebtRecord(debtor, creditor, amount, reason));
-            }
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + fileName, e);
         }
     }
 
-    private void loadGroupDebtsFromFile() throws ServerErrorException {
-        if (!Files.exists(newGroupDebtsFile)) {
-            return;
-        }
-
-        try (var bufferedReader = Files.newBufferedReader(newGroupDebtsFile)) {
-            String line;
-
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] user = line.split(FileUtils.SINGLE_SPACE);
-
-                String groupName = user[FileUtils.ZERO_INDEX];
-                User debtor = UserRepository.toUser(user[FileUtils.ONE_INDEX]);
-                User creditor = UserRepository.toUser(user[FileUtils.TWO_INDEX]);
-                double amount = Double.parseDouble(user[FileUtils.THREE_INDEX]);
-                String reason = Arrays.stream(user)
-                    .skip(FileUtils.FOUR_INDEX)
-                    .collect(Collectors.joining(FileUtils.SINGLE_SPACE));
-
-                if (!newGroupDebts.containsKey(groupName)) {
-                    newGroupDebts.put(groupName, new HashSet<>());
-                }
-                newGroupDebts.get(groupName).add(new DebtRecord(debtor, creditor, amount, reason));
-            }
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + newGroupDebtsFile, e);
-        }
+    private void appendNewDebt(StringBuilder builder, Notification notification) {
+        DebtRecord debt = notification.debt();
+        builder.append(" - ").append(notification.isDigest() ? debt.visualizeNewDebts(notification.count()) :
+            debt.visualizeDebt("You owe")).append('\n');
     }
 }
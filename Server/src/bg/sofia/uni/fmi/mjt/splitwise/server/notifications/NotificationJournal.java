@@ -0,0 +1,356 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.config.ServerConfig;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecordCodec;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Storage;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Table;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.VarIntUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class NotificationJournal {
+    private static final String FLUSHER_THREAD_NAME = "notification-flusher";
+    private static final byte ADD = 0;
+    private static final byte CLEAR = 1;
+    private static final byte DIGEST = 2;
+    private static final byte ACKNOWLEDGE = 3;
+    private static final int MAX_BATCH_SIZE = 4096;
+    private static final int MIN_COMPACTION_ENTRIES = 1024;
+    private static final int MIN_RUNTIME_COMPACTION_ENTRIES = 16384;
+    private static final Table[] LEGACY_TABLES =
+        {Table.PAID_DEBTS, Table.PARTLY_PAID_DEBTS, Table.NEW_DEBTS, Table.NEW_GROUP_DEBTS};
+    private static final NotificationType[] LEGACY_TYPES = {NotificationType.PAID_DEBT,
+        NotificationType.PARTLY_PAID_DEBT, NotificationType.NEW_DEBT, NotificationType.NEW_GROUP_DEBT};
+    private static NotificationJournal instance;
+    private final Storage storage;
+    private final long flushIntervalMillis;
+    private final int mailboxCapacity;
+    private final Duration coalescingWindow;
+    private final BlockingQueue<byte[]> pending = new LinkedBlockingQueue<>();
+    private final Object writeLock = new Object();
+    private long journalEntries;
+    private long checkedEntries;
+
+    private static class ReplayStatistics {
+        private long entries;
+    }
+
+    NotificationJournal(Storage storage, Duration flushInterval, int mailboxCapacity, Duration coalescingWindow) {
+        if (storage == null || flushInterval == null || coalescingWindow == null) {
+            throw new IllegalArgumentException("Storage, flush interval and coalescing window cannot be null");
+        }
+
+        this.storage = storage;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.mailboxCapacity = mailboxCapacity;
+        this.coalescingWindow = coalescingWindow;
+
+        Thread flusher = new Thread(this::flushLoop, FLUSHER_THREAD_NAME);
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public static synchronized NotificationJournal getInstance() {
+        if (instance == null) {
+            instance = new NotificationJournal(StorageProvider.getInstance(), ServerConfig.getMailboxFlushInterval(),
+                ServerConfig.getMailboxCapacity(), ServerConfig.getMailboxCoalescingWindow());
+        }
+        return instance;
+    }
+
+    public Mailbox createMailbox() {
+        return new Mailbox(mailboxCapacity, coalescingWindow);
+    }
+
+    public void append(String owner, Notification notification) {
+        if (owner == null || notification == null) {
+            throw new IllegalArgumentException("Owner and notification cannot be null");
+        }
+
+        pending.add(encodeAdd(owner, notification));
+    }
+
+    public void clear(String owner) {
+        if (owner == null) {
+            throw new IllegalArgumentException("Owner cannot be null");
+        }
+
+        byte[] ownerBytes = owner.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(Byte.BYTES + sizeOf(ownerBytes)).put(CLEAR);
+        putBytes(entry, ownerBytes);
+        pending.add(entry.array());
+    }
+
+    public void acknowledge(String owner, int offset, int count) {
+        if (owner == null) {
+            throw new IllegalArgumentException("Owner cannot be null");
+        }
+
+        if (offset < 0 || count <= 0) {
+            throw new IllegalArgumentException("Offset cannot be negative and count must be positive");
+        }
+
+        byte[] ownerBytes = owner.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(Byte.BYTES + sizeOf(ownerBytes) + VarIntUtils.sizeOfVarLong(offset) +
+            VarIntUtils.sizeOfVarLong(count)).put(ACKNOWLEDGE);
+        putBytes(entry, ownerBytes);
+        VarIntUtils.putVarLong(entry, offset);
+        VarIntUtils.putVarLong(entry, count);
+        pending.add(entry.array());
+    }
+
+    public void flush() throws ServerErrorException {
+        flush(false);
+    }
+
+    private void flush(boolean isMarkerRequired) throws ServerErrorException {
+        synchronized (writeLock) {
+            List<byte[]> batch = new ArrayList<>();
+            boolean isWritten = false;
+            while (pending.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+                storage.appendBinary(Table.NOTIFICATIONS, Storage.GLOBAL, encodeBatch(batch));
+                journalEntries += batch.size();
+                batch.clear();
+                isWritten = true;
+            }
+
+            if (isMarkerRequired && !isWritten) {
+                storage.appendBinary(Table.NOTIFICATIONS, Storage.GLOBAL, encodeBatch(batch));
+            }
+
+            if (journalEntries - checkedEntries >= Math.max(MIN_RUNTIME_COMPACTION_ENTRIES, checkedEntries)) {
+                Map<String, Mailbox> mailboxes = new LinkedHashMap<>();
+                ReplayStatistics statistics = new ReplayStatistics();
+                replay(mailboxes, statistics);
+                compactIfNeeded(mailboxes, statistics);
+            }
+        }
+    }
+
+    public void restore() throws ServerErrorException {
+        synchronized (writeLock) {
+            Map<String, Mailbox> mailboxes = new LinkedHashMap<>();
+            ReplayStatistics statistics = new ReplayStatistics();
+            replay(mailboxes, statistics);
+
+            if (storage.position(Table.NOTIFICATIONS, Storage.GLOBAL) == 0) {
+                journalEntries = 0;
+                checkedEntries = 0;
+                migrateLegacyMailboxes(mailboxes);
+            } else {
+                compactIfNeeded(mailboxes, statistics);
+            }
+
+            for (Map.Entry<String, Mailbox> entry : mailboxes.entrySet()) {
+                User user = UserRepository.toUser(entry.getKey());
+                if (user != null) {
+                    user.restoreNotifications(entry.getValue().drain());
+                }
+            }
+        }
+    }
+
+    private void replay(Map<String, Mailbox> mailboxes, ReplayStatistics statistics) throws ServerErrorException {
+        storage.loadBinary(Table.NOTIFICATIONS, Storage.GLOBAL, FileUtils.ZERO_INDEX,
+            batch -> replayBatch(batch, mailboxes, statistics));
+    }
+
+    private void compactIfNeeded(Map<String, Mailbox> mailboxes, ReplayStatistics statistics)
+        throws ServerErrorException {
+        long liveEntries = 0;
+        for (Mailbox mailbox : mailboxes.values()) {
+            liveEntries += mailbox.size();
+        }
+        long deadEntries = statistics.entries - liveEntries;
+
+        journalEntries = statistics.entries;
+        if (deadEntries > MIN_COMPACTION_ENTRIES && deadEntries > liveEntries) {
+            compact(mailboxes);
+            journalEntries = liveEntries;
+        }
+        checkedEntries = journalEntries;
+    }
+
+    private void replayBatch(ByteBuffer batch, Map<String, Mailbox> mailboxes, ReplayStatistics statistics) {
+        int entries = VarIntUtils.getVarInt(batch);
+        statistics.entries += entries;
+        for (int i = 0; i < entries; i++) {
+            byte kind = batch.get();
+            String owner = readString(batch);
+
+            if (kind == CLEAR) {
+                mailboxes.remove(owner);
+                continue;
+            }
+
+            if (kind == ACKNOWLEDGE) {
+                int offset = VarIntUtils.getVarInt(batch);
+                int acknowledged = VarIntUtils.getVarInt(batch);
+                Mailbox mailbox = mailboxes.get(owner);
+                if (mailbox != null) {
+                    mailbox.remove(offset, acknowledged);
+                }
+                continue;
+            }
+
+            NotificationType type = NotificationType.values()[batch.get()];
+            int count = kind == DIGEST ? VarIntUtils.getVarInt(batch) : 1;
+            int length = VarIntUtils.getVarInt(batch);
+            ByteBuffer record = batch.slice(batch.position(), length);
+            batch.position(batch.position() + length);
+
+            Notification notification = decode(type, record, count);
+            if (isValid(notification)) {
+                mailboxes.computeIfAbsent(owner, key -> createMailbox()).add(notification);
+            }
+        }
+    }
+
+    private void migrateLegacyMailboxes(Map<String, Mailbox> mailboxes) throws ServerErrorException {
+        List<String> migrated = new ArrayList<>();
+
+        for (String username : UserRepository.getUsernames()) {
+            boolean[] hasLegacy = new boolean[1];
+            for (int i = 0; i < LEGACY_TABLES.length; i++) {
+                NotificationType type = LEGACY_TYPES[i];
+                storage.loadBinary(LEGACY_TABLES[i], username, FileUtils.ZERO_INDEX, record -> {
+                    Notification notification = decode(type, record, 1);
+                    if (!isValid(notification)) {
+                        return;
+                    }
+
+                    mailboxes.computeIfAbsent(username, key -> createMailbox()).add(notification);
+                    pending.add(encodeAdd(username, notification));
+                    hasLegacy[0] = true;
+                });
+            }
+
+            if (hasLegacy[0]) {
+                migrated.add(username);
+            }
+        }
+
+        flush(true);
+        storage.flush();
+
+        for (String username : migrated) {
+            for (Table table : LEGACY_TABLES) {
+                storage.delete(table, username);
+            }
+        }
+    }
+
+    private void compact(Map<String, Mailbox> mailboxes) throws ServerErrorException {
+        List<byte[]> batches = new ArrayList<>();
+        List<byte[]> batch = new ArrayList<>();
+        for (Map.Entry<String, Mailbox> entry : mailboxes.entrySet()) {
+            List<Notification> notifications = entry.getValue().drain();
+            for (Notification notification : notifications) {
+                entry.getValue().add(notification);
+                batch.add(encodeAdd(entry.getKey(), notification));
+                if (batch.size() == MAX_BATCH_SIZE) {
+                    batches.add(encodeBatch(batch));
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty() || batches.isEmpty()) {
+            batches.add(encodeBatch(batch));
+        }
+
+        storage.replaceBinary(Table.NOTIFICATIONS, Storage.GLOBAL, batches);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                flush();
+            } catch (ServerErrorException e) {
+                LogsManager.getInstance().addLogToFile(e, null);
+            }
+        }
+    }
+
+    private static byte[] encodeBatch(List<byte[]> batch) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ByteBuffer header = ByteBuffer.allocate(VarIntUtils.sizeOfVarLong(batch.size()));
+        VarIntUtils.putVarLong(header, batch.size());
+        output.writeBytes(header.array());
+        for (byte[] entry : batch) {
+            output.writeBytes(entry);
+        }
+
+        return output.toByteArray();
+    }
+
+    private static byte[] encodeAdd(String owner, Notification notification) {
+        byte[] ownerBytes = owner.getBytes(StandardCharsets.UTF_8);
+        byte[] record = DebtRecordCodec.encode(notification.group(), notification.debt(), notification.timestamp());
+
+        int countBytes = notification.isDigest() ? VarIntUtils.sizeOfVarLong(notification.count()) : 0;
+
+        ByteBuffer entry = ByteBuffer.allocate(Byte.BYTES + sizeOf(ownerBytes) + Byte.BYTES + countBytes +
+            sizeOf(record)).put(notification.isDigest() ? DIGEST : ADD);
+        putBytes(entry, ownerBytes);
+        entry.put((byte) notification.type().ordinal());
+        if (notification.isDigest()) {
+            VarIntUtils.putVarLong(entry, notification.count());
+        }
+        putBytes(entry, record);
+
+        return entry.array();
+    }
+
+    private static Notification decode(NotificationType type, ByteBuffer record, int count) {
+        long timestamp = DebtRecordCodec.decodeTimestamp(record);
+        if (type == NotificationType.NEW_GROUP_DEBT) {
+            String group = DebtRecordCodec.decodeGroup(record);
+            return new Notification(type, group, DebtRecordCodec.decodeGroupDebt(record), timestamp, count);
+        }
+
+        DebtRecord debt = DebtRecordCodec.decode(record);
+        return new Notification(type, null, debt, timestamp, count);
+    }
+
+    private static boolean isValid(Notification notification) {
+        return notification.debt().debtor() != null && notification.debt().creditor() != null;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[VarIntUtils.getVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return VarIntUtils.sizeOfVarLong(bytes.length) + bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        VarIntUtils.putVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+}
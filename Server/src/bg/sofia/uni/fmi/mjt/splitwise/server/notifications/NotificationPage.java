@@ -0,0 +1,6 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
+
+import java.util.List;
+
+public record NotificationPage(List<Notification> notifications, int offset, long cursor, boolean hasMore) {
+}
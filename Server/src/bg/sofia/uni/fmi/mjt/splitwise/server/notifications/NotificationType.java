@@ -0,0 +1,5 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
+
+public enum NotificationType {
+    PAID_DEBT, PARTLY_PAID_DEBT, NEW_DEBT, NEW_GROUP_DEBT
+}
@@ -5,20 +5,23 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.IncorrectPasswordExcepti
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserNotFoundException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.passwords.encryption.PasswordEncryption;
+import bg.sofia.uni.fmi.mjt.splitwise.server.passwords.encryption.PasswordHasher;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotWriter;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Storage;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Table;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
-import static bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils.writeToFile;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PasswordsDatabase {
-    private static final Path USERS_PASSWORDS_PATH = Path.of("usersPasswords.txt");
-    private final Map<String, Password> usersPasswords = new HashMap<>();
+    private final Map<String, Password> usersPasswords = new ConcurrentHashMap<>();
+    private final Storage storage = StorageProvider.getInstance();
     private static PasswordsDatabase instance;
 
     private PasswordsDatabase() {
@@ -33,29 +36,56 @@ public class PasswordsDatabase {
     }
 
     public void initialize() throws ServerErrorException {
-        loadUsersPasswords();
+        loadUsersPasswords(FileUtils.ZERO_INDEX);
+    }
+
+    public void clear() {
+        usersPasswords.clear();
     }
 
-    private void loadUsersPasswords() throws ServerErrorException {
-        if (!Files.exists(USERS_PASSWORDS_PATH)) {
-            return;
+    public void restore(SnapshotReader reader) throws ServerErrorException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Snapshot reader cannot be null");
         }
 
-        try (var bufferedReader = Files.newBufferedReader(USERS_PASSWORDS_PATH)) {
-            String line;
+        long position = reader.readLong();
+        int count = reader.readInt();
+        for (int i = 0; i < count; i++) {
+            String username = reader.readString();
+            String hashedPass = reader.readString();
+            byte[] salt = reader.readBytes();
 
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] credentials = line.split(FileUtils.SINGLE_SPACE);
+            usersPasswords.put(username, new Password(hashedPass, salt));
+        }
 
-                String username = credentials[FileUtils.ZERO_INDEX];
-                String hashedPass = credentials[FileUtils.ONE_INDEX];
-                byte[] salt = Base64.getDecoder().decode(credentials[FileUtils.TWO_INDEX]);
+        loadUsersPasswords(position);
+    }
 
-                usersPasswords.put(username, new Password(hashedPass, salt));
-            }
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + USERS_PASSWORDS_PATH, e);
+    public void writeSnapshot(SnapshotWriter writer) throws ServerErrorException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Snapshot writer cannot be null");
         }
+
+        List<Map.Entry<String, Password>> snapshot = List.copyOf(usersPasswords.entrySet());
+        writer.writeLong(storage.position(Table.CREDENTIALS, Storage.GLOBAL));
+        writer.writeInt(snapshot.size());
+        for (Map.Entry<String, Password> entry : snapshot) {
+            writer.writeString(entry.getKey());
+            writer.writeString(entry.getValue().hash());
+            writer.writeBytes(entry.getValue().salt());
+        }
+    }
+
+    private void loadUsersPasswords(long position) throws ServerErrorException {
+        storage.load(Table.CREDENTIALS, Storage.GLOBAL, position, line -> {
+            String[] credentials = line.split(FileUtils.SINGLE_SPACE);
+
+            String username = credentials[FileUtils.ZERO_INDEX];
+            String hashedPass = credentials[FileUtils.ONE_INDEX];
+            byte[] salt = Base64.getDecoder().decode(credentials[FileUtils.TWO_INDEX]);
+
+            usersPasswords.put(username, new Password(hashedPass, salt));
+        });
     }
 
     public void addUserCredentials(String username, String password)
@@ -71,9 +101,45 @@ public class PasswordsDatabase {
         byte[] salt = PasswordEncryption.getSalt();
         String hashedPass = PasswordEncryption.hashPassword(password, salt);
 
-        usersPasswords.put(username, new Password(hashedPass, salt));
-        String saltBase64 = Base64.getEncoder().encodeToString(salt);
-        writeToFile(USERS_PASSWORDS_PATH, FileUtils.SINGLE_SPACE, username, hashedPass, saltBase64);
+        addUserCredentials(username, new Password(hashedPass, salt));
+    }
+
+    public void addUserCredentials(String username, Password password)
+        throws UserAlreadyExistsException, ServerErrorException {
+        if (username == null || password == null) {
+            throw new IllegalArgumentException("Username or password cannot be null");
+        }
+
+        if (usersPasswords.putIfAbsent(username, password) != null) {
+            throw new UserAlreadyExistsException("The username already exists");
+        }
+
+        String saltBase64 = Base64.getEncoder().encodeToString(password.salt());
+        storage.append(Table.CREDENTIALS, Storage.GLOBAL,
+            String.join(FileUtils.SINGLE_SPACE, username, password.hash(), saltBase64));
+    }
+
+    public CompletableFuture<Password> hashNewPassword(String password) {
+        if (password == null) {
+            throw new IllegalArgumentException("Password cannot be null");
+        }
+
+        byte[] salt = PasswordEncryption.getSalt();
+        return PasswordHasher.getInstance().hash(password, salt)
+            .thenApply(hashedPass -> new Password(hashedPass, salt));
+    }
+
+    public CompletableFuture<String> hashLoginPassword(String username, String password) {
+        if (username == null || password == null) {
+            throw new IllegalArgumentException("Username or password cannot be null");
+        }
+
+        Password stored = usersPasswords.get(username);
+        if (stored == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return PasswordHasher.getInstance().hash(password, stored.salt());
     }
 
     public void checkLoginCredentials(String username, String password)
@@ -89,6 +155,21 @@ public class PasswordsDatabase {
         }
     }
 
+    public void checkHashedLoginCredentials(String username, String hashedPassword)
+        throws UserNotFoundException, IncorrectPasswordException {
+        if (username == null || hashedPassword == null) {
+            throw new IllegalArgumentException("Username or hashed password cannot be null");
+        }
+
+        Password stored = usersPasswords.get(username);
+
+        if (stored == null) {
+            throw new UserNotFoundException("Incorrect username");
+        } else if (!stored.hash().equals(hashedPassword)) {
+            throw new IncorrectPasswordException("Incorrect password");
+        }
+    }
+
     private boolean passwordMatchesHash(String username, String password) throws ServerErrorException {
         byte[] salt = usersPasswords.get(username).salt();
         String givenPassword = PasswordEncryption.hashPassword(password, salt);
@@ -16,6 +16,8 @@ public class PasswordEncryption {
     private static final int KEY_LENGTH = 128;
     private static final String ALGORITHM = "PBKDF2WithHmacSHA1";
     private static final String HASHING_ERROR = "A problem occurred while hashing the password";
+    private static final ThreadLocal<SecretKeyFactory> FACTORIES = new ThreadLocal<>();
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     public static String hashPassword(String password, byte[] salt) throws ServerErrorException {
         if (password == null || salt == null) {
@@ -24,8 +26,7 @@ public class PasswordEncryption {
 
         try {
             KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, ITERATIONS, KEY_LENGTH);
-            SecretKeyFactory factory = SecretKeyFactory.getInstance(ALGORITHM);
-            byte[] hash = factory.generateSecret(spec).getEncoded();
+            byte[] hash = getFactory().generateSecret(spec).getEncoded();
 
             return Base64.getEncoder().encodeToString(hash);
         } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
@@ -33,10 +34,20 @@ public class PasswordEncryption {
         }
     }
 
+    private static SecretKeyFactory getFactory() throws NoSuchAlgorithmException {
+        SecretKeyFactory factory = FACTORIES.get();
+
+        if (factory == null) {
+            factory = SecretKeyFactory.getInstance(ALGORITHM);
+            FACTORIES.set(factory);
+        }
+
+        return factory;
+    }
+
     public static byte[] getSalt() {
-        SecureRandom random = new SecureRandom();
         byte[] salt = new byte[BYTES];
-        random.nextBytes(salt);
+        RANDOM.nextBytes(salt);
         return salt;
     }
 }
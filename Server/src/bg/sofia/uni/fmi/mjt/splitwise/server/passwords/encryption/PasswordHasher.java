@@ -0,0 +1,109 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.passwords.encryption;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.config.ServerConfig;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerBusyException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PasswordHasher {
+    private static final String THREAD_NAME_FORMAT = "password-hasher-%d";
+    private static final String QUEUE_WAIT_FORMAT =
+        "Password hashing: %d hashes, average queue wait %.2f ms, max queue wait %.2f ms";
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+    private static PasswordHasher instance;
+    private final ExecutorService hashers;
+    private final LongAdder completedHashes = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    PasswordHasher(int threads, int queueCapacity) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Hashing threads and queue capacity must be positive");
+        }
+
+        hashers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), daemonThreads());
+    }
+
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) {
+            instance = new PasswordHasher(ServerConfig.getHashThreads(), ServerConfig.getHashQueueCapacity());
+        }
+        return instance;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, String.format(THREAD_NAME_FORMAT, counter.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public CompletableFuture<String> hash(String password, byte[] salt) {
+        if (password == null || salt == null) {
+            throw new IllegalArgumentException("Password and salt cannot be null");
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        long submittedAt = System.nanoTime();
+
+        try {
+            hashers.execute(() -> {
+                recordQueueWait(System.nanoTime() - submittedAt);
+
+                try {
+                    result.complete(PasswordEncryption.hashPassword(password, salt));
+                } catch (ServerErrorException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(
+                new ServerBusyException("Too many logins are being processed. Try again in a moment", e));
+        }
+
+        return result;
+    }
+
+    private void recordQueueWait(long waitNanos) {
+        completedHashes.increment();
+        totalQueueWaitNanos.add(waitNanos);
+        maxQueueWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public double getAverageQueueWaitMillis() {
+        long hashes = completedHashes.sum();
+
+        if (hashes == 0) {
+            return 0;
+        }
+
+        return totalQueueWaitNanos.sum() / NANOS_IN_MILLI / hashes;
+    }
+
+    public double getMaxQueueWaitMillis() {
+        return maxQueueWaitNanos.get() / NANOS_IN_MILLI;
+    }
+
+    public String getQueueWaitStatistics() {
+        return String.format(QUEUE_WAIT_FORMAT, completedHashes.sum(), getAverageQueueWaitMillis(),
+            getMaxQueueWaitMillis());
+    }
+
+    public void shutdown() {
+        hashers.shutdownNow();
+    }
+}
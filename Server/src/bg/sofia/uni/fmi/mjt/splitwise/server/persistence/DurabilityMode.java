@@ -0,0 +1,5 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.persistence;
+
+public enum DurabilityMode {
+    SYNC, GROUP, BUFFERED
+}
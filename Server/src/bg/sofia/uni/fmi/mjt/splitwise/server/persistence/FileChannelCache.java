@@ -0,0 +1,94 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class FileChannelCache {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private final int maxOpenFiles;
+    private final boolean isSyncEnabled;
+    private final Map<Path, FileChannel> channels = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+    FileChannelCache(int maxOpenFiles, boolean isSyncEnabled) {
+        if (maxOpenFiles <= 0) {
+            throw new IllegalArgumentException("Max open files must be positive");
+        }
+
+        this.maxOpenFiles = maxOpenFiles;
+        this.isSyncEnabled = isSyncEnabled;
+    }
+
+    FileChannel get(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+
+        FileChannel channel = channels.get(path);
+        if (channel != null && channel.isOpen()) {
+            return channel;
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        channels.put(path, channel);
+        evictEldest();
+
+        return channel;
+    }
+
+    private void evictEldest() throws IOException {
+        Iterator<Map.Entry<Path, FileChannel>> iterator = channels.entrySet().iterator();
+        while (channels.size() > maxOpenFiles) {
+            FileChannel eldest = iterator.next().getValue();
+            iterator.remove();
+            close(eldest);
+        }
+    }
+
+    void close(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+
+        FileChannel channel = channels.remove(path);
+        if (channel != null) {
+            close(channel);
+        }
+    }
+
+    void closeAll() throws IOException {
+        IOException failure = null;
+        for (FileChannel channel : channels.values()) {
+            try {
+                close(channel);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        channels.clear();
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void close(FileChannel channel) throws IOException {
+        try {
+            if (isSyncEnabled && channel.isOpen()) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    int size() {
+        return channels.size();
+    }
+}
@@ -0,0 +1,366 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.persistence;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.config.ServerConfig;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class PersistenceService {
+    private static final String WRITER_THREAD_NAME = "persistence-writer";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final String PERSISTENCE_ERROR = "A problem occurred while persisting the changes to the files";
+    private static final int MAX_BATCH_SIZE = 4096;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long NO_FAILURE = 0;
+    private static final int MAX_FAILED_BATCHES = 1024;
+    private static PersistenceService instance;
+    private final DurabilityMode durabilityMode;
+    private final long commitIntervalNanos;
+    private final FileChannelCache channels;
+    private final BlockingQueue<Operation> pending = new LinkedBlockingQueue<>();
+    private final Object progressLock = new Object();
+    private long appendedOperations;
+    private long writtenOperations;
+    private final NavigableMap<Long, Long> failedBatches = new TreeMap<>();
+    private final Map<Path, Long> lastOperations = new HashMap<>();
+    private long unreportedFailure = NO_FAILURE;
+    private boolean isFlushRequested;
+
+    private enum Type {
+        APPEND, REPLACE, DELETE, CLOSE
+    }
+
+    private record Operation(Type type, Path path, byte[] data) {
+    }
+
+    PersistenceService(DurabilityMode durabilityMode, Duration commitInterval, int maxOpenFiles) {
+        if (durabilityMode == null || commitInterval == null) {
+            throw new IllegalArgumentException("Durability mode and commit interval cannot be null");
+        }
+
+        this.durabilityMode = durabilityMode;
+        this.commitIntervalNanos = commitInterval.toNanos();
+        this.channels = new FileChannelCache(maxOpenFiles, durabilityMode != DurabilityMode.BUFFERED);
+
+        Thread writer = new Thread(this::writeLoop, WRITER_THREAD_NAME);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static synchronized PersistenceService getInstance() {
+        if (instance == null) {
+            instance = new PersistenceService(ServerConfig.getDurabilityMode(),
+                ServerConfig.getPersistenceCommitInterval(), ServerConfig.getMaxOpenFiles());
+        }
+        return instance;
+    }
+
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+
+    public void append(Path path, String text) throws ServerErrorException {
+        if (path == null || text == null) {
+            throw new IllegalArgumentException("Path and text cannot be null");
+        }
+
+        append(path, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void append(Path path, byte[] data) throws ServerErrorException {
+        if (path == null || data == null) {
+            throw new IllegalArgumentException("Path and data cannot be null");
+        }
+
+        long sequence = enqueue(new Operation(Type.APPEND, path, data));
+        if (durabilityMode != DurabilityMode.BUFFERED) {
+            awaitSucceeded(sequence, false);
+        }
+    }
+
+    public void replace(Path path, byte[] data) throws ServerErrorException {
+        if (path == null || data == null) {
+            throw new IllegalArgumentException("Path and data cannot be null");
+        }
+
+        awaitSucceeded(enqueue(new Operation(Type.REPLACE, path, data)), true);
+    }
+
+    public void delete(Path path) throws ServerErrorException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+
+        awaitSucceeded(enqueue(new Operation(Type.DELETE, path, null)), true);
+    }
+
+    public void flush() throws ServerErrorException {
+        long target;
+        synchronized (progressLock) {
+            target = appendedOperations;
+        }
+
+        awaitWritten(target, true);
+
+        synchronized (progressLock) {
+            if (unreportedFailure != NO_FAILURE && unreportedFailure <= target) {
+                unreportedFailure = firstFailureAfter(target);
+                throw new ServerErrorException(PERSISTENCE_ERROR);
+            }
+        }
+    }
+
+    public void awaitWritten(Path path) throws ServerErrorException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+
+        Long sequence;
+        synchronized (progressLock) {
+            sequence = lastOperations.get(path);
+        }
+
+        if (sequence != null) {
+            awaitWritten(sequence, true);
+        }
+    }
+
+    public void close() throws ServerErrorException {
+        awaitSucceeded(enqueue(new Operation(Type.CLOSE, null, null)), true);
+    }
+
+    private long enqueue(Operation operation) {
+        synchronized (progressLock) {
+            pending.add(operation);
+            if (operation.path() != null) {
+                lastOperations.put(operation.path(), appendedOperations + 1);
+            }
+            return ++appendedOperations;
+        }
+    }
+
+    private void awaitWritten(long sequence, boolean isUrgent) throws ServerErrorException {
+        synchronized (progressLock) {
+            if (isUrgent && writtenOperations < sequence) {
+                isFlushRequested = true;
+                progressLock.notifyAll();
+            }
+
+            while (writtenOperations < sequence) {
+                try {
+                    progressLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServerErrorException("Interrupted while persisting the changes to the files", e);
+                }
+            }
+        }
+    }
+
+    private void awaitSucceeded(long sequence, boolean isUrgent) throws ServerErrorException {
+        awaitWritten(sequence, isUrgent);
+
+        synchronized (progressLock) {
+            Map.Entry<Long, Long> failedBatch = failedBatches.floorEntry(sequence);
+            if (failedBatch != null && sequence <= failedBatch.getValue()) {
+                throw new ServerErrorException(PERSISTENCE_ERROR);
+            }
+        }
+    }
+
+    private long firstFailureAfter(long sequence) {
+        Map.Entry<Long, Long> failedBatch = failedBatches.floorEntry(sequence);
+        if (failedBatch != null && sequence < failedBatch.getValue()) {
+            return sequence + 1;
+        }
+
+        Long nextFailure = failedBatches.higherKey(sequence);
+        return nextFailure == null ? NO_FAILURE : nextFailure;
+    }
+
+    private void writeLoop() {
+        List<Operation> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        while (true) {
+            boolean isFailed = false;
+            try {
+                Operation first = pending.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                awaitCommitWindow();
+                pending.drainTo(batch, MAX_BATCH_SIZE - 1);
+                isFailed = !writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                markWritten(batch.size(), isFailed);
+                batch.clear();
+            }
+        }
+    }
+
+    private void awaitCommitWindow() throws InterruptedException {
+        if (durabilityMode != DurabilityMode.GROUP) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + commitIntervalNanos;
+        synchronized (progressLock) {
+            long remaining;
+            while (!isFlushRequested && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(progressLock, remaining);
+            }
+            isFlushRequested = false;
+        }
+    }
+
+    private boolean writeBatch(List<Operation> batch) {
+        boolean isWritten = true;
+        Map<Path, ByteArrayOutputStream> appends = new LinkedHashMap<>();
+
+        for (Operation operation : batch) {
+            switch (operation.type()) {
+                case APPEND -> appends.computeIfAbsent(operation.path(), path -> new ByteArrayOutputStream())
+                    .writeBytes(operation.data());
+                case REPLACE -> {
+                    appends.remove(operation.path());
+                    isWritten &= replaceFile(operation.path(), operation.data());
+                }
+                case DELETE -> {
+                    appends.remove(operation.path());
+                    isWritten &= deleteFile(operation.path());
+                }
+                case CLOSE -> {
+                    isWritten &= writeAppends(appends);
+                    appends.clear();
+                    isWritten &= closeChannels();
+                }
+            }
+        }
+
+        return writeAppends(appends) && isWritten;
+    }
+
+    private boolean writeAppends(Map<Path, ByteArrayOutputStream> appends) {
+        boolean isWritten = true;
+        List<FileChannel> written = new ArrayList<>(appends.size());
+
+        for (Map.Entry<Path, ByteArrayOutputStream> entry : appends.entrySet()) {
+            try {
+                FileChannel channel = channels.get(entry.getKey());
+                ByteBuffer buffer = ByteBuffer.wrap(entry.getValue().toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                written.add(channel);
+            } catch (IOException e) {
+                LogsManager.getInstance().addLogToFile(e, null);
+                isWritten = false;
+            }
+        }
+
+        if (durabilityMode == DurabilityMode.BUFFERED) {
+            return isWritten;
+        }
+
+        for (FileChannel channel : written) {
+            try {
+                if (channel.isOpen()) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                LogsManager.getInstance().addLogToFile(e, null);
+                isWritten = false;
+            }
+        }
+
+        return isWritten;
+    }
+
+    private boolean replaceFile(Path path, byte[] data) {
+        Path temporary = Path.of(path + TEMPORARY_EXTENSION);
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+
+            channels.close(path);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            LogsManager.getInstance().addLogToFile(e, null);
+            return false;
+        }
+    }
+
+    private boolean deleteFile(Path path) {
+        try {
+            channels.close(path);
+            Files.deleteIfExists(path);
+            return true;
+        } catch (IOException e) {
+            LogsManager.getInstance().addLogToFile(e, null);
+            return false;
+        }
+    }
+
+    private boolean closeChannels() {
+        try {
+            channels.closeAll();
+            return true;
+        } catch (IOException e) {
+            LogsManager.getInstance().addLogToFile(e, null);
+            return false;
+        }
+    }
+
+    private void markWritten(int count, boolean isFailed) {
+        if (count == 0) {
+            return;
+        }
+
+        synchronized (progressLock) {
+            if (isFailed) {
+                failedBatches.put(writtenOperations + 1, writtenOperations + count);
+                if (failedBatches.size() > MAX_FAILED_BATCHES) {
+                    failedBatches.pollFirstEntry();
+                }
+                if (unreportedFailure == NO_FAILURE) {
+                    unreportedFailure = writtenOperations + 1;
+                }
+            }
+            writtenOperations += count;
+            lastOperations.values().removeIf(sequence -> sequence <= writtenOperations);
+            progressLock.notifyAll();
+        }
+    }
+}
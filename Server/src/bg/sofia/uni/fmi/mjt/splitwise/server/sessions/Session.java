@@ -0,0 +1,7 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.sessions;
+
+public record Session(String username, long expiresAt) {
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
@@ -0,0 +1,133 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.sessions;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.config.ServerConfig;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.InvalidSessionTokenException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SessionManager {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = ".";
+    private static final String SEPARATOR_REGEX = "\\.";
+    private static final int KEY_BYTES = 32;
+    private static final int ID_BYTES = 16;
+    private static final int TOKEN_PARTS = 3;
+    private static final int CLEANUP_INTERVAL = 1024;
+    private static final String INVALID_TOKEN_MESSAGE = "Invalid or expired session token. Log in again";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static SessionManager instance;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> macs;
+    private final AtomicInteger createdSessions = new AtomicInteger();
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    SessionManager(Duration timeToLive, Clock clock) {
+        if (timeToLive == null || clock == null) {
+            throw new IllegalArgumentException("Time to live and clock cannot be null");
+        }
+
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+
+        byte[] key = new byte[KEY_BYTES];
+        random.nextBytes(key);
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        macs = ThreadLocal.withInitial(() -> createMac(keySpec));
+    }
+
+    public static synchronized SessionManager getInstance() {
+        if (instance == null) {
+            instance = new SessionManager(ServerConfig.getSessionTimeToLive(), Clock.systemUTC());
+        }
+        return instance;
+    }
+
+    private static Mac createMac(SecretKeySpec keySpec) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(keySpec);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("A problem occurred while initializing session signing", e);
+        }
+    }
+
+    public String createSession(String username) {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+
+        if (createdSessions.incrementAndGet() % CLEANUP_INTERVAL == 0) {
+            removeExpiredSessions();
+        }
+
+        byte[] idBytes = new byte[ID_BYTES];
+        random.nextBytes(idBytes);
+        String id = ENCODER.encodeToString(idBytes);
+        long expiresAt = clock.millis() + timeToLive.toMillis();
+
+        sessions.put(id, new Session(username, expiresAt));
+        return id + SEPARATOR + expiresAt + SEPARATOR + sign(id, username, expiresAt);
+    }
+
+    public String resume(String token) throws InvalidSessionTokenException {
+        if (token == null) {
+            throw new IllegalArgumentException("Token cannot be null");
+        }
+
+        String[] parts = token.split(SEPARATOR_REGEX);
+        if (parts.length != TOKEN_PARTS) {
+            throw new InvalidSessionTokenException(INVALID_TOKEN_MESSAGE);
+        }
+
+        Session session = sessions.get(parts[0]);
+        if (session == null || !String.valueOf(session.expiresAt()).equals(parts[1])) {
+            throw new InvalidSessionTokenException(INVALID_TOKEN_MESSAGE);
+        }
+
+        if (session.isExpired(clock.millis())) {
+            sessions.remove(parts[0]);
+            throw new InvalidSessionTokenException(INVALID_TOKEN_MESSAGE);
+        }
+
+        if (!isSignatureValid(parts[2], sign(parts[0], session.username(), session.expiresAt()))) {
+            throw new InvalidSessionTokenException(INVALID_TOKEN_MESSAGE);
+        }
+
+        return session.username();
+    }
+
+    private boolean isSignatureValid(String given, String expected) {
+        return MessageDigest.isEqual(given.getBytes(StandardCharsets.US_ASCII),
+            expected.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String sign(String id, String username, long expiresAt) {
+        String payload = id + SEPARATOR + username + SEPARATOR + expiresAt;
+        return ENCODER.encodeToString(macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void removeExpiredSessions() {
+        long now = clock.millis();
+        sessions.values().removeIf(session -> session.isExpired(now));
+    }
+
+    public int getActiveSessionsCount() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,95 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.sessions;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.network.EventSink;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SessionRegistry {
+    private static SessionRegistry instance;
+    private final Map<String, SelectionKey> onlineUsers = new ConcurrentHashMap<>();
+    private final Map<Selector, EventSink> sinks = new ConcurrentHashMap<>();
+
+    SessionRegistry() {
+
+    }
+
+    public static synchronized SessionRegistry getInstance() {
+        if (instance == null) {
+            instance = new SessionRegistry();
+        }
+        return instance;
+    }
+
+    public void addSink(Selector selector, EventSink sink) {
+        if (selector == null || sink == null) {
+            throw new IllegalArgumentException("Selector and sink cannot be null");
+        }
+
+        sinks.put(selector, sink);
+    }
+
+    public void removeSink(Selector selector) {
+        if (selector == null) {
+            throw new IllegalArgumentException("Selector cannot be null");
+        }
+
+        sinks.remove(selector);
+    }
+
+    public void register(String username, SelectionKey key) {
+        if (username == null || key == null) {
+            throw new IllegalArgumentException("Username and key cannot be null");
+        }
+
+        Object previous = key.attach(username);
+        if (previous instanceof String previousUsername && !previousUsername.equals(username)) {
+            onlineUsers.remove(previousUsername, key);
+        }
+        onlineUsers.put(username, key);
+    }
+
+    public void unregister(SelectionKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        if (key.attachment() instanceof String username) {
+            onlineUsers.remove(username, key);
+        }
+    }
+
+    public boolean isOnline(String username) {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+
+        SelectionKey key = onlineUsers.get(username);
+        return key != null && key.isValid();
+    }
+
+    public boolean push(String username, String event, Runnable onDelivered) {
+        if (username == null || event == null || onDelivered == null) {
+            throw new IllegalArgumentException("Username, event and delivery callback cannot be null");
+        }
+
+        SelectionKey key = onlineUsers.get(username);
+        if (key == null || !key.isValid() || key.selector() == null) {
+            return false;
+        }
+
+        EventSink sink = sinks.get(key.selector());
+        if (sink == null) {
+            return false;
+        }
+
+        sink.push(key, event, onDelivered);
+        return true;
+    }
+
+    public int getOnlineUsersCount() {
+        return onlineUsers.size();
+    }
+}
@@ -0,0 +1,51 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.snapshot;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class SnapshotReader {
+    private static final String CORRUPTED_SNAPSHOT_ERROR = "The state snapshot is corrupted";
+    private final ByteBuffer buffer;
+
+    SnapshotReader(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Buffer cannot be null");
+        }
+
+        this.buffer = buffer;
+    }
+
+    public int readInt() throws ServerErrorException {
+        try {
+            return buffer.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new ServerErrorException(CORRUPTED_SNAPSHOT_ERROR, e);
+        }
+    }
+
+    public long readLong() throws ServerErrorException {
+        try {
+            return buffer.getLong();
+        } catch (BufferUnderflowException e) {
+            throw new ServerErrorException(CORRUPTED_SNAPSHOT_ERROR, e);
+        }
+    }
+
+    public byte[] readBytes() throws ServerErrorException {
+        int length = readInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new ServerErrorException(CORRUPTED_SNAPSHOT_ERROR);
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public String readString() throws ServerErrorException {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+}
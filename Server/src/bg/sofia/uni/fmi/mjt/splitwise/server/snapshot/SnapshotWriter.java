@@ -0,0 +1,78 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.snapshot;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SnapshotWriter implements AutoCloseable {
+    private final Path file;
+    private final FileChannel channel;
+    private final DataOutputStream output;
+
+    SnapshotWriter(Path file) throws ServerErrorException {
+        this.file = file;
+
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+            this.output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+
+    public void writeInt(int value) throws ServerErrorException {
+        try {
+            output.writeInt(value);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+
+    public void writeLong(long value) throws ServerErrorException {
+        try {
+            output.writeLong(value);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+
+    public void writeBytes(byte[] bytes) throws ServerErrorException {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Bytes cannot be null");
+        }
+
+        writeInt(bytes.length);
+        try {
+            output.write(bytes);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+
+    public void writeString(String value) throws ServerErrorException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() throws ServerErrorException {
+        try (output) {
+            output.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+}
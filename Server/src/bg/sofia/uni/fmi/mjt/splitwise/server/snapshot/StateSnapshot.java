@@ -0,0 +1,101 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.snapshot;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageType;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class StateSnapshot {
+    private static final int MAGIC = 0x53575353;
+    private static final int VERSION = 2;
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private final Path file;
+    private final UserRepository userRepository;
+    private final FriendsManager friendsManager;
+    private final GroupManager groupManager;
+    private final DebtManager debtManager;
+    private final StorageType storageType = StorageProvider.getInstance().getType();
+
+    public StateSnapshot(Path file, UserRepository userRepository, FriendsManager friendsManager,
+                         GroupManager groupManager, DebtManager debtManager) {
+        if (file == null || userRepository == null || friendsManager == null || groupManager == null ||
+            debtManager == null) {
+            throw new IllegalArgumentException("Snapshot file and managers cannot be null");
+        }
+
+        this.file = file;
+        this.userRepository = userRepository;
+        this.friendsManager = friendsManager;
+        this.groupManager = groupManager;
+        this.debtManager = debtManager;
+    }
+
+    public boolean restore() throws ServerErrorException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            SnapshotReader reader = new SnapshotReader(buffer);
+
+            if (reader.readInt() != MAGIC || reader.readInt() != VERSION ||
+                !reader.readString().equals(storageType.name())) {
+                return false;
+            }
+
+            userRepository.restore(reader);
+            friendsManager.restore(reader);
+            groupManager.restore(reader);
+            debtManager.restore(reader);
+            return true;
+        } catch (ServerErrorException e) {
+            LogsManager.getInstance().addLogToFile(e, null);
+            discardRestoredState();
+            return false;
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + file, e);
+        }
+    }
+
+    private void discardRestoredState() {
+        userRepository.clear();
+        friendsManager.clear();
+        groupManager.clear();
+        debtManager.clear();
+    }
+
+    public void save() throws ServerErrorException {
+        Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY_EXTENSION);
+
+        try (SnapshotWriter writer = new SnapshotWriter(temporary)) {
+            writer.writeInt(MAGIC);
+            writer.writeInt(VERSION);
+            writer.writeString(storageType.name());
+
+            userRepository.writeSnapshot(writer);
+            friendsManager.writeSnapshot(writer);
+            groupManager.writeSnapshot(writer);
+            debtManager.writeSnapshot(writer);
+        }
+
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+}
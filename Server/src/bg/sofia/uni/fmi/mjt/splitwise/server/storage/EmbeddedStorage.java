@@ -0,0 +1,348 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class EmbeddedStorage implements Storage {
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final byte APPEND = 0;
+    private static final byte DELETE = 1;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int HEADER_BYTES = Byte.BYTES + Byte.BYTES + Short.BYTES;
+    private static final int INITIAL_OFFSETS = 4;
+    private static final long COMPACTION_THRESHOLD_BYTES = 1024 * 1024;
+    private final Path file;
+    private final boolean isSyncEnabled;
+    private final Map<TableKey, Offsets> index = new HashMap<>();
+    private FileChannel channel;
+    private long end;
+    private long deadBytes;
+
+    private record TableKey(Table table, String owner) {
+    }
+
+    private static class Offsets {
+        private long[] values = new long[INITIAL_OFFSETS];
+        private int size;
+        private long bytes;
+
+        private void add(long offset, int recordBytes) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = offset;
+            bytes += recordBytes;
+        }
+    }
+
+    public EmbeddedStorage(Path file, boolean isSyncEnabled) throws ServerErrorException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+
+        this.file = file;
+        this.isSyncEnabled = isSyncEnabled;
+
+        try {
+            open();
+            if (deadBytes > COMPACTION_THRESHOLD_BYTES && deadBytes > end - deadBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + file, e);
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        index.clear();
+        end = 0;
+        deadBytes = 0;
+
+        long size = channel.size();
+        ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+        while (end + LENGTH_BYTES <= size) {
+            length.clear();
+            readFully(length, end);
+            int recordBytes = LENGTH_BYTES + length.getInt(0);
+            if (end + recordBytes > size) {
+                break;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(recordBytes - LENGTH_BYTES);
+            readFully(record, end + LENGTH_BYTES);
+            indexRecord(record, end, recordBytes);
+            end += recordBytes;
+        }
+
+        if (end < size) {
+            channel.truncate(end);
+        }
+    }
+
+    private void indexRecord(ByteBuffer record, long offset, int recordBytes) {
+        byte type = record.get(0);
+        TableKey key = readKey(record);
+
+        if (type == DELETE) {
+            Offsets removed = index.remove(key);
+            deadBytes += recordBytes + (removed == null ? 0 : removed.bytes);
+        } else {
+            index.computeIfAbsent(key, ignored -> new Offsets()).add(offset, recordBytes);
+        }
+    }
+
+    private TableKey readKey(ByteBuffer record) {
+        Table table = Table.values()[record.get(Byte.BYTES)];
+        byte[] owner = new byte[record.getShort(Byte.BYTES + Byte.BYTES)];
+        record.get(HEADER_BYTES, owner);
+
+        return new TableKey(table, new String(owner, StandardCharsets.UTF_8));
+    }
+
+    private void compact() throws IOException {
+        rewrite(null, List.of());
+    }
+
+    private void rewrite(TableKey replaced, List<byte[]> replacement) throws IOException {
+        Path temporary = Path.of(file + TEMPORARY_EXTENSION);
+        try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<TableKey, Offsets> entry : index.entrySet()) {
+                if (entry.getKey().equals(replaced)) {
+                    continue;
+                }
+
+                Offsets offsets = entry.getValue();
+                for (int i = 0; i < offsets.size; i++) {
+                    ByteBuffer record = readRecord(offsets.values[i]);
+                    record.rewind();
+                    writeFully(target, record);
+                }
+            }
+            for (byte[] value : replacement) {
+                writeFully(target, encode(APPEND, replaced.table(), replaced.owner(), value));
+            }
+            target.force(true);
+        }
+
+        channel.close();
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        open();
+    }
+
+    @Override
+    public StorageType getType() {
+        return StorageType.EMBEDDED;
+    }
+
+    @Override
+    public void append(Table table, String owner, String record) throws ServerErrorException {
+        if (record == null) {
+            throw new IllegalArgumentException("Record cannot be null");
+        }
+
+        appendBinary(table, owner, record.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public synchronized void appendBinary(Table table, String owner, byte[] record) throws ServerErrorException {
+        if (table == null || owner == null || record == null) {
+            throw new IllegalArgumentException("Table, owner and record cannot be null");
+        }
+
+        int recordBytes = write(APPEND, table, owner, record);
+        index.computeIfAbsent(new TableKey(table, owner), ignored -> new Offsets()).add(end, recordBytes);
+        end += recordBytes;
+    }
+
+    @Override
+    public synchronized long position(Table table, String owner) {
+        if (table == null || owner == null) {
+            throw new IllegalArgumentException("Table and owner cannot be null");
+        }
+
+        Offsets offsets = index.get(new TableKey(table, owner));
+        return offsets == null ? 0 : offsets.size;
+    }
+
+    @Override
+    public void load(Table table, String owner, long position, Consumer<String> consumer)
+        throws ServerErrorException {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+
+        loadBinary(table, owner, position, record -> consumer.accept(StandardCharsets.UTF_8.decode(record).toString()));
+    }
+
+    @Override
+    public void loadBinary(Table table, String owner, long position, Consumer<ByteBuffer> consumer)
+        throws ServerErrorException {
+        if (table == null || owner == null || consumer == null) {
+            throw new IllegalArgumentException("Table, owner and consumer cannot be null");
+        }
+
+        loadRange(table, owner, position, Integer.MAX_VALUE, consumer);
+    }
+
+    @Override
+    public long count(Table table, String owner) {
+        return position(table, owner);
+    }
+
+    @Override
+    public void loadRange(Table table, String owner, long first, int limit, Consumer<ByteBuffer> consumer)
+        throws ServerErrorException {
+        if (table == null || owner == null || consumer == null) {
+            throw new IllegalArgumentException("Table, owner and consumer cannot be null");
+        }
+        if (first < 0 || limit < 0) {
+            throw new IllegalArgumentException("First record and limit cannot be negative");
+        }
+
+        long[] offsets;
+        synchronized (this) {
+            Offsets indexed = index.get(new TableKey(table, owner));
+            if (indexed == null || first >= indexed.size) {
+                return;
+            }
+            offsets = Arrays.copyOfRange(indexed.values, (int) first, (int) Math.min(first + limit, indexed.size));
+        }
+
+        try {
+            for (long offset : offsets) {
+                ByteBuffer record = readRecord(offset);
+                int ownerBytes = record.getShort(LENGTH_BYTES + Byte.BYTES + Byte.BYTES);
+
+                consumer.accept(record.position(LENGTH_BYTES + HEADER_BYTES + ownerBytes));
+            }
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void replaceBinary(Table table, String owner, List<byte[]> records)
+        throws ServerErrorException {
+        if (table == null || owner == null || records == null) {
+            throw new IllegalArgumentException("Table, owner and records cannot be null");
+        }
+
+        try {
+            rewrite(new TableKey(table, owner), records);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void delete(Table table, String owner) throws ServerErrorException {
+        if (table == null || owner == null) {
+            throw new IllegalArgumentException("Table and owner cannot be null");
+        }
+
+        Offsets removed = index.remove(new TableKey(table, owner));
+        if (removed == null) {
+            return;
+        }
+
+        int recordBytes = write(DELETE, table, owner, new byte[0]);
+        end += recordBytes;
+        deadBytes += recordBytes + removed.bytes;
+    }
+
+    private int write(byte type, Table table, String owner, byte[] valueBytes) throws ServerErrorException {
+        ByteBuffer record = encode(type, table, owner, valueBytes);
+        int recordBytes = record.limit();
+
+        try {
+            long position = end;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+
+            if (isSyncEnabled) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+
+        return recordBytes;
+    }
+
+    private static ByteBuffer encode(byte type, Table table, String owner, byte[] valueBytes) {
+        byte[] ownerBytes = owner.getBytes(StandardCharsets.UTF_8);
+        int recordBytes = LENGTH_BYTES + HEADER_BYTES + ownerBytes.length + valueBytes.length;
+
+        return ByteBuffer.allocate(recordBytes)
+            .putInt(recordBytes - LENGTH_BYTES)
+            .put(type)
+            .put((byte) table.ordinal())
+            .putShort((short) ownerBytes.length)
+            .put(ownerBytes)
+            .put(valueBytes)
+            .flip();
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer record) throws IOException {
+        while (record.hasRemaining()) {
+            target.write(record);
+        }
+    }
+
+    private ByteBuffer readRecord(long offset) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+        readFully(length, offset);
+
+        ByteBuffer record = ByteBuffer.allocate(LENGTH_BYTES + length.getInt(0));
+        readFully(record, offset);
+        return record;
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of the storage file " + file);
+            }
+            position += read;
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws ServerErrorException {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws ServerErrorException {
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + file, e);
+        }
+    }
+}
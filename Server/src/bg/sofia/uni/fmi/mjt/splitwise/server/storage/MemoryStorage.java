@@ -0,0 +1,129 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public class MemoryStorage implements Storage {
+    private final Map<TableKey, List<byte[]>> tables = new ConcurrentHashMap<>();
+
+    private record TableKey(Table table, String owner) {
+    }
+
+    @Override
+    public StorageType getType() {
+        return StorageType.MEMORY;
+    }
+
+    @Override
+    public void append(Table table, String owner, String record) {
+        if (record == null) {
+            throw new IllegalArgumentException("Record cannot be null");
+        }
+
+        appendBinary(table, owner, record.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void appendBinary(Table table, String owner, byte[] record) {
+        if (table == null || owner == null || record == null) {
+            throw new IllegalArgumentException("Table, owner and record cannot be null");
+        }
+
+        List<byte[]> records = tables.computeIfAbsent(new TableKey(table, owner), key -> new ArrayList<>());
+        synchronized (records) {
+            records.add(record);
+        }
+    }
+
+    @Override
+    public long position(Table table, String owner) {
+        if (table == null || owner == null) {
+            throw new IllegalArgumentException("Table and owner cannot be null");
+        }
+
+        List<byte[]> records = tables.get(new TableKey(table, owner));
+        if (records == null) {
+            return 0;
+        }
+
+        synchronized (records) {
+            return records.size();
+        }
+    }
+
+    @Override
+    public void load(Table table, String owner, long position, Consumer<String> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+
+        loadBinary(table, owner, position, record -> consumer.accept(StandardCharsets.UTF_8.decode(record).toString()));
+    }
+
+    @Override
+    public void loadBinary(Table table, String owner, long position, Consumer<ByteBuffer> consumer) {
+        if (table == null || owner == null || consumer == null) {
+            throw new IllegalArgumentException("Table, owner and consumer cannot be null");
+        }
+
+        loadRange(table, owner, position, Integer.MAX_VALUE, consumer);
+    }
+
+    @Override
+    public long count(Table table, String owner) {
+        return position(table, owner);
+    }
+
+    @Override
+    public void loadRange(Table table, String owner, long first, int limit, Consumer<ByteBuffer> consumer) {
+        if (table == null || owner == null || consumer == null) {
+            throw new IllegalArgumentException("Table, owner and consumer cannot be null");
+        }
+        if (first < 0 || limit < 0) {
+            throw new IllegalArgumentException("First record and limit cannot be negative");
+        }
+
+        List<byte[]> records = tables.get(new TableKey(table, owner));
+        if (records == null) {
+            return;
+        }
+
+        List<byte[]> copy;
+        synchronized (records) {
+            int from = (int) Math.min(first, records.size());
+            copy = List.copyOf(records.subList(from, (int) Math.min(from + (long) limit, records.size())));
+        }
+        copy.forEach(record -> consumer.accept(ByteBuffer.wrap(record)));
+    }
+
+    @Override
+    public void replaceBinary(Table table, String owner, List<byte[]> records) {
+        if (table == null || owner == null || records == null) {
+            throw new IllegalArgumentException("Table, owner and records cannot be null");
+        }
+
+        tables.put(new TableKey(table, owner), new ArrayList<>(records));
+    }
+
+    @Override
+    public void delete(Table table, String owner) {
+        if (table == null || owner == null) {
+            throw new IllegalArgumentException("Table and owner cannot be null");
+        }
+
+        tables.remove(new TableKey(table, owner));
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
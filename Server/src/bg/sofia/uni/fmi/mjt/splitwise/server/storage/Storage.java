@@ -0,0 +1,37 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface Storage {
+    String GLOBAL = "";
+
+    StorageType getType();
+
+    void append(Table table, String owner, String record) throws ServerErrorException;
+
+    void appendBinary(Table table, String owner, byte[] record) throws ServerErrorException;
+
+    long position(Table table, String owner) throws ServerErrorException;
+
+    void load(Table table, String owner, long position, Consumer<String> consumer) throws ServerErrorException;
+
+    void loadBinary(Table table, String owner, long position, Consumer<ByteBuffer> consumer)
+        throws ServerErrorException;
+
+    long count(Table table, String owner) throws ServerErrorException;
+
+    void loadRange(Table table, String owner, long first, int limit, Consumer<ByteBuffer> consumer)
+        throws ServerErrorException;
+
+    void replaceBinary(Table table, String owner, List<byte[]> records) throws ServerErrorException;
+
+    void delete(Table table, String owner) throws ServerErrorException;
+
+    void flush() throws ServerErrorException;
+
+    void close() throws ServerErrorException;
+}
@@ -0,0 +1,40 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.config.ServerConfig;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.persistence.DurabilityMode;
+
+import java.nio.file.Path;
+
+public class StorageProvider {
+    private static final Path EMBEDDED_STORAGE_PATH = Path.of("splitwise.db");
+    private static Storage instance;
+
+    private StorageProvider() {
+
+    }
+
+    public static synchronized Storage getInstance() {
+        if (instance == null) {
+            instance = create(ServerConfig.getStorageType());
+        }
+        return instance;
+    }
+
+    private static Storage create(StorageType type) {
+        return switch (type) {
+            case TEXT -> new TextFileStorage();
+            case MEMORY -> new MemoryStorage();
+            case EMBEDDED -> openEmbeddedStorage();
+        };
+    }
+
+    private static Storage openEmbeddedStorage() {
+        try {
+            return new EmbeddedStorage(EMBEDDED_STORAGE_PATH,
+                ServerConfig.getDurabilityMode() == DurabilityMode.SYNC);
+        } catch (ServerErrorException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+public enum StorageType {
+    TEXT, MEMORY, EMBEDDED
+}
@@ -0,0 +1,57 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import java.nio.file.Path;
+
+public enum Table {
+    USERS("users.txt"),
+    CREDENTIALS("usersPasswords.txt"),
+    FRIENDSHIPS("usersFriends.txt"),
+    GROUPS("groups.txt"),
+    PAID_DEBTS("%s_paid_debts.dat", "%s_paid_debts.txt"),
+    PARTLY_PAID_DEBTS("%s_partly_paid_debts.dat", "%s_partly_paid_debts.txt"),
+    NEW_DEBTS("%s_new_debts.dat", "%s_new_debts.txt"),
+    NEW_GROUP_DEBTS("%s_new_group_debts.dat", "%s_new_group_debts.txt"),
+    TRANSACTIONS("%s_transaction_history.dat", "%s_transaction_history.txt"),
+    NOTIFICATIONS("notifications.dat");
+
+    private static final String OWNER_PLACEHOLDER = "%s";
+    private final String fileName;
+    private final String legacyFileName;
+
+    Table(String fileName) {
+        this(fileName, null);
+    }
+
+    Table(String fileName, String legacyFileName) {
+        this.fileName = fileName;
+        this.legacyFileName = legacyFileName;
+    }
+
+    public boolean isPerUser() {
+        return fileName.contains(OWNER_PLACEHOLDER);
+    }
+
+    public boolean isBinary() {
+        return legacyFileName != null;
+    }
+
+    public Path toPath(String owner) {
+        return toPath(fileName, owner);
+    }
+
+    public Path toLegacyPath(String owner) {
+        if (!isBinary()) {
+            throw new IllegalStateException("Table " + this + " has no legacy text file");
+        }
+
+        return toPath(legacyFileName, owner);
+    }
+
+    private Path toPath(String name, String owner) {
+        if (owner == null) {
+            throw new IllegalArgumentException("Owner cannot be null");
+        }
+
+        return Path.of(isPerUser() ? String.format(name, owner) : name);
+    }
+}
@@ -0,0 +1,357 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.persistence.PersistenceService;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.VarIntUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public class TextFileStorage implements Storage {
+    private static final int INDEX_INTERVAL = 64;
+    private static final int INITIAL_OFFSETS = 4;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FRAME_HEADER_BYTES = 5;
+    private final Map<Path, OffsetIndex> indexes = new ConcurrentHashMap<>();
+
+    private static class OffsetIndex {
+        private long[] offsets = new long[INITIAL_OFFSETS];
+        private int size;
+        private long legacyRecords;
+        private long legacyBytes;
+        private long records;
+        private long end;
+        private boolean isBuilt;
+
+        private void add(int frameBytes) {
+            if (records % INDEX_INTERVAL == 0) {
+                if (size == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, size * 2);
+                }
+                offsets[size++] = end;
+            }
+            records++;
+            end += frameBytes;
+        }
+
+        private void clear() {
+            size = 0;
+            legacyRecords = 0;
+            records = 0;
+            end = 0;
+        }
+
+        private long count() {
+            return legacyRecords + records;
+        }
+    }
+
+    private static class FrameReader {
+        private final FileChannel channel;
+        private final long end;
+        private ByteBuffer window = ByteBuffer.allocate(READ_BUFFER_SIZE).limit(0);
+        private long windowStart;
+
+        private FrameReader(FileChannel channel, long end) {
+            this.channel = channel;
+            this.end = end;
+        }
+
+        private ByteBuffer read(long offset, int length) throws IOException {
+            if (offset < windowStart || offset + length > windowStart + window.limit()) {
+                if (window.capacity() < length) {
+                    window = ByteBuffer.allocate(length);
+                }
+
+                window.clear().limit((int) Math.min(window.capacity(), end - offset));
+                windowStart = offset;
+                int read = 0;
+                while (window.hasRemaining() && read >= 0) {
+                    read = channel.read(window, windowStart + window.position());
+                }
+                window.flip();
+            }
+
+            return window.position((int) (offset - windowStart));
+        }
+    }
+
+    @Override
+    public StorageType getType() {
+        return StorageType.TEXT;
+    }
+
+    @Override
+    public void append(Table table, String owner, String record) throws ServerErrorException {
+        if (table == null || owner == null || record == null) {
+            throw new IllegalArgumentException("Table, owner and record cannot be null");
+        }
+
+        FileUtils.writeToFile(table.toPath(owner), System.lineSeparator(), record);
+    }
+
+    @Override
+    public void appendBinary(Table table, String owner, byte[] record) throws ServerErrorException {
+        if (table == null || owner == null || record == null) {
+            throw new IllegalArgumentException("Table, owner and record cannot be null");
+        }
+
+        byte[] frame = frame(record);
+        Path path = table.toPath(owner);
+        OffsetIndex index = indexes.computeIfAbsent(path, ignored -> new OffsetIndex());
+        synchronized (index) {
+            PersistenceService.getInstance().append(path, frame);
+            if (index.isBuilt) {
+                index.add(frame.length);
+            }
+        }
+    }
+
+    private static byte[] frame(byte[] record) {
+        ByteBuffer frame = ByteBuffer.allocate(VarIntUtils.sizeOfVarLong(record.length) + record.length);
+        VarIntUtils.putVarLong(frame, record.length);
+        frame.put(record);
+
+        return frame.array();
+    }
+
+    @Override
+    public long position(Table table, String owner) throws ServerErrorException {
+        if (table == null || owner == null) {
+            throw new IllegalArgumentException("Table and owner cannot be null");
+        }
+
+        return FileUtils.sizeOf(table.toPath(owner));
+    }
+
+    @Override
+    public void load(Table table, String owner, long position, Consumer<String> consumer)
+        throws ServerErrorException {
+        if (table == null || owner == null || consumer == null) {
+            throw new IllegalArgumentException("Table, owner and consumer cannot be null");
+        }
+
+        load(table.toPath(owner), position, consumer);
+    }
+
+    private void load(Path path, long position, Consumer<String> consumer) throws ServerErrorException {
+        if (!FileUtils.exists(path)) {
+            return;
+        }
+
+        try (var bufferedReader = FileUtils.newReader(path, position)) {
+            String line;
+
+            while ((line = bufferedReader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    consumer.accept(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + path, e);
+        }
+    }
+
+    @Override
+    public void loadBinary(Table table, String owner, long position, Consumer<ByteBuffer> consumer)
+        throws ServerErrorException {
+        if (table == null || owner == null || consumer == null) {
+            throw new IllegalArgumentException("Table, owner and consumer cannot be null");
+        }
+
+        if (position == 0 && table.isBinary()) {
+            loadLegacy(table.toLegacyPath(owner), consumer);
+        }
+
+        Path path = table.toPath(owner);
+        if (!FileUtils.exists(path)) {
+            return;
+        }
+
+        readFrames(path, position, Long.MAX_VALUE, 0, Long.MAX_VALUE, consumer);
+    }
+
+    @Override
+    public long count(Table table, String owner) throws ServerErrorException {
+        if (table == null || owner == null) {
+            throw new IllegalArgumentException("Table and owner cannot be null");
+        }
+
+        OffsetIndex index = getIndex(table, owner);
+        synchronized (index) {
+            return index.count();
+        }
+    }
+
+    @Override
+    public void loadRange(Table table, String owner, long first, int limit, Consumer<ByteBuffer> consumer)
+        throws ServerErrorException {
+        if (table == null || owner == null || consumer == null) {
+            throw new IllegalArgumentException("Table, owner and consumer cannot be null");
+        }
+        if (first < 0 || limit < 0) {
+            throw new IllegalArgumentException("First record and limit cannot be negative");
+        }
+
+        OffsetIndex index = getIndex(table, owner);
+        long legacyRecords;
+        long from;
+        long to;
+        long skipped;
+        long count;
+        synchronized (index) {
+            legacyRecords = index.legacyRecords;
+            long binaryFirst = Math.max(0, first - legacyRecords);
+            long last = Math.min(first + limit - legacyRecords, index.records);
+            if (binaryFirst < last) {
+                int point = (int) (binaryFirst / INDEX_INTERVAL);
+                int endPoint = (int) ((last - 1) / INDEX_INTERVAL + 1);
+                from = index.offsets[point];
+                to = endPoint < index.size ? index.offsets[endPoint] : index.end;
+                skipped = binaryFirst - (long) point * INDEX_INTERVAL;
+                count = last - binaryFirst;
+            } else {
+                from = 0;
+                to = 0;
+                skipped = 0;
+                count = 0;
+            }
+        }
+
+        if (first < legacyRecords) {
+            long[] line = {0};
+            loadLegacy(table.toLegacyPath(owner), record -> {
+                if (line[0] >= first && line[0] < first + limit) {
+                    consumer.accept(record);
+                }
+                line[0]++;
+            });
+        }
+
+        if (count > 0) {
+            readFrames(table.toPath(owner), from, to, skipped, count, consumer);
+        }
+    }
+
+    private OffsetIndex getIndex(Table table, String owner) throws ServerErrorException {
+        Path path = table.toPath(owner);
+        OffsetIndex index = indexes.computeIfAbsent(path, ignored -> new OffsetIndex());
+
+        synchronized (index) {
+            long legacyBytes = table.isBinary() ? FileUtils.sizeOf(table.toLegacyPath(owner)) : 0;
+            long size = FileUtils.sizeOf(path);
+            if (index.isBuilt && index.end == size && index.legacyBytes == legacyBytes) {
+                return index;
+            }
+
+            index.clear();
+            index.legacyBytes = legacyBytes;
+            if (legacyBytes > 0) {
+                loadLegacy(table.toLegacyPath(owner), record -> index.legacyRecords++);
+            }
+            if (size > 0) {
+                readFrames(path, 0, size, 0, Long.MAX_VALUE,
+                    record -> index.add(VarIntUtils.sizeOfVarLong(record.remaining()) + record.remaining()));
+                index.end = size;
+            }
+            index.isBuilt = true;
+        }
+
+        return index;
+    }
+
+    private void readFrames(Path path, long from, long to, long skipped, long count, Consumer<ByteBuffer> consumer)
+        throws ServerErrorException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            FrameReader reader = new FrameReader(channel, Math.min(channel.size(), to));
+            long offset = from;
+            long remaining = count;
+            long toSkip = skipped;
+            while (offset < reader.end && remaining > 0) {
+                ByteBuffer header = reader.read(offset, MAX_FRAME_HEADER_BYTES);
+                int headerStart = header.position();
+                int length = VarIntUtils.getVarInt(header);
+                long recordOffset = offset + header.position() - headerStart;
+                if (length < 0 || recordOffset + length > reader.end) {
+                    return;
+                }
+
+                if (toSkip > 0) {
+                    toSkip--;
+                } else {
+                    ByteBuffer record = reader.read(recordOffset, length);
+                    consumer.accept(record.slice(record.position(), length));
+                    remaining--;
+                }
+                offset = recordOffset + length;
+            }
+        } catch (BufferUnderflowException e) {
+            return;
+        } catch (IOException e) {
+            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + path, e);
+        }
+    }
+
+    private void loadLegacy(Path path, Consumer<ByteBuffer> consumer) throws ServerErrorException {
+        load(path, FileUtils.ZERO_INDEX,
+            line -> consumer.accept(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Override
+    public void replaceBinary(Table table, String owner, List<byte[]> records) throws ServerErrorException {
+        if (table == null || owner == null || records == null) {
+            throw new IllegalArgumentException("Table, owner and records cannot be null");
+        }
+
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        for (byte[] record : records) {
+            frames.writeBytes(frame(record));
+        }
+
+        Path path = table.toPath(owner);
+        OffsetIndex index = indexes.computeIfAbsent(path, ignored -> new OffsetIndex());
+        synchronized (index) {
+            PersistenceService.getInstance().replace(path, frames.toByteArray());
+            index.isBuilt = false;
+        }
+
+        if (table.isBinary()) {
+            FileUtils.deleteFile(table.toLegacyPath(owner));
+        }
+    }
+
+    @Override
+    public void delete(Table table, String owner) throws ServerErrorException {
+        if (table == null || owner == null) {
+            throw new IllegalArgumentException("Table and owner cannot be null");
+        }
+
+        indexes.remove(table.toPath(owner));
+        FileUtils.deleteFile(table.toPath(owner));
+        if (table.isBinary()) {
+            FileUtils.deleteFile(table.toLegacyPath(owner));
+        }
+    }
+
+    @Override
+    public void flush() throws ServerErrorException {
+        PersistenceService.getInstance().flush();
+    }
+
+    @Override
+    public void close() throws ServerErrorException {
+        PersistenceService.getInstance().close();
+    }
+}
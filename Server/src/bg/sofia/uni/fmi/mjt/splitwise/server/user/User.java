@@ -2,33 +2,55 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.user;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.ids.IdRegistry;
+import bg.sofia.uni.fmi.mjt.splitwise.server.notifications.Notification;
 import bg.sofia.uni.fmi.mjt.splitwise.server.notifications.NotificationCenter;
+import bg.sofia.uni.fmi.mjt.splitwise.server.utils.IntArrayUtils;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 public class User {
+    private final int id;
     private final String username;
     private final String firstName;
     private final String familyName;
-    private final Set<String> groups = new HashSet<>();
+    private volatile int[] groupIds = IntArrayUtils.EMPTY;
     private NotificationCenter notificationCenter;
 
     public User(String username, String firstName, String familyName) {
+        this(IdRegistry.NO_ID, username, firstName, familyName);
+    }
+
+    public User(int id, String username, String firstName, String familyName) {
         if (username == null || firstName == null || familyName == null) {
             throw new IllegalArgumentException("Username and names cannot be null");
         }
 
+        this.id = id;
         this.firstName = firstName;
         this.familyName = familyName;
         this.username = username;
-        notificationCenter = new NotificationCenter(username);
     }
 
-    void setNotificationCenter(NotificationCenter notificationCenter) {
+    synchronized void setNotificationCenter(NotificationCenter notificationCenter) {
         this.notificationCenter = notificationCenter;
     }
 
+    private synchronized NotificationCenter getNotificationCenter() {
+        if (notificationCenter == null) {
+            notificationCenter = new NotificationCenter(username);
+        }
+
+        return notificationCenter;
+    }
+
+    public int getId() {
+        return id;
+    }
+
     public String getUsername() {
         return username;
     }
@@ -42,15 +64,25 @@ public class User {
     }
 
     public Set<String> getGroups() {
+        int[] current = groupIds;
+
+        Set<String> groups = new LinkedHashSet<>();
+        for (int groupId : current) {
+            groups.add(GroupManager.toGroupName(groupId));
+        }
         return groups;
     }
 
-    public void addToGroup(String groupName) {
+    public int[] getGroupIds() {
+        return groupIds;
+    }
+
+    public synchronized void addToGroup(String groupName) {
         if (groupName == null) {
             throw new IllegalArgumentException("Group name cannot be null");
         }
 
-        groups.add(groupName);
+        groupIds = IntArrayUtils.insert(groupIds, GroupManager.internGroupName(groupName));
     }
 
     public boolean isInGroup(String groupName) {
@@ -58,26 +90,35 @@ public class User {
             throw new IllegalArgumentException("Group name cannot be null");
         }
 
-        return groups.contains(groupName);
+        int groupId = GroupManager.toGroupId(groupName);
+        return groupId != IdRegistry.NO_ID && IntArrayUtils.contains(groupIds, groupId);
     }
 
     public void addPaidDebt(DebtRecord debt) throws ServerErrorException {
-        notificationCenter.addPaidDebt(debt);
+        getNotificationCenter().addPaidDebt(debt);
     }
 
     public void addPartlyPaidDebt(DebtRecord debt) throws ServerErrorException {
-        notificationCenter.addPartlyPaidDebt(debt);
+        getNotificationCenter().addPartlyPaidDebt(debt);
     }
 
     public void addNewDebt(DebtRecord debt) throws ServerErrorException {
-        notificationCenter.addNewDebt(debt);
+        getNotificationCenter().addNewDebt(debt);
     }
 
     public void addNewGroupDebt(DebtRecord debt, String groupName) throws ServerErrorException {
-        notificationCenter.addNewGroupDebt(debt, groupName);
+        getNotificationCenter().addNewGroupDebt(debt, groupName);
     }
 
     public String getNotifications() throws ServerErrorException {
-        return notificationCenter.getNotifications();
+        return getNotificationCenter().getNotifications();
+    }
+
+    public String getNotifications(long after, int limit) throws ServerErrorException {
+        return getNotificationCenter().getNotifications(after, limit);
+    }
+
+    public void restoreNotifications(List<Notification> notifications) {
+        getNotificationCenter().restore(notifications);
     }
 }
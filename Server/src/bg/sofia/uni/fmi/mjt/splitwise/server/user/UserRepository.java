@@ -4,21 +4,30 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.IncorrectPasswordException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserNotFoundException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.ids.IdRegistry;
+import bg.sofia.uni.fmi.mjt.splitwise.server.passwords.Password;
 import bg.sofia.uni.fmi.mjt.splitwise.server.passwords.PasswordsDatabase;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.splitwise.server.snapshot.SnapshotWriter;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Storage;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Table;
 import bg.sofia.uni.fmi.mjt.splitwise.server.utils.FileUtils;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class UserRepository {
-    private static final Path USERS_PATH = Path.of("users.txt");
     private static UserRepository instance;
-    private static Map<String, User> users = new HashMap<>();
+    private static final int INITIAL_USERS_CAPACITY = 16;
+    private static final IdRegistry userIds = new IdRegistry();
+    private static volatile User[] usersById = new User[INITIAL_USERS_CAPACITY];
     private static PasswordsDatabase database = PasswordsDatabase.getInstance();
+    private final Storage storage = StorageProvider.getInstance();
 
     private UserRepository() {
 
@@ -26,7 +35,58 @@ public class UserRepository {
 
     public void initialize() throws ServerErrorException {
         database.initialize();
-        loadUsersFromFile();
+        loadUsers(FileUtils.ZERO_INDEX);
+    }
+
+    public void clear() {
+        database.clear();
+        synchronized (UserRepository.class) {
+            usersById = new User[INITIAL_USERS_CAPACITY];
+        }
+    }
+
+    public void restore(SnapshotReader reader) throws ServerErrorException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Snapshot reader cannot be null");
+        }
+
+        database.restore(reader);
+
+        long position = reader.readLong();
+        int count = reader.readInt();
+        for (int i = 0; i < count; i++) {
+            String username = reader.readString();
+            String firstName = reader.readString();
+            String lastName = reader.readString();
+
+            addUser(username, firstName, lastName);
+        }
+
+        loadUsers(position);
+    }
+
+    public void writeSnapshot(SnapshotWriter writer) throws ServerErrorException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Snapshot writer cannot be null");
+        }
+
+        database.writeSnapshot(writer);
+
+        List<User> snapshot = new ArrayList<>();
+        User[] current = usersById;
+        for (int id = 0; id < Math.min(userIds.size(), current.length); id++) {
+            if (current[id] != null) {
+                snapshot.add(current[id]);
+            }
+        }
+
+        writer.writeLong(storage.position(Table.USERS, Storage.GLOBAL));
+        writer.writeInt(snapshot.size());
+        for (User user : snapshot) {
+            writer.writeString(user.getUsername());
+            writer.writeString(user.getFirstName());
+            writer.writeString(user.getFamilyName());
+        }
     }
 
     public static UserRepository getInstance() {
@@ -42,34 +102,54 @@ public class UserRepository {
         return getInstance();
     }
 
-    private void loadUsersFromFile() throws ServerErrorException {
-        if (!Files.exists(USERS_PATH)) {
-            return;
-        }
+    private void loadUsers(long position) throws ServerErrorException {
+        storage.load(Table.USERS, Storage.GLOBAL, position, line -> {
+            String[] user = line.split(FileUtils.SINGLE_SPACE);
 
-        try (var bufferedReader = Files.newBufferedReader(USERS_PATH)) {
-            String line;
+            String username = user[FileUtils.ZERO_INDEX];
+            String firstName = user[FileUtils.ONE_INDEX];
+            String lastName = user[FileUtils.TWO_INDEX];
 
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] user = line.split(FileUtils.SINGLE_SPACE);
+            addUser(username, firstName, lastName);
+        });
+    }
 
-                String username = user[FileUtils.ZERO_INDEX];
-                String firstName = user[FileUtils.ONE_INDEX];
-                String lastName = user[FileUtils.TWO_INDEX];
+    private static synchronized void addUser(String username, String firstName, String lastName) {
+        int id = userIds.intern(username);
+        if (id >= usersById.length) {
+            usersById = Arrays.copyOf(usersById, Math.max(id + 1, usersById.length * 2));
+        }
 
-                users.put(username, new User(username, firstName, lastName));
-            }
-        } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.READING_FROM_FILE_ERROR + USERS_PATH, e);
+        usersById[id] = new User(id, username, firstName, lastName);
+    }
+
+    public static int internUsername(String username) {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
         }
+
+        return userIds.intern(username);
     }
 
-    public static User toUser(String username) {
+    public static int toId(String username) {
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
         }
 
-        return users.get(username);
+        return userIds.idOf(username);
+    }
+
+    public static String toUsername(int id) {
+        return userIds.nameOf(id);
+    }
+
+    public static User toUser(int id) {
+        User[] current = usersById;
+        return id < 0 || id >= current.length ? null : current[id];
+    }
+
+    public static User toUser(String username) {
+        return toUser(toId(username));
     }
 
     public void registerUser(String username, String password, String firstName, String lastName)
@@ -79,8 +159,21 @@ public class UserRepository {
         }
 
         database.addUserCredentials(username, password);
-        FileUtils.writeToFile(USERS_PATH, FileUtils.SINGLE_SPACE, username, firstName, lastName);
-        users.put(username, new User(username, firstName, lastName));
+        storage.append(Table.USERS, Storage.GLOBAL,
+            String.join(FileUtils.SINGLE_SPACE, username, firstName, lastName));
+        addUser(username, firstName, lastName);
+    }
+
+    public void registerUser(String username, Password password, String firstName, String lastName)
+        throws UserAlreadyExistsException, ServerErrorException {
+        if (username == null || password == null || firstName == null || lastName == null) {
+            throw new IllegalArgumentException("Username, password and names cannot be null");
+        }
+
+        database.addUserCredentials(username, password);
+        storage.append(Table.USERS, Storage.GLOBAL,
+            String.join(FileUtils.SINGLE_SPACE, username, firstName, lastName));
+        addUser(username, firstName, lastName);
     }
 
     public void loginUser(String username, String password)
@@ -88,15 +181,36 @@ public class UserRepository {
         database.checkLoginCredentials(username, password);
     }
 
+    public void loginUserWithHash(String username, String hashedPassword)
+        throws UserNotFoundException, IncorrectPasswordException {
+        database.checkHashedLoginCredentials(username, hashedPassword);
+    }
+
+    public CompletableFuture<Password> hashNewPassword(String password) {
+        return database.hashNewPassword(password);
+    }
+
+    public CompletableFuture<String> hashLoginPassword(String username, String password) {
+        return database.hashLoginPassword(username, password);
+    }
+
     public boolean containsUser(String username) {
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
         }
 
-        return users.containsKey(username);
+        return toUser(username) != null;
     }
 
     public static Set<String> getUsernames() {
-        return users.keySet();
+        Set<String> usernames = new HashSet<>();
+        User[] current = usersById;
+        for (User user : current) {
+            if (user != null) {
+                usernames.add(user.getUsername());
+            }
+        }
+
+        return usernames;
     }
 }
@@ -2,18 +2,83 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.utils;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.InvalidAmountException;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 public class AmountUtils {
-    public static double checkAmount(String args) throws InvalidAmountException {
+    private static final int CENTS_SCALE = 2;
+    private static final int MAX_INTEGER_DIGITS = 18;
+    private static final long CENTS_IN_UNIT = 100;
+    private static final long TENS_OF_CENTS = 10;
+    private static final char DECIMAL_POINT = '.';
+    private static final char MINUS = '-';
+    private static final char ZERO = '0';
+
+    public static long checkAmount(String args) throws InvalidAmountException {
         if (args == null) {
             throw new IllegalArgumentException("Args cannot be null");
         }
 
-        double amount;
         try {
-            amount = Double.parseDouble(args);
-            return amount;
+            return parseCents(args);
         } catch (NumberFormatException e) {
             throw new InvalidAmountException("The amount should be a number");
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException("The amount is too large");
+        }
+    }
+
+    public static long parseCents(String amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount cannot be null");
+        }
+
+        BigDecimal decimal = new BigDecimal(amount);
+        long integerDigits = (long) decimal.precision() - decimal.scale();
+        if (integerDigits > MAX_INTEGER_DIGITS) {
+            throw new ArithmeticException("The amount has too many digits");
+        }
+        if (integerDigits < -CENTS_SCALE) {
+            return 0;
+        }
+
+        return decimal
+            .setScale(CENTS_SCALE, RoundingMode.HALF_UP)
+            .unscaledValue()
+            .longValueExact();
+    }
+
+    public static String toText(long cents) {
+        StringBuilder builder = new StringBuilder();
+        if (cents < 0) {
+            builder.append(MINUS);
+        }
+
+        long units = Math.abs(cents / CENTS_IN_UNIT);
+        long fraction = Math.abs(cents % CENTS_IN_UNIT);
+        builder.append(units).append(DECIMAL_POINT);
+
+        if (fraction % TENS_OF_CENTS == 0) {
+            builder.append(fraction / TENS_OF_CENTS);
+        } else {
+            if (fraction < TENS_OF_CENTS) {
+                builder.append(ZERO);
+            }
+            builder.append(fraction);
         }
+
+        return builder.toString();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+
+    public static long share(long amount, int parts, int index) {
+        if (parts <= 0 || index < 0 || index >= parts) {
+            throw new IllegalArgumentException("Index must be between 0 and the count of parts");
+        }
+
+        return amount / parts + (index < amount % parts ? 1 : 0);
     }
 }
@@ -1,11 +1,15 @@
 package bg.sofia.uni.fmi.mjt.splitwise.server.utils;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.persistence.PersistenceService;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -42,33 +46,66 @@ public class FileUtils {
             throw new IllegalArgumentException("File name and values cannot be null");
         }
 
-        createFileIfNeeded(fileName);
+        StringBuilder builder = new StringBuilder();
+        for (Object value : values) {
+            builder.append(value).append(delimiter);
+        }
 
-        try (var bufferedWriter = Files.newBufferedWriter(fileName, StandardOpenOption.APPEND)) {
+        if (!delimiter.equals(System.lineSeparator())) {
+            builder.append(System.lineSeparator());
+        }
 
-            for (Object value : values) {
-                bufferedWriter.write(value + delimiter);
-            }
+        PersistenceService.getInstance().append(fileName, builder.toString());
+    }
 
-            if (!delimiter.equals(System.lineSeparator())) {
-                bufferedWriter.write(System.lineSeparator());
-            }
+    public static boolean exists(Path fileName) throws ServerErrorException {
+        if (fileName == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+
+        PersistenceService.getInstance().awaitWritten(fileName);
+        return Files.exists(fileName);
+    }
+
+    public static BufferedReader newReader(Path fileName, long offset) throws IOException, ServerErrorException {
+        if (fileName == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
 
-            bufferedWriter.flush();
+        PersistenceService.getInstance().awaitWritten(fileName);
 
+        InputStream inputStream = Files.newInputStream(fileName);
+        try {
+            inputStream.skipNBytes(offset);
         } catch (IOException e) {
-            throw new ServerErrorException(FileUtils.WRITING_TO_FILE_ERROR + fileName, e);
+            inputStream.close();
+            throw e;
         }
+
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
     }
 
-    public static void deleteFile(Path fileName) throws ServerErrorException {
+    public static long sizeOf(Path fileName) throws ServerErrorException {
         if (fileName == null) {
             throw new IllegalArgumentException("Path cannot be null");
         }
 
+        PersistenceService.getInstance().awaitWritten(fileName);
         try {
-            Files.deleteIfExists(fileName);
+            return Files.exists(fileName) ? Files.size(fileName) : ZERO_INDEX;
         } catch (IOException e) {
+            throw new ServerErrorException(READING_FROM_FILE_ERROR + fileName, e);
+        }
+    }
+
+    public static void deleteFile(Path fileName) throws ServerErrorException {
+        if (fileName == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+
+        try {
+            PersistenceService.getInstance().delete(fileName);
+        } catch (ServerErrorException e) {
             throw new ServerErrorException(DELETING_FILE_ERROR + fileName, e);
         }
     }
@@ -0,0 +1,89 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.utils;
+
+import java.util.Arrays;
+
+public class IntArrayUtils {
+    public static final int[] EMPTY = new int[0];
+
+    public static boolean contains(int[] sorted, int value) {
+        if (sorted == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+
+        return Arrays.binarySearch(sorted, value) >= 0;
+    }
+
+    public static int[] insert(int[] sorted, int value) {
+        if (sorted == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+
+        int index = Arrays.binarySearch(sorted, value);
+        if (index >= 0) {
+            return sorted;
+        }
+
+        int insertionPoint = -index - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, insertionPoint);
+        result[insertionPoint] = value;
+        System.arraycopy(sorted, insertionPoint, result, insertionPoint + 1, sorted.length - insertionPoint);
+
+        return result;
+    }
+
+    public static int[] intersect(int[] first, int[] second) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Arrays cannot be null");
+        }
+
+        int[] result = new int[Math.min(first.length, second.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    public static int[] union(int[] first, int[] second) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Arrays cannot be null");
+        }
+
+        int[] result = new int[first.length + second.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                result[size++] = first[i++];
+            } else if (first[i] > second[j]) {
+                result[size++] = second[j++];
+            } else {
+                result[size++] = first[i++];
+                j++;
+            }
+        }
+        while (i < first.length) {
+            result[size++] = first[i++];
+        }
+        while (j < second.length) {
+            result[size++] = second[j++];
+        }
+
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,62 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.utils;
+
+import java.nio.ByteBuffer;
+
+public class VarIntUtils {
+    private static final int PAYLOAD_BITS = 7;
+    private static final int PAYLOAD_MASK = 0x7F;
+    private static final int CONTINUATION_BIT = 0x80;
+    private static final int MAX_VAR_LONG_BYTES = 10;
+
+    public static int sizeOfVarLong(long value) {
+        int size = 1;
+        long remaining = value >>> PAYLOAD_BITS;
+
+        while (remaining != 0) {
+            remaining >>>= PAYLOAD_BITS;
+            size++;
+        }
+
+        return size;
+    }
+
+    public static void putVarLong(ByteBuffer buffer, long value) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Buffer cannot be null");
+        }
+
+        long remaining = value;
+        while ((remaining & ~PAYLOAD_MASK) != 0) {
+            buffer.put((byte) ((remaining & PAYLOAD_MASK) | CONTINUATION_BIT));
+            remaining >>>= PAYLOAD_BITS;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    public static long getVarLong(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Buffer cannot be null");
+        }
+
+        long value = 0;
+        for (int i = 0; i < MAX_VAR_LONG_BYTES; i++) {
+            byte current = buffer.get();
+            value |= (long) (current & PAYLOAD_MASK) << (i * PAYLOAD_BITS);
+
+            if ((current & CONTINUATION_BIT) == 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed variable-length number");
+    }
+
+    public static int getVarInt(ByteBuffer buffer) {
+        long value = getVarLong(buffer);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Malformed variable-length number");
+        }
+
+        return (int) value;
+    }
+}
@@ -0,0 +1,88 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntObjectHashMapTest {
+    private final IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+    @Test
+    void testPutAndGet() {
+        assertNull(map.put(1, "one"), "Expected no previous value for a new key");
+        assertEquals("one", map.put(1, "uno"), "Expected the previous value to be returned");
+
+        assertEquals("uno", map.get(1), "Expected the last value to be returned");
+        assertNull(map.get(2), "Expected null for a missing key");
+        assertEquals(1, map.size(), "Expected a single entry");
+    }
+
+    @Test
+    void testPutKeepsAllEntriesWhenResizing() {
+        for (int key = 0; key < 1000; key++) {
+            map.put(key * 31, String.valueOf(key));
+        }
+
+        assertEquals(1000, map.size(), "Expected every entry to be kept");
+        for (int key = 0; key < 1000; key++) {
+            assertEquals(String.valueOf(key), map.get(key * 31), "Expected the value of key " + key * 31);
+        }
+    }
+
+    @Test
+    void testPutWhenKeyIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, "value"),
+            "Expected IllegalArgumentException to be thrown when the key is negative");
+    }
+
+    @Test
+    void testPutWhenValueIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null),
+            "Expected IllegalArgumentException to be thrown when the value is null");
+    }
+
+    @Test
+    void testRemoveKeepsTheCollidingKeysReachable() {
+        for (int key = 0; key < 100; key++) {
+            map.put(key, String.valueOf(key));
+        }
+
+        for (int key = 0; key < 100; key += 2) {
+            assertEquals(String.valueOf(key), map.remove(key), "Expected the removed value to be returned");
+        }
+
+        assertEquals(50, map.size(), "Expected half of the entries to be left");
+        for (int key = 0; key < 100; key++) {
+            assertEquals(key % 2 == 0 ? null : String.valueOf(key), map.get(key), "Expected the value of key " + key);
+        }
+        assertNull(map.remove(0), "Expected null when removing a missing key");
+    }
+
+    @Test
+    void testComputeIfAbsent() {
+        assertEquals("7", map.computeIfAbsent(7, String::valueOf), "Expected the computed value to be returned");
+        assertEquals("7", map.computeIfAbsent(7, key -> "other"), "Expected the existing value to be kept");
+        assertTrue(map.containsKey(7), "Expected the computed value to be stored");
+    }
+
+    @Test
+    void testForEachAndClear() {
+        map.put(3, "three");
+        map.put(4, "four");
+
+        Map<Integer, String> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertEquals(Map.of(3, "three", 4, "four"), entries, "Expected every entry to be visited");
+
+        map.clear();
+        assertTrue(map.isEmpty(), "Expected the map to be empty after clear");
+        assertFalse(map.containsKey(3), "Expected the cleared key to be missing");
+    }
+}
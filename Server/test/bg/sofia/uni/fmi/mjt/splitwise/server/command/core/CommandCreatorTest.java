@@ -1,14 +1,19 @@
 package bg.sofia.uni.fmi.mjt.splitwise.server.command.core;
 
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.AddFriendCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.BalanceCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.CreateGroupCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.GetStatusCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.ListFriendsCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.LoginCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.NotificationsCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.PayCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.RegisterCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.ResumeCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.SeeTransactionsCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.SplitCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.SplitGroupCommand;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.user.SuggestFriendsCommand;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import org.junit.jupiter.api.Test;
 
@@ -89,6 +94,33 @@ public class CommandCreatorTest {
             "Expected a LoginCommand to be returned");
     }
 
+    @Test
+    void testCreateResumeWhenUserIsAlreadyLogged() throws ServerErrorException {
+        when(key.attachment()).thenReturn("user");
+
+        assertEquals("You are already logged in!",
+            CommandCreator.create("resume token", key).execute(),
+            "Expected an InvalidCommand to be returned");
+    }
+
+    @Test
+    void testCreateResumeWhenArgsLengthIsIncorrect() throws ServerErrorException {
+        when(key.attachment()).thenReturn(null);
+
+        assertEquals(String.format(INVALID_ARGS_COUNT_MESSAGE_FORMAT, "resume", ONE_INDEX,
+                "resume" + " <session_token>"),
+            CommandCreator.create("resume", key).execute(),
+            "Expected an InvalidCommand to be returned");
+    }
+
+    @Test
+    void testCreateResumeSuccess() {
+        when(key.attachment()).thenReturn(null);
+
+        assertTrue(CommandCreator.create("resume token", key) instanceof ResumeCommand,
+            "Expected a ResumeCommand to be returned");
+    }
+
     @Test
     void testCreateAddFriendWhenUserIsNotLogged() throws ServerErrorException {
         when(key.attachment()).thenReturn(null);
@@ -269,12 +301,16 @@ public class CommandCreatorTest {
     }
 
     @Test
-    void testSeeTransactionsWhenArgsLengthIsIncorrect() throws ServerErrorException {
+    void testSeeTransactionsWhenArgumentsAreInvalid() throws ServerErrorException {
         when(key.attachment()).thenReturn("user");
-
-        assertEquals("see-transactions command shouldn't have any arguments",
-            CommandCreator.create("see-transactions user", key).execute(),
-            "Expected an InvalidCommand to be returned");
+        String expected = "Invalid arguments. Example: \"see-transactions [--limit <1-100>] [--before <cursor>]\"";
+
+        assertEquals(expected, CommandCreator.create("see-transactions user", key).execute(),
+            "Expected an InvalidCommand to be returned when an unknown argument is given");
+        assertEquals(expected, CommandCreator.create("see-transactions --before -5", key).execute(),
+            "Expected an InvalidCommand to be returned when the cursor is negative");
+        assertEquals(expected, CommandCreator.create("see-transactions --limit 0", key).execute(),
+            "Expected an InvalidCommand to be returned when the limit is not positive");
     }
 
     @Test
@@ -283,5 +319,124 @@ public class CommandCreatorTest {
 
         assertTrue(CommandCreator.create("see-transactions", key) instanceof SeeTransactionsCommand,
             "Expected a SeeTransactionsCommand to be returned");
+        assertTrue(CommandCreator.create("see-transactions --limit 5 --before 10", key)
+            instanceof SeeTransactionsCommand, "Expected a SeeTransactionsCommand to be returned with paging options");
+    }
+
+    @Test
+    void testCreateBalanceWhenUserIsNotLogged() throws ServerErrorException {
+        when(key.attachment()).thenReturn(null);
+
+        assertEquals("You must register or log in first!",
+            CommandCreator.create("balance friend", key).execute(),
+            "Expected a MissingPermissionCommand to be returned");
+    }
+
+    @Test
+    void testCreateBalanceWhenArgsLengthIsIncorrect() throws ServerErrorException {
+        when(key.attachment()).thenReturn("user");
+
+        assertEquals(String.format(INVALID_ARGS_COUNT_MESSAGE_FORMAT, "balance", ONE_INDEX,
+                "balance" + " <username>"),
+            CommandCreator.create("balance", key).execute(),
+            "Expected an InvalidCommand to be returned");
+    }
+
+    @Test
+    void testCreateBalanceSuccess() {
+        when(key.attachment()).thenReturn("user");
+
+        assertTrue(CommandCreator.create("balance friend", key) instanceof BalanceCommand,
+            "Expected a BalanceCommand to be returned");
+    }
+
+    @Test
+    void testCreateListFriendsWhenUserIsNotLogged() throws ServerErrorException {
+        when(key.attachment()).thenReturn(null);
+
+        assertEquals("You must register or log in first!",
+            CommandCreator.create("list-friends", key).execute(),
+            "Expected a MissingPermissionCommand to be returned");
+    }
+
+    @Test
+    void testCreateListFriendsWhenOptionsAreInvalid() throws ServerErrorException {
+        when(key.attachment()).thenReturn("user");
+        String expected = "Invalid arguments. Example: \"list-friends [--limit <1-100>] [--after <username>]\"";
+
+        assertEquals(expected, CommandCreator.create("list-friends --limit", key).execute(),
+            "Expected an InvalidCommand to be returned when the option has no value");
+        assertEquals(expected, CommandCreator.create("list-friends --limit 0", key).execute(),
+            "Expected an InvalidCommand to be returned when the limit is not positive");
+        assertEquals(expected, CommandCreator.create("list-friends --page 2", key).execute(),
+            "Expected an InvalidCommand to be returned when the option is unknown");
+    }
+
+    @Test
+    void testCreateListFriendsSuccess() {
+        when(key.attachment()).thenReturn("user");
+
+        assertTrue(CommandCreator.create("list-friends", key) instanceof ListFriendsCommand,
+            "Expected a ListFriendsCommand to be returned");
+        assertTrue(CommandCreator.create("list-friends --limit 5 --after friend", key) instanceof ListFriendsCommand,
+            "Expected a ListFriendsCommand to be returned when paging options are given");
+    }
+
+    @Test
+    void testCreateSuggestFriendsWhenUserIsNotLogged() throws ServerErrorException {
+        when(key.attachment()).thenReturn(null);
+
+        assertEquals("You must register or log in first!",
+            CommandCreator.create("suggest-friends", key).execute(),
+            "Expected a MissingPermissionCommand to be returned");
+    }
+
+    @Test
+    void testCreateSuggestFriendsWhenLimitIsTooLarge() throws ServerErrorException {
+        when(key.attachment()).thenReturn("user");
+
+        assertEquals("Invalid arguments. Example: \"suggest-friends [--limit <1-10>]\"",
+            CommandCreator.create("suggest-friends --limit 11", key).execute(),
+            "Expected an InvalidCommand to be returned");
+    }
+
+    @Test
+    void testCreateSuggestFriendsSuccess() {
+        when(key.attachment()).thenReturn("user");
+
+        assertTrue(CommandCreator.create("suggest-friends --limit 3", key) instanceof SuggestFriendsCommand,
+            "Expected a SuggestFriendsCommand to be returned");
+    }
+
+    @Test
+    void testCreateNotificationsWhenUserIsNotLogged() throws ServerErrorException {
+        when(key.attachment()).thenReturn(null);
+
+        assertEquals("You must register or log in first!",
+            CommandCreator.create("notifications", key).execute(),
+            "Expected a MissingPermissionCommand to be returned");
+    }
+
+    @Test
+    void testCreateNotificationsWhenCursorIsInvalid() throws ServerErrorException {
+        when(key.attachment()).thenReturn("user");
+        String expected = "Invalid arguments. Example: \"notifications [--limit <1-100>] [--after <cursor>]\"";
+
+        assertEquals(expected, CommandCreator.create("notifications --after -1", key).execute(),
+            "Expected an InvalidCommand to be returned when the cursor is negative");
+        assertEquals(expected, CommandCreator.create("notifications --after next", key).execute(),
+            "Expected an InvalidCommand to be returned when the cursor is not a number");
+        assertEquals(expected, CommandCreator.create("notifications --limit 101", key).execute(),
+            "Expected an InvalidCommand to be returned when the limit is too large");
+    }
+
+    @Test
+    void testCreateNotificationsSuccess() {
+        when(key.attachment()).thenReturn("user");
+
+        assertTrue(CommandCreator.create("notifications", key) instanceof NotificationsCommand,
+            "Expected a NotificationsCommand to be returned");
+        assertTrue(CommandCreator.create("notifications --limit 5 --after 10", key) instanceof NotificationsCommand,
+            "Expected a NotificationsCommand to be returned when paging options are given");
     }
 }
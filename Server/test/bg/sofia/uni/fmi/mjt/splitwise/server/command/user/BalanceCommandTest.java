@@ -0,0 +1,75 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BalanceCommandTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final DebtManager debtManager = mock(DebtManager.class);
+
+    @Test
+    void testExecuteWhenUsernameIsNull() {
+        Command command = new BalanceCommand(null, "friend");
+
+        assertThrows(IllegalArgumentException.class, command::execute,
+            "Expected IllegalArgumentException to be thrown when the username is null");
+    }
+
+    @Test
+    void testExecuteWithYourself() throws ServerErrorException {
+        Command command = new BalanceCommand("user", "user");
+
+        assertEquals("You cannot check the balance with yourself", command.execute(),
+            "Expected the balance with yourself to be rejected");
+    }
+
+    @Test
+    void testExecuteWhenFriendDoesNotExist() throws ServerErrorException {
+        when(userRepository.containsUser("friend")).thenReturn(false);
+        Command command = new BalanceCommand("user", "friend")
+            .configure(userRepository, null, debtManager, null);
+
+        assertEquals("User friend doesn't exist", command.execute(),
+            "Expected a message that the user doesn't exist");
+    }
+
+    @Test
+    void testExecuteWhenFriendOwesMoney() throws ServerErrorException {
+        when(userRepository.containsUser("friend")).thenReturn(true);
+        when(debtManager.getBalance("user", "friend")).thenReturn(1250L);
+        Command command = new BalanceCommand("user", "friend")
+            .configure(userRepository, null, debtManager, null);
+
+        assertEquals(String.format("friend owes you %.2f LV", 12.5), command.execute(),
+            "Expected the friend to owe the user");
+    }
+
+    @Test
+    void testExecuteWhenUserOwesMoney() throws ServerErrorException {
+        when(userRepository.containsUser("friend")).thenReturn(true);
+        when(debtManager.getBalance("user", "friend")).thenReturn(-300L);
+        Command command = new BalanceCommand("user", "friend")
+            .configure(userRepository, null, debtManager, null);
+
+        assertEquals(String.format("You owe friend %.2f LV", 3.0), command.execute(),
+            "Expected the user to owe the friend");
+    }
+
+    @Test
+    void testExecuteWhenEven() throws ServerErrorException {
+        when(userRepository.containsUser("friend")).thenReturn(true);
+        when(debtManager.getBalance("user", "friend")).thenReturn(0L);
+        Command command = new BalanceCommand("user", "friend")
+            .configure(userRepository, null, debtManager, null);
+
+        assertEquals("You and friend are even", command.execute(), "Expected the users to be even");
+    }
+}
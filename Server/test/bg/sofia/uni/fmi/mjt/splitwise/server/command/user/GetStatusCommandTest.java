@@ -13,8 +13,8 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -59,7 +59,7 @@ public class GetStatusCommandTest {
         DebtRecord debt = mock(DebtRecord.class);
         when(debt.visualizeDebt("Owes you")).thenReturn("UserName UserFamily (user) Owes you 15 LV [Party]");
 
-        Set<DebtRecord> moneyOwed = new HashSet<>();
+        List<DebtRecord> moneyOwed = new ArrayList<>();
         moneyOwed.add(debt);
 
         DebtManager manager = mock(DebtManager.class);
@@ -79,7 +79,7 @@ public class GetStatusCommandTest {
         DebtRecord debt = mock(DebtRecord.class);
         when(debt.visualizeDebt("You owe")).thenReturn("UserName UserFamily (user) You owe 15 LV [Party]");
 
-        Set<DebtRecord> owesMoney = new HashSet<>();
+        List<DebtRecord> owesMoney = new ArrayList<>();
         owesMoney.add(debt);
 
         UserRepository.toUser("userTest").addToGroup("group");
@@ -0,0 +1,62 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ListFriendsCommandTest {
+    private final FriendsManager friendsManager = mock(FriendsManager.class);
+
+    @BeforeAll
+    static void setUp() throws UserAlreadyExistsException, ServerErrorException {
+        UserRepository.getInstance().registerUser("listFriend1", "pass", "First", "Friend");
+        UserRepository.getInstance().registerUser("listFriend2", "pass", "Second", "Friend");
+    }
+
+    @Test
+    void testExecuteWhenUsernameIsNull() {
+        Command command = new ListFriendsCommand(null, null, 1);
+
+        assertThrows(IllegalArgumentException.class, command::execute,
+            "Expected IllegalArgumentException to be thrown when the username is null");
+    }
+
+    @Test
+    void testExecuteWhenThereAreNoFriends() throws ServerErrorException {
+        when(friendsManager.getFriends("user", null, 2)).thenReturn(List.of());
+        Command command = new ListFriendsCommand("user", null, 1).configure(null, null, null, friendsManager);
+
+        assertEquals("Your friend list is empty", command.execute(), "Expected a message for an empty friend list");
+    }
+
+    @Test
+    void testExecuteShowsTheNextPage() throws ServerErrorException {
+        when(friendsManager.getFriends("user", null, 2)).thenReturn(List.of("listFriend1", "listFriend2"));
+        when(friendsManager.isMutualFriend("user", "listFriend1")).thenReturn(true);
+        Command command = new ListFriendsCommand("user", null, 1).configure(null, null, null, friendsManager);
+
+        assertEquals(" * Friends *\n - First Friend (listFriend1) [mutual]\n" +
+                "More friends: list-friends --limit 1 --after listFriend1\n", command.execute(),
+            "Expected one friend and the command for the next page");
+    }
+
+    @Test
+    void testExecuteOnTheLastPage() throws ServerErrorException {
+        when(friendsManager.getFriends("user", "listFriend1", 3)).thenReturn(List.of("listFriend2"));
+        Command command = new ListFriendsCommand("user", "listFriend1", 2).configure(null, null, null, friendsManager);
+
+        assertEquals(" * Friends *\n - Second Friend (listFriend2)\n", command.execute(),
+            "Expected the remaining friends without a next page");
+    }
+}
@@ -13,11 +13,15 @@ import java.io.IOException;
 import java.nio.channels.SelectionKey;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class LoginCommandTest {
@@ -62,10 +66,27 @@ public class LoginCommandTest {
         Command command = new LoginCommand("user", "pass", key)
             .configure(repository, null, null, null);
 
-        String expectedNotifications = "User user successfully logged in!\nNo notifications to be shown";
+        String[] lines = command.execute().split("\n");
 
-        assertEquals(expectedNotifications, command.execute(),
-            "Expected user to be logged in successfully");
+        assertEquals("User user successfully logged in!", lines[0], "Expected user to be logged in successfully");
+        assertTrue(lines[1].startsWith("Session token: "), "Expected a session token to be returned");
+        assertEquals("No notifications to be shown", lines[2], "Expected the notifications to follow the token");
     }
 
+    @Test
+    void testExecuteAfterPrepare() throws UserNotFoundException, IncorrectPasswordException, ServerErrorException {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.hashLoginPassword("user1", "wrong")).thenReturn(CompletableFuture.completedFuture("hash"));
+        doThrow(new IncorrectPasswordException("Incorrect password"))
+            .when(repository)
+            .loginUserWithHash("user1", "hash");
+
+        Command command = new LoginCommand("user1", "wrong", null)
+            .configure(repository, null, null, null);
+        command.prepare().join();
+
+        assertEquals("Incorrect password", command.execute(),
+            "Expected the prepared hash to be checked instead of hashing the password again");
+        verify(repository, never()).loginUser("user1", "wrong");
+    }
 }
@@ -0,0 +1,66 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NotificationsCommandTest {
+    @BeforeAll
+    static void setUp() throws UserAlreadyExistsException, ServerErrorException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("pagedDebtor", "pass", "Paged", "Debtor");
+        repository.registerUser("pagedCreditor", "pass", "Paged", "Creditor");
+    }
+
+    @AfterAll
+    static void clearFiles() throws IOException {
+        Files.deleteIfExists(Path.of("users.txt"));
+        Files.deleteIfExists(Path.of("usersPasswords.txt"));
+    }
+
+    @Test
+    void testExecuteWhenUsernameIsNull() {
+        Command command = new NotificationsCommand(null, 0, 1);
+
+        assertThrows(IllegalArgumentException.class, command::execute,
+            "Expected IllegalArgumentException to be thrown when the username is null");
+    }
+
+    @Test
+    void testExecuteReturnsThePagesInOrder() throws ServerErrorException {
+        User debtor = UserRepository.toUser("pagedDebtor");
+        DebtRecord debt = new DebtRecord(debtor, UserRepository.toUser("pagedCreditor"), 1000, "bill");
+        for (String group : new String[] {"first", "second", "third"}) {
+            debtor.addNewGroupDebt(debt, group);
+        }
+
+        String firstPage = new NotificationsCommand("pagedDebtor", 0, 2).execute();
+        assertTrue(firstPage.contains("Group: first") && firstPage.contains("Group: second"),
+            "Expected the oldest notifications to be on the first page");
+        assertFalse(firstPage.contains("Group: third"), "Expected the page to respect the limit");
+        assertTrue(firstPage.endsWith("More notifications: notifications --limit 2 --after 2\n"),
+            "Expected the first page to end with the resume cursor");
+
+        String secondPage = new NotificationsCommand("pagedDebtor", 2, 2).execute();
+        assertEquals("*** Notifications ***\n * New group debts:\n ** Group: third\n - " +
+            debt.visualizeDebt("You owe") + '\n', secondPage, "Expected the rest to be on the second page");
+
+        assertEquals("No notifications to be shown", new NotificationsCommand("pagedDebtor", 3, 2).execute(),
+            "Expected the delivered notifications to be acknowledged");
+    }
+}
@@ -6,6 +6,7 @@ import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.NoDebtsToBePaidException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.NonPositiveAmountException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
@@ -13,8 +14,8 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -28,7 +29,7 @@ public class PayCommandTest {
     @AfterAll
     static void clearFiles() throws IOException {
         Files.deleteIfExists(Path.of("users.txt"));
-        Files.deleteIfExists(Path.of("friend_transaction_history.txt"));
+        Files.deleteIfExists(Path.of("friend_transaction_history.dat"));
     }
 
     @Test
@@ -76,14 +77,20 @@ public class PayCommandTest {
     void testExecute() throws ServerErrorException, NonPositiveAmountException, NoDebtsToBePaidException {
         DebtManager manager = mock(DebtManager.class);
         DebtRecord debt = mock(DebtRecord.class);
+        User friend = mock(User.class);
+        User user = mock(User.class);
 
+        when(friend.getUsername()).thenReturn("friend");
+        when(user.getUsername()).thenReturn("user");
+        when(debt.debtor()).thenReturn(friend);
+        when(debt.creditor()).thenReturn(user);
         when(debt.reason()).thenReturn("reason");
-        when(debt.amount()).thenReturn(Double.parseDouble("20"));
+        when(debt.amount()).thenReturn(2000L);
         when(repository.containsUser("friend")).thenReturn(true);
 
-        Set<DebtRecord> debts = new HashSet<>(Set.of(debt));
+        List<DebtRecord> debts = List.of(debt);
 
-        when(manager.pay("user", 20, "friend", new HashSet<>())).thenReturn(debts);
+        when(manager.pay("user", 2000, "friend", new ArrayList<>())).thenReturn(debts);
 
         Command command = new PayCommand("user", "friend", "20")
             .configure(repository, null, manager, null);
@@ -101,7 +108,7 @@ public class PayCommandTest {
 
         doThrow(new NonPositiveAmountException("The amount cannot be 0 or less"))
             .when(manager)
-            .pay("user", -10, "friend", new HashSet<>());
+            .pay("user", -1000, "friend", new ArrayList<>());
 
         Command command = new PayCommand("user", "friend", "-10")
             .configure(repository, null, manager, null);
@@ -117,7 +124,7 @@ public class PayCommandTest {
 
         doThrow(new NoDebtsToBePaidException("Friend doesn't owe you anything"))
             .when(manager)
-            .pay("user", 10, "friend", new HashSet<>());
+            .pay("user", 1000, "friend", new ArrayList<>());
 
         Command command = new PayCommand("user", "friend", "10")
             .configure(repository, null, manager, null);
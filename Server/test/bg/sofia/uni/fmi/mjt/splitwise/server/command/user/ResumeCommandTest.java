@@ -0,0 +1,51 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.InvalidSessionTokenException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionManager;
+import org.junit.jupiter.api.Test;
+
+import java.nio.channels.SelectionKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResumeCommandTest {
+    private final SessionManager sessionManager = mock(SessionManager.class);
+    private final SelectionKey key = mock(SelectionKey.class);
+
+    @Test
+    void testExecuteWhenTokenIsNull() {
+        Command command = new ResumeCommand(null, key, sessionManager);
+
+        assertThrows(IllegalArgumentException.class, command::execute,
+            "Expected IllegalArgumentException to be thrown when token is null");
+    }
+
+    @Test
+    void testExecuteWhenTokenIsInvalid() throws InvalidSessionTokenException, ServerErrorException {
+        when(sessionManager.resume("token")).thenThrow(new InvalidSessionTokenException("Invalid token"));
+
+        Command command = new ResumeCommand("token", key, sessionManager);
+
+        assertEquals("Invalid token", command.execute(), "Expected the invalid token message to be returned");
+        verify(key, never()).attach(any());
+    }
+
+    @Test
+    void testExecuteWhenUserDoesNotExist() throws InvalidSessionTokenException, ServerErrorException {
+        when(sessionManager.resume("token")).thenReturn("missingResumeUser");
+
+        Command command = new ResumeCommand("token", key, sessionManager);
+
+        assertEquals("User with such username doesn't exist", command.execute(),
+            "Expected sessions of unknown users to be rejected");
+        verify(key, never()).attach(any());
+    }
+}
@@ -92,7 +92,7 @@ public class SplitCommandTest {
         DebtManager debtManager = mock(DebtManager.class);
         doThrow(new NonPositiveAmountException("The amount cannot be 0 or less"))
             .when(debtManager)
-            .splitBill("user", "tester1", -10, "reason");
+            .splitBill("user", "tester1", -1000, "reason");
 
         Command command = new SplitCommand("user", "tester1", "-10", "reason")
             .configure(repo, null, debtManager, friendsManager);
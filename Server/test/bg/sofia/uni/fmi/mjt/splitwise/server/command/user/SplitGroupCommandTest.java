@@ -89,7 +89,7 @@ public class SplitGroupCommandTest {
         DebtManager debtManager = mock(DebtManager.class);
         doThrow(new NonPositiveAmountException("The amount cannot be 0 or less"))
             .when(debtManager)
-            .splitGroupBill(GroupManager.toGroup("groupName"), "userTest1", -15, "reason");
+            .splitGroupBill(GroupManager.toGroup("groupName"), "userTest1", -1500, "reason");
 
         Command command = new SplitGroupCommand("userTest1", "groupName", "-15", "reason")
             .configure(repository, groupManager, debtManager, null);
@@ -0,0 +1,53 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.command.user;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendSuggestion;
+import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SuggestFriendsCommandTest {
+    private final FriendsManager friendsManager = mock(FriendsManager.class);
+
+    @BeforeAll
+    static void setUp() throws UserAlreadyExistsException, ServerErrorException {
+        UserRepository.getInstance().registerUser("suggestedFriend", "pass", "Suggested", "Friend");
+    }
+
+    @Test
+    void testExecuteWhenUsernameIsNull() {
+        Command command = new SuggestFriendsCommand(null, 1);
+
+        assertThrows(IllegalArgumentException.class, command::execute,
+            "Expected IllegalArgumentException to be thrown when the username is null");
+    }
+
+    @Test
+    void testExecuteWhenThereAreNoSuggestions() throws ServerErrorException {
+        when(friendsManager.suggestFriends("user", 5)).thenReturn(List.of());
+        Command command = new SuggestFriendsCommand("user", 5).configure(null, null, null, friendsManager);
+
+        assertEquals("There are no friend suggestions", command.execute(),
+            "Expected a message when there is nobody to suggest");
+    }
+
+    @Test
+    void testExecuteShowsTheSuggestions() throws ServerErrorException {
+        when(friendsManager.suggestFriends("user", 5))
+            .thenReturn(List.of(new FriendSuggestion("suggestedFriend", 2, 1)));
+        Command command = new SuggestFriendsCommand("user", 5).configure(null, null, null, friendsManager);
+
+        assertEquals(" * Suggested friends *\n - Suggested Friend (suggestedFriend): 2 mutual friends, " +
+            "1 shared groups\n", command.execute(), "Expected the suggestions with their scores");
+    }
+}
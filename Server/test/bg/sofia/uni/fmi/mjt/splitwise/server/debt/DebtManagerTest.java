@@ -14,11 +14,17 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -32,19 +38,21 @@ public class DebtManagerTest {
         Files.deleteIfExists(Path.of("usersPasswords.txt"));
         Files.deleteIfExists(Path.of("testingUser_debts.txt"));
         Files.deleteIfExists(Path.of("GroupName_group_debts.txt"));
+        Files.deleteIfExists(Path.of("debts_journal_1.log"));
+        Files.deleteIfExists(Path.of("notifications.dat"));
     }
 
     @Test
     void testSplitBillWhenAmountIsNonPositive() {
         assertThrows(NonPositiveAmountException.class,
-            () -> debtManager.splitBill("user1", "user2", -10, "reason"),
+            () -> debtManager.splitBill("user1", "user2", -1000, "reason"),
             "Expected NonPositiveAmountException to be thrown when the amount is a non positive number");
     }
 
     @Test
     void testSplitGroupBillWhenAmountIsNonPositive() {
         Group group = mock(Group.class);
-        assertThrows(NonPositiveAmountException.class, () -> debtManager.splitGroupBill(group, "creditor", -10, "user"),
+        assertThrows(NonPositiveAmountException.class, () -> debtManager.splitGroupBill(group, "creditor", -1000, "user"),
             "Expected NonPositiveAmountException to be thrown when amount is non positive");
     }
 
@@ -109,7 +117,7 @@ public class DebtManagerTest {
         repository.registerUser("debtor", "pass1", "name1", "family1");
         repository.registerUser("creditor", "pass1", "name1", "family1");
 
-        debtManager.splitBill("creditor", "debtor", 20, "reason");
+        debtManager.splitBill("creditor", "debtor", 2000, "reason");
 
         String owesMoneyResponse = debtManager.getOwesMoney("debtor").stream()
             .findFirst().get().toString();
@@ -123,7 +131,7 @@ public class DebtManagerTest {
             "Expected the debtor to owe the creditor 10");
 
         Files.deleteIfExists(Path.of("debtor_debts.txt"));
-        Files.deleteIfExists(Path.of("debtor_new_debts.txt"));
+        Files.deleteIfExists(Path.of("debtor_new_debts.dat"));
     }
 
     @Test
@@ -133,8 +141,8 @@ public class DebtManagerTest {
         repository.registerUser("debtorUser", "pass1", "name1", "family1");
         repository.registerUser("creditorUser", "pass1", "name1", "family1");
 
-        debtManager.splitBill("creditorUser", "debtorUser", 20, "reason");
-        debtManager.splitBill("debtorUser", "creditorUser", 30, "another reason");
+        debtManager.splitBill("creditorUser", "debtorUser", 2000, "reason");
+        debtManager.splitBill("debtorUser", "creditorUser", 3000, "another reason");
 
         String owesMoneyResponse = debtManager.getOwesMoney("creditorUser").stream()
             .findFirst().get().toString();
@@ -148,9 +156,9 @@ public class DebtManagerTest {
             "Expected the creditorUser to owe the debtorUser 5");
 
         Files.deleteIfExists(Path.of("creditorUser_debts.txt"));
-        Files.deleteIfExists(Path.of("creditorUser_new_debts.txt"));
+        Files.deleteIfExists(Path.of("creditorUser_new_debts.dat"));
         Files.deleteIfExists(Path.of("debtorUser_debts.txt"));
-        Files.deleteIfExists(Path.of("debtorUser_new_debts.txt"));
+        Files.deleteIfExists(Path.of("debtorUser_new_debts.dat"));
     }
 
     @Test
@@ -164,8 +172,8 @@ public class DebtManagerTest {
 
         groupManager.addGroup("SomeGroup", Set.of("friend1", "friend2", "friend3"));
 
-        debtManager.splitGroupBill(GroupManager.toGroup("SomeGroup"), "friend1", 30, "reason");
-        debtManager.splitBill("friend2", "friend1", 30, "another reason");
+        debtManager.splitGroupBill(GroupManager.toGroup("SomeGroup"), "friend1", 3000, "reason");
+        debtManager.splitBill("friend2", "friend1", 3000, "another reason");
 
         String owesMoneyResponse = debtManager.getOwesMoney("friend1").stream()
             .findFirst().get().toString();
@@ -179,23 +187,23 @@ public class DebtManagerTest {
             "Expected the creditorUser to owe the debtorUser 5");
 
         Files.deleteIfExists(Path.of("friend1_debts.txt"));
-        Files.deleteIfExists(Path.of("friend1_new_debts.txt"));
-        Files.deleteIfExists(Path.of("friend2_new_group_debts.txt"));
-        Files.deleteIfExists(Path.of("friend3_new_group_debts.txt"));
+        Files.deleteIfExists(Path.of("friend1_new_debts.dat"));
+        Files.deleteIfExists(Path.of("friend2_new_group_debts.dat"));
+        Files.deleteIfExists(Path.of("friend3_new_group_debts.dat"));
         Files.deleteIfExists(Path.of("SomeGroup_group_debts.txt"));
     }
 
     @Test
     void testPayWhenUsernameIsNull() {
         assertThrows(IllegalArgumentException.class,
-            () -> debtManager.pay(null, 5, "friend", new HashSet<>()),
+            () -> debtManager.pay(null, 500, "friend", new ArrayList<>()),
             "Expected IllegalArgumentException to be thrown when username is null");
     }
 
     @Test
     void testPayWhenAmountIsNonPositive() {
         assertThrows(NonPositiveAmountException.class,
-            () -> debtManager.pay("user", -5, "friend", new HashSet<>()),
+            () -> debtManager.pay("user", -500, "friend", new ArrayList<>()),
             "Expected IllegalArgumentException to be thrown when the amount is non positive");
     }
 
@@ -206,7 +214,7 @@ public class DebtManagerTest {
         repository.registerUser("payer", "pass", "name", "family");
 
         assertThrows(NoDebtsToBePaidException.class,
-            () -> debtManager.pay("toBePaid", 10, "payer", new HashSet<>()),
+            () -> debtManager.pay("toBePaid", 1000, "payer", new ArrayList<>()),
             "Expected NoDebtsToBePaidException to be thrown when the payer doesn't have any debts");
     }
 
@@ -218,16 +226,191 @@ public class DebtManagerTest {
         repository.registerUser("paidUser", "pass", "name", "family");
         repository.registerUser("payerFriend", "pass", "name", "family");
 
-        debtManager.splitBill("paidUser", "payerFriend", 20, "reason");
+        debtManager.splitBill("paidUser", "payerFriend", 2000, "reason");
 
-        String paidDebt = debtManager.pay("paidUser", 10, "payerFriend", new HashSet<>()).stream()
+        String paidDebt = debtManager.pay("paidUser", 1000, "payerFriend", new ArrayList<>()).stream()
             .findFirst().get().toString();
 
         assertEquals("payerFriend paidUser 10.0 reason", paidDebt,
             "Expected payerFriend to have paid it's debt towards paidUser");
 
         Files.deleteIfExists(Path.of("payerFriend_debts.txt"));
-        Files.deleteIfExists(Path.of("payerFriend_new_debts.txt"));
-        Files.deleteIfExists(Path.of("payerFriend_paid_debts.txt"));
+        Files.deleteIfExists(Path.of("payerFriend_new_debts.dat"));
+        Files.deleteIfExists(Path.of("payerFriend_paid_debts.dat"));
+    }
+
+    @Test
+    void testGetBalanceWhenUsernameIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> debtManager.getBalance(null, "friend"),
+            "Expected IllegalArgumentException to be thrown when username is null");
+    }
+
+    @Test
+    void testGetBalanceAfterSplitsAndPayments()
+        throws UserAlreadyExistsException, ServerErrorException, NonPositiveAmountException, NoDebtsToBePaidException,
+        IOException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("balanceUser", "pass", "name", "family");
+        repository.registerUser("balanceFriend", "pass", "name", "family");
+
+        debtManager.splitBill("balanceUser", "balanceFriend", 2000, "dinner");
+        debtManager.splitBill("balanceUser", "balanceFriend", 3000, "lunch");
+        debtManager.splitBill("balanceFriend", "balanceUser", 600, "coffee");
+
+        assertEquals(2200, debtManager.getBalance("balanceUser", "balanceFriend"),
+            "Expected balanceFriend to owe the net amount of the splits");
+        assertEquals(-2200, debtManager.getBalance("balanceFriend", "balanceUser"),
+            "Expected the balance to be negative from the debtor's side");
+
+        List<DebtRecord> paidDebts = debtManager.pay("balanceUser", 1000, "balanceFriend", new ArrayList<>());
+
+        assertEquals("balanceFriend balanceUser 7.0 dinner", paidDebts.get(0).toString(),
+            "Expected the oldest debt to be paid first");
+        assertEquals(1200, debtManager.getBalance("balanceUser", "balanceFriend"),
+            "Expected the payment to reduce the balance");
+
+        Files.deleteIfExists(Path.of("balanceFriend_debts.txt"));
+        Files.deleteIfExists(Path.of("balanceFriend_new_debts.dat"));
+        Files.deleteIfExists(Path.of("balanceFriend_paid_debts.dat"));
+        Files.deleteIfExists(Path.of("balanceFriend_partly_paid_debts.dat"));
+    }
+
+    @Test
+    void testSplitGroupBillDistributesTheRemainder()
+        throws UserAlreadyExistsException, ServerErrorException, NonPositiveAmountException,
+        GroupAlreadyExistsException, IOException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("centsA", "pass", "name", "family");
+        repository.registerUser("centsB", "pass", "name", "family");
+        repository.registerUser("centsC", "pass", "name", "family");
+
+        groupManager.addGroup("CentsGroup", Set.of("centsA", "centsB", "centsC"));
+
+        debtManager.splitGroupBill(GroupManager.toGroup("CentsGroup"), "centsC", 1000, "dinner");
+
+        assertEquals(334, debtManager.getBalance("centsC", "centsA"),
+            "Expected the first member to take the remaining cent");
+        assertEquals(333, debtManager.getBalance("centsC", "centsB"),
+            "Expected the other members to owe the plain quotient");
+
+        Files.deleteIfExists(Path.of("centsA_new_group_debts.dat"));
+        Files.deleteIfExists(Path.of("centsB_new_group_debts.dat"));
+        Files.deleteIfExists(Path.of("CentsGroup_group_debts.txt"));
+    }
+
+    @Test
+    void testInitializeMovesLegacyDebtFilesIntoTheJournal()
+        throws UserAlreadyExistsException, ServerErrorException, IOException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("legacyDebtor", "userPass", "name", "family");
+        repository.registerUser("legacyCreditor", "userPass", "name", "family");
+
+        Path legacyFile = Path.of("legacyDebtor_debts.txt");
+        Files.writeString(legacyFile, "legacyDebtor legacyCreditor 7.5 taxi");
+
+        debtManager.initialize();
+        assertFalse(Files.exists(legacyFile), "Expected the legacy debt file to be removed after the import");
+
+        debtManager.initialize();
+        assertEquals(750, debtManager.getBalance("legacyCreditor", "legacyDebtor"),
+            "Expected the imported debt to be restored from the journal only once");
+    }
+
+    @Test
+    void testInitializeRestoresPaymentsFromTheJournal()
+        throws UserAlreadyExistsException, ServerErrorException, NonPositiveAmountException,
+        NoDebtsToBePaidException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("journalDebtor", "userPass", "name", "family");
+        repository.registerUser("journalCreditor", "userPass", "name", "family");
+
+        debtManager.splitBill("journalCreditor", "journalDebtor", 2000, "dinner");
+        debtManager.splitBill("journalCreditor", "journalDebtor", 1000, "lunch");
+        debtManager.pay("journalCreditor", 1200, "journalDebtor", new ArrayList<>());
+
+        debtManager.initialize();
+
+        assertEquals(300, debtManager.getBalance("journalCreditor", "journalDebtor"),
+            "Expected the paid and partly paid debts to be replayed from the journal");
+        assertEquals("journalDebtor journalCreditor 3.0 lunch", debtManager.getOwesMoney("journalDebtor").stream()
+            .findFirst().get().toString(), "Expected only the partly paid debt to remain");
+    }
+
+    @Test
+    void testPayReturnsEveryIdenticalDebtInOrder()
+        throws UserAlreadyExistsException, ServerErrorException, NonPositiveAmountException,
+        NoDebtsToBePaidException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("identicalCreditor", "userPass", "name", "family");
+        repository.registerUser("identicalDebtor", "userPass", "name", "family");
+
+        debtManager.splitBill("identicalCreditor", "identicalDebtor", 1000, "lunch");
+        debtManager.splitBill("identicalCreditor", "identicalDebtor", 1000, "lunch");
+        List<DebtRecord> paidDebts = debtManager.pay("identicalCreditor", 1000, "identicalDebtor", new ArrayList<>());
+
+        assertEquals(List.of("identicalDebtor identicalCreditor 5.0 lunch",
+                "identicalDebtor identicalCreditor 5.0 lunch"), paidDebts.stream().map(DebtRecord::toString).toList(),
+            "Expected both identical debts to be reported as paid");
+        assertEquals(0, debtManager.getBalance("identicalCreditor", "identicalDebtor"),
+            "Expected the payment to settle both debts");
+    }
+
+    @Test
+    void testIdenticalDebtsAreListedSeparately()
+        throws UserAlreadyExistsException, ServerErrorException, NonPositiveAmountException,
+        NoDebtsToBePaidException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("listedCreditor", "userPass", "name", "family");
+        repository.registerUser("listedDebtor", "userPass", "name", "family");
+
+        debtManager.splitBill("listedCreditor", "listedDebtor", 1000, "lunch");
+        debtManager.splitBill("listedCreditor", "listedDebtor", 1000, "lunch");
+
+        assertEquals(2, debtManager.getMoneyOwed("listedCreditor").size(),
+            "Expected both identical debts to be listed for the creditor");
+        assertEquals(2, debtManager.getOwesMoney("listedDebtor").size(),
+            "Expected both identical debts to be listed for the debtor");
+
+        debtManager.pay("listedCreditor", 1000, "listedDebtor", new ArrayList<>());
+
+        assertTrue(debtManager.getMoneyOwed("listedCreditor").isEmpty(),
+            "Expected no debts to be listed once the balance is settled");
+    }
+
+    @Test
+    void testConcurrentSplitsAndPaymentsKeepTheBalances() throws Exception {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("parallelCreditor", "userPass", "name", "family");
+        for (int i = 0; i < 4; i++) {
+            repository.registerUser("parallelDebtor" + i, "userPass", "name", "family");
+        }
+
+        int operations = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String debtor = "parallelDebtor" + i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < operations; j++) {
+                    debtManager.splitBill("parallelCreditor", debtor, 200, "dinner");
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < operations; j++) {
+                    debtManager.splitBill(debtor, "parallelCreditor", 100, "lunch");
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(operations * 50, debtManager.getBalance("parallelCreditor", "parallelDebtor" + i),
+                "Expected no split to be lost when the same pair is updated from several threads");
+        }
     }
 }
@@ -0,0 +1,83 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DebtRecordCodecTest {
+    private static final long TIMESTAMP = 1_700_000_000_000L;
+    private static DebtRecord debt;
+
+    @BeforeAll
+    static void registerUsers() throws UserAlreadyExistsException, ServerErrorException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("codecDebtor", "pass", "name", "family");
+        repository.registerUser("codecCreditor", "pass", "name", "family");
+
+        debt = new DebtRecord(UserRepository.toUser("codecDebtor"), UserRepository.toUser("codecCreditor"),
+            12_345, "dinner with  two spaces");
+    }
+
+    @Test
+    void testEncodeWhenDebtIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> DebtRecordCodec.encode(null, TIMESTAMP),
+            "Expected IllegalArgumentException to be thrown when the debt is null");
+    }
+
+    @Test
+    void testDecodeReturnsTheEncodedDebt() {
+        ByteBuffer record = ByteBuffer.wrap(DebtRecordCodec.encode(debt, TIMESTAMP));
+
+        assertEquals(TIMESTAMP, DebtRecordCodec.decodeTimestamp(record), "Expected the timestamp to be decoded");
+        assertEquals(debt, DebtRecordCodec.decode(record), "Expected the encoded debt to be decoded");
+        assertFalse(record.hasRemaining(), "Expected the whole record to be consumed");
+    }
+
+    @Test
+    void testDecodeGroupDebtReturnsTheGroupAndTheDebt() {
+        ByteBuffer record = ByteBuffer.wrap(DebtRecordCodec.encode("trip", debt, TIMESTAMP));
+
+        assertEquals("trip", DebtRecordCodec.decodeGroup(record), "Expected the group name to be decoded");
+        assertEquals(debt, DebtRecordCodec.decodeGroupDebt(record), "Expected the encoded group debt to be decoded");
+    }
+
+    @Test
+    void testEncodedRecordIsSmallerThanTheTextFormat() {
+        assertTrue(DebtRecordCodec.encode(debt, TIMESTAMP).length < debt.toString().length() + Long.BYTES,
+            "Expected the binary record with a timestamp to be smaller than the text line with one");
+    }
+
+    @Test
+    void testDecodeReadsTheLegacyTextFormat() {
+        ByteBuffer record = ByteBuffer.wrap(debt.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, DebtRecordCodec.decodeTimestamp(record), "Expected legacy records to have no timestamp");
+        assertEquals(debt, DebtRecordCodec.decode(record), "Expected the legacy text line to be decoded");
+    }
+
+    @Test
+    void testDecodeGroupDebtReadsTheLegacyTextFormat() {
+        ByteBuffer record = ByteBuffer.wrap(("trip " + debt + " ").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("trip", DebtRecordCodec.decodeGroup(record), "Expected the legacy group name to be decoded");
+        assertEquals(debt, DebtRecordCodec.decodeGroupDebt(record), "Expected the legacy group debt to be decoded");
+    }
+
+    @Test
+    void testDecodeWhenVersionIsUnknown() {
+        ByteBuffer record = ByteBuffer.wrap(new byte[] {9, 0});
+
+        assertThrows(IllegalArgumentException.class, () -> DebtRecordCodec.decode(record),
+            "Expected IllegalArgumentException to be thrown when the record version is unknown");
+    }
+}
@@ -7,19 +7,33 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class DebtRecordTest {
-    DebtRecord debt = new DebtRecord(mock(User.class), mock(User.class), 15, "reason");
+    DebtRecord debt = new DebtRecord(mock(User.class), mock(User.class), 1500, "reason");
 
     @Test
     void testPayAmountWhenAmountIsNonPositive() {
-        assertThrows(NonPositiveAmountException.class, () -> debt.payAmount(-10),
+        assertThrows(NonPositiveAmountException.class, () -> debt.payAmount(-1000),
             "Expected NonPositiveAmountException to be thrown when the amount is a non positive number");
     }
 
     @Test
     void testPayAmount() throws NonPositiveAmountException {
-        assertEquals(5, debt.payAmount(10),
+        assertEquals(500, debt.payAmount(1000),
             "Expected the returned amount to be 5 but it was not");
     }
+
+    @Test
+    void testVisualizeNewDebts() {
+        User creditor = mock(User.class);
+        when(creditor.getFirstName()).thenReturn("First");
+        when(creditor.getFamilyName()).thenReturn("Last");
+        when(creditor.getUsername()).thenReturn("creditor");
+
+        DebtRecord total = new DebtRecord(mock(User.class), creditor, 34050, "reason");
+
+        assertEquals("First Last (creditor): 12 new debts totaling " + String.format("%.2f", 340.5) + " LV",
+            total.visualizeNewDebts(12), "Expected the digest to show the count and the total amount");
+    }
 }
@@ -0,0 +1,82 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LegacyDebtLoaderTest {
+    private static final int USERS_COUNT = 100;
+    private static final List<String> USERS = new ArrayList<>();
+
+    @BeforeAll
+    static void createFiles() throws UserAlreadyExistsException, ServerErrorException, IOException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser("loaderCreditor", "pass", "name", "family");
+
+        for (int i = 0; i < USERS_COUNT; i++) {
+            String user = "loaderDebtor" + i;
+            USERS.add(user);
+            repository.registerUser(user, "pass", "name", "family");
+            Files.writeString(Path.of(user + "_debts.txt"),
+                user + " loaderCreditor " + (i + 1) + ".0 first" + System.lineSeparator() +
+                user + " loaderCreditor 0.5 second reason" + System.lineSeparator());
+        }
+
+        Files.writeString(Path.of("LoaderGroup_group_debts.txt"),
+            "LoaderGroup loaderDebtor0 loaderCreditor 2.5 hotel" + System.lineSeparator());
+    }
+
+    @AfterAll
+    static void deleteFiles() throws IOException {
+        for (String user : USERS) {
+            Files.deleteIfExists(Path.of(user + "_debts.txt"));
+        }
+        Files.deleteIfExists(Path.of("LoaderGroup_group_debts.txt"));
+    }
+
+    @Test
+    void testConstructorWhenParallelismIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new LegacyDebtLoader(true, 0),
+            "Expected IllegalArgumentException to be thrown when the parallelism is not positive");
+    }
+
+    @Test
+    void testParallelLoadMatchesSequentialLoad() throws ServerErrorException {
+        List<String> users = new ArrayList<>(USERS);
+        users.add("userWithoutFile");
+
+        LegacyDebts sequential = new LegacyDebtLoader(false, 1).load(users, Set.of("LoaderGroup"));
+        LegacyDebts parallel = new LegacyDebtLoader(true, 4).load(users, Set.of("LoaderGroup"));
+
+        assertEquals(USERS_COUNT + 1, parallel.getFiles().size(), "Expected every existing file to be loaded");
+        assertEquals(2 * USERS_COUNT + 1, parallel.getDebtsCount(), "Expected every line to be parsed");
+        assertEquals(sequential.getFriendDebts(), parallel.getFriendDebts(),
+            "Expected the parallel loader to produce the same friend debts");
+        assertEquals(sequential.getGroupDebts(), parallel.getGroupDebts(),
+            "Expected the parallel loader to produce the same group debts");
+    }
+
+    @Test
+    void testLoadKeepsTheOrderOfTheDebtsInAFile() throws ServerErrorException {
+        LegacyDebts debts = new LegacyDebtLoader(true, 2).load(List.of("loaderDebtor5"), Set.of());
+        List<DebtRecord> records = debts.getFriendDebts().get("loaderDebtor5");
+
+        assertEquals("loaderDebtor5 loaderCreditor 6.0 first", records.get(0).toString(),
+            "Expected the first line to be the oldest debt");
+        assertEquals("loaderDebtor5 loaderCreditor 0.5 second reason", records.get(1).toString(),
+            "Expected the reason with spaces to be kept");
+    }
+}
@@ -0,0 +1,53 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class PairLedgerTest {
+    private final User debtor = mock(User.class);
+    private final User creditor = mock(User.class);
+    private final PairLedger ledger = new PairLedger();
+
+    @Test
+    void testAddWhenDebtIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> ledger.add(null),
+            "Expected IllegalArgumentException to be thrown when the debt is null");
+    }
+
+    @Test
+    void testAddKeepsTheOrderAndTheTotal() {
+        DebtRecord first = new DebtRecord(debtor, creditor, 1000, "dinner");
+        DebtRecord second = new DebtRecord(debtor, creditor, 550, "lunch");
+        ledger.add(first);
+        ledger.add(second);
+
+        assertEquals(1550, ledger.getTotal(), "Expected the total to be the sum of the records");
+        assertEquals(first, ledger.peekOldest(), "Expected the oldest record to be first");
+    }
+
+    @Test
+    void testReplaceOldestUpdatesTheTotal() {
+        ledger.add(new DebtRecord(debtor, creditor, 1000, "dinner"));
+        ledger.add(new DebtRecord(debtor, creditor, 500, "lunch"));
+
+        DebtRecord partlyPaid = new DebtRecord(debtor, creditor, 400, "dinner");
+        ledger.replaceOldest(partlyPaid);
+
+        assertEquals(900, ledger.getTotal(), "Expected the total to reflect the partly paid record");
+        assertEquals(partlyPaid, ledger.peekOldest(), "Expected the partly paid record to stay first");
+    }
+
+    @Test
+    void testRemoveOldestEmptiesTheLedger() {
+        ledger.add(new DebtRecord(debtor, creditor, 1000, "dinner"));
+        ledger.removeOldest();
+
+        assertTrue(ledger.isEmpty(), "Expected the ledger to be empty");
+        assertEquals(0, ledger.getTotal(), "Expected an empty ledger to have no total");
+    }
+}
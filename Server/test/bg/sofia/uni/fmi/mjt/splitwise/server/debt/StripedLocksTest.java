@@ -0,0 +1,42 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StripedLocksTest {
+    private final StripedLocks locks = new StripedLocks(16);
+
+    @Test
+    void testConstructorWhenStripesCountIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(12),
+            "Expected IllegalArgumentException to be thrown when the stripes count is not a power of two");
+    }
+
+    @Test
+    void testLockAllLocksEveryStripeOnceInAscendingOrder() {
+        DebtPair pair = new DebtPair("debtor", "creditor");
+        List<ReentrantLock> locked = locks.lockAll(List.of(pair, pair, new DebtPair("other", "creditor")));
+
+        assertTrue(locked.stream().allMatch(ReentrantLock::isHeldByCurrentThread),
+            "Expected every stripe to be held by the current thread");
+        assertTrue(locked.stream().allMatch(lock -> lock.getHoldCount() == 1),
+            "Expected a stripe shared by several keys to be locked only once");
+
+        locks.unlockAll(locked);
+        assertFalse(locked.stream().anyMatch(ReentrantLock::isLocked), "Expected every stripe to be unlocked");
+    }
+
+    @Test
+    void testSortedPairsOfTheSameUsersShareAStripe() {
+        assertEquals(locks.stripeOf(new DebtPair("first", "second").sorted()),
+            locks.stripeOf(new DebtPair("second", "first").sorted()),
+            "Expected both directions of a pair to be guarded by the same stripe");
+    }
+}
@@ -0,0 +1,76 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.StorageProvider;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Table;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransactionHistoryTest {
+    private static final String OWNER = "historyDebtor";
+    private static DebtRecord debt;
+
+    @BeforeAll
+    static void registerUsers() throws UserAlreadyExistsException, ServerErrorException {
+        UserRepository repository = UserRepository.getInstance();
+        repository.registerUser(OWNER, "pass", "name", "family");
+        repository.registerUser("historyCreditor", "pass", "name", "family");
+
+        debt = new DebtRecord(UserRepository.toUser(OWNER), UserRepository.toUser("historyCreditor"), 1_000, "lunch");
+    }
+
+    @AfterEach
+    void cleanUp() throws ServerErrorException {
+        StorageProvider.getInstance().delete(Table.TRANSACTIONS, OWNER);
+    }
+
+    @Test
+    void testAppendWhenOwnerIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionHistory.append(null, debt, 1),
+            "Expected IllegalArgumentException to be thrown when the owner is null");
+    }
+
+    @Test
+    void testGetPageWhenLimitIsNotPositive() {
+        assertThrows(IllegalArgumentException.class,
+            () -> TransactionHistory.getPage(OWNER, TransactionHistory.LATEST, 0),
+            "Expected IllegalArgumentException to be thrown when the limit is not positive");
+    }
+
+    @Test
+    void testGetPageKeepsIdenticalPaymentsNewestFirst() throws ServerErrorException {
+        TransactionHistory.append(OWNER, debt, 1);
+        TransactionHistory.append(OWNER, debt, 2);
+        TransactionHistory.append(OWNER, debt, 3);
+
+        TransactionPage page = TransactionHistory.getPage(OWNER, TransactionHistory.LATEST, 2);
+
+        assertEquals(List.of(new Transaction(debt, 3), new Transaction(debt, 2)), page.transactions(),
+            "Expected the newest identical payments to be returned newest first");
+        assertTrue(page.hasMore(), "Expected an older page to be available");
+        assertEquals(1, page.cursor(), "Expected the cursor to point before the returned transactions");
+    }
+
+    @Test
+    void testGetPageBeforeTheCursorReturnsTheOlderTransactions() throws ServerErrorException {
+        TransactionHistory.append(OWNER, debt, 1);
+        TransactionHistory.append(OWNER, debt, 2);
+        TransactionHistory.append(OWNER, debt, 3);
+
+        TransactionPage page = TransactionHistory.getPage(OWNER, 1, 2);
+
+        assertEquals(List.of(new Transaction(debt, 1)), page.transactions(),
+            "Expected only the transactions before the cursor to be returned");
+        assertFalse(page.hasMore(), "Expected no older page to be available");
+    }
+}
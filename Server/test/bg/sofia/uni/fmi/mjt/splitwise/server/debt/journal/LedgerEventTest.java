@@ -0,0 +1,53 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt.journal;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LedgerEventTest {
+    private final User debtor = mock(User.class);
+    private final User creditor = mock(User.class);
+
+    private DebtRecord debt(long amount, String reason) {
+        when(debtor.getUsername()).thenReturn("debtor");
+        when(creditor.getUsername()).thenReturn("creditor");
+        return new DebtRecord(debtor, creditor, amount, reason);
+    }
+
+    @Test
+    void testParseWhenLineIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> LedgerEvent.parse(null),
+            "Expected IllegalArgumentException to be thrown when the line is null");
+    }
+
+    @Test
+    void testParseWhenLineIsMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> LedgerEvent.parse("CREATED F debtor"),
+            "Expected IllegalArgumentException to be thrown when the line is incomplete");
+    }
+
+    @Test
+    void testFriendEventKeepsTheReasonWithSpaces() {
+        LedgerEvent event = LedgerEvent.created(null, debt(1050, "dinner at the sea"));
+
+        assertEquals("CREATED F debtor creditor 1050 dinner at the sea", event.toLine(),
+            "Expected the friend event to be written in the friends scope");
+        assertEquals(event, LedgerEvent.parse(event.toLine()), "Expected the event to be parsed back");
+        assertNull(LedgerEvent.parse(event.toLine()).group(), "Expected friend events to have no group");
+    }
+
+    @Test
+    void testGroupEventIsParsedBack() {
+        LedgerEvent event = LedgerEvent.partlyPaid("Trip", debt(300, "hotel"));
+
+        assertEquals("PARTLY_PAID G Trip debtor creditor 300 hotel", event.toLine(),
+            "Expected the group event to contain the group name");
+        assertEquals(event, LedgerEvent.parse(event.toLine()), "Expected the event to be parsed back");
+    }
+}
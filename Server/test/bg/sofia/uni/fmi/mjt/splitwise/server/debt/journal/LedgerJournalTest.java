@@ -0,0 +1,176 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.debt.journal;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LedgerJournalTest {
+    private static final long SMALL_SEGMENT_SIZE = 128;
+    private static final String FIRST_SEGMENT = "debts_journal_1.log";
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearLogs() throws IOException {
+        Files.deleteIfExists(Path.of("logs_file.txt"));
+    }
+
+    private static LedgerEvent created(String debtor, long amount, String reason) {
+        return new LedgerEvent(LedgerEvent.Type.CREATED, null, debtor, "creditor", amount, reason);
+    }
+
+    private List<LedgerEvent> replay(LedgerJournal journal) throws ServerErrorException {
+        List<LedgerEvent> events = new ArrayList<>();
+        journal.replay(events::add);
+        return events;
+    }
+
+    @Test
+    void testConstructorWhenDirectoryIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new LedgerJournal(null, SMALL_SEGMENT_SIZE, false),
+            "Expected IllegalArgumentException to be thrown when the directory is null");
+    }
+
+    @Test
+    void testAppendAfterClose() throws ServerErrorException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, false);
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> journal.append(created("debtor", 100, "lunch")),
+            "Expected IllegalStateException to be thrown when the journal is closed");
+    }
+
+    @Test
+    void testReplayReturnsEventsInOrderAfterRestart() throws ServerErrorException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, true);
+        List<LedgerEvent> appended = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            LedgerEvent event = created("debtor" + i, i + 1, "reason " + i);
+            appended.add(event);
+            journal.append(event);
+        }
+        journal.close();
+
+        LedgerJournal reopened = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, true);
+        assertEquals(appended, replay(reopened), "Expected every appended event to be replayed in order");
+        reopened.close();
+    }
+
+    @Test
+    void testCompactionKeepsOnlyOutstandingDebts() throws ServerErrorException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, false);
+        journal.append(created("debtor", 1000, "dinner"));
+        journal.append(created("debtor", 500, "lunch"));
+        journal.append(new LedgerEvent(LedgerEvent.Type.PAID, null, "debtor", "creditor", 1000, "dinner"));
+        journal.append(new LedgerEvent(LedgerEvent.Type.PARTLY_PAID, null, "debtor", "creditor", 200, "lunch"));
+        journal.append(new LedgerEvent(LedgerEvent.Type.CREATED, "Trip", "debtor", "creditor", 300, "hotel"));
+        journal.flush();
+
+        journal.compact(Long.MAX_VALUE);
+
+        assertEquals(List.of(created("debtor", 200, "lunch"),
+                new LedgerEvent(LedgerEvent.Type.CREATED, "Trip", "debtor", "creditor", 300, "hotel")),
+            replay(journal), "Expected the snapshot to contain only the outstanding debts");
+        journal.close();
+    }
+
+    @Test
+    void testReplayIgnoresTornLastLine() throws ServerErrorException, IOException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, false);
+        journal.append(created("debtor", 100, "coffee"));
+        journal.close();
+
+        try (var files = Files.list(directory)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.writeString(segment, "CREATED F deb", StandardOpenOption.APPEND);
+        }
+
+        LedgerJournal reopened = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, false);
+        assertEquals(List.of(created("debtor", 100, "coffee")), replay(reopened),
+            "Expected the torn last line to be ignored");
+        reopened.close();
+    }
+
+    @Test
+    void testRotationCreatesNewSegments() throws ServerErrorException, IOException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, false);
+        for (int i = 0; i < 50; i++) {
+            journal.append(created("debtor", i + 1, "reason"));
+            journal.flush();
+        }
+        journal.close();
+
+        try (var files = Files.list(directory)) {
+            assertTrue(files.count() > 1, "Expected the journal to be split into several segments");
+        }
+    }
+
+    @Test
+    void testReplayAfterCheckpointSkipsCoveredEvents() throws ServerErrorException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, false);
+        journal.append(created("debtor", 100, "coffee"));
+        long checkpoint = journal.checkpoint();
+        journal.append(created("debtor", 200, "lunch"));
+
+        List<LedgerEvent> events = new ArrayList<>();
+        assertTrue(journal.replayAfter(checkpoint, events::add), "Expected the journal to cover the checkpoint");
+        assertEquals(List.of(created("debtor", 200, "lunch")), events,
+            "Expected only the events after the checkpoint to be replayed");
+        journal.close();
+    }
+
+    @Test
+    void testReplayAfterCompactedCheckpoint() throws ServerErrorException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, false);
+        journal.append(created("debtor", 100, "coffee"));
+        long checkpoint = journal.checkpoint();
+        journal.append(created("debtor", 200, "lunch"));
+        journal.checkpoint();
+        journal.compact(Long.MAX_VALUE);
+
+        assertFalse(journal.replayAfter(checkpoint, event -> { }),
+            "Expected the replay to be refused when the checkpoint was compacted");
+        journal.close();
+    }
+
+    @Test
+    void testFlushThrowsWhenTheSegmentWriteFails() throws ServerErrorException, IOException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, false);
+        Path blockedSegment = Files.createDirectory(directory.resolve(FIRST_SEGMENT));
+        journal.append(created("debtor", 100, "coffee"));
+
+        assertThrows(ServerErrorException.class, journal::flush,
+            "Expected ServerErrorException to be thrown when the events were not written");
+
+        Files.delete(blockedSegment);
+        journal.close();
+    }
+
+    @Test
+    void testSyncAppendThrowsWhenTheSegmentWriteFails() throws ServerErrorException, IOException {
+        LedgerJournal journal = new LedgerJournal(directory, SMALL_SEGMENT_SIZE, true);
+        Path blockedSegment = Files.createDirectory(directory.resolve(FIRST_SEGMENT));
+
+        assertThrows(ServerErrorException.class, () -> journal.append(created("debtor", 100, "coffee")),
+            "Expected ServerErrorException to be thrown when the event was not written");
+        assertThrows(ServerErrorException.class, journal::flush,
+            "Expected the failed event to be reported by the next flush as well");
+
+        Files.delete(blockedSegment);
+        journal.close();
+    }
+}
@@ -0,0 +1,95 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class CommandRingBufferTest {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 10_000;
+    private final CommandRingBuffer ringBuffer = new CommandRingBuffer(4);
+    private final SelectionKey key = mock(SelectionKey.class);
+
+    @Test
+    void testCreateWhenCapacityIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new CommandRingBuffer(6),
+            "Expected IllegalArgumentException to be thrown when the capacity is not a power of two");
+    }
+
+    @Test
+    void testTryPublishWhenBufferIsFull() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.tryPublish(List.of("get-status"), key, outputs -> { }),
+                "Expected the command to be published while there are free slots");
+        }
+
+        assertFalse(ringBuffer.tryPublish(List.of("get-status"), key, outputs -> { }),
+            "Expected the command to be rejected when every slot is taken");
+    }
+
+    @Test
+    void testDrainReturnsEventsInOrderAndFreesTheSlots() {
+        ringBuffer.tryPublish(List.of("first"), key, outputs -> { });
+        ringBuffer.tryPublish(List.of("second"), key, outputs -> { });
+        ringBuffer.tryPublish(List.of("third"), key, outputs -> { });
+
+        List<String> drained = new ArrayList<>();
+        assertEquals(2, ringBuffer.drain(event -> drained.add(event.getClientInputs().get(0)), 2),
+            "Expected the batch to be limited by its max size");
+        assertEquals(1, ringBuffer.drain(event -> drained.add(event.getClientInputs().get(0)), 2),
+            "Expected the rest of the events to be drained");
+        assertEquals(List.of("first", "second", "third"), drained, "Expected the events in publishing order");
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.tryPublish(List.of("get-status"), key, outputs -> { }),
+                "Expected the drained slots to be reused");
+        }
+    }
+
+    @Test
+    void testDrainClearsTheSlotAfterHandlingIt() {
+        Runnable task = () -> { };
+        ringBuffer.tryPublish(task);
+
+        List<CommandRingBuffer.CommandEvent> events = new ArrayList<>();
+        ringBuffer.drain(events::add, 1);
+
+        assertNull(events.get(0).getTask(), "Expected the slot to be cleared for reuse");
+        assertFalse(ringBuffer.hasPublished(), "Expected no events to be left");
+    }
+
+    @Test
+    void testConcurrentProducersPublishEveryEventOnce() throws InterruptedException {
+        CommandRingBuffer sharedBuffer = new CommandRingBuffer(256);
+        CountDownLatch finished = new CountDownLatch(PRODUCERS);
+        for (int i = 0; i < PRODUCERS; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < EVENTS_PER_PRODUCER; j++) {
+                    while (!sharedBuffer.tryPublish(List.of("get-status"), key, outputs -> { })) {
+                        Thread.onSpinWait();
+                    }
+                }
+                finished.countDown();
+            }).start();
+        }
+
+        long drained = 0;
+        while (drained < (long) PRODUCERS * EVENTS_PER_PRODUCER) {
+            drained += sharedBuffer.drain(event -> assertEquals(key, event.getKey()), 64);
+        }
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS), "Expected every producer to finish");
+        assertFalse(sharedBuffer.hasPublished(), "Expected every published event to be drained exactly once");
+    }
+}
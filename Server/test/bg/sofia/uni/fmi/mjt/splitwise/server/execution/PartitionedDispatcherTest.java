@@ -0,0 +1,192 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PartitionedDispatcherTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final int SHARDS_COUNT = 4;
+    private static final int CROSS_SHARD_COMMANDS = 50;
+    private final CommandExecutor commandExecutor = mock(CommandExecutor.class);
+    private final LogsManager logsManager = mock(LogsManager.class);
+    private final PartitionedDispatcher dispatcher =
+        new PartitionedDispatcher(SHARDS_COUNT, 256, commandExecutor, logsManager);
+
+    private SelectionKey mockKey(String username) {
+        SelectionKey key = mock(SelectionKey.class);
+        when(key.attachment()).thenReturn(username);
+
+        return key;
+    }
+
+    private Command mockCommand(String clientInput, SelectionKey key, Set<String> participants) {
+        Command command = mock(Command.class);
+        when(command.prepare()).thenReturn(CompletableFuture.completedFuture(null));
+        when(commandExecutor.create(clientInput, key)).thenReturn(command);
+        when(commandExecutor.participantsOf(command)).thenReturn(participants);
+
+        return command;
+    }
+
+    private String userOnAnotherShard(String username) {
+        for (int i = 0; ; i++) {
+            String candidate = "user" + i;
+            if (dispatcher.shardOf(candidate) != dispatcher.shardOf(username)) {
+                return candidate;
+            }
+        }
+    }
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testCreateWhenShardsCountIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedDispatcher(0, 4, commandExecutor, logsManager),
+            "Expected IllegalArgumentException to be thrown when the shards count is not positive");
+    }
+
+    @Test
+    void testDispatchWhenClientInputsAreNull() {
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.dispatch(null, mockKey("user"), outputs -> { }),
+            "Expected IllegalArgumentException to be thrown when the client inputs are null");
+    }
+
+    @Test
+    void testDispatchRunsTheCommandsOfAUserOnItsShard()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        SelectionKey first = mockKey("alex");
+        SelectionKey second = mockKey("alex");
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        Command getStatus = mockCommand("get-status", first, Set.of());
+        Command seeTransactions = mockCommand("see-transactions", second, Set.of());
+        when(commandExecutor.execute(getStatus)).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return "No notifications to be shown";
+        });
+        when(commandExecutor.execute(seeTransactions)).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return "There are no transactions";
+        });
+
+        CompletableFuture<List<String>> firstOutputs = new CompletableFuture<>();
+        CompletableFuture<List<String>> secondOutputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("get-status"), first, firstOutputs::complete);
+        dispatcher.dispatch(List.of("see-transactions"), second, secondOutputs::complete);
+
+        assertEquals(List.of("No notifications to be shown"), firstOutputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the output of the first connection to be passed to its callback");
+        assertEquals(List.of("There are no transactions"), secondOutputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the output of the second connection to be passed to its callback");
+        assertEquals(Set.of("command-shard-" + dispatcher.shardOf("alex")), threads,
+            "Expected every command of the user to run on the shard owning the user");
+    }
+
+    @Test
+    void testDispatchHandsCrossShardCommandToTheHighestShard()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        String friend = userOnAnotherShard("alex");
+        SelectionKey key = mockKey("alex");
+        List<String> threads = new ArrayList<>();
+
+        Command split = mockCommand("split 10 " + friend + " dinner", key, Set.of(friend));
+        Command getStatus = mockCommand("get-status", key, Set.of());
+        when(commandExecutor.execute(split)).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return "Split 10.00 LV between you and " + friend;
+        });
+        when(commandExecutor.execute(getStatus)).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return "No notifications to be shown";
+        });
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("split 10 " + friend + " dinner", "get-status"), key, outputs::complete);
+
+        assertEquals(List.of("Split 10.00 LV between you and " + friend, "No notifications to be shown"),
+            outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the outputs of the pipelined commands to be passed to the callback in order");
+
+        int highest = Math.max(dispatcher.shardOf("alex"), dispatcher.shardOf(friend));
+        assertEquals(List.of("command-shard-" + highest, "command-shard-" + dispatcher.shardOf("alex")), threads,
+            "Expected the cross-shard command to run on the highest shard and the next one back on the owner");
+    }
+
+    @Test
+    void testDispatchOfOpposingCrossShardCommandsDoesNotDeadlock()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        String friend = userOnAnotherShard("alex");
+        assertNotEquals(dispatcher.shardOf("alex"), dispatcher.shardOf(friend),
+            "Expected the users to be on different shards");
+
+        List<SelectionKey> keys = new ArrayList<>();
+        List<String> clientInputs = new ArrayList<>();
+        for (int i = 0; i < CROSS_SHARD_COMMANDS; i++) {
+            SelectionKey alexKey = mockKey("alex");
+            SelectionKey friendKey = mockKey(friend);
+            Command alexSplit = mockCommand("split 1 " + friend + " " + i, alexKey, Set.of(friend));
+            Command friendSplit = mockCommand("split 1 alex " + i, friendKey, Set.of("alex"));
+            when(commandExecutor.execute(alexSplit)).thenReturn("done");
+            when(commandExecutor.execute(friendSplit)).thenReturn("done");
+
+            keys.add(alexKey);
+            clientInputs.add("split 1 " + friend + " " + i);
+            keys.add(friendKey);
+            clientInputs.add("split 1 alex " + i);
+        }
+
+        List<CompletableFuture<List<String>>> outputs = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            CompletableFuture<List<String>> output = new CompletableFuture<>();
+            dispatcher.dispatch(List.of(clientInputs.get(i)), keys.get(i), output::complete);
+            outputs.add(output);
+        }
+
+        for (CompletableFuture<List<String>> output : outputs) {
+            assertEquals(List.of("done"), output.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                "Expected every cross-shard command to complete");
+        }
+    }
+
+    @Test
+    void testDispatchRepliesBusyWhenTheShardRejectsTheContinuation()
+        throws ExecutionException, InterruptedException, TimeoutException {
+        SelectionKey key = mockKey("alex");
+        CompletableFuture<Void> prepared = new CompletableFuture<>();
+        Command getStatus = mock(Command.class);
+        when(getStatus.prepare()).thenReturn(prepared);
+        when(commandExecutor.create("get-status", key)).thenReturn(getStatus);
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("get-status"), key, outputs::complete);
+        dispatcher.shutdown();
+        prepared.complete(null);
+
+        assertEquals(List.of("The server is busy right now. Try again in a moment"),
+            outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the command to be answered as busy instead of running outside its shard");
+    }
+}
@@ -0,0 +1,132 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerBusyException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.nio.channels.SelectionKey;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RingBufferDispatcherTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private final CommandExecutor commandExecutor = mock(CommandExecutor.class);
+    private final LogsManager logsManager = mock(LogsManager.class);
+    private final SelectionKey key = mock(SelectionKey.class);
+    private final RingBufferDispatcher dispatcher = new RingBufferDispatcher(8, commandExecutor, logsManager);
+
+    private Command mockCommand(String clientInput, CompletableFuture<Void> prepared) {
+        Command command = mock(Command.class);
+        when(command.prepare()).thenReturn(prepared);
+        when(commandExecutor.create(clientInput, key)).thenReturn(command);
+
+        return command;
+    }
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testCreateWhenCapacityIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferDispatcher(3, commandExecutor, logsManager),
+            "Expected IllegalArgumentException to be thrown when the capacity is not a power of two");
+    }
+
+    @Test
+    void testDispatchWhenKeyIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.dispatch(List.of("get-status"), null, o -> { }),
+            "Expected IllegalArgumentException to be thrown when the key is null");
+    }
+
+    @Test
+    void testDispatchFlushesBeforeCompletingTheBatch()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        Command split = mockCommand("split 10 friend dinner", CompletableFuture.completedFuture(null));
+        Command getStatus = mockCommand("get-status", CompletableFuture.completedFuture(null));
+        when(commandExecutor.execute(split)).thenReturn("Split 10.00 LV between you and friend");
+        when(commandExecutor.execute(getStatus)).thenReturn("No notifications to be shown");
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("split 10 friend dinner", "get-status"), key, outputs::complete);
+
+        assertEquals(List.of("Split 10.00 LV between you and friend", "No notifications to be shown"),
+            outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the outputs of the pipelined commands to be passed to the callback in order");
+
+        InOrder inOrder = inOrder(commandExecutor);
+        inOrder.verify(commandExecutor).execute(getStatus);
+        inOrder.verify(commandExecutor).flush();
+    }
+
+    @Test
+    void testDispatchWhenFlushFailsRepliesWithErrors()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        Command split = mockCommand("split 10 friend dinner", CompletableFuture.completedFuture(null));
+        Command getStatus = mockCommand("get-status", CompletableFuture.completedFuture(null));
+        when(commandExecutor.execute(split)).thenReturn("Split 10.00 LV between you and friend");
+        when(commandExecutor.execute(getStatus)).thenReturn("No notifications to be shown");
+        doThrow(new ServerErrorException("Flush failed")).when(commandExecutor).flush();
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("split 10 friend dinner", "get-status"), key, outputs::complete);
+
+        assertEquals(List.of(RingBufferDispatcher.ERROR_MESSAGE, RingBufferDispatcher.ERROR_MESSAGE),
+            outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the batch to be completed with errors when its changes cannot be flushed");
+    }
+
+    @Test
+    void testDispatchContinuesPreparedCommandOnTheLogicThread()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        CompletableFuture<Void> prepared = new CompletableFuture<>();
+        Command login = mockCommand("login user pass", prepared);
+        when(commandExecutor.execute(login)).thenAnswer(invocation -> Thread.currentThread().getName());
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("login user pass"), key, outputs::complete);
+        new Thread(() -> prepared.complete(null)).start();
+
+        assertEquals(List.of("command-logic"), outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the prepared command to be executed on the logic thread");
+    }
+
+    @Test
+    void testDispatchWhenPreparationIsRejected()
+        throws ExecutionException, InterruptedException, TimeoutException {
+        mockCommand("login user pass", CompletableFuture.failedFuture(new ServerBusyException("busy")));
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("login user pass"), key, outputs::complete);
+
+        assertEquals(List.of("busy"), outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the busy message to be returned when the preparation is rejected");
+    }
+
+    @Test
+    void testDispatchAfterShutdownRejectsTheCommands() {
+        dispatcher.shutdown();
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("get-status"), key, outputs::complete);
+
+        assertEquals(List.of(AbstractCommandDispatcher.SERVER_BUSY_MESSAGE), outputs.join(),
+            "Expected the commands to be rejected once the dispatcher is stopped");
+    }
+}
@@ -0,0 +1,113 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.execution;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.Command;
+import bg.sofia.uni.fmi.mjt.splitwise.server.command.core.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerBusyException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.channels.SelectionKey;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WorkerPoolDispatcherTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private final CommandExecutor commandExecutor = mock(CommandExecutor.class);
+    private final LogsManager logsManager = mock(LogsManager.class);
+    private final SelectionKey key = mock(SelectionKey.class);
+    private final WorkerPoolDispatcher dispatcher = new WorkerPoolDispatcher(2, 4, commandExecutor, logsManager);
+
+    private Command mockCommand(String clientInput, CompletableFuture<Void> prepared) {
+        Command command = mock(Command.class);
+        when(command.prepare()).thenReturn(prepared);
+        when(commandExecutor.create(clientInput, key)).thenReturn(command);
+
+        return command;
+    }
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testCreateWhenThreadsAreNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new WorkerPoolDispatcher(0, 4, commandExecutor, logsManager),
+            "Expected IllegalArgumentException to be thrown when the worker threads are not positive");
+    }
+
+    @Test
+    void testDispatchWhenCallbackIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.dispatch(List.of("get-status"), key, null),
+            "Expected IllegalArgumentException to be thrown when the callback is null");
+    }
+
+    @Test
+    void testDispatchCompletesWithOutputsInOrder()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        Command getStatus = mockCommand("get-status", CompletableFuture.completedFuture(null));
+        Command seeTransactions = mockCommand("see-transactions", CompletableFuture.completedFuture(null));
+        when(commandExecutor.execute(getStatus)).thenReturn("No notifications to be shown");
+        when(commandExecutor.execute(seeTransactions)).thenReturn("There are no transactions");
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("get-status", "see-transactions"), key, outputs::complete);
+
+        assertEquals(List.of("No notifications to be shown", "There are no transactions"),
+            outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the outputs of the pipelined commands to be passed to the callback in order");
+    }
+
+    @Test
+    void testDispatchCompletesWithErrorMessageWhenCommandFails()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        Command command = mockCommand("get-status", CompletableFuture.completedFuture(null));
+        when(commandExecutor.execute(command)).thenThrow(new ServerErrorException("error"));
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("get-status"), key, outputs::complete);
+
+        assertEquals(List.of(AbstractCommandDispatcher.ERROR_MESSAGE), outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the server error message to be passed to the callback");
+    }
+
+    @Test
+    void testDispatchExecutesCommandAfterItIsPrepared()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        CompletableFuture<Void> prepared = new CompletableFuture<>();
+        Command login = mockCommand("login user pass", prepared);
+        Command getStatus = mockCommand("get-status", CompletableFuture.completedFuture(null));
+        when(commandExecutor.execute(login)).thenReturn("User user successfully logged in!");
+        when(commandExecutor.execute(getStatus)).thenReturn("No notifications to be shown");
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("login user pass", "get-status"), key, outputs::complete);
+        prepared.complete(null);
+
+        assertEquals(List.of("User user successfully logged in!", "No notifications to be shown"),
+            outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the commands to be executed in order once the login is prepared");
+    }
+
+    @Test
+    void testDispatchWhenPreparationIsRejected()
+        throws ExecutionException, InterruptedException, TimeoutException {
+        mockCommand("login user pass", CompletableFuture.failedFuture(new ServerBusyException("busy")));
+
+        CompletableFuture<List<String>> outputs = new CompletableFuture<>();
+        dispatcher.dispatch(List.of("login user pass"), key, outputs::complete);
+
+        assertEquals(List.of("busy"), outputs.get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the busy message to be returned when the hashing queue is full");
+    }
+}
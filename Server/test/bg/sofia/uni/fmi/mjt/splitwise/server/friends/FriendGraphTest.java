@@ -0,0 +1,78 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.friends;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FriendGraphTest {
+    private final FriendGraph graph = new FriendGraph();
+
+    @Test
+    void testAddWhenEdgeIsPresent() {
+        assertTrue(graph.add(1, 2), "Expected a new friendship to be added");
+        assertFalse(graph.add(1, 2), "Expected an existing friendship not to be added again");
+        assertEquals(1, graph.edges(), "Expected a single friendship");
+    }
+
+    @Test
+    void testContainsIsDirected() {
+        graph.add(1, 2);
+
+        assertTrue(graph.contains(1, 2), "Expected the added friendship to be found");
+        assertFalse(graph.contains(2, 1), "Expected the reverse friendship not to be found");
+        assertArrayEquals(new int[] {1}, graph.addedBy(2), "Expected the incoming friendship to be indexed");
+    }
+
+    @Test
+    void testIsMutual() {
+        graph.add(1, 2);
+        assertFalse(graph.isMutual(1, 2), "Expected a one-sided friendship not to be mutual");
+
+        graph.add(2, 1);
+        assertTrue(graph.isMutual(1, 2), "Expected a two-sided friendship to be mutual");
+    }
+
+    @Test
+    void testFriendsOfMergesTheDelta() {
+        for (int friend = 100; friend > 0; friend--) {
+            graph.add(0, friend);
+        }
+
+        int[] friends = graph.friendsOf(0);
+        assertEquals(100, friends.length, "Expected every friend to be listed");
+        for (int i = 0; i < friends.length; i++) {
+            assertEquals(i + 1, friends[i], "Expected the friends to be sorted");
+        }
+    }
+
+    @Test
+    void testFriendsAfterPagesThroughTheFriends() {
+        for (int friend = 1; friend <= 5; friend++) {
+            graph.add(0, friend * 10);
+        }
+
+        assertArrayEquals(new int[] {10, 20}, graph.friendsAfter(0, -1, 2), "Expected the first page");
+        assertArrayEquals(new int[] {30, 40}, graph.friendsAfter(0, 20, 2), "Expected the page after the cursor");
+        assertArrayEquals(new int[] {50}, graph.friendsAfter(0, 45, 2), "Expected the page after a missing cursor");
+        assertArrayEquals(new int[] {}, graph.friendsAfter(0, 50, 2), "Expected an empty last page");
+    }
+
+    @Test
+    void testAdjacencyBytesPerEdge() {
+        Random random = new Random(42);
+        int users = 10_000;
+        while (graph.edges() < 200_000) {
+            graph.add(random.nextInt(users), random.nextInt(users));
+        }
+        graph.compact();
+
+        double bytesPerEdge = (double) graph.adjacencyBytes() / graph.edges();
+        assertEquals(2 * Integer.BYTES, bytesPerEdge, 0.0,
+            "Expected every friendship to cost one int in each direction, but it costs " + bytesPerEdge + " bytes");
+    }
+}
@@ -0,0 +1,87 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.friends;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.GroupAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FriendSuggesterTest {
+    private static final String[] USERS = {"suggestA", "suggestB", "suggestC", "suggestD", "suggestE", "suggestF"};
+    private final FriendGraph graph = new FriendGraph();
+    private final FriendSuggester suggester = new FriendSuggester(graph);
+
+    @BeforeAll
+    static void setUp() throws UserAlreadyExistsException, ServerErrorException, GroupAlreadyExistsException {
+        for (String user : USERS) {
+            UserRepository.getInstance().registerUser(user, "pass", "first", "family");
+        }
+
+        GroupManager.getInstance().addGroup("suggestGroup", Set.of("suggestA", "suggestF"));
+    }
+
+    @AfterAll
+    static void clearFiles() throws IOException {
+        Files.deleteIfExists(Path.of("groups.txt"));
+        Files.deleteIfExists(Path.of("users.txt"));
+        Files.deleteIfExists(Path.of("usersPasswords.txt"));
+    }
+
+    @Test
+    void testSuggestRanksFriendsOfFriendsAndGroupMembers() {
+        link("suggestA", "suggestB");
+        link("suggestA", "suggestC");
+        link("suggestB", "suggestD");
+        link("suggestC", "suggestD");
+        link("suggestB", "suggestE");
+
+        assertEquals(List.of(new FriendSuggestion("suggestD", 2, 0), new FriendSuggestion("suggestE", 1, 0),
+                new FriendSuggestion("suggestF", 0, 1)), suggester.suggest(id("suggestA")),
+            "Expected the people sharing the most friends or groups to be suggested first");
+    }
+
+    @Test
+    void testSuggestSkipsExistingFriends() {
+        link("suggestA", "suggestB");
+        link("suggestB", "suggestC");
+        link("suggestA", "suggestC");
+
+        assertTrue(suggester.suggest(id("suggestA")).stream()
+                .noneMatch(suggestion -> suggestion.username().equals("suggestC")),
+            "Expected an existing friend not to be suggested");
+    }
+
+    @Test
+    void testSuggestIsCachedUntilInvalidated() {
+        link("suggestA", "suggestB");
+        link("suggestB", "suggestD");
+        List<FriendSuggestion> cached = suggester.suggest(id("suggestA"));
+
+        link("suggestB", "suggestE");
+        assertEquals(cached, suggester.suggest(id("suggestA")), "Expected the cached suggestions to be returned");
+
+        suggester.invalidate(id("suggestA"));
+        assertEquals(3, suggester.suggest(id("suggestA")).size(),
+            "Expected the suggestions to be computed again after invalidation");
+    }
+
+    private void link(String user, String friend) {
+        graph.add(id(user), id(friend));
+    }
+
+    private static int id(String username) {
+        return UserRepository.toId(username);
+    }
+}
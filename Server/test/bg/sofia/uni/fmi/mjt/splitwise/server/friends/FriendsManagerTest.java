@@ -12,7 +12,9 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -70,6 +72,37 @@ public class FriendsManagerTest {
             "Expected false to be returned when there is no such user");
     }
 
+    @Test
+    void testIsMutualFriend() throws FriendAlreadyAddedException, ServerErrorException {
+        User first = mock(User.class);
+        when(first.getUsername()).thenReturn("mutualFirst");
+        User second = mock(User.class);
+        when(second.getUsername()).thenReturn("mutualSecond");
+
+        manager.addFriend("mutualSecond", first);
+        assertFalse(manager.isMutualFriend("mutualFirst", "mutualSecond"),
+            "Expected a one-sided friendship not to be mutual");
+
+        manager.addFriend("mutualFirst", second);
+        assertTrue(manager.isMutualFriend("mutualFirst", "mutualSecond"),
+            "Expected a two-sided friendship to be mutual");
+    }
+
+    @Test
+    void testGetFriendsReturnsPages() throws FriendAlreadyAddedException, ServerErrorException {
+        for (int i = 0; i < 3; i++) {
+            User pageFriend = mock(User.class);
+            when(pageFriend.getUsername()).thenReturn("pageFriend" + i);
+            manager.addFriend("pageUser", pageFriend);
+        }
+
+        assertEquals(List.of("pageFriend0", "pageFriend1"), manager.getFriends("pageUser", null, 2),
+            "Expected the first page of friends");
+        assertEquals(List.of("pageFriend2"), manager.getFriends("pageUser", "pageFriend1", 2),
+            "Expected the friends after the cursor");
+        assertEquals(3, manager.countFriends("pageUser"), "Expected every friend to be counted");
+    }
+
     @Test
     void testInitialize() throws UserAlreadyExistsException, ServerErrorException, IOException {
         UserRepository repository = UserRepository.getInstance();
@@ -0,0 +1,43 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.ids;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdRegistryTest {
+    private final IdRegistry registry = new IdRegistry();
+
+    @Test
+    void testInternAssignsDenseIds() {
+        assertEquals(0, registry.intern("first"), "Expected the first name to get id 0");
+        assertEquals(1, registry.intern("second"), "Expected the second name to get id 1");
+        assertEquals(0, registry.intern("first"), "Expected an interned name to keep its id");
+        assertEquals(2, registry.size(), "Expected two interned names");
+    }
+
+    @Test
+    void testIdOfAndNameOf() {
+        for (int i = 0; i < 500; i++) {
+            registry.intern("user" + i);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, registry.idOf("user" + i), "Expected the id of user" + i + " to be kept");
+            assertEquals("user" + i, registry.nameOf(i), "Expected the name of id " + i + " to be kept");
+        }
+    }
+
+    @Test
+    void testIdOfWhenNameIsMissing() {
+        assertEquals(IdRegistry.NO_ID, registry.idOf("missing"), "Expected NO_ID for a missing name");
+        assertNull(registry.nameOf(3), "Expected null for a missing id");
+    }
+
+    @Test
+    void testInternWhenNameIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> registry.intern(null),
+            "Expected IllegalArgumentException to be thrown when the name is null");
+    }
+}
@@ -0,0 +1,190 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ClientConnectionTest {
+    private final ClientConnection connection = new ClientConnection();
+    private final SocketChannel socketChannel = mock(SocketChannel.class);
+
+    private void mockRead(String input) throws IOException {
+        ByteBuffer source = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+
+        when(socketChannel.read(any(ByteBuffer.class)))
+            .thenAnswer(invocation -> {
+                ByteBuffer buffer = invocation.getArgument(0);
+                int size = Math.min(source.remaining(), buffer.remaining());
+                buffer.put(source.slice(source.position(), size));
+                source.position(source.position() + size);
+                return size;
+            });
+    }
+
+    @Test
+    void testReadWhenSocketChannelIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> connection.read(null),
+            "Expected IllegalArgumentException to be thrown when the socket channel is null");
+    }
+
+    @Test
+    void testReadWhenClientClosedTheConnection() throws IOException {
+        when(socketChannel.read(any(ByteBuffer.class))).thenReturn(-1);
+
+        assertNull(connection.read(socketChannel), "Expected null to be returned when the stream has ended");
+    }
+
+    @Test
+    void testReadKeepsIncompleteCommandUntilItsEnd() throws IOException {
+        mockRead("get-sta");
+        assertTrue(connection.read(socketChannel).isEmpty(), "Expected no command to be returned before new line");
+
+        mockRead("tus\r\n");
+        assertEquals(List.of("get-status"), connection.read(socketChannel),
+            "Expected the command split between two reads to be assembled");
+    }
+
+    @Test
+    void testReadReturnsPipelinedCommands() throws IOException {
+        mockRead("split 10 friend dinner\nsplit 20 friend lunch\npaid 5 fr");
+
+        assertEquals(List.of("split 10 friend dinner", "split 20 friend lunch"), connection.read(socketChannel),
+            "Expected every complete command to be returned in order");
+    }
+
+    @Test
+    void testReadWhenCommandIsLargerThanTheInitialBuffer() throws IOException {
+        String reason = "x".repeat(5000);
+        mockRead("split 10 friend " + reason + "\n");
+
+        assertEquals(List.of("split 10 friend " + reason), connection.read(socketChannel),
+            "Expected the read buffer to grow for large commands");
+    }
+
+    @Test
+    void testNextCommandsWaitsForTheExecutingBatch() {
+        connection.addCommands(List.of("login user pass", "get-status", "see-transactions"));
+
+        assertEquals(List.of("login user pass", "get-status"), connection.nextCommands(2),
+            "Expected the first commands to be returned in order");
+        assertNull(connection.nextCommands(2), "Expected no commands while the previous batch is executing");
+
+        connection.completeCommands(List.of("User user successfully logged in!", "No notifications to be shown"));
+
+        assertEquals(List.of("see-transactions"), connection.nextCommands(2),
+            "Expected the next commands once the previous batch has completed");
+        assertTrue(connection.hasPendingOutput(), "Expected the outputs of the completed batch to be queued");
+    }
+
+    @Test
+    void testFlushWritesAllQueuedFramesWithOneGatheredWrite() throws IOException {
+        connection.completeCommands(List.of("first", "second"));
+
+        when(socketChannel.write(any(ByteBuffer[].class), anyInt(), anyInt()))
+            .thenAnswer(invocation -> {
+                ByteBuffer[] buffers = invocation.getArgument(0);
+                long size = 0;
+                for (ByteBuffer buffer : buffers) {
+                    size += buffer.remaining();
+                    buffer.position(buffer.limit());
+                }
+                return size;
+            });
+
+        assertTrue(connection.flush(socketChannel), "Expected the whole output to be written");
+        verify(socketChannel, times(1)).write(any(ByteBuffer[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    void testFlushKeepsUnwrittenOutput() throws IOException {
+        connection.enqueue("Welcome!");
+
+        when(socketChannel.write(any(ByteBuffer[].class), anyInt(), anyInt()))
+            .thenAnswer(invocation -> {
+                ByteBuffer buffer = ((ByteBuffer[]) invocation.getArgument(0))[0];
+                buffer.position(buffer.position() + 2);
+                return 2L;
+            })
+            .thenReturn(0L);
+
+        assertFalse(connection.flush(socketChannel), "Expected the flush to be incomplete");
+        assertTrue(connection.hasPendingOutput(), "Expected the rest of the frame to stay queued");
+    }
+
+    @Test
+    void testFlushWritesLengthPrefixedFrames() throws IOException {
+        ByteBuffer written = ByteBuffer.allocate(64);
+        when(socketChannel.write(any(ByteBuffer[].class), anyInt(), anyInt()))
+            .thenAnswer(invocation -> {
+                ByteBuffer buffer = ((ByteBuffer[]) invocation.getArgument(0))[0];
+                long size = buffer.remaining();
+                written.put(buffer);
+                return size;
+            });
+
+        connection.enqueue("Hi");
+
+        assertTrue(connection.flush(socketChannel), "Expected the whole output to be written");
+        written.flip();
+        assertEquals(2, written.getInt(), "Expected the frame to start with the payload length");
+        assertEquals('H', written.get(), "Expected the payload to follow the header");
+    }
+
+    @Test
+    void testFlushMarksEventFrames() throws IOException {
+        ByteBuffer written = ByteBuffer.allocate(64);
+        when(socketChannel.write(any(ByteBuffer[].class), anyInt(), anyInt()))
+            .thenAnswer(invocation -> {
+                ByteBuffer buffer = ((ByteBuffer[]) invocation.getArgument(0))[0];
+                long size = buffer.remaining();
+                written.put(buffer);
+                return size;
+            });
+
+        connection.enqueueEvent("Hi", mock(Runnable.class));
+
+        assertTrue(connection.flush(socketChannel), "Expected the whole event to be written");
+        written.flip();
+        int header = written.getInt();
+        assertEquals(FrameEncoder.EVENT_FLAG, header & FrameEncoder.EVENT_FLAG, "Expected the event flag to be set");
+        assertEquals(2, header & ~FrameEncoder.EVENT_FLAG, "Expected the header to keep the payload length");
+    }
+
+    @Test
+    void testFlushReportsTheEventAsDeliveredOnlyAfterItIsFullyWritten() throws IOException {
+        Runnable onDelivered = mock(Runnable.class);
+        when(socketChannel.write(any(ByteBuffer[].class), anyInt(), anyInt())).thenReturn(0L);
+        connection.enqueueEvent("Hi", onDelivered);
+
+        assertFalse(connection.flush(socketChannel), "Expected the event to stay queued when nothing is written");
+        verify(onDelivered, never()).run();
+
+        when(socketChannel.write(any(ByteBuffer[].class), anyInt(), anyInt()))
+            .thenAnswer(invocation -> {
+                ByteBuffer buffer = ((ByteBuffer[]) invocation.getArgument(0))[0];
+                long size = buffer.remaining();
+                buffer.position(buffer.limit());
+                return size;
+            });
+
+        assertTrue(connection.flush(socketChannel), "Expected the whole event to be written");
+        verify(onDelivered).run();
+    }
+}
@@ -0,0 +1,37 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.network;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.execution.CommandDispatcher;
+import bg.sofia.uni.fmi.mjt.splitwise.server.logs.LogsManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class ReactorPoolTest {
+    private final CommandDispatcher commandDispatcher = mock(CommandDispatcher.class);
+
+    @Test
+    void testCreateWhenSizeIsNotPositive() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ReactorPool(0, commandDispatcher, LogsManager.getInstance()),
+            "Expected IllegalArgumentException to be thrown when the pool size is not positive");
+    }
+
+    @Test
+    void testAssignWhenSocketChannelIsNull() throws IOException {
+        ReactorPool reactorPool = new ReactorPool(2, commandDispatcher, LogsManager.getInstance());
+
+        assertThrows(IllegalArgumentException.class, () -> reactorPool.assign(null),
+            "Expected IllegalArgumentException to be thrown when the socket channel is null");
+    }
+
+    @Test
+    void testSize() throws IOException {
+        ReactorPool reactorPool = new ReactorPool(3, commandDispatcher, LogsManager.getInstance());
+
+        assertEquals(3, reactorPool.size(), "Expected the pool to contain the requested count of reactors");
+    }
+}
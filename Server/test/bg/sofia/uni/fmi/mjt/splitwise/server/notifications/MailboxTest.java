@@ -0,0 +1,201 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MailboxTest {
+    private static final Duration WINDOW = Duration.ofMillis(100);
+    private final Mailbox mailbox = new Mailbox(2);
+    private final Mailbox coalescingMailbox = new Mailbox(2, WINDOW);
+    private final User debtor = userWithId(1);
+    private final User creditor = userWithId(2);
+    private final User otherCreditor = userWithId(3);
+
+    @Test
+    void testMailboxWhenCapacityIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new Mailbox(0),
+            "Expected IllegalArgumentException to be thrown when the capacity is not positive");
+    }
+
+    @Test
+    void testMailboxWhenCoalescingWindowIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new Mailbox(1, Duration.ofMillis(-1)),
+            "Expected IllegalArgumentException to be thrown when the coalescing window is negative");
+    }
+
+    @Test
+    void testAddEvictsTheOldestNotification() {
+        Notification first = notification(1);
+        Notification second = notification(2);
+        Notification third = notification(3);
+
+        mailbox.add(first);
+        mailbox.add(second);
+        mailbox.add(third);
+
+        assertEquals(1, mailbox.getEvicted(), "Expected one notification to be evicted");
+        assertEquals(List.of(second, third), mailbox.drain(), "Expected the newest notifications to be kept");
+    }
+
+    @Test
+    void testDrainEmptiesTheMailbox() {
+        mailbox.add(notification(1));
+        mailbox.drain();
+
+        assertTrue(mailbox.isEmpty(), "Expected the mailbox to be empty after drain");
+    }
+
+    @Test
+    void testAddCoalescesTheSameCounterpartyWithinTheWindow() {
+        coalescingMailbox.add(groupDebt("trip", creditor, 1000, 0));
+        coalescingMailbox.add(groupDebt("trip", creditor, 250, 50));
+        coalescingMailbox.add(groupDebt("trip", creditor, 150, 99));
+
+        List<Notification> notifications = coalescingMailbox.drain();
+        assertEquals(1, notifications.size(), "Expected the group debts to be merged into one digest");
+        assertEquals(3, notifications.get(0).count(), "Expected the digest to count the merged notifications");
+        assertEquals(1400, notifications.get(0).debt().amount(), "Expected the digest to sum the amounts");
+        assertEquals(2, coalescingMailbox.getCoalesced(), "Expected two notifications to be coalesced");
+    }
+
+    @Test
+    void testAddStartsANewDigestAfterTheWindow() {
+        coalescingMailbox.add(groupDebt("trip", creditor, 1000, 0));
+        coalescingMailbox.add(groupDebt("trip", creditor, 1000, WINDOW.toMillis()));
+
+        assertEquals(2, coalescingMailbox.size(), "Expected notifications outside the window to be kept apart");
+    }
+
+    @Test
+    void testAddKeepsDifferentCounterpartiesAndGroupsApart() {
+        coalescingMailbox.add(groupDebt("trip", creditor, 1000, 0));
+        coalescingMailbox.add(groupDebt("trip", otherCreditor, 1000, 1));
+        coalescingMailbox.add(groupDebt("home", creditor, 1000, 2));
+
+        assertEquals(2, coalescingMailbox.size(), "Expected only notifications of the same kind to be merged");
+        assertEquals(1, coalescingMailbox.getEvicted(), "Expected the oldest digest to be evicted at capacity");
+    }
+
+    @Test
+    void testAddDoesNotMergeIntoAnEvictedDigest() {
+        coalescingMailbox.add(groupDebt("trip", creditor, 1000, 0));
+        coalescingMailbox.add(groupDebt("home", creditor, 1000, 1));
+        coalescingMailbox.add(groupDebt("work", creditor, 1000, 2));
+        coalescingMailbox.add(groupDebt("trip", creditor, 1000, 3));
+
+        List<Notification> notifications = coalescingMailbox.drain();
+        assertEquals(List.of("work", "trip"), notifications.stream().map(Notification::group).toList(),
+            "Expected a new digest to be started after the old one was evicted");
+    }
+
+    @Test
+    void testAddKeepsTheLatestBalanceOfPartlyPaidDebts() {
+        coalescingMailbox.add(new Notification(NotificationType.PARTLY_PAID_DEBT, null,
+            new DebtRecord(debtor, creditor, 700, "dinner"), 0));
+        coalescingMailbox.add(new Notification(NotificationType.PARTLY_PAID_DEBT, null,
+            new DebtRecord(debtor, creditor, 300, "dinner"), 1));
+
+        Notification digest = coalescingMailbox.drain().get(0);
+        assertEquals(300, digest.debt().amount(), "Expected the digest to show the remaining amount");
+        assertEquals(2, digest.count(), "Expected the digest to count both partial payments");
+    }
+
+    @Test
+    void testPollReturnsThePageAfterTheCursor() {
+        Mailbox pagedMailbox = new Mailbox(10);
+        for (int i = 0; i < 5; i++) {
+            pagedMailbox.add(notification(i));
+        }
+
+        NotificationPage first = pagedMailbox.poll(0, 2);
+        NotificationPage second = pagedMailbox.poll(first.cursor(), 2);
+
+        assertEquals(2, first.cursor(), "Expected the cursor to point at the last delivered notification");
+        assertTrue(first.hasMore(), "Expected more notifications after the first page");
+        assertEquals(4, second.cursor(), "Expected the second page to continue after the cursor");
+        assertEquals(1, pagedMailbox.size(), "Expected only the delivered notifications to be removed");
+    }
+
+    @Test
+    void testPollKeepsTheNotificationsBeforeTheCursor() {
+        Mailbox pagedMailbox = new Mailbox(10);
+        for (int i = 0; i < 3; i++) {
+            pagedMailbox.add(notification(i));
+        }
+
+        NotificationPage page = pagedMailbox.poll(1, 10);
+
+        assertEquals(1, page.offset(), "Expected the offset to count the skipped notifications");
+        assertEquals(2, page.notifications().size(), "Expected the notifications after the cursor to be delivered");
+        assertFalse(page.hasMore(), "Expected no more notifications after the last page");
+        assertEquals(1, pagedMailbox.size(), "Expected the skipped notification to stay in the mailbox");
+    }
+
+    @Test
+    void testRemoveDeletesTheGivenRange() {
+        Notification first = notification(1);
+        Notification second = notification(2);
+        Notification third = notification(3);
+        Mailbox pagedMailbox = new Mailbox(10);
+        pagedMailbox.add(first);
+        pagedMailbox.add(second);
+        pagedMailbox.add(third);
+
+        pagedMailbox.remove(1, 1);
+
+        assertEquals(List.of(first, third), pagedMailbox.drain(), "Expected only the given range to be removed");
+    }
+
+    @Test
+    void testAcknowledgeRemovesTheDeliveredNotification() {
+        Notification first = notification(1);
+        Notification second = notification(2);
+        Mailbox pagedMailbox = new Mailbox(10);
+        pagedMailbox.add(first);
+        long sequence = pagedMailbox.add(second);
+
+        assertEquals(1, pagedMailbox.acknowledge(sequence, 1), "Expected the offset of the delivered notification");
+        assertEquals(Mailbox.NOT_REMOVED, pagedMailbox.acknowledge(sequence, 1),
+            "Expected an already removed notification not to be removed again");
+        assertEquals(List.of(first), pagedMailbox.drain(), "Expected only the delivered notification to be removed");
+    }
+
+    @Test
+    void testAcknowledgeRemovesADigestOnceAllOfItsNotificationsAreDelivered() {
+        long sequence = coalescingMailbox.add(groupDebt("trip", creditor, 100, 0));
+        assertEquals(sequence, coalescingMailbox.add(groupDebt("trip", creditor, 200, 1)),
+            "Expected the second notification to be merged into the same digest");
+
+        assertEquals(Mailbox.NOT_REMOVED, coalescingMailbox.acknowledge(sequence, 1),
+            "Expected a digest with undelivered notifications to be kept");
+        assertEquals(0, coalescingMailbox.acknowledge(sequence, 1),
+            "Expected the digest to be removed once every merged notification is delivered");
+        assertTrue(coalescingMailbox.isEmpty(), "Expected the delivered digest to leave the mailbox");
+    }
+
+    private Notification groupDebt(String group, User groupCreditor, long amount, long timestamp) {
+        return new Notification(NotificationType.NEW_GROUP_DEBT, group,
+            new DebtRecord(debtor, groupCreditor, amount, "bill"), timestamp);
+    }
+
+    private static User userWithId(int id) {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(id);
+        return user;
+    }
+
+    private static Notification notification(long timestamp) {
+        return new Notification(NotificationType.NEW_DEBT, null, mock(DebtRecord.class), timestamp);
+    }
+}
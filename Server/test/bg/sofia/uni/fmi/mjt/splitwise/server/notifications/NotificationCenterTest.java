@@ -3,17 +3,29 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
 import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.network.EventSink;
+import bg.sofia.uni.fmi.mjt.splitwise.server.sessions.SessionRegistry;
 import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class NotificationCenterTest {
     private final NotificationCenter notificationCenter = new NotificationCenter("User");
@@ -26,12 +38,13 @@ public class NotificationCenterTest {
         repository.registerUser("Creditor", "pass", "test2", "test2");
 
         debt = new DebtRecord(UserRepository.toUser("User"), UserRepository.toUser("Creditor"),
-            15, "Drinks");
+            1500, "Drinks");
     }
 
     @AfterEach
     void clearFile() throws IOException {
         Files.deleteIfExists(Path.of("users.txt"));
+        Files.deleteIfExists(Path.of("notifications.dat"));
     }
 
     @Test
@@ -99,4 +112,98 @@ public class NotificationCenterTest {
                 + debt.visualizeDebt("You owe") + '\n', notificationCenter.getNotifications(),
             "Expected successfully paid debts to be shown but they weren't");
     }
+
+    @Test
+    void testGetNotificationsShowsDigestsOfRepeatedGroupDebts() throws ServerErrorException {
+        notificationCenter.addNewGroupDebt(debt, "bigGroup");
+        notificationCenter.addNewGroupDebt(debt, "bigGroup");
+
+        DebtRecord total = new DebtRecord(debt.debtor(), debt.creditor(), 2 * debt.amount(), debt.reason());
+        assertEquals("*** Notifications ***\n * New group debts:\n ** Group: bigGroup\n - "
+                + total.visualizeNewDebts(2) + '\n', notificationCenter.getNotifications(),
+            "Expected the group debts to the same creditor to be shown as one digest");
+    }
+
+    @Test
+    void testAddNewDebtPushesTheNotificationToOnlineUsers() throws ServerErrorException {
+        SessionRegistry sessionRegistry = SessionRegistry.getInstance();
+        Selector selector = mock(Selector.class);
+        EventSink sink = mock(EventSink.class);
+        SelectionKey key = mock(SelectionKey.class);
+        when(key.isValid()).thenReturn(true);
+        when(key.selector()).thenReturn(selector);
+        sessionRegistry.addSink(selector, sink);
+        sessionRegistry.register("OnlineUser", key);
+
+        try {
+            NotificationCenter onlineCenter = new NotificationCenter("OnlineUser");
+            onlineCenter.addNewDebt(debt);
+
+            ArgumentCaptor<Runnable> onDelivered = ArgumentCaptor.forClass(Runnable.class);
+            verify(sink).push(eq(key), eq("*** Notifications ***\n * New friend debts:\n - " +
+                debt.visualizeDebt("You owe") + '\n'), onDelivered.capture());
+            onDelivered.getValue().run();
+            assertEquals("No notifications to be shown", onlineCenter.getNotifications(),
+                "Expected delivered notifications not to be kept in the mailbox");
+        } finally {
+            when(key.attachment()).thenReturn("OnlineUser");
+            sessionRegistry.unregister(key);
+            sessionRegistry.removeSink(selector);
+        }
+    }
+
+    @Test
+    void testAddNewGroupDebtRemovesACoalescedDigestOnceEveryPushIsDelivered() throws ServerErrorException {
+        SessionRegistry sessionRegistry = SessionRegistry.getInstance();
+        Selector selector = mock(Selector.class);
+        EventSink sink = mock(EventSink.class);
+        SelectionKey key = mock(SelectionKey.class);
+        when(key.isValid()).thenReturn(true);
+        when(key.selector()).thenReturn(selector);
+        sessionRegistry.addSink(selector, sink);
+        sessionRegistry.register("DigestUser", key);
+
+        try {
+            NotificationCenter onlineCenter = new NotificationCenter("DigestUser");
+            onlineCenter.addNewGroupDebt(debt, "pushedGroup");
+            onlineCenter.addNewGroupDebt(debt, "pushedGroup");
+
+            ArgumentCaptor<Runnable> onDelivered = ArgumentCaptor.forClass(Runnable.class);
+            verify(sink, times(2)).push(eq(key), anyString(), onDelivered.capture());
+            onDelivered.getAllValues().forEach(Runnable::run);
+
+            assertEquals("No notifications to be shown", onlineCenter.getNotifications(),
+                "Expected the coalesced notifications to be removed once both pushes are delivered");
+        } finally {
+            when(key.attachment()).thenReturn("DigestUser");
+            sessionRegistry.unregister(key);
+            sessionRegistry.removeSink(selector);
+        }
+    }
+
+    @Test
+    void testAddNewDebtKeepsPushedNotificationsUntilTheyAreDelivered() throws ServerErrorException {
+        SessionRegistry sessionRegistry = SessionRegistry.getInstance();
+        Selector selector = mock(Selector.class);
+        EventSink sink = mock(EventSink.class);
+        SelectionKey key = mock(SelectionKey.class);
+        when(key.isValid()).thenReturn(true);
+        when(key.selector()).thenReturn(selector);
+        sessionRegistry.addSink(selector, sink);
+        sessionRegistry.register("DisconnectedUser", key);
+
+        try {
+            NotificationCenter onlineCenter = new NotificationCenter("DisconnectedUser");
+            onlineCenter.addNewDebt(debt);
+
+            verify(sink).push(eq(key), anyString(), any());
+            assertEquals("*** Notifications ***\n * New friend debts:\n - " + debt.visualizeDebt("You owe") + '\n',
+                onlineCenter.getNotifications(),
+                "Expected a notification pushed over a connection closed before delivery to stay in the mailbox");
+        } finally {
+            when(key.attachment()).thenReturn("DisconnectedUser");
+            sessionRegistry.unregister(key);
+            sessionRegistry.removeSink(selector);
+        }
+    }
 }
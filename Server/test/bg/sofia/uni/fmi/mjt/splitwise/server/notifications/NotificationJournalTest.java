@@ -0,0 +1,171 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.notifications;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecord;
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtRecordCodec;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.UserAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.MemoryStorage;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Storage;
+import bg.sofia.uni.fmi.mjt.splitwise.server.storage.Table;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NotificationJournalTest {
+    private static final Duration FLUSH_INTERVAL = Duration.ofHours(1);
+    private static final int CAPACITY = 10;
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    private static final int DEAD_ENTRIES = 2048;
+    private static final int RUNTIME_DEAD_ENTRIES = 16384;
+    private final MemoryStorage storage = new MemoryStorage();
+    private final NotificationJournal journal = new NotificationJournal(storage, FLUSH_INTERVAL, CAPACITY, WINDOW);
+
+    @BeforeAll
+    static void setUp() throws UserAlreadyExistsException, ServerErrorException {
+        UserRepository repository = UserRepository.getInstance();
+        for (String username : List.of("journalCreditor", "journalRestored", "journalCleared", "journalLegacy",
+            "journalDigest", "journalPaged", "journalCompacted", "journalRuntime")) {
+            repository.registerUser(username, "pass", "first", "family");
+        }
+    }
+
+    @AfterAll
+    static void clearFiles() throws IOException {
+        Files.deleteIfExists(Path.of("users.txt"));
+        Files.deleteIfExists(Path.of("usersPasswords.txt"));
+        Files.deleteIfExists(Path.of("notifications.dat"));
+    }
+
+    @Test
+    void testAppendWhenNotificationIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> journal.append("owner", null),
+            "Expected IllegalArgumentException to be thrown when the notification is null");
+    }
+
+    @Test
+    void testRestoreRebuildsTheMailboxes() throws ServerErrorException {
+        DebtRecord debt = debtOf("journalRestored");
+        journal.append("journalRestored", new Notification(NotificationType.NEW_DEBT, null, debt, 1));
+        journal.append("journalRestored", new Notification(NotificationType.NEW_GROUP_DEBT, "trip", debt, 2));
+        journal.flush();
+
+        new NotificationJournal(storage, FLUSH_INTERVAL, CAPACITY, WINDOW).restore();
+
+        assertEquals("*** Notifications ***\n * New friend debts:\n - " + debt.visualizeDebt("You owe") +
+                "\n * New group debts:\n ** Group: trip\n - " + debt.visualizeDebt("You owe") + '\n',
+            UserRepository.toUser("journalRestored").getNotifications(),
+            "Expected the flushed notifications to be restored into the mailbox");
+    }
+
+    @Test
+    void testRestoreSkipsClearedMailboxes() throws ServerErrorException {
+        journal.append("journalCleared",
+            new Notification(NotificationType.PAID_DEBT, null, debtOf("journalCleared"), 1));
+        journal.clear("journalCleared");
+        journal.flush();
+
+        new NotificationJournal(storage, FLUSH_INTERVAL, CAPACITY, WINDOW).restore();
+
+        assertEquals("No notifications to be shown", UserRepository.toUser("journalCleared").getNotifications(),
+            "Expected the delivered notifications not to be restored");
+    }
+
+    @Test
+    void testRestoreMigratesTheLegacyTables() throws ServerErrorException {
+        DebtRecord debt = debtOf("journalLegacy");
+        storage.appendBinary(Table.NEW_DEBTS, "journalLegacy", DebtRecordCodec.encode(debt, 1));
+
+        journal.restore();
+
+        List<String> legacy = new ArrayList<>();
+        storage.load(Table.NEW_DEBTS, "journalLegacy", 0, legacy::add);
+        assertTrue(legacy.isEmpty(), "Expected the legacy table to be deleted after the migration");
+        assertEquals("*** Notifications ***\n * New friend debts:\n - " + debt.visualizeDebt("You owe") + '\n',
+            UserRepository.toUser("journalLegacy").getNotifications(),
+            "Expected the legacy notifications to be moved into the mailbox");
+    }
+
+    @Test
+    void testRestoreKeepsTheCountOfDigests() throws ServerErrorException {
+        DebtRecord debt = debtOf("journalDigest");
+        journal.append("journalDigest", new Notification(NotificationType.NEW_DEBT, null, debt, 1, 3));
+        journal.flush();
+
+        new NotificationJournal(storage, FLUSH_INTERVAL, CAPACITY, WINDOW).restore();
+
+        assertEquals("*** Notifications ***\n * New friend debts:\n - " + debt.visualizeNewDebts(3) + '\n',
+            UserRepository.toUser("journalDigest").getNotifications(),
+            "Expected the digest to be restored with its count");
+    }
+
+    @Test
+    void testRestoreSkipsTheAcknowledgedNotifications() throws ServerErrorException {
+        DebtRecord debt = debtOf("journalPaged");
+        for (String group : List.of("first", "second", "third")) {
+            journal.append("journalPaged", new Notification(NotificationType.NEW_GROUP_DEBT, group, debt, 1));
+        }
+        journal.acknowledge("journalPaged", 0, 2);
+        journal.flush();
+
+        new NotificationJournal(storage, FLUSH_INTERVAL, CAPACITY, WINDOW).restore();
+
+        assertEquals("*** Notifications ***\n * New group debts:\n ** Group: third\n - " +
+                debt.visualizeDebt("You owe") + '\n', UserRepository.toUser("journalPaged").getNotifications(),
+            "Expected only the notifications which were not acknowledged to be restored");
+    }
+
+    @Test
+    void testRestoreCompactsTheJournalIntoTheLiveNotifications() throws ServerErrorException {
+        DebtRecord debt = debtOf("journalCompacted");
+        for (int i = 0; i < DEAD_ENTRIES; i++) {
+            journal.append("journalCompacted", new Notification(NotificationType.PAID_DEBT, null, debt, i));
+        }
+        journal.clear("journalCompacted");
+        journal.append("journalCompacted", new Notification(NotificationType.NEW_DEBT, null, debt, 1));
+        journal.flush();
+
+        new NotificationJournal(storage, FLUSH_INTERVAL, CAPACITY, WINDOW).restore();
+
+        assertEquals(1, storage.count(Table.NOTIFICATIONS, Storage.GLOBAL),
+            "Expected the journal to be replaced by a single batch of the live notifications");
+        assertEquals("*** Notifications ***\n * New friend debts:\n - " + debt.visualizeDebt("You owe") + '\n',
+            UserRepository.toUser("journalCompacted").getNotifications(),
+            "Expected the live notifications to be kept after the compaction");
+    }
+
+    @Test
+    void testFlushCompactsTheJournalOnceItHasGrownEnough() throws ServerErrorException {
+        DebtRecord debt = debtOf("journalRuntime");
+        for (int i = 0; i < RUNTIME_DEAD_ENTRIES; i++) {
+            journal.append("journalRuntime", new Notification(NotificationType.PAID_DEBT, null, debt, i));
+        }
+        journal.clear("journalRuntime");
+        journal.append("journalRuntime", new Notification(NotificationType.NEW_DEBT, null, debt, 1));
+        journal.flush();
+
+        assertEquals(1, storage.count(Table.NOTIFICATIONS, Storage.GLOBAL),
+            "Expected the flush to replace the journal with a single batch of the live notifications");
+
+        new NotificationJournal(storage, FLUSH_INTERVAL, CAPACITY, WINDOW).restore();
+        assertEquals("*** Notifications ***\n * New friend debts:\n - " + debt.visualizeDebt("You owe") + '\n',
+            UserRepository.toUser("journalRuntime").getNotifications(),
+            "Expected the live notifications to be kept after the compaction");
+    }
+
+    private static DebtRecord debtOf(String debtor) {
+        return new DebtRecord(UserRepository.toUser(debtor), UserRepository.toUser("journalCreditor"), 1000,
+            "journal");
+    }
+}
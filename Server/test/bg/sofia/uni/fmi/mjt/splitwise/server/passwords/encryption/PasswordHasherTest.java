@@ -0,0 +1,49 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.passwords.encryption;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordHasherTest {
+    private static final long TIMEOUT_SECONDS = 10;
+    private final PasswordHasher hasher = new PasswordHasher(1, 4);
+
+    @AfterEach
+    void shutdown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void testHashWhenPasswordIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> hasher.hash(null, new byte[] {1}),
+            "Expected IllegalArgumentException to be thrown when the password is null");
+    }
+
+    @Test
+    void testHashMatchesSynchronousHashing()
+        throws ServerErrorException, ExecutionException, InterruptedException, TimeoutException {
+        byte[] salt = PasswordEncryption.getSalt();
+
+        assertEquals(PasswordEncryption.hashPassword("password", salt),
+            hasher.hash("password", salt).get(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Expected the asynchronous hash to match the synchronous one");
+    }
+
+    @Test
+    void testQueueWaitIsRecorded() throws ExecutionException, InterruptedException, TimeoutException {
+        byte[] salt = PasswordEncryption.getSalt();
+        hasher.hash("first", salt);
+        hasher.hash("second", salt).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertTrue(hasher.getMaxQueueWaitMillis() > 0,
+            "Expected the second hash to have waited for the first one in the queue");
+    }
+}
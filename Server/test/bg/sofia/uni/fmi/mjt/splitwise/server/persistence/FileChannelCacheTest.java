@@ -0,0 +1,66 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileChannelCacheTest {
+    private static final Path FIRST = Path.of("cache_first.txt");
+    private static final Path SECOND = Path.of("cache_second.txt");
+    private static final Path THIRD = Path.of("cache_third.txt");
+    private final FileChannelCache cache = new FileChannelCache(2, false);
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        cache.closeAll();
+        Files.deleteIfExists(FIRST);
+        Files.deleteIfExists(SECOND);
+        Files.deleteIfExists(THIRD);
+    }
+
+    @Test
+    void testCreateWhenMaxOpenFilesIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new FileChannelCache(0, false),
+            "Expected IllegalArgumentException to be thrown when the max open files are not positive");
+    }
+
+    @Test
+    void testGetReusesTheOpenChannel() throws IOException {
+        FileChannel channel = cache.get(FIRST);
+
+        assertSame(channel, cache.get(FIRST), "Expected the open channel to be reused");
+        assertTrue(Files.exists(FIRST), "Expected the file to be created when it is opened");
+    }
+
+    @Test
+    void testGetClosesTheLeastRecentlyUsedChannel() throws IOException {
+        FileChannel first = cache.get(FIRST);
+        FileChannel second = cache.get(SECOND);
+        cache.get(FIRST);
+        cache.get(THIRD);
+
+        assertEquals(2, cache.size(), "Expected the cache to keep at most the max open files");
+        assertTrue(first.isOpen(), "Expected the recently used channel to stay open");
+        assertFalse(second.isOpen(), "Expected the least recently used channel to be closed");
+    }
+
+    @Test
+    void testCloseReopensTheChannelOnNextGet() throws IOException {
+        FileChannel channel = cache.get(FIRST);
+        cache.close(FIRST);
+
+        assertFalse(channel.isOpen(), "Expected the channel to be closed");
+        assertNotSame(channel, cache.get(FIRST), "Expected a new channel to be opened after closing");
+    }
+}
@@ -0,0 +1,160 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.persistence;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PersistenceServiceTest {
+    private static final Path FILE = Path.of("persistence_test.txt");
+    private static final Path DIRECTORY = Path.of("persistence_test_directory");
+    private static final int THREADS = 4;
+    private static final int LINES_PER_THREAD = 500;
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        Files.deleteIfExists(FILE);
+        Files.deleteIfExists(DIRECTORY);
+        Files.deleteIfExists(Path.of("logs_file.txt"));
+    }
+
+    @Test
+    void testAppendWhenPathIsNull() {
+        PersistenceService service = new PersistenceService(DurabilityMode.BUFFERED, Duration.ofMillis(1), 4);
+
+        assertThrows(IllegalArgumentException.class, () -> service.append(null, "line"),
+            "Expected IllegalArgumentException to be thrown when the path is null");
+    }
+
+    @Test
+    void testAppendInSyncModeIsWrittenBeforeReturning() throws ServerErrorException, IOException {
+        PersistenceService service = new PersistenceService(DurabilityMode.SYNC, Duration.ofMillis(1), 4);
+
+        service.append(FILE, "first\n");
+
+        assertEquals("first\n", Files.readString(FILE), "Expected the line to be written before append returns");
+        service.close();
+    }
+
+    @Test
+    void testAppendInGroupModeIsCommittedBeforeReturning() throws ServerErrorException, IOException {
+        PersistenceService service = new PersistenceService(DurabilityMode.GROUP, Duration.ofMillis(5), 4);
+
+        service.append(FILE, "first\n");
+        service.append(FILE, "second\n");
+
+        assertEquals("first\nsecond\n", Files.readString(FILE),
+            "Expected each append to return once the commit covering it is written");
+        service.close();
+    }
+
+    @Test
+    void testAppendInGroupModeThrowsWhenItsBatchFailed() throws ServerErrorException, IOException {
+        PersistenceService service = new PersistenceService(DurabilityMode.GROUP, Duration.ofMillis(1), 4);
+        Files.createDirectories(DIRECTORY);
+
+        assertThrows(ServerErrorException.class, () -> service.append(DIRECTORY, "lost\n"),
+            "Expected the append to report the failure of the batch that committed it");
+        service.append(FILE, "kept\n");
+
+        assertEquals("kept\n", Files.readString(FILE), "Expected the later appends to be written");
+        service.close();
+    }
+
+    @Test
+    void testDeleteDropsThePendingAppendsAndKeepsTheLaterOnes() throws ServerErrorException, IOException {
+        PersistenceService service = new PersistenceService(DurabilityMode.BUFFERED, Duration.ofMillis(1), 4);
+
+        service.append(FILE, "first\n");
+        service.delete(FILE);
+        assertFalse(Files.exists(FILE), "Expected the file to be deleted");
+
+        service.append(FILE, "second\n");
+        service.flush();
+        assertEquals("second\n", Files.readString(FILE), "Expected the appends after the delete to be kept");
+        service.close();
+    }
+
+    @Test
+    void testReplaceOverwritesTheFileAndKeepsTheLaterAppends() throws ServerErrorException, IOException {
+        PersistenceService service = new PersistenceService(DurabilityMode.GROUP, Duration.ofMillis(1), 4);
+
+        service.append(FILE, "first\n");
+        service.replace(FILE, "second\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals("second\n", Files.readString(FILE), "Expected the file to be replaced");
+
+        service.append(FILE, "third\n");
+        service.flush();
+        assertEquals("second\nthird\n", Files.readString(FILE), "Expected the appends after the replace to be kept");
+        service.close();
+    }
+
+    @Test
+    void testFlushThrowsWhenAnEarlierBatchFailed() throws ServerErrorException, IOException {
+        PersistenceService service = new PersistenceService(DurabilityMode.BUFFERED, Duration.ofMillis(1), 4);
+        Files.createDirectories(DIRECTORY);
+
+        service.append(DIRECTORY, "lost\n");
+        service.append(FILE, "kept\n");
+
+        assertThrows(ServerErrorException.class, service::flush,
+            "Expected the flush to report the failed append even though the later appends succeeded");
+        service.flush();
+        assertEquals("kept\n", Files.readString(FILE), "Expected the later appends to be written");
+        service.close();
+    }
+
+    @Test
+    void testAwaitWrittenWaitsForThePathAndLeavesTheFailureToTheFlush() throws ServerErrorException, IOException {
+        PersistenceService service = new PersistenceService(DurabilityMode.BUFFERED, Duration.ofMillis(1), 4);
+        Files.createDirectories(DIRECTORY);
+
+        service.append(DIRECTORY, "lost\n");
+        service.append(FILE, "kept\n");
+        service.awaitWritten(FILE);
+
+        assertEquals("kept\n", Files.readString(FILE), "Expected the pending appends to the path to be written");
+        assertThrows(ServerErrorException.class, service::flush,
+            "Expected the failed append to be reported by the next flush");
+        service.close();
+    }
+
+    @Test
+    void testConcurrentAppendsAreAllWritten() throws ServerErrorException, IOException, InterruptedException {
+        PersistenceService service = new PersistenceService(DurabilityMode.GROUP, Duration.ofMillis(2), 4);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < LINES_PER_THREAD; j++) {
+                    try {
+                        service.append(FILE, "line\n");
+                    } catch (ServerErrorException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        service.flush();
+
+        assertEquals(THREADS * LINES_PER_THREAD, Files.readAllLines(FILE).size(),
+            "Expected every appended line to be written exactly once");
+        service.close();
+    }
+}
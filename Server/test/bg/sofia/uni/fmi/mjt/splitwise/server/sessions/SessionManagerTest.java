@@ -0,0 +1,67 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.sessions;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.InvalidSessionTokenException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SessionManagerTest {
+    private final Clock clock = mock(Clock.class);
+    private final SessionManager sessionManager = new SessionManager(Duration.ofMinutes(1), clock);
+
+    @Test
+    void testCreateSessionWhenUsernameIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> sessionManager.createSession(null),
+            "Expected IllegalArgumentException to be thrown when username is null");
+    }
+
+    @Test
+    void testResumeReturnsTheUsernameOfTheSession() throws InvalidSessionTokenException {
+        when(clock.millis()).thenReturn(1000L);
+        String token = sessionManager.createSession("user");
+
+        assertEquals("user", sessionManager.resume(token), "Expected the session owner to be returned");
+    }
+
+    @Test
+    void testResumeWhenTokenIsExpired() {
+        when(clock.millis()).thenReturn(1000L);
+        String token = sessionManager.createSession("user");
+        when(clock.millis()).thenReturn(1000L + Duration.ofMinutes(1).toMillis());
+
+        assertThrows(InvalidSessionTokenException.class, () -> sessionManager.resume(token),
+            "Expected InvalidSessionTokenException to be thrown when the token is expired");
+        assertEquals(0, sessionManager.getActiveSessionsCount(), "Expected the expired session to be removed");
+    }
+
+    @Test
+    void testResumeWhenSignatureIsTampered() {
+        when(clock.millis()).thenReturn(1000L);
+        String token = sessionManager.createSession("user");
+        String tampered = token.substring(0, token.length() - 1) + (token.endsWith("A") ? "B" : "A");
+
+        assertThrows(InvalidSessionTokenException.class, () -> sessionManager.resume(tampered),
+            "Expected InvalidSessionTokenException to be thrown when the signature is wrong");
+    }
+
+    @Test
+    void testResumeWhenTokenIsMalformed() {
+        assertThrows(InvalidSessionTokenException.class, () -> sessionManager.resume("token"),
+            "Expected InvalidSessionTokenException to be thrown when the token is malformed");
+    }
+
+    @Test
+    void testResumeWhenTokenIsIssuedByAnotherServer() {
+        when(clock.millis()).thenReturn(1000L);
+        String token = new SessionManager(Duration.ofMinutes(1), clock).createSession("user");
+
+        assertThrows(InvalidSessionTokenException.class, () -> sessionManager.resume(token),
+            "Expected InvalidSessionTokenException to be thrown for unknown sessions");
+    }
+}
@@ -0,0 +1,98 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.sessions;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.network.EventSink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SessionRegistryTest {
+    private final SessionRegistry sessionRegistry = new SessionRegistry();
+    private final Selector selector = mock(Selector.class);
+    private final EventSink sink = mock(EventSink.class);
+    private final SelectionKey key = mock(SelectionKey.class);
+
+    @BeforeEach
+    void setUp() {
+        when(key.isValid()).thenReturn(true);
+        when(key.selector()).thenReturn(selector);
+        sessionRegistry.addSink(selector, sink);
+    }
+
+    @Test
+    void testRegisterWhenKeyIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> sessionRegistry.register("user", null),
+            "Expected IllegalArgumentException to be thrown when the key is null");
+    }
+
+    @Test
+    void testPushDeliversTheEventToTheSinkOfTheKey() {
+        sessionRegistry.register("user", key);
+
+        Runnable onDelivered = mock(Runnable.class);
+
+        assertTrue(sessionRegistry.push("user", "event", onDelivered),
+            "Expected the event to be pushed to the online user");
+        verify(key).attach("user");
+        verify(sink).push(key, "event", onDelivered);
+    }
+
+    @Test
+    void testPushWhenUserIsOffline() {
+        assertFalse(sessionRegistry.push("user", "event", mock(Runnable.class)),
+            "Expected offline users not to receive events");
+        verify(sink, never()).push(any(), anyString(), any());
+    }
+
+    @Test
+    void testPushWhenConnectionIsClosed() {
+        sessionRegistry.register("user", key);
+        when(key.isValid()).thenReturn(false);
+
+        assertFalse(sessionRegistry.isOnline("user"), "Expected users with closed connections to be offline");
+        assertFalse(sessionRegistry.push("user", "event", mock(Runnable.class)),
+            "Expected no event to be pushed over a closed connection");
+    }
+
+    @Test
+    void testUnregisterMakesTheUserOffline() {
+        sessionRegistry.register("user", key);
+        when(key.attachment()).thenReturn("user");
+        sessionRegistry.unregister(key);
+
+        assertFalse(sessionRegistry.isOnline("user"), "Expected the user to be offline after unregister");
+    }
+
+    @Test
+    void testRegisterAnotherUserOnTheSameKey() {
+        sessionRegistry.register("user", key);
+        when(key.attach("other")).thenReturn("user");
+        sessionRegistry.register("other", key);
+
+        assertFalse(sessionRegistry.isOnline("user"), "Expected the previous user of the connection to be offline");
+        assertTrue(sessionRegistry.isOnline("other"), "Expected the new user of the connection to be online");
+    }
+
+    @Test
+    void testUnregisterKeepsTheNewerConnectionOfTheUser() {
+        SelectionKey newerKey = mock(SelectionKey.class);
+        when(newerKey.isValid()).thenReturn(true);
+        sessionRegistry.register("user", key);
+        sessionRegistry.register("user", newerKey);
+        when(key.attachment()).thenReturn("user");
+        sessionRegistry.unregister(key);
+
+        assertTrue(sessionRegistry.isOnline("user"), "Expected the newer connection of the user to be kept");
+    }
+}
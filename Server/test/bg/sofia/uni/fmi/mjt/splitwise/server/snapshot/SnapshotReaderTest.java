@@ -0,0 +1,53 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.snapshot;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SnapshotReaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReadWhatWasWritten() throws ServerErrorException, IOException {
+        Path file = directory.resolve("state.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(file)) {
+            writer.writeInt(42);
+            writer.writeLong(1050L);
+            writer.writeString("\u0418\u0432\u0430\u043d");
+            writer.writeBytes(new byte[] {1, 2, 3});
+        }
+
+        SnapshotReader reader = new SnapshotReader(ByteBuffer.wrap(Files.readAllBytes(file)));
+
+        assertEquals(42, reader.readInt(), "Expected the int to be read back");
+        assertEquals(1050L, reader.readLong(), "Expected the long to be read back");
+        assertEquals("\u0418\u0432\u0430\u043d", reader.readString(), "Expected the UTF-8 string to be read back");
+        assertArrayEquals(new byte[] {1, 2, 3}, reader.readBytes(), "Expected the bytes to be read back");
+    }
+
+    @Test
+    void testReadWhenSnapshotIsTruncated() {
+        SnapshotReader reader = new SnapshotReader(ByteBuffer.wrap(new byte[] {0, 0}));
+
+        assertThrows(ServerErrorException.class, reader::readInt,
+            "Expected ServerErrorException to be thrown when the snapshot is truncated");
+    }
+
+    @Test
+    void testReadBytesWhenLengthIsLargerThanTheSnapshot() {
+        SnapshotReader reader = new SnapshotReader(ByteBuffer.allocate(Integer.BYTES).putInt(0, 100));
+
+        assertThrows(ServerErrorException.class, reader::readBytes,
+            "Expected ServerErrorException to be thrown when the length points outside of the snapshot");
+    }
+}
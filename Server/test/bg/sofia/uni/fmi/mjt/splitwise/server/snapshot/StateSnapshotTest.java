@@ -0,0 +1,96 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.snapshot;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.debt.DebtManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import bg.sofia.uni.fmi.mjt.splitwise.server.friends.FriendsManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.groups.GroupManager;
+import bg.sofia.uni.fmi.mjt.splitwise.server.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class StateSnapshotTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final FriendsManager friendsManager = mock(FriendsManager.class);
+    private final GroupManager groupManager = mock(GroupManager.class);
+    private final DebtManager debtManager = mock(DebtManager.class);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearLogs() throws IOException {
+        Files.deleteIfExists(Path.of("logs_file.txt"));
+    }
+
+    private StateSnapshot snapshot(Path file) {
+        return new StateSnapshot(file, userRepository, friendsManager, groupManager, debtManager);
+    }
+
+    @Test
+    void testConstructorWhenFileIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> snapshot(null),
+            "Expected IllegalArgumentException to be thrown when the snapshot file is null");
+    }
+
+    @Test
+    void testRestoreWhenThereIsNoSnapshot() throws ServerErrorException {
+        assertFalse(snapshot(directory.resolve("state.snapshot")).restore(),
+            "Expected nothing to be restored when there is no snapshot");
+        verify(userRepository, never()).restore(any());
+    }
+
+    @Test
+    void testRestoreWhenSnapshotHasAnotherFormat() throws ServerErrorException, IOException {
+        Path file = directory.resolve("state.snapshot");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertFalse(snapshot(file).restore(), "Expected a snapshot with unknown format to be ignored");
+        verify(userRepository, never()).restore(any());
+    }
+
+    @Test
+    void testSaveAndRestoreVisitTheManagersInOrder() throws ServerErrorException {
+        Path file = directory.resolve("state.snapshot");
+        StateSnapshot stateSnapshot = snapshot(file);
+
+        stateSnapshot.save();
+        assertTrue(Files.exists(file), "Expected the snapshot to be written");
+        assertTrue(stateSnapshot.restore(), "Expected the written snapshot to be restored");
+
+        var order = inOrder(userRepository, friendsManager, groupManager, debtManager);
+        order.verify(userRepository).restore(any());
+        order.verify(friendsManager).restore(any());
+        order.verify(groupManager).restore(any());
+        order.verify(debtManager).restore(any());
+    }
+
+    @Test
+    void testRestoreWhenSnapshotIsCorruptClearsThePartiallyRestoredState() throws ServerErrorException {
+        Path file = directory.resolve("state.snapshot");
+        StateSnapshot stateSnapshot = snapshot(file);
+        stateSnapshot.save();
+        doThrow(new ServerErrorException("Corrupted")).when(groupManager).restore(any());
+
+        assertFalse(stateSnapshot.restore(), "Expected a corrupt snapshot to fall back to a full initialization");
+        verify(userRepository).clear();
+        verify(friendsManager).clear();
+        verify(groupManager).clear();
+        verify(debtManager).clear();
+        verify(debtManager, never()).restore(any());
+    }
+}
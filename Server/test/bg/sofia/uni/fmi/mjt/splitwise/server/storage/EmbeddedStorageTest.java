@@ -0,0 +1,143 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmbeddedStorageTest {
+    private static final Path FILE = Path.of("embedded_test.db");
+    private static final int LARGE_RECORD_CHARACTERS = 2 * 1024 * 1024;
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        Files.deleteIfExists(FILE);
+    }
+
+    @Test
+    void testCreateWhenFileIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new EmbeddedStorage(null, false),
+            "Expected IllegalArgumentException to be thrown when the file is null");
+    }
+
+    @Test
+    void testRecordsAreLoadedAfterReopening() throws ServerErrorException {
+        Storage storage = new EmbeddedStorage(FILE, false);
+        storage.append(Table.USERS, Storage.GLOBAL, "first");
+        storage.append(Table.NEW_DEBTS, "owner", "debt");
+        storage.append(Table.USERS, Storage.GLOBAL, "second");
+        storage.close();
+
+        Storage reopened = new EmbeddedStorage(FILE, false);
+        assertEquals(List.of("first", "second"), load(reopened, Table.USERS, Storage.GLOBAL, 0),
+            "Expected the records of the table to be loaded in order after reopening");
+        assertEquals(List.of("debt"), load(reopened, Table.NEW_DEBTS, "owner", 0),
+            "Expected the records of the owner to be loaded after reopening");
+        reopened.close();
+    }
+
+    @Test
+    void testLoadFromPositionSkipsTheEarlierRecords() throws ServerErrorException {
+        Storage storage = new EmbeddedStorage(FILE, false);
+        storage.append(Table.GROUPS, Storage.GLOBAL, "first");
+        long position = storage.position(Table.GROUPS, Storage.GLOBAL);
+        storage.append(Table.GROUPS, Storage.GLOBAL, "second");
+
+        assertEquals(List.of("second"), load(storage, Table.GROUPS, Storage.GLOBAL, position),
+            "Expected only the records after the position to be loaded");
+        storage.close();
+    }
+
+    @Test
+    void testLoadRangeReturnsOnlyTheRequestedRecords() throws ServerErrorException {
+        Storage storage = new EmbeddedStorage(FILE, false);
+        storage.append(Table.GROUPS, Storage.GLOBAL, "first");
+        storage.append(Table.GROUPS, Storage.GLOBAL, "second");
+        storage.append(Table.GROUPS, Storage.GLOBAL, "third");
+
+        List<String> records = new ArrayList<>();
+        storage.loadRange(Table.GROUPS, Storage.GLOBAL, 1, 1,
+            record -> records.add(StandardCharsets.UTF_8.decode(record).toString()));
+
+        assertEquals(3, storage.count(Table.GROUPS, Storage.GLOBAL), "Expected every record to be counted");
+        assertEquals(List.of("second"), records, "Expected only the requested record to be loaded");
+        storage.close();
+    }
+
+    @Test
+    void testReplaceBinaryIsKeptAfterReopening() throws ServerErrorException {
+        Storage storage = new EmbeddedStorage(FILE, false);
+        storage.append(Table.GROUPS, Storage.GLOBAL, "old");
+        storage.append(Table.USERS, Storage.GLOBAL, "user");
+        storage.replaceBinary(Table.GROUPS, Storage.GLOBAL, List.of("new".getBytes(StandardCharsets.UTF_8)));
+        storage.close();
+
+        Storage reopened = new EmbeddedStorage(FILE, false);
+        assertEquals(List.of("new"), load(reopened, Table.GROUPS, Storage.GLOBAL, 0),
+            "Expected only the replacing records to be loaded");
+        assertEquals(List.of("user"), load(reopened, Table.USERS, Storage.GLOBAL, 0),
+            "Expected the other tables to be kept");
+        reopened.close();
+    }
+
+    @Test
+    void testDeleteIsKeptAfterReopening() throws ServerErrorException {
+        Storage storage = new EmbeddedStorage(FILE, false);
+        storage.append(Table.PAID_DEBTS, "owner", "debt");
+        storage.delete(Table.PAID_DEBTS, "owner");
+        storage.append(Table.PAID_DEBTS, "owner", "later");
+        storage.close();
+
+        Storage reopened = new EmbeddedStorage(FILE, false);
+        assertEquals(List.of("later"), load(reopened, Table.PAID_DEBTS, "owner", 0),
+            "Expected only the records after the delete to be loaded");
+        reopened.close();
+    }
+
+    @Test
+    void testTruncatedRecordIsDroppedWhenReopening() throws ServerErrorException, IOException {
+        Storage storage = new EmbeddedStorage(FILE, false);
+        storage.append(Table.USERS, Storage.GLOBAL, "first");
+        storage.close();
+        Files.write(FILE, new byte[] {0, 0, 0, 100, 0}, StandardOpenOption.APPEND);
+
+        Storage reopened = new EmbeddedStorage(FILE, false);
+        reopened.append(Table.USERS, Storage.GLOBAL, "second");
+        assertEquals(List.of("first", "second"), load(reopened, Table.USERS, Storage.GLOBAL, 0),
+            "Expected the partial record to be dropped and the new record to follow the last complete one");
+        reopened.close();
+    }
+
+    @Test
+    void testDeletedRecordsAreCompactedWhenReopening() throws ServerErrorException, IOException {
+        Storage storage = new EmbeddedStorage(FILE, false);
+        storage.append(Table.USERS, Storage.GLOBAL, "user");
+        storage.append(Table.TRANSACTIONS, "owner", "x".repeat(LARGE_RECORD_CHARACTERS));
+        storage.delete(Table.TRANSACTIONS, "owner");
+        storage.close();
+
+        Storage reopened = new EmbeddedStorage(FILE, false);
+        assertTrue(Files.size(FILE) < LARGE_RECORD_CHARACTERS, "Expected the deleted records to be compacted");
+        assertEquals(List.of("user"), load(reopened, Table.USERS, Storage.GLOBAL, 0),
+            "Expected the live records to be kept after compaction");
+        reopened.close();
+    }
+
+    private List<String> load(Storage storage, Table table, String owner, long position)
+        throws ServerErrorException {
+        List<String> records = new ArrayList<>();
+        storage.load(table, owner, position, records::add);
+        return records;
+    }
+}
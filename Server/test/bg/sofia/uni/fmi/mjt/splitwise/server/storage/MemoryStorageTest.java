@@ -0,0 +1,71 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoryStorageTest {
+    private final MemoryStorage storage = new MemoryStorage();
+
+    @Test
+    void testAppendWhenRecordIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> storage.append(Table.USERS, Storage.GLOBAL, null),
+            "Expected IllegalArgumentException to be thrown when the record is null");
+    }
+
+    @Test
+    void testLoadFromPositionSkipsTheEarlierRecords() {
+        storage.append(Table.USERS, Storage.GLOBAL, "first");
+        long position = storage.position(Table.USERS, Storage.GLOBAL);
+        storage.append(Table.USERS, Storage.GLOBAL, "second");
+
+        List<String> records = new ArrayList<>();
+        storage.load(Table.USERS, Storage.GLOBAL, position, records::add);
+
+        assertEquals(List.of("second"), records, "Expected only the records after the position to be loaded");
+    }
+
+    @Test
+    void testLoadRangeReturnsOnlyTheRequestedRecords() {
+        storage.append(Table.GROUPS, Storage.GLOBAL, "first");
+        storage.append(Table.GROUPS, Storage.GLOBAL, "second");
+        storage.append(Table.GROUPS, Storage.GLOBAL, "third");
+
+        List<String> records = new ArrayList<>();
+        storage.loadRange(Table.GROUPS, Storage.GLOBAL, 1, 5,
+            record -> records.add(StandardCharsets.UTF_8.decode(record).toString()));
+
+        assertEquals(3, storage.count(Table.GROUPS, Storage.GLOBAL), "Expected every record to be counted");
+        assertEquals(List.of("second", "third"), records, "Expected the range to start at the first record");
+    }
+
+    @Test
+    void testReplaceBinaryKeepsOnlyTheNewRecords() {
+        storage.append(Table.GROUPS, Storage.GLOBAL, "old");
+        storage.replaceBinary(Table.GROUPS, Storage.GLOBAL, List.of("new".getBytes(StandardCharsets.UTF_8)));
+
+        List<String> records = new ArrayList<>();
+        storage.load(Table.GROUPS, Storage.GLOBAL, 0, records::add);
+
+        assertEquals(List.of("new"), records, "Expected the old records to be replaced");
+    }
+
+    @Test
+    void testDeleteRemovesOnlyTheOwnersTable() {
+        storage.append(Table.NEW_DEBTS, "first", "debt");
+        storage.append(Table.NEW_DEBTS, "second", "debt");
+        storage.delete(Table.NEW_DEBTS, "first");
+
+        List<String> records = new ArrayList<>();
+        storage.load(Table.NEW_DEBTS, "first", 0, records::add);
+
+        assertTrue(records.isEmpty(), "Expected the deleted table to be empty");
+        assertEquals(1, storage.position(Table.NEW_DEBTS, "second"), "Expected the other owner to keep the records");
+    }
+}
@@ -0,0 +1,193 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.storage;
+
+import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.ServerErrorException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TextFileStorageTest {
+    private static final String OWNER = "storageTest";
+    private static final Path TEXT_FILE = Path.of("groups.txt");
+    private static final Path BINARY_FILE = Path.of("storageTest_transaction_history.dat");
+    private static final Path LEGACY_FILE = Path.of("storageTest_transaction_history.txt");
+    private static final int RECORDS = 100;
+    private static final int LARGE_RECORD_BYTES = 100_000;
+    private final Storage storage = new TextFileStorage();
+
+    @BeforeEach
+    void setUp() throws ServerErrorException {
+        cleanUp();
+    }
+
+    @AfterEach
+    void cleanUp() throws ServerErrorException {
+        storage.delete(Table.GROUPS, Storage.GLOBAL);
+        storage.delete(Table.TRANSACTIONS, OWNER);
+    }
+
+    @Test
+    void testAppendWhenTableIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> storage.append(null, OWNER, "record"),
+            "Expected IllegalArgumentException to be thrown when the table is null");
+    }
+
+    @Test
+    void testAppendWritesALineToTheTableFile() throws ServerErrorException, IOException {
+        storage.append(Table.GROUPS, Storage.GLOBAL, "first");
+        storage.append(Table.GROUPS, Storage.GLOBAL, "second");
+        storage.flush();
+
+        assertEquals(List.of("first", "second"), Files.readAllLines(TEXT_FILE),
+            "Expected every record to be written on its own line");
+    }
+
+    @Test
+    void testLoadFromPositionSkipsTheEarlierRecords() throws ServerErrorException {
+        storage.append(Table.GROUPS, Storage.GLOBAL, "first");
+        long position = storage.position(Table.GROUPS, Storage.GLOBAL);
+        storage.append(Table.GROUPS, Storage.GLOBAL, "second");
+
+        List<String> records = new ArrayList<>();
+        storage.load(Table.GROUPS, Storage.GLOBAL, position, records::add);
+
+        assertEquals(List.of("second"), records, "Expected only the records after the position to be loaded");
+    }
+
+    @Test
+    void testLoadBinaryReturnsTheRecordsInOrder() throws ServerErrorException {
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {1, 2, 3});
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {});
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {4});
+
+        assertEquals(List.of(List.of(1, 2, 3), List.of(), List.of(4)), loadBinary(),
+            "Expected every binary record to be loaded whole and in order");
+    }
+
+    @Test
+    void testLoadBinaryReadsTheLegacyTextFileFirst() throws ServerErrorException, IOException {
+        Files.writeString(LEGACY_FILE, "AB\n");
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {1});
+
+        assertEquals(List.of(List.of((int) 'A', (int) 'B'), List.of(1)), loadBinary(),
+            "Expected the legacy lines to be loaded before the binary records");
+    }
+
+    @Test
+    void testLoadBinaryIgnoresATruncatedRecord() throws ServerErrorException, IOException {
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {1});
+        storage.flush();
+        Files.write(BINARY_FILE, new byte[] {5, 1}, StandardOpenOption.APPEND);
+
+        assertEquals(List.of(List.of(1)), loadBinary(), "Expected the partly written record to be skipped");
+    }
+
+    @Test
+    void testLoadRangeSeeksToTheRequestedRecords() throws ServerErrorException {
+        for (int i = 0; i < RECORDS; i++) {
+            storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {(byte) i});
+        }
+
+        assertEquals(RECORDS, storage.count(Table.TRANSACTIONS, OWNER), "Expected every record to be counted");
+        assertEquals(List.of(List.of(63), List.of(64), List.of(65)), loadRange(63, 3),
+            "Expected only the requested records to be loaded across an index point");
+        assertEquals(List.of(List.of(RECORDS - 1)), loadRange(RECORDS - 1, 10),
+            "Expected the range to stop at the last record");
+    }
+
+    @Test
+    void testLoadRangeReadsRecordsLargerThanTheReadBuffer() throws ServerErrorException {
+        for (byte i = 0; i < 3; i++) {
+            byte[] record = new byte[LARGE_RECORD_BYTES];
+            Arrays.fill(record, i);
+            storage.appendBinary(Table.TRANSACTIONS, OWNER, record);
+        }
+
+        List<ByteBuffer> records = new ArrayList<>();
+        storage.loadRange(Table.TRANSACTIONS, OWNER, 1, 2, record -> records.add(ByteBuffer.allocate(
+            record.remaining()).put(record).flip()));
+
+        assertEquals(2, records.size(), "Expected the two requested records to be loaded");
+        for (int i = 0; i < records.size(); i++) {
+            byte[] expected = new byte[LARGE_RECORD_BYTES];
+            Arrays.fill(expected, (byte) (i + 1));
+            assertEquals(ByteBuffer.wrap(expected), records.get(i), "Expected the whole record to be read");
+        }
+    }
+
+    @Test
+    void testLoadRangeKeepsTheIndexUpToDateAfterAppending() throws ServerErrorException {
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {1});
+        assertEquals(1, storage.count(Table.TRANSACTIONS, OWNER), "Expected the index to be built");
+
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {2, 3});
+
+        assertEquals(2, storage.count(Table.TRANSACTIONS, OWNER), "Expected the appended record to be counted");
+        assertEquals(List.of(List.of(2, 3)), loadRange(1, 1), "Expected the appended record to be loaded");
+    }
+
+    @Test
+    void testLoadRangeCountsTheLegacyLinesFirst() throws ServerErrorException, IOException {
+        Files.writeString(LEGACY_FILE, "A\nB\n");
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {1});
+
+        assertEquals(3, storage.count(Table.TRANSACTIONS, OWNER), "Expected the legacy lines to be counted");
+        assertEquals(List.of(List.of((int) 'B'), List.of(1)), loadRange(1, 2),
+            "Expected the range to continue from the legacy lines into the binary records");
+    }
+
+    @Test
+    void testReplaceBinaryKeepsOnlyTheNewRecords() throws ServerErrorException {
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, new byte[] {1});
+        assertEquals(1, storage.count(Table.TRANSACTIONS, OWNER), "Expected the index to be built");
+
+        storage.replaceBinary(Table.TRANSACTIONS, OWNER, List.of(new byte[] {2}, new byte[] {3, 4}));
+
+        assertEquals(List.of(List.of(2), List.of(3, 4)), loadBinary(), "Expected the old records to be replaced");
+        assertEquals(List.of(List.of(3, 4)), loadRange(1, 1), "Expected the index to be rebuilt after replacing");
+        assertFalse(Files.exists(Path.of(BINARY_FILE + ".tmp")), "Expected the temporary file to be renamed");
+    }
+
+    @Test
+    void testDeleteRemovesTheFiles() throws ServerErrorException, IOException {
+        Files.writeString(LEGACY_FILE, "line\n");
+        storage.appendBinary(Table.TRANSACTIONS, OWNER, "first".getBytes(StandardCharsets.UTF_8));
+        storage.delete(Table.TRANSACTIONS, OWNER);
+
+        assertFalse(Files.exists(BINARY_FILE), "Expected the file of the table to be deleted");
+        assertFalse(Files.exists(LEGACY_FILE), "Expected the legacy file of the table to be deleted");
+    }
+
+    private List<List<Integer>> loadBinary() throws ServerErrorException {
+        List<List<Integer>> records = new ArrayList<>();
+        storage.loadBinary(Table.TRANSACTIONS, OWNER, 0, record -> records.add(toList(record)));
+        return records;
+    }
+
+    private List<List<Integer>> loadRange(long first, int limit) throws ServerErrorException {
+        List<List<Integer>> records = new ArrayList<>();
+        storage.loadRange(Table.TRANSACTIONS, OWNER, first, limit, record -> records.add(toList(record)));
+        return records;
+    }
+
+    private List<Integer> toList(ByteBuffer record) {
+        List<Integer> bytes = new ArrayList<>();
+        while (record.hasRemaining()) {
+            bytes.add((int) record.get());
+        }
+        return bytes;
+    }
+}
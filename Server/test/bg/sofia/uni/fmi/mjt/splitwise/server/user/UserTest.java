@@ -18,7 +18,7 @@ import static org.mockito.Mockito.verify;
 public class UserTest {
     private static final User debtor = new User("Debtor", "DebtorName", "DebtorFamily");
     private static final User creditor = new User("Creditor", "CreditorName", "CreditorFamily");
-    private static final DebtRecord debt = new DebtRecord(debtor, creditor, 10, "reason");
+    private static final DebtRecord debt = new DebtRecord(debtor, creditor, 1000, "reason");
     private static NotificationCenter notificationCenter = mock(NotificationCenter.class);
     private static User user = new User("testUsername", "testName", "testName");
 
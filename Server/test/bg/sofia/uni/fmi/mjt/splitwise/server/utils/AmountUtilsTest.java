@@ -3,8 +3,11 @@ package bg.sofia.uni.fmi.mjt.splitwise.server.utils;
 import bg.sofia.uni.fmi.mjt.splitwise.server.exceptions.InvalidAmountException;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 public class AmountUtilsTest {
     @Test
@@ -20,11 +23,61 @@ public class AmountUtilsTest {
     }
 
     @Test
-    void testCheckAmountReturnsDouble() throws InvalidAmountException {
-        double expectedResult = 15;
-        double returnedResult = AmountUtils.checkAmount("15");
+    void testCheckAmountReturnsCents() throws InvalidAmountException {
+        assertEquals(1500, AmountUtils.checkAmount("15"), "Expected 15 to be returned as 1500 cents");
+        assertEquals(1234, AmountUtils.checkAmount("12.34"), "Expected 12.34 to be returned as 1234 cents");
+    }
+
+    @Test
+    void testCheckAmountRoundsToCents() throws InvalidAmountException {
+        assertEquals(1, AmountUtils.checkAmount("0.005"), "Expected half a cent to be rounded up");
+        assertEquals(10, AmountUtils.checkAmount("0.104"), "Expected fractions of a cent below half to be dropped");
+    }
+
+    @Test
+    void testCheckAmountWhenTooLarge() {
+        assertThrows(InvalidAmountException.class, () -> AmountUtils.checkAmount("1e30"),
+            "Expected InvalidAmountException when the amount doesn't fit in cents");
+    }
+
+    @Test
+    void testCheckAmountWhenExponentIsHuge() {
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertThrows(InvalidAmountException.class,
+            () -> AmountUtils.checkAmount("1e30000000"),
+            "Expected InvalidAmountException when the exponent makes the amount too large"),
+            "Expected an amount with a huge exponent to be rejected without scaling it");
+    }
+
+    @Test
+    void testCheckAmountWhenNegativeExponentIsHuge() throws InvalidAmountException {
+        assertEquals(0, AmountUtils.checkAmount("1e-30000000"),
+            "Expected an amount far below a cent to be rounded to zero");
+    }
+
+    @Test
+    void testToTextKeepsTheFileFormat() {
+        assertEquals("10.0", AmountUtils.toText(1000), "Expected whole amounts to keep one decimal");
+        assertEquals("12.3", AmountUtils.toText(1230), "Expected trailing zero cents to be dropped");
+        assertEquals("0.05", AmountUtils.toText(5), "Expected single cents to be padded");
+        assertEquals("-0.5", AmountUtils.toText(-50), "Expected negative amounts to keep their sign");
+    }
 
-        assertEquals(expectedResult, returnedResult, "Expected a double of 15 to be returned but it was not");
+    @Test
+    void testShareDistributesTheRemainder() {
+        long total = 0;
+        for (int i = 0; i < 3; i++) {
+            total += AmountUtils.share(1000, 3, i);
+        }
+
+        assertEquals(334, AmountUtils.share(1000, 3, 0), "Expected the first part to take the remaining cent");
+        assertEquals(333, AmountUtils.share(1000, 3, 2), "Expected the last part to be the plain quotient");
+        assertEquals(1000, total, "Expected the parts to add up to the whole amount");
+    }
+
+    @Test
+    void testShareWhenIndexIsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> AmountUtils.share(1000, 3, 3),
+            "Expected IllegalArgumentException when the index is not a valid part");
     }
 }
 
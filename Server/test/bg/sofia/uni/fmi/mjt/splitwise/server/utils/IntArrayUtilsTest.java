@@ -0,0 +1,56 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntArrayUtilsTest {
+    @Test
+    void testInsertKeepsTheArraySorted() {
+        int[] array = IntArrayUtils.EMPTY;
+        for (int value : new int[] {5, 1, 3, 9, 0}) {
+            array = IntArrayUtils.insert(array, value);
+        }
+
+        assertArrayEquals(new int[] {0, 1, 3, 5, 9}, array, "Expected the values to be inserted in order");
+    }
+
+    @Test
+    void testInsertWhenValueIsPresent() {
+        int[] array = {1, 2, 3};
+
+        assertSame(array, IntArrayUtils.insert(array, 2), "Expected the same array when the value is present");
+    }
+
+    @Test
+    void testInsertWhenArrayIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> IntArrayUtils.insert(null, 1),
+            "Expected IllegalArgumentException to be thrown when the array is null");
+    }
+
+    @Test
+    void testContains() {
+        int[] array = {1, 4, 7};
+
+        assertTrue(IntArrayUtils.contains(array, 4), "Expected the present value to be found");
+        assertFalse(IntArrayUtils.contains(array, 5), "Expected the missing value not to be found");
+    }
+
+    @Test
+    void testIntersect() {
+        assertArrayEquals(new int[] {2, 7}, IntArrayUtils.intersect(new int[] {1, 2, 5, 7}, new int[] {2, 3, 7, 8}),
+            "Expected only the common values to be returned");
+        assertArrayEquals(IntArrayUtils.EMPTY, IntArrayUtils.intersect(new int[] {1}, IntArrayUtils.EMPTY),
+            "Expected an empty array when there are no common values");
+    }
+
+    @Test
+    void testUnion() {
+        assertArrayEquals(new int[] {1, 2, 3, 5, 7, 8},
+            IntArrayUtils.union(new int[] {1, 2, 5, 7}, new int[] {2, 3, 8}), "Expected the values of both arrays without duplicates");
+    }
+}
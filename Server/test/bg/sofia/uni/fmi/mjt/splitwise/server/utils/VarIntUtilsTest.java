@@ -0,0 +1,54 @@
+package bg.sofia.uni.fmi.mjt.splitwise.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class VarIntUtilsTest {
+    private static final long[] VALUES = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1};
+
+    @Test
+    void testPutAndGetVarLongRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(VALUES.length * 10);
+        for (long value : VALUES) {
+            VarIntUtils.putVarLong(buffer, value);
+        }
+        buffer.flip();
+
+        for (long value : VALUES) {
+            assertEquals(value, VarIntUtils.getVarLong(buffer), "Expected the written number to be read back");
+        }
+    }
+
+    @Test
+    void testSizeOfVarLongMatchesTheWrittenBytes() {
+        for (long value : VALUES) {
+            ByteBuffer buffer = ByteBuffer.allocate(10);
+            VarIntUtils.putVarLong(buffer, value);
+
+            assertEquals(buffer.position(), VarIntUtils.sizeOfVarLong(value),
+                "Expected the size to match the written bytes of " + value);
+        }
+    }
+
+    @Test
+    void testGetVarLongWhenNumberIsTooLong() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1});
+
+        assertThrows(IllegalArgumentException.class, () -> VarIntUtils.getVarLong(buffer),
+            "Expected IllegalArgumentException to be thrown when the number is longer than ten bytes");
+    }
+
+    @Test
+    void testGetVarIntWhenNumberDoesNotFitInAnInt() {
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        VarIntUtils.putVarLong(buffer, Long.MAX_VALUE);
+        buffer.flip();
+
+        assertThrows(IllegalArgumentException.class, () -> VarIntUtils.getVarInt(buffer),
+            "Expected IllegalArgumentException to be thrown when the number does not fit in an int");
+    }
+}
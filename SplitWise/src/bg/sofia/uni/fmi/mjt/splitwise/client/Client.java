@@ -1,5 +1,6 @@
 package bg.sofia.uni.fmi.mjt.splitwise.client;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
@@ -10,12 +11,16 @@ import java.util.Scanner;
 public class Client {
     private static final int SERVER_PORT = 3333;
     private static final String SERVER_HOST = "localhost";
-    private static final int BUFFER_SIZE = 512;
+    private static final int HEADER_SIZE = Integer.BYTES;
     private static final String ERROR_MESSAGE =
         "The server is shutdown. Try again later or contact administrator by providing the logs in logs_file.txt";
     private static final String QUIT_MESSAGE = "quit";
     private static final String GOODBYE_MESSAGE = "Goodbye!";
-    private static ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private static final String NEW_LINE = "\n";
+    private static final String READER_THREAD_NAME = "server-reader";
+    private static final int EVENT_FLAG = Integer.MIN_VALUE;
+    private static final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private static volatile boolean isQuitting;
 
     public static void main(String[] args) {
 
@@ -24,15 +29,9 @@ public class Client {
 
             socketChannel.connect(new InetSocketAddress(SERVER_HOST, SERVER_PORT));
 
-            buffer.clear();
-            socketChannel.read(buffer);
-            buffer.flip();
-
-            byte[] byteArray = new byte[buffer.remaining()];
-            buffer.get(byteArray);
-            String reply = new String(byteArray, StandardCharsets.UTF_8);
-
-            System.out.println(reply);
+            Thread reader = new Thread(() -> readFrames(socketChannel), READER_THREAD_NAME);
+            reader.setDaemon(true);
+            reader.start();
 
             boolean isConnected = true;
 
@@ -49,24 +48,48 @@ public class Client {
         String message = scanner.nextLine();
 
         if (QUIT_MESSAGE.equals(message)) {
+            isQuitting = true;
             System.out.println(GOODBYE_MESSAGE);
             return false;
         }
 
-        buffer.clear();
-        buffer.put(message.getBytes());
-        buffer.flip();
-        socketChannel.write(buffer);
+        ByteBuffer request = ByteBuffer.wrap((message + NEW_LINE).getBytes(StandardCharsets.UTF_8));
+        while (request.hasRemaining()) {
+            socketChannel.write(request);
+        }
 
-        buffer.clear();
-        socketChannel.read(buffer);
-        buffer.flip();
+        return true;
+    }
 
-        byte[] byteArray = new byte[buffer.remaining()];
-        buffer.get(byteArray);
-        String reply = new String(byteArray, StandardCharsets.UTF_8);
+    private static void readFrames(SocketChannel socketChannel) {
+        try {
+            while (!isQuitting) {
+                System.out.println(readFrame(socketChannel));
+            }
+        } catch (IOException e) {
+            if (!isQuitting) {
+                System.out.println(ERROR_MESSAGE);
+            }
+        }
+    }
 
-        System.out.println(reply);
-        return true;
+    private static String readFrame(SocketChannel socketChannel) throws IOException {
+        header.clear();
+        readFully(socketChannel, header);
+        header.flip();
+
+        ByteBuffer payload = ByteBuffer.allocate(header.getInt() & ~EVENT_FLAG);
+        readFully(socketChannel, payload);
+        payload.flip();
+
+        return StandardCharsets.UTF_8.decode(payload).toString();
+    }
+
+    private static void readFully(SocketChannel socketChannel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (socketChannel.read(buffer) < 0) {
+                throw new EOFException("The server closed the connection");
+            }
+        }
     }
 }